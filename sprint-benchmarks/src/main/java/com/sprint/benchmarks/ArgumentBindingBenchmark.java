@@ -0,0 +1,110 @@
+package com.sprint.benchmarks;
+
+import com.sprint.annotation.RequestParam;
+import com.sprint.annotation.Test;
+import com.sprint.benchmarks.model.Person;
+import com.sprint.mock.MockHttpServletRequest;
+import com.sprint.mock.MockHttpServletResponse;
+import com.sprint.mock.MockPart;
+import com.sprint.model.MultipartFile;
+import com.sprint.servlet.FrontServlet;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Extraction des arguments d'une méthode de contrôleur (FrontServlet.extraireArguments) :
+ * paramètres de formulaire, paramètre de chemin, entité liée, requête multipart avec fichier
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArgumentBindingBenchmark {
+
+    private FrontServlet servlet;
+    private Method form;
+    private Method path;
+    private Method entity;
+    private Method multipart;
+    private MockHttpServletRequest formRequest;
+    private MockHttpServletRequest multipartRequest;
+    private MockHttpServletResponse response;
+
+    public void form(@RequestParam("name") String name, @RequestParam("age") int age, boolean active, double score) {
+    }
+
+    @Test("/items/{id}")
+    public void path(@RequestParam("id") long id, @RequestParam(value = "sort", required = false) String sort) {
+    }
+
+    public void entity(Person person) {
+    }
+
+    public void multipart(@RequestParam("title") String title, MultipartFile file) {
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        Internals.silenceConsole();
+        servlet = new FrontServlet();
+        form = trouver("form");
+        path = trouver("path");
+        entity = trouver("entity");
+        multipart = trouver("multipart");
+
+        formRequest = new MockHttpServletRequest()
+                .setParameter("name", "Rakoto")
+                .setParameter("email", "rakoto@example.com")
+                .setParameter("age", "34")
+                .setParameter("score", "17.5")
+                .setParameter("active", "true")
+                .setParameter("sort", "desc");
+        byte[] content = new byte[16 * 1024];
+        Arrays.fill(content, (byte) 'x');
+        multipartRequest = new MockHttpServletRequest()
+                .addPart(MockPart.text("title", "Rapport annuel"))
+                .addPart(MockPart.file("file", "rapport.pdf", "application/octet-stream", content));
+        response = new MockHttpServletResponse();
+    }
+
+    private static Method trouver(String name) {
+        return Arrays.stream(ArgumentBindingBenchmark.class.getMethods())
+                .filter(method -> method.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Benchmark
+    public Object[] formParameters() throws Throwable {
+        return Internals.extraireArguments(servlet, form, "/form", formRequest.recycle(), response);
+    }
+
+    @Benchmark
+    public Object[] pathParameter() throws Throwable {
+        return Internals.extraireArguments(servlet, path, "/items/42", formRequest.recycle(), response);
+    }
+
+    @Benchmark
+    public Object[] entityParameter() throws Throwable {
+        return Internals.extraireArguments(servlet, entity, "/entity", formRequest.recycle(), response);
+    }
+
+    @Benchmark
+    public Object[] multipartParameters() throws Throwable {
+        return Internals.extraireArguments(servlet, multipart, "/upload", multipartRequest.recycle(),
+                response);
+    }
+}
@@ -0,0 +1,93 @@
+package com.sprint.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compare un résultat JMH (JSON) à la référence enregistrée
+ *
+ * Usage : BaselineComparator reference.json resultat.json [seuil en %, 10 par défaut]
+ * Pour chaque benchmark présent dans les deux fichiers (même paramètres), affiche le score,
+ * l'écart et l'allocation par opération ; code de sortie 1 si un benchmark régresse au-delà du seuil.
+ * Les scores ne se comparent qu'entre mesures faites sur la même machine.
+ */
+public final class BaselineComparator {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator reference.json resultat.json [seuil%]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        Map<String, JsonNode> baseline = lire(new File(args[0]));
+        Map<String, JsonNode> current = lire(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s %12s%n", "Benchmark", "Référence", "Actuel", "Écart", "B/op");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            double score = after.at("/primaryMetric/score").asDouble();
+            String unit = after.at("/primaryMetric/scoreUnit").asText();
+            String allocation = allocation(after);
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s %12s  (nouveau, %s)%n",
+                        entry.getKey(), "-", score, "-", allocation, unit);
+                continue;
+            }
+            double reference = before.at("/primaryMetric/score").asDouble();
+            double change = reference != 0 ? (score - reference) * 100 / reference : 0;
+            // Débit : plus haut est meilleur ; temps : plus bas est meilleur
+            boolean throughput = unit.startsWith("ops/");
+            double regression = throughput ? -change : change;
+            boolean regressed = regression > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%% %12s %s%n", entry.getKey(), reference, score, change,
+                    allocation, regressed ? "RÉGRESSION" : "");
+        }
+        System.out.println(regressions == 0
+                ? "Aucune régression au-delà de " + threshold + " %"
+                : regressions + " régression(s) au-delà de " + threshold + " %");
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    /**
+     * Résultats indexés par nom de benchmark et paramètres
+     */
+    private static Map<String, JsonNode> lire(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : MAPPER.readTree(file)) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText()
+                    .replace("com.sprint.benchmarks.", ""));
+            JsonNode params = result.get("params");
+            if (params != null) {
+                for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> param = it.next();
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+                }
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static String allocation(JsonNode result) {
+        JsonNode allocation = result.at("/secondaryMetrics/·gc.alloc.rate.norm/score");
+        if (allocation.isMissingNode()) {
+            allocation = result.at("/secondaryMetrics/gc.alloc.rate.norm/score");
+        }
+        return allocation.isMissingNode() ? "-" : String.format("%.1f", allocation.asDouble());
+    }
+}
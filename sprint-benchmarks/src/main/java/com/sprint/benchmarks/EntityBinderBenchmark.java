@@ -0,0 +1,61 @@
+package com.sprint.benchmarks;
+
+import com.sprint.benchmarks.model.Person;
+import com.sprint.mock.MockHttpServletRequest;
+import com.sprint.mock.MockPart;
+import com.sprint.util.EntityBinder;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Liaison d'une entité (EntityBinder.bindEntity) depuis un formulaire et depuis une requête multipart
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityBinderBenchmark {
+
+    private MockHttpServletRequest form;
+    private MockHttpServletRequest multipart;
+
+    @Setup
+    public void setup() {
+        Internals.silenceConsole();
+        form = new MockHttpServletRequest()
+                .setParameter("name", "Rakoto")
+                .setParameter("email", "rakoto@example.com")
+                .setParameter("age", "34")
+                .setParameter("score", "17.5")
+                .setParameter("active", "true");
+        byte[] avatar = new byte[4 * 1024];
+        Arrays.fill(avatar, (byte) 1);
+        multipart = new MockHttpServletRequest()
+                .addPart(MockPart.text("name", "Rakoto"))
+                .addPart(MockPart.text("email", "rakoto@example.com"))
+                .addPart(MockPart.text("age", "34"))
+                .addPart(MockPart.file("avatar", "avatar.png", "application/octet-stream", avatar));
+    }
+
+    @Benchmark
+    public Object bindForm() throws Exception {
+        return EntityBinder.bindEntity(form, Person.class);
+    }
+
+    @Benchmark
+    public Object bindMultipart() throws Exception {
+        return EntityBinder.bindEntity(multipart, Person.class);
+    }
+}
@@ -0,0 +1,119 @@
+package com.sprint.benchmarks;
+
+import com.sprint.annotation.RestController;
+import com.sprint.metrics.MetricsRegistry;
+import com.sprint.metrics.RequestTimer;
+import com.sprint.metrics.RouteMetrics;
+import com.sprint.security.SecurityPolicy;
+import com.sprint.servlet.FrontServlet;
+import com.sprint.util.PathPattern;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Accès aux étapes privées de FrontServlet (recherche de route, extraction des arguments,
+ * écriture JSON) : les benchmarks mesurent le code réel plutôt qu'une copie
+ */
+final class Internals {
+
+    private static final MethodHandle TROUVER_METHODE;
+    private static final MethodHandle EXTRAIRE_ARGUMENTS;
+    private static final MethodHandle SEND_JSON_RESPONSE;
+    private static final MethodHandle ROUTE_MAP;
+    private static final MethodHandle PATH_PATTERNS;
+    private static final MethodHandle CONTROLLER_INSTANCES;
+    private static final MethodHandle SECURITY_POLICIES;
+    private static final MethodHandle REST_CONTROLLER_CACHE;
+    private static final MethodHandle ROUTE_METRICS;
+    private static final MethodHandle METRICS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(FrontServlet.class, MethodHandles.lookup());
+            TROUVER_METHODE = lookup.findVirtual(FrontServlet.class, "trouverMethode",
+                    MethodType.methodType(Method.class, String.class, String.class));
+            EXTRAIRE_ARGUMENTS = lookup.findVirtual(FrontServlet.class, "extraireArguments",
+                    MethodType.methodType(Object[].class, Method.class, String.class,
+                            HttpServletRequest.class, HttpServletResponse.class));
+            SEND_JSON_RESPONSE = lookup.findVirtual(FrontServlet.class, "sendJsonResponse",
+                    MethodType.methodType(void.class, Object.class, HttpServletResponse.class, RequestTimer.class));
+            ROUTE_MAP = lookup.findGetter(FrontServlet.class, "routeMap", Map.class);
+            PATH_PATTERNS = lookup.findGetter(FrontServlet.class, "pathPatterns", Map.class);
+            CONTROLLER_INSTANCES = lookup.findGetter(FrontServlet.class, "controllerInstances", Map.class);
+            SECURITY_POLICIES = lookup.findGetter(FrontServlet.class, "securityPolicies", Map.class);
+            REST_CONTROLLER_CACHE = lookup.findGetter(FrontServlet.class, "restControllerCache", Map.class);
+            ROUTE_METRICS = lookup.findGetter(FrontServlet.class, "routeMetrics", Map.class);
+            METRICS = lookup.findGetter(FrontServlet.class, "metrics", MetricsRegistry.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Internals() {
+    }
+
+    static Method trouverMethode(FrontServlet servlet, String path) throws Throwable {
+        return (Method) TROUVER_METHODE.invokeExact(servlet, "GET", path);
+    }
+
+    static Object[] extraireArguments(FrontServlet servlet, Method method, String path,
+                                      HttpServletRequest req, HttpServletResponse resp) throws Throwable {
+        return (Object[]) EXTRAIRE_ARGUMENTS.invokeExact(servlet, method, path, req, resp);
+    }
+
+    static void sendJsonResponse(FrontServlet servlet, Object result, HttpServletResponse resp) throws Throwable {
+        SEND_JSON_RESPONSE.invokeExact(servlet, result, resp, (RequestTimer) null);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> routeMap(FrontServlet servlet) throws Throwable {
+        return (Map<String, Object>) ROUTE_MAP.invokeExact(servlet);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> pathPatterns(FrontServlet servlet) throws Throwable {
+        return (Map<String, Object>) PATH_PATTERNS.invokeExact(servlet);
+    }
+
+    /**
+     * Enregistre une route comme FrontServlet.initialiserRoutes (le scan de com.sprint.controller
+     * ne parcourt que des répertoires, pas le JAR des benchmarks)
+     * @param key clé de routage, par exemple "GET:/api/users/{id}"
+     */
+    @SuppressWarnings("unchecked")
+    static void enregistrerRoute(FrontServlet servlet, String key, Method method, Object controller) throws Throwable {
+        routeMap(servlet).put(key, method);
+        ((Map<Method, Object>) CONTROLLER_INSTANCES.invokeExact(servlet)).put(method, controller);
+        ((Map<Method, SecurityPolicy>) SECURITY_POLICIES.invokeExact(servlet)).put(method, SecurityPolicy.compile(method));
+        ((Map<Class<?>, Boolean>) REST_CONTROLLER_CACHE.invokeExact(servlet))
+                .put(controller.getClass(), controller.getClass().isAnnotationPresent(RestController.class));
+        if (key.contains("{")) {
+            pathPatterns(servlet).put(key, new PathPattern(key.substring(key.indexOf(':') + 1)));
+        }
+        MetricsRegistry metrics = metrics(servlet);
+        if (metrics != null) {
+            ((Map<Method, RouteMetrics>) ROUTE_METRICS.invokeExact(servlet)).put(method, metrics.register(key));
+        }
+    }
+
+    /**
+     * Mesures par route du servlet, null si sprint.metrics.enabled=false
+     */
+    static MetricsRegistry metrics(FrontServlet servlet) throws Throwable {
+        return (MetricsRegistry) METRICS.invokeExact(servlet);
+    }
+
+    /**
+     * Les traces de débogage du framework sont formatées (coût réel) mais pas écrites sur la console
+     */
+    static void silenceConsole() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+}
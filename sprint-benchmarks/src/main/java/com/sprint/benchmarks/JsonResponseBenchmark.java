@@ -0,0 +1,71 @@
+package com.sprint.benchmarks;
+
+import com.sprint.mock.MockHttpServletResponse;
+import com.sprint.model.JsonResponse;
+import com.sprint.servlet.FrontServlet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Écriture d'une réponse JSON (FrontServlet.sendJsonResponse) : JsonResponse construite par le
+ * contrôleur, et objet quelconque encapsulé par le framework
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonResponseBenchmark {
+
+    private FrontServlet servlet;
+    private MockHttpServletResponse response;
+    private JsonResponse small;
+    private List<Map<String, Object>> list;
+
+    @Setup
+    public void setup() {
+        servlet = new FrontServlet();
+        response = new MockHttpServletResponse();
+        response.setDiscardContent(true);
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("id", 42);
+        user.put("name", "Rakoto");
+        user.put("roles", List.of("USER", "MODERATOR"));
+        small = JsonResponse.success(user);
+        list = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", i);
+            item.put("title", "Article " + i);
+            item.put("price", i * 1.5);
+            item.put("available", i % 2 == 0);
+            list.add(item);
+        }
+    }
+
+    @Benchmark
+    public long jsonResponse() throws Throwable {
+        Internals.sendJsonResponse(servlet, small, response.recycle());
+        return response.getWrittenCount();
+    }
+
+    @Benchmark
+    public long wrappedList() throws Throwable {
+        Internals.sendJsonResponse(servlet, list, response.recycle());
+        return response.getWrittenCount();
+    }
+}
@@ -0,0 +1,78 @@
+package com.sprint.benchmarks;
+
+import com.sprint.log.AsyncAppender;
+import com.sprint.log.Level;
+import com.sprint.log.Logger;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coût du journal côté thread de requête : message DEBUG sous le seuil (objectif : une comparaison,
+ * 0 octet alloué), message INFO retenu vers une destination vide, seul ou à 4 threads, et pour
+ * comparaison l'ancienne trace System.out.println (concaténation et verrou du PrintStream)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final Logger LOG = Logger.getLogger(LoggingBenchmark.class);
+
+    private final Object entity = new Object() {
+        @Override
+        public String toString() {
+            return "User{id=42, name='Alice'}";
+        }
+    };
+    private PrintStream console;
+
+    @Setup
+    public void setup() {
+        Logger.configure(Level.INFO, Map.of());
+        Logger.setAppender(new AsyncAppender(line -> { }, Logger.DEFAULT_CAPACITY));
+        console = new PrintStream(OutputStream.nullOutputStream());
+    }
+
+    @TearDown
+    public void tearDown() {
+        Logger.shutdown();
+    }
+
+    @Benchmark
+    public void debugDisabled() {
+        LOG.debug("Entity bindée: {}", entity);
+    }
+
+    @Benchmark
+    public void infoEnabled() {
+        LOG.info("Entity bindée: {}", entity);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void infoEnabledContended() {
+        infoEnabled();
+    }
+
+    @Benchmark
+    public void printlnBaseline() {
+        console.println("🔍 Entity bindée: " + entity);
+    }
+}
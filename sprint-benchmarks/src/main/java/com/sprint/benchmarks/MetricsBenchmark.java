@@ -0,0 +1,131 @@
+package com.sprint.benchmarks;
+
+import com.sprint.annotation.Get;
+import com.sprint.annotation.RestController;
+import com.sprint.metrics.MetricsRegistry;
+import com.sprint.metrics.RouteMetrics;
+import com.sprint.mock.MockHttpServletRequest;
+import com.sprint.mock.MockHttpServletResponse;
+import com.sprint.mock.MockServletConfig;
+import com.sprint.mock.MockServletContext;
+import com.sprint.model.JsonResponse;
+import com.sprint.security.SecurityInterceptor;
+import com.sprint.servlet.FrontServlet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coût des mesures par route : enregistrement seul (objectif : moins de 100 ns), enregistrement
+ * concurrent sur la même route, même requête JSON avec et sans mesures (la différence est le coût
+ * complet : horloge, réponse compteuse d'octets, enregistrement), rendu Prometheus de 100 routes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    @RestController
+    public static class Api {
+
+        @Get("/api/ping")
+        public JsonResponse ping() {
+            return JsonResponse.success("pong");
+        }
+    }
+
+    private RouteMetrics route;
+    private MetricsRegistry registry;
+    private FrontServlet instrumented;
+    private FrontServlet plain;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    /**
+     * Compteur propre à chaque thread, pour varier les durées enregistrées sans partage
+     */
+    @State(Scope.Thread)
+    public static class Tick {
+        long value;
+    }
+
+    @Setup
+    public void setup() throws Throwable {
+        Internals.silenceConsole();
+        registry = new MetricsRegistry("/metrics");
+        route = registry.register("GET:/api/users/{id}");
+        for (int i = 0; i < 100; i++) {
+            RouteMetrics other = registry.register("GET:/api/resource" + i + "/{id}");
+            for (int j = 0; j < 1000; j++) {
+                other.record(1000L * (j + 1), 200, 512, false);
+            }
+        }
+
+        MockServletContext context = new MockServletContext();
+        instrumented = servlet(context, true);
+        plain = servlet(context, false);
+        SecurityInterceptor.disableAudit();
+        request = new MockHttpServletRequest(context).setRequestURI("/api/ping");
+        response = new MockHttpServletResponse();
+        response.setDiscardContent(true);
+    }
+
+    private static FrontServlet servlet(MockServletContext context, boolean metrics) throws Throwable {
+        MockServletConfig config = new MockServletConfig(context);
+        config.setInitParameter("sprint.metrics.enabled", String.valueOf(metrics));
+        FrontServlet servlet = new FrontServlet();
+        servlet.init(config);
+        Internals.enregistrerRoute(servlet, "GET:/api/ping", Api.class.getMethod("ping"), new Api());
+        return servlet;
+    }
+
+    @TearDown
+    public void tearDown() {
+        instrumented.destroy();
+        plain.destroy();
+    }
+
+    @Benchmark
+    public void record(Tick tick) {
+        // Durées variées : l'indice de l'histogramme n'est pas constant
+        route.record(150_000 + (tick.value++ & 0xFFFF) * 31, 200, 512, false);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended(Tick tick) {
+        record(tick);
+    }
+
+    @Benchmark
+    public int requestWithMetrics() throws Exception {
+        instrumented.service(request.recycle(), response.recycle());
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int requestWithoutMetrics() throws Exception {
+        plain.service(request.recycle(), response.recycle());
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int scrape() {
+        StringBuilder out = new StringBuilder(64 * 1024);
+        registry.writePrometheus(out);
+        return out.length();
+    }
+}
@@ -0,0 +1,64 @@
+package com.sprint.benchmarks;
+
+import com.sprint.model.UserSession;
+import com.sprint.security.PermissionRegistry;
+import com.sprint.security.Role;
+import com.sprint.security.RoleManager;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Vérification de permission : masque précalculé (identifiant ou nom) contre l'ancien parcours
+ * des noms de rôles par stream (Role.fromString puis List.contains), reproduit ici pour comparaison
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermissionCheckBenchmark {
+
+    private static final String PERMISSION = "SYSTEM_CONFIG";
+
+    private UserSession user;
+    private List<String> roleNames;
+    private int permissionId;
+
+    @Setup
+    public void setup() {
+        user = new UserSession("1", "moderateur", null);
+        user.authenticate(List.of("USER", "MODERATOR", "ADMIN"));
+        roleNames = user.getRoles();
+        permissionId = PermissionRegistry.find(PERMISSION);
+    }
+
+    @Benchmark
+    public boolean maskById() {
+        return RoleManager.hasPermission(user, permissionId);
+    }
+
+    @Benchmark
+    public boolean maskByName() {
+        return RoleManager.hasPermission(user, PERMISSION);
+    }
+
+    @Benchmark
+    public boolean streamOverRoles() {
+        return roleNames.stream()
+                .map(Role::fromString)
+                .filter(Objects::nonNull)
+                .anyMatch(role -> role.getPermissions().contains(PERMISSION));
+    }
+}
@@ -0,0 +1,147 @@
+package com.sprint.benchmarks;
+
+import com.sprint.annotation.Get;
+import com.sprint.annotation.RequestParam;
+import com.sprint.annotation.RequireRole;
+import com.sprint.annotation.RestController;
+import com.sprint.annotation.Test;
+import com.sprint.mock.MockHttpServletRequest;
+import com.sprint.mock.MockHttpServletResponse;
+import com.sprint.mock.MockServletConfig;
+import com.sprint.mock.MockServletContext;
+import com.sprint.model.JsonResponse;
+import com.sprint.model.ModelView;
+import com.sprint.model.UserSession;
+import com.sprint.security.Role;
+import com.sprint.security.SecurityInterceptor;
+import com.sprint.servlet.FrontServlet;
+import com.sprint.util.SessionManager;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Requête complète à travers FrontServlet.service (doublures com.sprint.mock, sans conteneur) :
+ * route REST publique, route à paramètre réservée à un utilisateur connecté, vue JSP (forward
+ * enregistré), route inconnue (404). Requête et réponse sont recyclées d'une invocation à l'autre
+ * et le corps n'est pas conservé : la mesure est celle du pipeline, pas des doublures.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PipelineBenchmark {
+
+    @RestController
+    public static class Api {
+
+        @Get("/api/ping")
+        public JsonResponse ping() {
+            return JsonResponse.success("pong");
+        }
+
+        @Test(value = "/api/users/{id}", method = "GET") // Paramètres de chemin lus depuis @Test
+        @RequireRole(Role.USER)
+        public Map<String, Object> user(@RequestParam("id") long id) {
+            Map<String, Object> user = new LinkedHashMap<>();
+            user.put("id", id);
+            user.put("name", "Rakoto");
+            user.put("email", "rakoto@example.com");
+            return user;
+        }
+    }
+
+    public static class Pages {
+
+        @Get("/dashboard")
+        public ModelView dashboard() {
+            return new ModelView("dashboard").addObject("title", "Tableau de bord");
+        }
+    }
+
+    private FrontServlet servlet;
+    private MockHttpServletRequest ping;
+    private MockHttpServletRequest user;
+    private MockHttpServletRequest page;
+    private MockHttpServletRequest missing;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() throws Throwable {
+        Internals.silenceConsole();
+        MockServletContext context = new MockServletContext();
+        servlet = new FrontServlet();
+        servlet.init(new MockServletConfig(context));
+        SecurityInterceptor.disableAudit();
+
+        Api api = new Api();
+        Pages pages = new Pages();
+        Internals.enregistrerRoute(servlet, "GET:/api/ping", Api.class.getMethod("ping"), api);
+        Internals.enregistrerRoute(servlet, "GET:/api/users/{id}", Api.class.getMethod("user", long.class), api);
+        Internals.enregistrerRoute(servlet, "GET:/dashboard", Pages.class.getMethod("dashboard"), pages);
+
+        // Session authentifiée, retrouvée par son cookie à chaque requête
+        MockHttpServletRequest login = new MockHttpServletRequest(context);
+        MockHttpServletResponse loginResponse = new MockHttpServletResponse();
+        SessionManager.bindResponse(login, loginResponse);
+        Map<String, Object> session = SessionManager.getSession(login);
+        UserSession rakoto = new UserSession("42", "rakoto", "rakoto@example.com");
+        rakoto.authenticate(List.of("USER"));
+        rakoto.saveToSessionMap(session);
+        SessionManager.commitSession(login);
+        String sessionId = SessionManager.getSessionId(login);
+
+        ping = new MockHttpServletRequest(context).setRequestURI("/api/ping");
+        user = new MockHttpServletRequest(context).setRequestURI("/api/users/42")
+                .addCookie(SessionManager.getCookieName(), sessionId);
+        page = new MockHttpServletRequest(context).setRequestURI("/dashboard")
+                .addCookie(SessionManager.getCookieName(), sessionId);
+        missing = new MockHttpServletRequest(context).setRequestURI("/api/missing");
+        response = new MockHttpServletResponse();
+        response.setDiscardContent(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        servlet.destroy();
+    }
+
+    @Benchmark
+    public int publicJson() throws Exception {
+        return servir(ping);
+    }
+
+    @Benchmark
+    public int securedJson() throws Exception {
+        return servir(user);
+    }
+
+    @Benchmark
+    public int viewForward() throws Exception {
+        return servir(page);
+    }
+
+    @Benchmark
+    public int notFound() throws Exception {
+        return servir(missing);
+    }
+
+    private int servir(MockHttpServletRequest request) throws Exception {
+        servlet.service(request.recycle(), response.recycle());
+        return response.getStatus();
+    }
+}
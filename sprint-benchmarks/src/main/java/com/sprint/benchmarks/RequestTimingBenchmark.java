@@ -0,0 +1,97 @@
+package com.sprint.benchmarks;
+
+import com.sprint.annotation.Get;
+import com.sprint.annotation.RestController;
+import com.sprint.metrics.RequestTimer;
+import com.sprint.mock.MockHttpServletRequest;
+import com.sprint.mock.MockHttpServletResponse;
+import com.sprint.mock.MockServletConfig;
+import com.sprint.mock.MockServletContext;
+import com.sprint.model.JsonResponse;
+import com.sprint.security.SecurityInterceptor;
+import com.sprint.servlet.FrontServlet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coût du chronométrage des étapes : démarrage sans recording JFR ni Server-Timing (objectif :
+ * un test, 0 octet alloué), même requête JSON sans et avec l'en-tête Server-Timing (mesures par
+ * route désactivées pour isoler le chronométrage)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestTimingBenchmark {
+
+    @RestController
+    public static class Api {
+
+        @Get("/api/ping")
+        public JsonResponse ping() {
+            return JsonResponse.success("pong");
+        }
+    }
+
+    private FrontServlet timed;
+    private FrontServlet plain;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() throws Throwable {
+        Internals.silenceConsole();
+        MockServletContext context = new MockServletContext();
+        timed = servlet(context, true);
+        plain = servlet(context, false);
+        SecurityInterceptor.disableAudit();
+        request = new MockHttpServletRequest(context).setRequestURI("/api/ping");
+        response = new MockHttpServletResponse();
+        response.setDiscardContent(true);
+    }
+
+    private static FrontServlet servlet(MockServletContext context, boolean serverTiming) throws Throwable {
+        MockServletConfig config = new MockServletConfig(context);
+        config.setInitParameter("sprint.metrics.enabled", "false");
+        config.setInitParameter("sprint.debug.serverTiming", String.valueOf(serverTiming));
+        FrontServlet servlet = new FrontServlet();
+        servlet.init(config);
+        Internals.enregistrerRoute(servlet, "GET:/api/ping", Api.class.getMethod("ping"), new Api());
+        return servlet;
+    }
+
+    @TearDown
+    public void tearDown() {
+        timed.destroy();
+        plain.destroy();
+    }
+
+    @Benchmark
+    public RequestTimer timerDisabled() {
+        return RequestTimer.start("/api/ping", false);
+    }
+
+    @Benchmark
+    public int requestWithoutTiming() throws Exception {
+        plain.service(request.recycle(), response.recycle());
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int requestWithServerTiming() throws Exception {
+        timed.service(request.recycle(), response.recycle());
+        return response.getStatus();
+    }
+}
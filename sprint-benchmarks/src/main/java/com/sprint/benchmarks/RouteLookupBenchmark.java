@@ -0,0 +1,76 @@
+package com.sprint.benchmarks;
+
+import com.sprint.servlet.FrontServlet;
+import com.sprint.util.PathPattern;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Recherche de route (FrontServlet.trouverMethode) avec de nombreuses routes enregistrées :
+ * route statique (une recherche dans la table), route à paramètres (parcours des motifs), route inconnue
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteLookupBenchmark {
+
+    /** Nombre de routes statiques ; un quart de routes à paramètres s'y ajoute */
+    @Param({ "10", "100", "1000" })
+    public int routes;
+
+    private FrontServlet servlet;
+    private String staticPath;
+    private String patternPath;
+
+    public void handle() {
+    }
+
+    @Setup
+    public void setup() throws Throwable {
+        servlet = new FrontServlet();
+        Method target = RouteLookupBenchmark.class.getMethod("handle");
+        Map<String, Object> routeMap = Internals.routeMap(servlet);
+        Map<String, Object> pathPatterns = Internals.pathPatterns(servlet);
+        for (int i = 0; i < routes; i++) {
+            routeMap.put("GET:/api/resource" + i, target);
+        }
+        int patterns = Math.max(1, routes / 4);
+        for (int i = 0; i < patterns; i++) {
+            String key = "GET:/api/items" + i + "/{id}";
+            routeMap.put(key, target);
+            pathPatterns.put(key, new PathPattern("/api/items" + i + "/{id}"));
+        }
+        staticPath = "/api/resource" + (routes / 2);
+        patternPath = "/api/items" + (patterns - 1) + "/42";
+    }
+
+    @Benchmark
+    public Method staticRoute() throws Throwable {
+        return Internals.trouverMethode(servlet, staticPath);
+    }
+
+    @Benchmark
+    public Method patternRoute() throws Throwable {
+        return Internals.trouverMethode(servlet, patternPath);
+    }
+
+    @Benchmark
+    public Method unknownRoute() throws Throwable {
+        return Internals.trouverMethode(servlet, "/api/missing/route");
+    }
+}
@@ -0,0 +1,105 @@
+package com.sprint.benchmarks;
+
+import com.sprint.annotation.RateLimit;
+import com.sprint.annotation.RequireRole;
+import com.sprint.annotation.Secured;
+import com.sprint.mock.MockHttpServletRequest;
+import com.sprint.mock.MockHttpServletResponse;
+import com.sprint.model.UserSession;
+import com.sprint.security.Role;
+import com.sprint.security.SecurityInterceptor;
+import com.sprint.security.SecurityPolicy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Vérification de sécurité d'une route (SecurityInterceptor.checkSecurity avec politique précompilée) :
+ * route publique, rôle requis, règles @Secured multiples, limitation de débit, et visiteur anonyme refusé
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SecurityBenchmark {
+
+    private SecurityPolicy publicPolicy;
+    private SecurityPolicy rolePolicy;
+    private SecurityPolicy deepPolicy;
+    private SecurityPolicy rateLimitedPolicy;
+    private UserSession admin;
+    private Map<String, Object> session;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    public void publicRoute() {
+    }
+
+    @RequireRole(Role.ADMIN)
+    public void adminRoute() {
+    }
+
+    @Secured(roles = { Role.MODERATOR, Role.ADMIN }, minimumLevel = Role.MODERATOR,
+            permissions = { "MANAGE_USERS", "SYSTEM_CONFIG" }, resource = "system", action = "config")
+    public void deepRoute() {
+    }
+
+    @RateLimit(value = 1e9, burst = 1_000_000)
+    public void rateLimitedRoute() {
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        Internals.silenceConsole();
+        SecurityInterceptor.disableAudit();
+        publicPolicy = SecurityPolicy.compile(SecurityBenchmark.class.getMethod("publicRoute"));
+        rolePolicy = SecurityPolicy.compile(SecurityBenchmark.class.getMethod("adminRoute"));
+        deepPolicy = SecurityPolicy.compile(SecurityBenchmark.class.getMethod("deepRoute"));
+        rateLimitedPolicy = SecurityPolicy.compile(SecurityBenchmark.class.getMethod("rateLimitedRoute"));
+
+        admin = new UserSession("1", "admin", "admin@example.com");
+        admin.authenticate(List.of("ADMIN"));
+        session = new HashMap<>();
+        admin.saveToSessionMap(session);
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object publicAccess() throws Exception {
+        return SecurityInterceptor.checkSecurity(publicPolicy, admin, session, request, response);
+    }
+
+    @Benchmark
+    public Object requiredRole() throws Exception {
+        return SecurityInterceptor.checkSecurity(rolePolicy, admin, session, request, response);
+    }
+
+    @Benchmark
+    public Object securedRules() throws Exception {
+        return SecurityInterceptor.checkSecurity(deepPolicy, admin, session, request, response);
+    }
+
+    @Benchmark
+    public Object rateLimited() throws Exception {
+        return SecurityInterceptor.checkSecurity(rateLimitedPolicy, admin, session, request, response);
+    }
+
+    @Benchmark
+    public Object anonymousDenied() throws Exception {
+        return SecurityInterceptor.checkSecurity(rolePolicy, null, null, request.recycle(), response);
+    }
+}
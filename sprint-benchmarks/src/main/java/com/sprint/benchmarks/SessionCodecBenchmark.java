@@ -0,0 +1,101 @@
+package com.sprint.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sprint.session.BinarySessionSerializer;
+import com.sprint.session.JavaSessionSerializer;
+import com.sprint.session.SessionSerializer;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encodage et décodage du contenu d'une session : codec binaire du framework, sérialisation Java,
+ * JSON (Jackson). La taille encodée est rapportée par le compteur "encodedBytes" (octets par opération).
+ * Le JSON ne restitue pas les types (UserSession redevient une Map) : il sert de référence de taille
+ * et de vitesse seulement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionCodecBenchmark {
+
+    @Param({ "binary", "java", "json" })
+    public String codec;
+
+    private SessionSerializer serializer;
+    private Map<String, Object> session;
+    private byte[] encoded;
+
+    /**
+     * Taille encodée, rapportée par opération
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Size {
+        public long encodedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            encodedBytes = 0;
+        }
+    }
+
+    /**
+     * JSON par Jackson, à titre de comparaison
+     */
+    private static final class JsonSerializer implements SessionSerializer {
+        private final ObjectMapper mapper = new ObjectMapper();
+
+        @Override
+        public byte[] encode(Map<String, Object> contents) throws IOException {
+            return mapper.writeValueAsBytes(contents);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map<String, Object> decode(byte[] bytes) throws IOException {
+            return mapper.readValue(bytes, Map.class);
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        switch (codec) {
+            case "binary": serializer = new BinarySessionSerializer(); break;
+            case "java": serializer = new JavaSessionSerializer(); break;
+            default: serializer = new JsonSerializer();
+        }
+        session = new LinkedHashMap<>();
+        Sessions.remplir(session, 7);
+        encoded = serializer.encode(session);
+    }
+
+    @Benchmark
+    public byte[] encode(Size size) throws IOException {
+        byte[] bytes = serializer.encode(session);
+        size.encodedBytes += bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Map<String, Object> decode() throws IOException {
+        return serializer.decode(encoded);
+    }
+}
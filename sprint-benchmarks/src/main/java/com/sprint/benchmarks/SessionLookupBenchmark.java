@@ -0,0 +1,102 @@
+package com.sprint.benchmarks;
+
+import com.sprint.mock.MockHttpServletRequest;
+import com.sprint.mock.MockHttpServletResponse;
+import com.sprint.model.UserSession;
+import com.sprint.util.SessionManager;
+import jakarta.servlet.http.Cookie;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Résolution de session (SessionManager.getSession) : cookie d'une session existante parmi
+ * de nombreuses autres, visiteur sans cookie (session en attente, rien n'est enregistré)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionLookupBenchmark {
+
+    /** Sessions enregistrées */
+    @Param({ "1000", "100000" })
+    public int sessions;
+
+    private String[] sessionIds;
+
+    /**
+     * Requêtes propres à chaque thread (les doublures ne sont pas partagées)
+     */
+    @State(Scope.Thread)
+    public static class Requests {
+        MockHttpServletRequest known;
+        Cookie cookie;
+        MockHttpServletRequest anonymous = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        int next;
+
+        @Setup
+        public void setup(SessionLookupBenchmark benchmark) {
+            cookie = new Cookie(SessionManager.getCookieName(), benchmark.sessionIds[0]);
+            known = new MockHttpServletRequest().addCookie(cookie);
+            next = (int) (Thread.currentThread().getId() % benchmark.sessionIds.length);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Internals.silenceConsole();
+        SessionManager.configureCapacity(sessions * 2L, Long.MAX_VALUE / 2);
+        sessionIds = new String[sessions];
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        for (int i = 0; i < sessions; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            SessionManager.bindResponse(request, response);
+            Map<String, Object> session = SessionManager.getSession(request);
+            UserSession user = new UserSession(String.valueOf(i), "user" + i, null);
+            user.authenticate(List.of("USER"));
+            user.saveToSessionMap(session);
+            sessionIds[i] = SessionManager.getSessionId(request);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SessionManager.shutdown();
+    }
+
+    @Benchmark
+    public Map<String, Object> existingSession(Requests requests) {
+        MockHttpServletRequest request = requests.known.recycle();
+        requests.cookie.setValue(sessionIds[requests.next++ % sessionIds.length]);
+        return SessionManager.getSession(request);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Map<String, Object> existingSessionContended(Requests requests) {
+        return existingSession(requests);
+    }
+
+    @Benchmark
+    public Map<String, Object> newVisitor(Requests requests) {
+        return SessionManager.getSession(requests.anonymous.recycle());
+    }
+}
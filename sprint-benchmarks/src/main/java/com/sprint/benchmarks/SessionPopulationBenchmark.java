@@ -0,0 +1,89 @@
+package com.sprint.benchmarks;
+
+import com.sprint.session.BinarySessionSerializer;
+import com.sprint.session.InMemorySessionStore;
+import com.sprint.session.OffHeapSessionStore;
+import com.sprint.session.SessionMap;
+import com.sprint.session.SessionStore;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Grande population de sessions inactives : heap conservé après un GC complet, sessions sur le heap
+ * (InMemorySessionStore) ou déplacées hors du heap (OffHeapSessionStore). Les pauses GC du
+ * remplissage sont rapportées par le profileur gc (gc.count, gc.time).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g", "-XX:MaxDirectMemorySize=2g" })
+@State(Scope.Benchmark)
+public class SessionPopulationBenchmark {
+
+    @Param({ "1000000" })
+    public int sessions;
+
+    @Param({ "heap", "offheap" })
+    public String store;
+
+    private static final long IDLE_MILLIS = 1000;
+
+    private SessionStore sessionStore;
+
+    /**
+     * Heap occupé après remplissage et GC complet (octets), rapporté une fois par itération
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+        public long retainedHeapBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedHeapBytes = 0;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        sessionStore = "offheap".equals(store)
+                ? new OffHeapSessionStore(1536L * 1024 * 1024, IDLE_MILLIS, new BinarySessionSerializer(),
+                        session -> 30 * 60 * 1000L)
+                : new InMemorySessionStore();
+        System.gc();
+    }
+
+    @Benchmark
+    public int populate(Heap heap) {
+        for (int i = 0; i < sessions; i++) {
+            SessionMap session = Sessions.creer(i);
+            sessionStore.put(session);
+        }
+        // Toutes les sessions deviennent inactives : l'arène hors heap les reçoit
+        sessionStore.maintenance(System.currentTimeMillis() + IDLE_MILLIS * 2);
+        System.gc();
+        heap.retainedHeapBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        return sessionStore.size();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        sessionStore.close();
+        sessionStore = null;
+    }
+}
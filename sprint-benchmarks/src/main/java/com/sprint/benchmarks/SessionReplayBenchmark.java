@@ -0,0 +1,66 @@
+package com.sprint.benchmarks;
+
+import com.sprint.session.BinarySessionSerializer;
+import com.sprint.session.FileSessionStore;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Temps de redémarrage du stockage fichier : ouverture de FileSessionStore et relecture d'un journal
+ * de N sessions écrit au préalable (chaque mesure rejoue le même journal)
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class SessionReplayBenchmark {
+
+    @Param({ "10000", "100000" })
+    public int sessions;
+
+    private Path directory;
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        Internals.silenceConsole();
+        directory = Files.createTempDirectory("sprint-replay");
+        FileSessionStore store = new FileSessionStore(directory, 10, new BinarySessionSerializer());
+        for (int i = 0; i < sessions; i++) {
+            store.put(Sessions.creer(i));
+        }
+        store.close(); // Écrit le dernier lot
+    }
+
+    @Benchmark
+    public int replay() throws IOException {
+        FileSessionStore store = new FileSessionStore(directory, 60_000, new BinarySessionSerializer());
+        int restored = store.size();
+        store.close();
+        return restored;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
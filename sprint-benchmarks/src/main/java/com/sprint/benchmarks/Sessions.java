@@ -0,0 +1,32 @@
+package com.sprint.benchmarks;
+
+import com.sprint.model.UserSession;
+import com.sprint.session.SessionMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contenu de session représentatif : UserSession authentifiée et quelques attributs applicatifs
+ */
+final class Sessions {
+
+    private Sessions() {
+    }
+
+    static void remplir(Map<String, Object> session, int i) {
+        UserSession user = new UserSession(String.valueOf(i), "user" + i, "user" + i + "@example.com");
+        user.authenticate(i % 10 == 0 ? List.of("USER", "MODERATOR") : List.of("USER"));
+        user.setAttribute("theme", i % 2 == 0 ? "sombre" : "clair");
+        user.saveToSessionMap(session);
+        session.put("panier", List.of("article-" + (i % 97), "article-" + (i % 89)));
+        session.put("derniereRecherche", "chaussures taille " + (36 + i % 10));
+        session.put("visites", i % 50);
+        session.put("locale", "fr_FR");
+    }
+
+    static SessionMap creer(int i) {
+        SessionMap session = new SessionMap(String.format("bench%028d", i));
+        remplir(session, i);
+        return session;
+    }
+}
@@ -0,0 +1,47 @@
+package com.sprint.benchmarks.model;
+
+import com.sprint.model.MultipartFile;
+
+/**
+ * Entité liée depuis les paramètres de requête (package "model" : reconnue par EntityBinder)
+ */
+public class Person {
+    private String name;
+    private String email;
+    private int age;
+    private double score;
+    private boolean active;
+    private MultipartFile avatar;
+
+    public Person() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public MultipartFile getAvatar() {
+        return avatar;
+    }
+
+    @Override
+    public String toString() {
+        return "Person{name=" + name + ", email=" + email + ", age=" + age + "}";
+    }
+}
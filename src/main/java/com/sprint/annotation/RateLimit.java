@@ -0,0 +1,32 @@
+package com.sprint.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation pour limiter le débit d'une méthode de controller
+ * Quota par utilisateur connecté, ou par adresse IP pour un visiteur anonyme.
+ * Sans valeur explicite, le quota est la variable de rôle "rateLimit" (requêtes par seconde,
+ * absente ou nulle : illimité).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RateLimit {
+
+    /**
+     * Requêtes par seconde ; 0 pour utiliser la variable de rôle "rateLimit"
+     */
+    double value() default 0;
+
+    /**
+     * Rafale tolérée (requêtes) ; 0 pour une seconde de quota
+     */
+    int burst() default 0;
+
+    /**
+     * Message d'erreur en cas de dépassement
+     */
+    String message() default "Trop de requêtes, réessayez plus tard";
+}
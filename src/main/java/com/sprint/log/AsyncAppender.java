@@ -0,0 +1,169 @@
+package com.sprint.log;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Écriture asynchrone des journaux : anneau pré-alloué, un seul thread d'écriture, sortie par lots
+ *
+ * Même anneau (RingBuffer) que le journal d'audit : le thread de requête réserve une case et y
+ * recopie les références du message ; le formatage de la ligne (date, trace d'exception) et
+ * l'écriture se font dans le thread "sprint-log-writer", sans verrou partagé avec les requêtes.
+ * Anneau plein : le message est abandonné et compté, et une ligne signale la perte.
+ */
+public final class AsyncAppender {
+
+    private static final int BATCH = 512;
+    private static final long IDLE_PARK_NANOS = 100_000_000L; // Réveillé par le producteur avant
+
+    /**
+     * Message en attente, réutilisé d'un tour d'anneau à l'autre
+     */
+    private static final class Slot {
+        long timestamp;
+        Level level;
+        String logger;
+        String thread;
+        String message;
+        Throwable throwable;
+    }
+
+    private final RingBuffer<Slot> ring;
+
+    private final LogSink sink;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private long reportedDrops; // Lu et écrit par le seul thread d'écriture
+    private volatile long written;
+    private volatile long writeErrors;
+
+    /**
+     * @param sink destination des lignes
+     * @param capacity taille de l'anneau (arrondie à une puissance de deux)
+     */
+    public AsyncAppender(LogSink sink, int capacity) {
+        this.ring = new RingBuffer<>(capacity, Slot::new);
+        this.sink = sink;
+
+        this.thread = new Thread(this::ecrire, "sprint-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Ajoute un message déjà formaté ; ne bloque jamais
+     * @return false si l'anneau était plein (message abandonné)
+     */
+    public boolean append(Level level, String logger, String message, Throwable throwable) {
+        long position = ring.claim();
+        if (position < 0) {
+            dropped.increment();
+            return false;
+        }
+        Slot slot = ring.get(position);
+        slot.timestamp = System.currentTimeMillis();
+        slot.level = level;
+        slot.logger = logger;
+        slot.thread = Thread.currentThread().getName();
+        slot.message = message;
+        slot.throwable = throwable;
+        ring.publish(position);
+        appended.increment();
+        return true;
+    }
+
+    private void ecrire() {
+        StringBuilder lot = new StringBuilder(64 * 1024);
+        Consumer<Slot> formater = slot -> formater(lot, slot);
+        while (running || !ring.isEmpty()) {
+            int count = ring.drain(BATCH, formater);
+            long drops = dropped.sum();
+            if (drops != reportedDrops) {
+                ligne(lot, System.currentTimeMillis(), Level.WARN, "AsyncAppender", thread.getName(),
+                        (drops - reportedDrops) + " message(s) perdu(s) : anneau du journal plein");
+                reportedDrops = drops;
+            }
+            if (lot.length() == 0) {
+                ring.awaitData(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                sink.write(lot);
+                written += count;
+            } catch (IOException | RuntimeException e) {
+                writeErrors++;
+            }
+            lot.setLength(0);
+        }
+    }
+
+    /**
+     * Formate un message retiré de l'anneau en ligne et libère ses références
+     */
+    private static void formater(StringBuilder lot, Slot slot) {
+        ligne(lot, slot.timestamp, slot.level, slot.logger, slot.thread, slot.message);
+        if (slot.throwable != null) {
+            StringWriter trace = new StringWriter();
+            slot.throwable.printStackTrace(new PrintWriter(trace));
+            lot.append(trace);
+        }
+        slot.logger = null;
+        slot.thread = null;
+        slot.message = null;
+        slot.throwable = null;
+    }
+
+    /**
+     * 2026-01-31T12:00:00.123Z INFO  [thread] Logger - message
+     */
+    private static void ligne(StringBuilder lot, long timestamp, Level level, String logger,
+                              String thread, String message) {
+        lot.append(Instant.ofEpochMilli(timestamp)).append(' ').append(level.name());
+        for (int i = level.name().length(); i < 5; i++) {
+            lot.append(' ');
+        }
+        lot.append(" [").append(thread).append("] ").append(logger).append(" - ").append(message).append('\n');
+    }
+
+    /**
+     * Arrête l'écrivain après avoir écrit les messages en attente, puis ferme la destination
+     */
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            sink.close();
+        } catch (IOException ignored) {
+            // Fermeture best effort
+        }
+    }
+
+    /**
+     * Compteurs : messages ajoutés, abandonnés (anneau plein), écrits, erreurs d'écriture, en attente
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("logAppended", appended.sum());
+        statistics.put("logDropped", dropped.sum());
+        statistics.put("logWritten", written);
+        statistics.put("logWriteErrors", writeErrors);
+        statistics.put("logPending", ring.pending());
+        statistics.put("logCapacity", ring.capacity());
+        return statistics;
+    }
+}
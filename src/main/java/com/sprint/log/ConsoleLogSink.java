@@ -0,0 +1,26 @@
+package com.sprint.log;
+
+import java.io.PrintStream;
+
+/**
+ * Sortie standard ou d'erreur ; le flux est relu à chaque lot (un System.setOut ultérieur est suivi)
+ */
+public final class ConsoleLogSink implements LogSink {
+
+    private final boolean stderr;
+
+    public ConsoleLogSink() {
+        this(false);
+    }
+
+    public ConsoleLogSink(boolean stderr) {
+        this.stderr = stderr;
+    }
+
+    @Override
+    public void write(CharSequence lines) {
+        PrintStream out = stderr ? System.err : System.out;
+        out.print(lines);
+        out.flush();
+    }
+}
@@ -0,0 +1,16 @@
+package com.sprint.log;
+
+/**
+ * Niveaux de journalisation, du plus détaillé au plus grave ; OFF désactive un journal
+ */
+public enum Level {
+    TRACE, DEBUG, INFO, WARN, ERROR, OFF;
+
+    /**
+     * Niveau par son nom, sans tenir compte de la casse
+     * @throws IllegalArgumentException si le nom est inconnu
+     */
+    public static Level parse(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,18 @@
+package com.sprint.log;
+
+import java.io.IOException;
+
+/**
+ * Destination des lignes de journal ; appelée par le seul thread d'écriture, par lots de lignes
+ * déjà formatées (terminées par un saut de ligne)
+ *
+ * Une implémentation personnalisée peut être désignée par son nom de classe (sprint.log.sink) :
+ * elle doit avoir un constructeur public sans argument.
+ */
+public interface LogSink {
+
+    void write(CharSequence lines) throws IOException;
+
+    default void close() throws IOException {
+    }
+}
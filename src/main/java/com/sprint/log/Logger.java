@@ -0,0 +1,341 @@
+package com.sprint.log;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Journal du framework, filtré par niveau à l'appel
+ *
+ * Un message sous le seuil coûte une comparaison d'entier : pas d'allocation, pas de tableau de
+ * varargs (surcharges à 1, 2 ou 3 arguments), et les arguments ne sont ni formatés ni convertis
+ * en texte (toString() n'est appelé que si le message est écrit). Les "{}" du motif sont remplacés
+ * par les arguments dans l'ordre. Un message retenu est formaté dans le thread appelant (l'état
+ * des objets au moment de l'appel) puis confié à l'AsyncAppender.
+ *
+ * Niveaux : un niveau racine (INFO par défaut) et des niveaux par préfixe de nom ("com.sprint.session"),
+ * le préfixe le plus long l'emportant. Sans configuration, les messages partent sur la sortie standard.
+ */
+public final class Logger {
+
+    private static final int TRACE = Level.TRACE.ordinal();
+    private static final int DEBUG = Level.DEBUG.ordinal();
+    private static final int INFO = Level.INFO.ordinal();
+    private static final int WARN = Level.WARN.ordinal();
+    private static final int ERROR = Level.ERROR.ordinal();
+
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final Map<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+    private static volatile Level rootLevel = Level.INFO;
+    private static volatile Map<String, Level> levels = Collections.emptyMap();
+    private static volatile AsyncAppender appender;
+
+    private final String name;
+    private final String shortName;
+    private volatile int threshold;
+
+    private Logger(String name) {
+        this.name = name;
+        this.shortName = name.substring(name.lastIndexOf('.') + 1);
+        this.threshold = seuil(name);
+    }
+
+    public static Logger getLogger(Class<?> type) {
+        return getLogger(type.getName());
+    }
+
+    public static Logger getLogger(String name) {
+        return LOGGERS.computeIfAbsent(name, Logger::new);
+    }
+
+    /**
+     * Fixe le niveau racine et les niveaux par préfixe de nom ; s'applique aux journaux existants
+     */
+    public static synchronized void configure(Level root, Map<String, Level> prefixes) {
+        rootLevel = root;
+        levels = new HashMap<>(prefixes);
+        for (Logger logger : LOGGERS.values()) {
+            logger.threshold = seuil(logger.name);
+        }
+    }
+
+    /**
+     * Remplace l'écrivain asynchrone (le précédent écrit ses messages en attente puis est fermé)
+     */
+    public static synchronized void setAppender(AsyncAppender replacement) {
+        AsyncAppender previous = appender;
+        appender = replacement;
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Écrit les messages en attente et arrête l'écrivain ; un message ultérieur en démarre un nouveau sur la console
+     */
+    public static void shutdown() {
+        setAppender(null);
+    }
+
+    /**
+     * Compteurs de l'écrivain asynchrone et niveau racine
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("logLevel", rootLevel.name());
+        AsyncAppender current = appender;
+        if (current != null) {
+            statistics.putAll(current.getStatistics());
+        }
+        return statistics;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Niveau effectif : préfixe configuré le plus long, sinon niveau racine
+     */
+    public Level getLevel() {
+        return Level.values()[threshold];
+    }
+
+    private static int seuil(String name) {
+        Level level = rootLevel;
+        int longest = -1;
+        for (Map.Entry<String, Level> entry : levels.entrySet()) {
+            String prefix = entry.getKey();
+            boolean matches = name.equals(prefix)
+                    || (name.startsWith(prefix) && name.length() > prefix.length() && name.charAt(prefix.length()) == '.');
+            if (matches && prefix.length() > longest) {
+                level = entry.getValue();
+                longest = prefix.length();
+            }
+        }
+        return level.ordinal();
+    }
+
+    // ===== TRACE =====
+
+    public boolean isTraceEnabled() {
+        return threshold <= TRACE;
+    }
+
+    public void trace(String message) {
+        if (threshold <= TRACE) {
+            ecrire(Level.TRACE, message, null);
+        }
+    }
+
+    public void trace(String pattern, Object arg) {
+        if (threshold <= TRACE) {
+            ecrire(Level.TRACE, format(pattern, 1, arg, null, null), null);
+        }
+    }
+
+    public void trace(String pattern, Object arg1, Object arg2) {
+        if (threshold <= TRACE) {
+            ecrire(Level.TRACE, format(pattern, 2, arg1, arg2, null), null);
+        }
+    }
+
+    public void trace(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (threshold <= TRACE) {
+            ecrire(Level.TRACE, format(pattern, 3, arg1, arg2, arg3), null);
+        }
+    }
+
+    public void trace(String message, Throwable throwable) {
+        if (threshold <= TRACE) {
+            ecrire(Level.TRACE, message, throwable);
+        }
+    }
+
+    // ===== DEBUG =====
+
+    public boolean isDebugEnabled() {
+        return threshold <= DEBUG;
+    }
+
+    public void debug(String message) {
+        if (threshold <= DEBUG) {
+            ecrire(Level.DEBUG, message, null);
+        }
+    }
+
+    public void debug(String pattern, Object arg) {
+        if (threshold <= DEBUG) {
+            ecrire(Level.DEBUG, format(pattern, 1, arg, null, null), null);
+        }
+    }
+
+    public void debug(String pattern, Object arg1, Object arg2) {
+        if (threshold <= DEBUG) {
+            ecrire(Level.DEBUG, format(pattern, 2, arg1, arg2, null), null);
+        }
+    }
+
+    public void debug(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (threshold <= DEBUG) {
+            ecrire(Level.DEBUG, format(pattern, 3, arg1, arg2, arg3), null);
+        }
+    }
+
+    public void debug(String message, Throwable throwable) {
+        if (threshold <= DEBUG) {
+            ecrire(Level.DEBUG, message, throwable);
+        }
+    }
+
+    // ===== INFO =====
+
+    public boolean isInfoEnabled() {
+        return threshold <= INFO;
+    }
+
+    public void info(String message) {
+        if (threshold <= INFO) {
+            ecrire(Level.INFO, message, null);
+        }
+    }
+
+    public void info(String pattern, Object arg) {
+        if (threshold <= INFO) {
+            ecrire(Level.INFO, format(pattern, 1, arg, null, null), null);
+        }
+    }
+
+    public void info(String pattern, Object arg1, Object arg2) {
+        if (threshold <= INFO) {
+            ecrire(Level.INFO, format(pattern, 2, arg1, arg2, null), null);
+        }
+    }
+
+    public void info(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (threshold <= INFO) {
+            ecrire(Level.INFO, format(pattern, 3, arg1, arg2, arg3), null);
+        }
+    }
+
+    public void info(String message, Throwable throwable) {
+        if (threshold <= INFO) {
+            ecrire(Level.INFO, message, throwable);
+        }
+    }
+
+    // ===== WARN =====
+
+    public boolean isWarnEnabled() {
+        return threshold <= WARN;
+    }
+
+    public void warn(String message) {
+        if (threshold <= WARN) {
+            ecrire(Level.WARN, message, null);
+        }
+    }
+
+    public void warn(String pattern, Object arg) {
+        if (threshold <= WARN) {
+            ecrire(Level.WARN, format(pattern, 1, arg, null, null), null);
+        }
+    }
+
+    public void warn(String pattern, Object arg1, Object arg2) {
+        if (threshold <= WARN) {
+            ecrire(Level.WARN, format(pattern, 2, arg1, arg2, null), null);
+        }
+    }
+
+    public void warn(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (threshold <= WARN) {
+            ecrire(Level.WARN, format(pattern, 3, arg1, arg2, arg3), null);
+        }
+    }
+
+    public void warn(String message, Throwable throwable) {
+        if (threshold <= WARN) {
+            ecrire(Level.WARN, message, throwable);
+        }
+    }
+
+    // ===== ERROR =====
+
+    public boolean isErrorEnabled() {
+        return threshold <= ERROR;
+    }
+
+    public void error(String message) {
+        if (threshold <= ERROR) {
+            ecrire(Level.ERROR, message, null);
+        }
+    }
+
+    public void error(String pattern, Object arg) {
+        if (threshold <= ERROR) {
+            ecrire(Level.ERROR, format(pattern, 1, arg, null, null), null);
+        }
+    }
+
+    public void error(String pattern, Object arg1, Object arg2) {
+        if (threshold <= ERROR) {
+            ecrire(Level.ERROR, format(pattern, 2, arg1, arg2, null), null);
+        }
+    }
+
+    public void error(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (threshold <= ERROR) {
+            ecrire(Level.ERROR, format(pattern, 3, arg1, arg2, arg3), null);
+        }
+    }
+
+    public void error(String message, Throwable throwable) {
+        if (threshold <= ERROR) {
+            ecrire(Level.ERROR, message, throwable);
+        }
+    }
+
+    // ===== Interne =====
+
+    private void ecrire(Level level, String message, Throwable throwable) {
+        AsyncAppender current = appender;
+        if (current == null) {
+            current = demarrer();
+        }
+        current.append(level, shortName, message, throwable);
+    }
+
+    private static synchronized AsyncAppender demarrer() {
+        if (appender == null) {
+            appender = new AsyncAppender(new ConsoleLogSink(), DEFAULT_CAPACITY);
+        }
+        return appender;
+    }
+
+    /**
+     * Remplace les "{}" du motif par les arguments ; un toString() en échec n'interrompt pas la requête
+     */
+    static String format(String pattern, int count, Object arg1, Object arg2, Object arg3) {
+        StringBuilder out = new StringBuilder(pattern.length() + 32 * count);
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int placeholder = pattern.indexOf("{}", start);
+            if (placeholder < 0) {
+                break;
+            }
+            out.append(pattern, start, placeholder);
+            Object arg = i == 0 ? arg1 : i == 1 ? arg2 : arg3;
+            try {
+                out.append(arg);
+            } catch (RuntimeException e) {
+                out.append("[toString() en échec : ").append(e.getClass().getSimpleName()).append(']');
+            }
+            start = placeholder + 2;
+        }
+        return out.append(pattern, start, pattern.length()).toString();
+    }
+}
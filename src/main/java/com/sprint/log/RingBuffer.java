@@ -0,0 +1,143 @@
+package com.sprint.log;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Anneau pré-alloué à plusieurs producteurs et un seul consommateur (journal, audit)
+ *
+ * Chaque case porte une séquence qui indique à qui elle appartient : le producteur réserve une
+ * position par compareAndSet (claim), remplit l'entrée réutilisable de la case (get) puis la publie
+ * (publish) ; ni allocation ni verrou. Anneau plein : claim renvoie -1, l'appelant abandonne.
+ * Le consommateur vide l'anneau par lots (drain) et, quand il est vide, s'endort (awaitData) ;
+ * le producteur qui publie le réveille s'il dort, si bien qu'un écrivain inactif ne tourne pas.
+ */
+public final class RingBuffer<T> {
+
+    private static final class Cell<T> {
+        volatile long sequence;
+        final T entry;
+
+        Cell(long sequence, T entry) {
+            this.sequence = sequence;
+            this.entry = entry;
+        }
+    }
+
+    private final Cell<T>[] cells;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private volatile Thread consumer;
+    private final AtomicBoolean sleeping = new AtomicBoolean();
+
+    /**
+     * @param capacity taille de l'anneau (arrondie à une puissance de deux, 16 au minimum)
+     * @param factory entrée réutilisable de chaque case
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public RingBuffer(int capacity, Supplier<T> factory) {
+        int size = 16;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.cells = new Cell[size];
+        for (int i = 0; i < size; i++) {
+            cells[i] = new Cell<>(i, factory.get());
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Réserve une case ; ne bloque jamais
+     * @return la position réservée, -1 si l'anneau est plein
+     */
+    public long claim() {
+        long position = tail.get();
+        while (true) {
+            long difference = cells[(int) position & mask].sequence - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return -1;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Entrée de la case réservée, à remplir avant publish
+     */
+    public T get(long position) {
+        return cells[(int) position & mask].entry;
+    }
+
+    /**
+     * Rend l'entrée visible au consommateur et le réveille s'il dort
+     */
+    public void publish(long position) {
+        cells[(int) position & mask].sequence = position + 1;
+        if (sleeping.get() && sleeping.compareAndSet(true, false)) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Retire au plus max entrées, dans l'ordre ; le consommateur les vide avant qu'elles soient rendues
+     * @return le nombre d'entrées retirées
+     */
+    public int drain(int max, Consumer<? super T> handler) {
+        int count = 0;
+        long position = head;
+        while (count < max) {
+            Cell<T> cell = cells[(int) position & mask];
+            if (cell.sequence != position + 1) {
+                break;
+            }
+            handler.accept(cell.entry);
+            cell.sequence = position + mask + 1; // Rendue aux producteurs
+            position++;
+            count++;
+        }
+        head = position;
+        return count;
+    }
+
+    /**
+     * Vrai si aucune entrée publiée n'attend le consommateur
+     */
+    public boolean isEmpty() {
+        return cells[(int) head & mask].sequence != head + 1;
+    }
+
+    /**
+     * Endort le consommateur jusqu'à la prochaine publication, au plus maxNanos
+     */
+    public void awaitData(long maxNanos) {
+        consumer = Thread.currentThread();
+        sleeping.set(true);
+        if (isEmpty()) { // Publication faite avant sleeping=true : ne pas s'endormir
+            LockSupport.parkNanos(this, maxNanos);
+        }
+        sleeping.set(false);
+    }
+
+    /**
+     * Entrées réservées et pas encore retirées
+     */
+    public long pending() {
+        return Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,164 @@
+package com.sprint.metrics;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Réponse qui compte les octets du corps écrits par le contrôleur, la sérialisation JSON ou la vue
+ *
+ * Le texte écrit par getWriter() est compté dans l'encodage de la réponse (UTF-8 calculé caractère
+ * par caractère, un octet par caractère pour les encodages sur un octet), sans être encodé une
+ * seconde fois. Writer et flux compteurs ne sont créés qu'au premier appel.
+ */
+public final class ByteCountingResponse extends HttpServletResponseWrapper {
+
+    private long count;
+    private PrintWriter writer;
+    private ServletOutputStream outputStream;
+
+    public ByteCountingResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    /**
+     * Octets écrits dans le corps jusqu'ici
+     */
+    public long getByteCount() {
+        return count;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            PrintWriter delegate = super.getWriter();
+            boolean utf8 = StandardCharsets.UTF_8.name().equalsIgnoreCase(getCharacterEncoding());
+            writer = new PrintWriter(new CountingWriter(delegate, utf8), false);
+        }
+        return writer;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new CountingOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    private final class CountingWriter extends Writer {
+        private final Writer delegate;
+        private final boolean utf8;
+
+        CountingWriter(Writer delegate, boolean utf8) {
+            this.delegate = delegate;
+            this.utf8 = utf8;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            count += utf8 ? utf8Length((char) c) : 1;
+            delegate.write(c);
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            if (utf8) {
+                for (int i = offset; i < offset + length; i++) {
+                    count += utf8Length(buffer[i]);
+                }
+            } else {
+                count += length;
+            }
+            delegate.write(buffer, offset, length);
+        }
+
+        @Override
+        public void write(String text, int offset, int length) throws IOException {
+            if (utf8) {
+                for (int i = offset; i < offset + length; i++) {
+                    count += utf8Length(text.charAt(i));
+                }
+            } else {
+                count += length;
+            }
+            delegate.write(text, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    /**
+     * Octets UTF-8 d'un caractère ; une paire de substitution compte 2 + 2 = 4 octets
+     */
+    private static int utf8Length(char c) {
+        if (c < 0x80) {
+            return 1;
+        }
+        if (c < 0x800 || Character.isSurrogate(c)) {
+            return 2;
+        }
+        return 3;
+    }
+
+    private final class CountingOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            count++;
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            count += length;
+            delegate.write(buffer, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
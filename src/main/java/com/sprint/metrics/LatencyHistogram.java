@@ -0,0 +1,136 @@
+package com.sprint.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme log-linéaire de durées (nanosecondes), sans verrou et de taille fixe
+ *
+ * Chaque puissance de deux est découpée en 8 sous-intervalles égaux : l'erreur relative sur une
+ * valeur est au plus 12,5 %, de la nanoseconde à 2^40 ns (environ 18 minutes, au-delà les valeurs
+ * sont comptées dans le dernier intervalle). 312 compteurs, soit environ 2,5 Ko par histogramme
+ * quel que soit le nombre de valeurs enregistrées. L'indice se calcule avec un comptage de zéros
+ * de tête et un décalage ; l'enregistrement est un incrément atomique.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_COUNT;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Enregistre une durée en nanosecondes (les valeurs négatives comptent pour 0)
+     */
+    public void record(long nanos) {
+        long value = nanos < 0 ? 0 : Math.min(nanos, MAX_VALUE);
+        counts.getAndIncrement(index(value));
+        sum.add(value);
+    }
+
+    static int index(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        return ((exponent - SUB_BITS + 1) << SUB_BITS) + (int) ((value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1));
+    }
+
+    /**
+     * Plus petite valeur de l'intervalle
+     */
+    static long lowerBound(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int exponent = (index >> SUB_BITS) + SUB_BITS - 1;
+        return (long) (SUB_COUNT + (index & (SUB_COUNT - 1))) << (exponent - SUB_BITS);
+    }
+
+    /**
+     * Borne supérieure (exclue) de l'intervalle
+     */
+    static long upperBound(int index) {
+        return index < SUB_COUNT ? index + 1 : lowerBound(index) + (1L << ((index >> SUB_BITS) - 1));
+    }
+
+    /**
+     * Copie des compteurs ; chaque compteur est lu atomiquement, l'ensemble ne l'est pas
+     * (un enregistrement concurrent peut apparaître dans la copie ou non)
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, sum.sum());
+    }
+
+    /**
+     * Compteurs figés d'un histogramme
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+
+        Snapshot(long[] counts, long count, long sum) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Somme des durées enregistrées, en nanosecondes
+         */
+        public long getSum() {
+            return sum;
+        }
+
+        /**
+         * Nombre de valeurs strictement inférieures à chaque puissance de deux 2^minExponent .. 2^maxExponent
+         * (cumuls exacts : ces bornes coïncident avec des débuts d'intervalle), en un seul parcours
+         */
+        public long[] countsBelowPowersOfTwo(int minExponent, int maxExponent) {
+            long[] below = new long[maxExponent - minExponent + 1];
+            long cumulative = 0;
+            int i = 0;
+            for (int exponent = minExponent; exponent <= maxExponent; exponent++) {
+                int end = Math.min(index(1L << exponent), BUCKETS);
+                while (i < end) {
+                    cumulative += counts[i++];
+                }
+                below[exponent - minExponent] = cumulative;
+            }
+            return below;
+        }
+
+        /**
+         * Valeur au centile demandé (0 à 100), milieu de l'intervalle qui la contient ; 0 si vide
+         */
+        public long valueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return (lowerBound(i) + upperBound(i) - 1) / 2;
+                }
+            }
+            return upperBound(BUCKETS - 1) - 1;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.sprint.metrics;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesures par route du FrontServlet et leur exposition au format texte Prometheus
+ *
+ * Une RouteMetrics est créée par clé de routage à l'enregistrement des routes : les compteurs
+ * sont regroupés par modèle de chemin ("/users/{id}"), jamais par chemin concret, et la mémoire
+ * utilisée ne dépend que du nombre de routes. Les requêtes sans route ne sont que comptées.
+ *
+ * Séries exposées :
+ *   sprint_http_requests_total{method,route}
+ *   sprint_http_request_errors_total{method,route}
+ *   sprint_http_response_bytes_total{method,route}
+ *   sprint_http_request_duration_seconds{method,route} (histogramme, bornes en puissances de deux)
+ *   sprint_http_unmatched_requests_total
+ */
+public final class MetricsRegistry {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // Bornes "le" de l'histogramme exporté : 2^10 ns (~1 µs) à 2^34 ns (~17 s)
+    private static final int MIN_EXPORTED_EXPONENT = 10;
+    private static final int MAX_EXPORTED_EXPONENT = 34;
+    private static final String[] BOUNDS = new String[MAX_EXPORTED_EXPONENT - MIN_EXPORTED_EXPONENT + 1];
+
+    static {
+        for (int exponent = MIN_EXPORTED_EXPONENT; exponent <= MAX_EXPORTED_EXPONENT; exponent++) {
+            BOUNDS[exponent - MIN_EXPORTED_EXPONENT] = Double.toString((1L << exponent) / 1e9);
+        }
+    }
+
+    private final Map<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final LongAdder unmatched = new LongAdder();
+    private final String path;
+
+    /**
+     * @param path chemin de l'endpoint d'exposition, null pour ne pas l'exposer
+     */
+    public MetricsRegistry(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Mesures de la route (créées au premier appel pour cette clé de routage)
+     */
+    public RouteMetrics register(String routeKey) {
+        return routes.computeIfAbsent(routeKey, RouteMetrics::new);
+    }
+
+    public void recordUnmatched() {
+        unmatched.increment();
+    }
+
+    /**
+     * Vérifie si le chemin est celui de l'endpoint d'exposition
+     */
+    public boolean isMetricsPath(String requestPath) {
+        return path != null && path.equals(requestPath);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Écrit toutes les séries au format texte Prometheus
+     */
+    public void traiter(HttpServletResponse resp) throws IOException {
+        resp.setContentType(CONTENT_TYPE);
+        resp.setHeader("Cache-Control", "no-store");
+        StringBuilder out = new StringBuilder(4096);
+        writePrometheus(out);
+        PrintWriter writer = resp.getWriter();
+        writer.write(out.toString());
+    }
+
+    public void writePrometheus(StringBuilder out) {
+        List<RouteMetrics> sorted = new ArrayList<>(routes.values());
+        sorted.sort((a, b) -> {
+            int byRoute = a.getRoute().compareTo(b.getRoute());
+            return byRoute != 0 ? byRoute : a.getMethod().compareTo(b.getMethod());
+        });
+
+        entete(out, "sprint_http_requests_total", "counter", "Requêtes traitées par route");
+        for (RouteMetrics metrics : sorted) {
+            serie(out, "sprint_http_requests_total", metrics, null).append(metrics.getRequestCount()).append('\n');
+        }
+        entete(out, "sprint_http_request_errors_total", "counter", "Requêtes terminées par une exception ou un statut 5xx");
+        for (RouteMetrics metrics : sorted) {
+            serie(out, "sprint_http_request_errors_total", metrics, null).append(metrics.getErrorCount()).append('\n');
+        }
+        entete(out, "sprint_http_response_bytes_total", "counter", "Octets du corps des réponses");
+        for (RouteMetrics metrics : sorted) {
+            serie(out, "sprint_http_response_bytes_total", metrics, null).append(metrics.getBytesWritten()).append('\n');
+        }
+        entete(out, "sprint_http_request_duration_seconds", "histogram", "Durée de traitement des requêtes");
+        for (RouteMetrics metrics : sorted) {
+            LatencyHistogram.Snapshot snapshot = metrics.getLatency().snapshot();
+            long[] below = snapshot.countsBelowPowersOfTwo(MIN_EXPORTED_EXPONENT, MAX_EXPORTED_EXPONENT);
+            for (int i = 0; i < below.length; i++) {
+                serie(out, "sprint_http_request_duration_seconds_bucket", metrics, BOUNDS[i])
+                        .append(below[i]).append('\n');
+            }
+            serie(out, "sprint_http_request_duration_seconds_bucket", metrics, "+Inf")
+                    .append(snapshot.getCount()).append('\n');
+            serie(out, "sprint_http_request_duration_seconds_sum", metrics, null)
+                    .append(snapshot.getSum() / 1e9).append('\n');
+            serie(out, "sprint_http_request_duration_seconds_count", metrics, null)
+                    .append(snapshot.getCount()).append('\n');
+        }
+        entete(out, "sprint_http_unmatched_requests_total", "counter", "Requêtes sans route correspondante");
+        out.append("sprint_http_unmatched_requests_total ").append(unmatched.sum()).append('\n');
+    }
+
+    /**
+     * Résumé par route (requêtes, erreurs, octets, centiles en microsecondes), prêt à être sérialisé en JSON
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        for (Map.Entry<String, RouteMetrics> entry : routes.entrySet()) {
+            RouteMetrics metrics = entry.getValue();
+            LatencyHistogram.Snapshot snapshot = metrics.getLatency().snapshot();
+            Map<String, Object> route = new LinkedHashMap<>();
+            route.put("requests", metrics.getRequestCount());
+            route.put("errors", metrics.getErrorCount());
+            route.put("bytes", metrics.getBytesWritten());
+            route.put("p50Micros", snapshot.valueAtPercentile(50) / 1000);
+            route.put("p99Micros", snapshot.valueAtPercentile(99) / 1000);
+            route.put("p999Micros", snapshot.valueAtPercentile(99.9) / 1000);
+            statistics.put(entry.getKey(), route);
+        }
+        statistics.put("unmatched", unmatched.sum());
+        return statistics;
+    }
+
+    private static void entete(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static StringBuilder serie(StringBuilder out, String name, RouteMetrics metrics, String le) {
+        out.append(name).append("{method=\"");
+        echapper(out, metrics.getMethod());
+        out.append("\",route=\"");
+        echapper(out, metrics.getRoute());
+        if (le != null) {
+            out.append("\",le=\"").append(le);
+        }
+        return out.append("\"} ");
+    }
+
+    /**
+     * Échappement des valeurs d'étiquette : barre oblique inverse, guillemet, saut de ligne
+     */
+    private static void echapper(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.append('\\').append(c);
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else {
+                out.append(c);
+            }
+        }
+    }
+}
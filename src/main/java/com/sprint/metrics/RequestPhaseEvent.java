@@ -0,0 +1,29 @@
+package com.sprint.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR : durée d'une étape du traitement d'une requête (recherche de route, session,
+ * sécurité, arguments, contrôleur, sérialisation, écriture, vue JSP)
+ *
+ * Activé par une configuration JFR, par exemple :
+ * java -XX:StartFlightRecording:settings=profile,com.sprint.RequestPhase#enabled=true ...
+ */
+@Name("com.sprint.RequestPhase")
+@Label("Request Phase")
+@Category({"Sprint", "HTTP"})
+@Description("Durée d'une étape du traitement d'une requête par FrontServlet")
+@StackTrace(false)
+final class RequestPhaseEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Phase")
+    String phase;
+}
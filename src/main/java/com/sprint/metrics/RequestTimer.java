@@ -0,0 +1,123 @@
+package com.sprint.metrics;
+
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.EventType;
+
+/**
+ * Chronométrage des étapes d'une requête, propre au thread qui la traite
+ *
+ * Les étapes se suivent : end(phase) attribue à la phase le temps écoulé depuis l'étape précédente.
+ * Chaque étape produit un événement JFR RequestPhaseEvent si une recording l'a activé, et peut
+ * être annoncée dans l'en-tête Server-Timing (sprint.debug.serverTiming). Sans l'un ni l'autre,
+ * start() renvoie null : l'appelant ne paie qu'un test de nullité par étape.
+ *
+ * L'en-tête part avec le corps : la sérialisation y figure, l'écriture du corps et la vue JSP non
+ * (seulement dans les événements JFR).
+ */
+public final class RequestTimer {
+
+    /**
+     * Étapes mesurées, dans l'ordre du traitement ; label : nom dans Server-Timing et dans JFR
+     */
+    public enum Phase {
+        LOOKUP("route"),
+        SESSION("session"),
+        SECURITY("security"),
+        ARGUMENTS("args"),
+        CONTROLLER("controller"),
+        SERIALIZATION("serialize"),
+        WRITE("write"),
+        VIEW("view");
+
+        final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final EventType EVENT_TYPE = EventType.getEventType(RequestPhaseEvent.class);
+
+    private final String path;
+    private final boolean serverTiming;
+    private final long[] durations = new long[PHASES.length];
+    private int recorded; // Bit par phase mesurée
+    private long last;
+    private RequestPhaseEvent event; // null : événements JFR inactifs
+
+    private RequestTimer(String path, boolean serverTiming, boolean jfr) {
+        this.path = path;
+        this.serverTiming = serverTiming;
+        if (jfr) {
+            event = new RequestPhaseEvent();
+            event.begin();
+        }
+        this.last = System.nanoTime();
+    }
+
+    /**
+     * @param path chemin de la requête (repris dans les événements JFR)
+     * @param serverTiming true pour produire l'en-tête Server-Timing
+     * @return null si ni l'en-tête ni l'événement JFR ne sont demandés
+     */
+    public static RequestTimer start(String path, boolean serverTiming) {
+        boolean jfr = EVENT_TYPE.isEnabled();
+        if (!jfr && !serverTiming) {
+            return null;
+        }
+        return new RequestTimer(path, serverTiming, jfr);
+    }
+
+    /**
+     * Termine une étape : le temps écoulé depuis l'étape précédente lui est attribué
+     * (cumulé si la même phase se termine plusieurs fois)
+     */
+    public void end(Phase phase) {
+        long now = System.nanoTime();
+        durations[phase.ordinal()] += now - last;
+        recorded |= 1 << phase.ordinal();
+        last = now;
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = path;
+                event.phase = phase.label;
+                event.commit();
+            }
+            event = new RequestPhaseEvent();
+            event.begin();
+        }
+    }
+
+    /**
+     * Durée cumulée d'une phase en nanosecondes (0 si elle n'a pas été mesurée)
+     */
+    public long getDuration(Phase phase) {
+        return durations[phase.ordinal()];
+    }
+
+    /**
+     * Pose l'en-tête Server-Timing des étapes terminées, si demandé et si la réponse n'est pas envoyée
+     * (durées en millisecondes, à la microseconde près : "route;dur=0.012, session;dur=0.004")
+     */
+    public void writeServerTiming(HttpServletResponse resp) {
+        if (!serverTiming || recorded == 0 || resp.isCommitted()) {
+            return;
+        }
+        StringBuilder header = new StringBuilder(24 * PHASES.length);
+        for (Phase phase : PHASES) {
+            if ((recorded & (1 << phase.ordinal())) == 0) {
+                continue;
+            }
+            if (header.length() > 0) {
+                header.append(", ");
+            }
+            long micros = durations[phase.ordinal()] / 1000;
+            long fraction = micros % 1000;
+            header.append(phase.label).append(";dur=").append(micros / 1000).append('.')
+                    .append(fraction < 100 ? (fraction < 10 ? "00" : "0") : "").append(fraction);
+        }
+        resp.setHeader("Server-Timing", header.toString());
+    }
+}
@@ -0,0 +1,70 @@
+package com.sprint.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesures d'une route enregistrée (clé de routage, par exemple "GET:/users/{id}") :
+ * requêtes, erreurs (exception ou statut 5xx), octets écrits et histogramme des durées
+ */
+public final class RouteMetrics {
+
+    private final String method;
+    private final String route;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    RouteMetrics(String key) {
+        int separator = key.indexOf(':');
+        this.method = separator > 0 ? key.substring(0, separator) : "*";
+        this.route = separator > 0 ? key.substring(separator + 1) : key;
+    }
+
+    /**
+     * @param nanos durée de traitement
+     * @param status statut HTTP envoyé
+     * @param bytesWritten octets du corps de la réponse
+     * @param failed true si le traitement s'est terminé par une exception
+     */
+    public void record(long nanos, int status, long bytesWritten, boolean failed) {
+        requests.increment();
+        if (failed || status >= 500) {
+            errors.increment();
+        }
+        if (bytesWritten > 0) {
+            bytes.add(bytesWritten);
+        }
+        latency.record(nanos);
+    }
+
+    /**
+     * Méthode HTTP de la route, "*" si la clé n'en précise pas
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Modèle de chemin, paramètres non substitués
+     */
+    public String getRoute() {
+        return route;
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    public long getBytesWritten() {
+        return bytes.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
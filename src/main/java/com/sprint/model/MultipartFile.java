@@ -14,6 +14,7 @@ public class MultipartFile {
     private long size;
     private byte[] bytes;
     private InputStream inputStream;
+    private Path file; // contenu stocké sur disque (upload reprenable)
     private boolean empty;
 
     public MultipartFile() {
@@ -63,6 +64,13 @@ public class MultipartFile {
     }
 
     public byte[] getBytes() {
+        if (bytes == null && file != null) {
+            try {
+                return Files.readAllBytes(file);
+            } catch (IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+        }
         return bytes;
     }
 
@@ -72,6 +80,13 @@ public class MultipartFile {
     }
 
     public InputStream getInputStream() {
+        if (inputStream == null && file != null) {
+            try {
+                return Files.newInputStream(file);
+            } catch (IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+        }
         return inputStream;
     }
 
@@ -79,6 +94,14 @@ public class MultipartFile {
         this.inputStream = inputStream;
     }
 
+    public Path getFile() {
+        return file;
+    }
+
+    public void setFile(Path file) {
+        this.file = file;
+    }
+
     public boolean isEmpty() {
         return empty;
     }
@@ -107,7 +130,15 @@ public class MultipartFile {
     }
 
     public void transferTo(File dest) throws IOException {
-        if (bytes != null) {
+        if (file != null) {
+            // Contenu déjà sur disque : déplacement plutôt que copie
+            try {
+                Files.move(file, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                Files.copy(file, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            file = dest.toPath();
+        } else if (bytes != null) {
             Files.write(dest.toPath(), bytes);
         } else if (inputStream != null) {
             Files.copy(inputStream, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
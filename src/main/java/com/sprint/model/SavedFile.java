@@ -0,0 +1,70 @@
+package com.sprint.model;
+
+/**
+ * Descripteur d'un fichier sauvegardé dans le stockage adressé par contenu
+ * (voir MultipartRequestHandler.saveAllFilesAsync)
+ */
+public class SavedFile {
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+    private final long size;
+    private final String sha256;
+    private final String path;
+    private final boolean deduplicated;
+
+    public SavedFile(String name, String originalFilename, String contentType, long size,
+                     String sha256, String path, boolean deduplicated) {
+        this.name = name;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.size = size;
+        this.sha256 = sha256;
+        this.path = path;
+        this.deduplicated = deduplicated;
+    }
+
+    // Getters
+    public String getName() {
+        return name;
+    }
+
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * true si un fichier de même contenu existait déjà (aucune nouvelle écriture conservée)
+     */
+    public boolean isDeduplicated() {
+        return deduplicated;
+    }
+
+    @Override
+    public String toString() {
+        return "SavedFile{" +
+                "name='" + name + '\'' +
+                ", originalFilename='" + originalFilename + '\'' +
+                ", size=" + size +
+                ", sha256='" + sha256 + '\'' +
+                ", path='" + path + '\'' +
+                ", deduplicated=" + deduplicated +
+                '}';
+    }
+}
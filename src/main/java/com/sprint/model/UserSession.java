@@ -1,29 +1,96 @@
 package com.sprint.model;
 
+import com.sprint.security.AuthorizationSnapshot;
+import com.sprint.security.PermissionRegistry;
+import com.sprint.security.RoleDefinition;
+import com.sprint.security.RoleRegistry;
+import com.sprint.session.SessionClock;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Classe représentant une session utilisateur avec gestion des rôles
  * Utilisée avec le système de session basé sur Map du framework Sprint
+ *
+ * Sûre en accès concurrent : les rôles sont une liste copy-on-write (lectures sans verrou,
+ * écritures rares), les attributs un ConcurrentHashMap, les champs simples sont volatils.
+ * Sérialisable pour le stockage des sessions hors du heap.
+ *
+ * Les droits effectifs (union des masques de permissions des rôles, rôle le plus élevé) sont
+ * recalculés à chaque changement de rôles ou de définitions de rôles (RoleRegistry) ; ils ne sont
+ * pas sérialisés et se recalculent au besoin.
+ * Chaque changement de rôles, d'authentification ou d'identité attribue une nouvelle version
+ * (unique dans la JVM) : les données qui en dérivent ne sont recalculées que si elle a changé.
+ * Les décisions d'autorisation par route (SecurityPolicy) sont mises en cache sous cette version.
+ * Une connexion ou une déconnexion change en plus la version d'authentification : SessionManager
+ * attribue alors un nouvel ID à la session (protection contre la fixation de session).
+ *
+ * Une identité en lecture seule (makeReadOnly) est portée par la requête, par exemple un jeton
+ * porteur : partagée entre les requêtes du même jeton, elle refuse toute modification et n'est
+ * jamais recopiée dans la session.
  */
-public class UserSession {
+public class UserSession implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    // Départ aléatoire : une version restaurée d'une exécution précédente ne coïncide pas avec une nouvelle
+    private static final AtomicLong VERSIONS = new AtomicLong(ThreadLocalRandom.current().nextLong() >>> 1);
+    
+    private volatile String userId;
+    private volatile String username;
+    private volatile String email;
+    private volatile CopyOnWriteArrayList<String> roles;
+    private volatile long loginTime;
+    private volatile long lastActivity;
+    private volatile boolean authenticated;
+    private volatile Map<String, Object> attributes;
+    private transient volatile Droits droits;
+    private transient volatile Decisions decisions;
+    private volatile long version = nextVersion();
+    private volatile long authenticationVersion;
+    private transient volatile boolean readOnly;
     
-    private String userId;
-    private String username;
-    private String email;
-    private List<String> roles;
-    private long loginTime;
-    private long lastActivity;
-    private boolean authenticated;
-    private Map<String, Object> attributes;
+    /**
+     * Droits dérivés des rôles, publiés d'un bloc
+     */
+    private static final class Droits {
+        final long[] permissionMask;
+        final RoleDefinition highestRole;
+        final AuthorizationSnapshot snapshot; // Modèle d'autorisation ayant servi au calcul
+        
+        Droits(long[] permissionMask, RoleDefinition highestRole, AuthorizationSnapshot snapshot) {
+            this.permissionMask = permissionMask;
+            this.highestRole = highestRole;
+            this.snapshot = snapshot;
+        }
+    }
+    
+    /**
+     * Décisions d'autorisation par route, valables pour une seule version de l'utilisateur :
+     * tout changement de rôles, d'authentification ou de définitions de rôles les invalide d'un coup.
+     * Une écriture d'octet est atomique : une écriture concurrente perdue n'est qu'un échec de cache.
+     */
+    private static final class Decisions {
+        final long version;
+        final byte[] outcomes; // 0 : pas de décision
+
+        Decisions(long version, byte[] outcomes) {
+            this.version = version;
+            this.outcomes = outcomes;
+        }
+    }
     
     /**
      * Constructeur par défaut
      */
     public UserSession() {
-        this.roles = new ArrayList<>();
+        this.roles = new CopyOnWriteArrayList<>();
         this.loginTime = System.currentTimeMillis();
         this.lastActivity = System.currentTimeMillis();
         this.authenticated = false;
@@ -94,8 +161,9 @@ public class UserSession {
      * Ajoute un rôle à l'utilisateur
      */
     public void addRole(String role) {
-        if (!roles.contains(role)) {
-            roles.add(role);
+        verifierModifiable();
+        if (roles.addIfAbsent(role)) {
+            recalculerDroits();
         }
     }
     
@@ -103,35 +171,167 @@ public class UserSession {
      * Retire un rôle à l'utilisateur
      */
     public void removeRole(String role) {
-        roles.remove(role);
+        verifierModifiable();
+        if (roles.remove(role)) {
+            recalculerDroits();
+        }
     }
     
     /**
      * Authentifie l'utilisateur avec ses rôles
      */
     public void authenticate(List<String> userRoles) {
-        this.authenticated = true;
-        this.roles.clear();
-        if (userRoles != null) {
-            this.roles.addAll(userRoles);
-        }
+        verifierModifiable();
+        // Les rôles sont remplacés d'un bloc avant de publier l'authentification
+        this.roles = userRoles != null ? new CopyOnWriteArrayList<>(userRoles) : new CopyOnWriteArrayList<>();
+        recalculerDroits();
         this.loginTime = System.currentTimeMillis();
-        this.lastActivity = System.currentTimeMillis();
+        this.lastActivity = this.loginTime;
+        this.authenticated = true;
+        this.version = nextVersion();
+        this.authenticationVersion = this.version;
     }
     
     /**
      * Déconnecte l'utilisateur
      */
     public void logout() {
+        verifierModifiable();
         this.authenticated = false;
-        this.roles.clear();
+        this.roles = new CopyOnWriteArrayList<>();
+        recalculerDroits();
+        this.authenticationVersion = nextVersion();
+    }
+    
+    /**
+     * Fige l'identité : rôles, authentification, identité et attributs ne changent plus ;
+     * les droits et les décisions mis en cache restent valables d'une requête à l'autre
+     */
+    public void makeReadOnly() {
+        readOnly = true;
+    }
+    
+    /**
+     * true pour une identité portée par la requête (jeton porteur), à ne pas enregistrer en session
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+    
+    private void verifierModifiable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("UserSession en lecture seule (identité portée par la requête)");
+        }
+    }
+    
+    private static long nextVersion() {
+        long next = VERSIONS.incrementAndGet();
+        return next != 0 ? next : VERSIONS.incrementAndGet(); // 0 est réservé à « pas d'utilisateur »
+    }
+    
+    /**
+     * Version des rôles, de l'authentification et de l'identité ; change à chaque modification,
+     * y compris au rechargement des définitions de rôles
+     */
+    public long getVersion() {
+        droits();
+        return version;
+    }
+    
+    /**
+     * Version de l'état d'authentification : change à chaque connexion ou déconnexion (0 avant la première)
+     */
+    public long getAuthenticationVersion() {
+        return authenticationVersion;
+    }
+    
+    /**
+     * Union des masques de permissions des rôles (voir PermissionRegistry), sans tenir compte
+     * de l'authentification ; ne pas modifier le tableau renvoyé
+     */
+    public long[] getPermissionMask() {
+        return droits().permissionMask;
+    }
+    
+    /**
+     * Définition du rôle de plus haut niveau parmi les rôles (ANONYME si aucun)
+     */
+    public RoleDefinition getHighestRoleDefinition() {
+        return droits().highestRole;
+    }
+    
+    /**
+     * Décision d'autorisation mise en cache pour une route
+     * @param version version lue (getVersion) avant d'évaluer la route
+     * @return la décision enregistrée pour cette version, 0 s'il n'y en a pas
+     */
+    public int getCachedDecision(int routeId, long version) {
+        Decisions current = decisions;
+        if (current == null || current.version != version || routeId < 0 || routeId >= current.outcomes.length) {
+            return 0;
+        }
+        return current.outcomes[routeId];
+    }
+    
+    /**
+     * Enregistre une décision d'autorisation (valeur non nulle tenant sur un octet)
+     * @param version version lue avant l'évaluation : une décision calculée pendant un changement
+     *                de droits est enregistrée sous l'ancienne version, donc jamais relue
+     */
+    public void cacheDecision(int routeId, long version, int outcome) {
+        if (routeId < 0 || outcome == 0 || outcome != (byte) outcome) {
+            return;
+        }
+        Decisions current = decisions;
+        if (current == null || current.version != version || routeId >= current.outcomes.length) {
+            byte[] outcomes = new byte[Math.max(16, Integer.highestOneBit(routeId) << 1)];
+            if (current != null && current.version == version) {
+                System.arraycopy(current.outcomes, 0, outcomes, 0, current.outcomes.length);
+            }
+            current = new Decisions(version, outcomes);
+            decisions = current;
+        }
+        current.outcomes[routeId] = (byte) outcome;
     }
     
     /**
-     * Met à jour le timestamp de dernière activité
+     * Droits à jour : recalculés si les définitions de rôles ont été rechargées depuis
+     */
+    private Droits droits() {
+        Droits current = droits;
+        return current != null && current.snapshot == RoleRegistry.current() ? current : recalculerDroits();
+    }
+    
+    /**
+     * Synchronisé : le dernier calcul publié voit toujours toutes les modifications de rôles qui le précèdent
+     */
+    private synchronized Droits recalculerDroits() {
+        AuthorizationSnapshot snapshot = RoleRegistry.current();
+        long[] mask = PermissionRegistry.EMPTY;
+        RoleDefinition highest = snapshot.anonymous();
+        boolean aucun = true;
+        for (String roleName : roles) {
+            RoleDefinition role = snapshot.definition(roleName); // Rôle inconnu : ANONYME
+            mask = PermissionRegistry.union(mask, role.getPermissionMask());
+            if (aucun || role.getLevel() > highest.getLevel()) {
+                highest = role;
+                aucun = false;
+            }
+        }
+        Droits computed = new Droits(mask, highest, snapshot);
+        droits = computed;
+        version = nextVersion();
+        return computed;
+    }
+    
+    /**
+     * Met à jour le timestamp de dernière activité (horloge grossière des sessions)
      */
     public void updateLastActivity() {
-        this.lastActivity = System.currentTimeMillis();
+        long now = SessionClock.currentTimeMillis();
+        if (this.lastActivity != now) {
+            this.lastActivity = now;
+        }
     }
     
     /**
@@ -152,6 +352,7 @@ public class UserSession {
      * Sauvegarde cette instance dans la Map de session
      */
     public void saveToSessionMap(Map<String, Object> sessionMap) {
+        verifierModifiable();
         if (sessionMap != null) {
             sessionMap.put("userSession", this);
         }
@@ -163,7 +364,9 @@ public class UserSession {
     }
     
     public void setUserId(String userId) {
+        verifierModifiable();
         this.userId = userId;
+        this.version = nextVersion();
     }
     
     public String getUsername() {
@@ -171,7 +374,9 @@ public class UserSession {
     }
     
     public void setUsername(String username) {
+        verifierModifiable();
         this.username = username;
+        this.version = nextVersion();
     }
     
     public String getEmail() {
@@ -179,6 +384,7 @@ public class UserSession {
     }
     
     public void setEmail(String email) {
+        verifierModifiable();
         this.email = email;
     }
     
@@ -187,7 +393,9 @@ public class UserSession {
     }
     
     public void setRoles(List<String> roles) {
-        this.roles = roles != null ? new ArrayList<>(roles) : new ArrayList<>();
+        verifierModifiable();
+        this.roles = roles != null ? new CopyOnWriteArrayList<>(roles) : new CopyOnWriteArrayList<>();
+        recalculerDroits();
     }
     
     public long getLoginTime() {
@@ -195,7 +403,9 @@ public class UserSession {
     }
     
     public void setLoginTime(long loginTime) {
+        verifierModifiable();
         this.loginTime = loginTime;
+        this.version = nextVersion();
     }
     
     public long getLastActivity() {
@@ -211,7 +421,10 @@ public class UserSession {
     }
     
     public void setAuthenticated(boolean authenticated) {
+        verifierModifiable();
         this.authenticated = authenticated;
+        this.version = nextVersion();
+        this.authenticationVersion = this.version;
     }
     
     public Map<String, Object> getAttributes() {
@@ -219,24 +432,48 @@ public class UserSession {
     }
     
     public void setAttributes(Map<String, Object> attributes) {
-        this.attributes = attributes;
+        verifierModifiable();
+        if (attributes == null) {
+            this.attributes = null;
+            return;
+        }
+        Map<String, Object> copy = new ConcurrentHashMap<>();
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                copy.put(entry.getKey(), entry.getValue());
+            }
+        }
+        this.attributes = copy;
     }
     
     /**
-     * Ajoute un attribut personnalisé
+     * Ajoute un attribut personnalisé (une valeur null retire l'attribut)
      */
     public void setAttribute(String key, Object value) {
-        if (attributes == null) {
-            attributes = new java.util.HashMap<>();
+        verifierModifiable();
+        Map<String, Object> current = attributes;
+        if (current == null) {
+            synchronized (this) {
+                current = attributes;
+                if (current == null) {
+                    current = new ConcurrentHashMap<>();
+                    attributes = current;
+                }
+            }
+        }
+        if (value == null) {
+            current.remove(key);
+        } else {
+            current.put(key, value);
         }
-        attributes.put(key, value);
     }
     
     /**
      * Récupère un attribut personnalisé
      */
     public Object getAttribute(String key) {
-        return attributes != null ? attributes.get(key) : null;
+        Map<String, Object> current = attributes;
+        return current != null ? current.get(key) : null;
     }
     
     @Override
@@ -0,0 +1,254 @@
+package com.sprint.security;
+
+import com.sprint.log.Logger;
+import com.sprint.log.RingBuffer;
+import com.sprint.util.PrivateFiles;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Journal d'audit de sécurité asynchrone : anneau pré-alloué, un seul thread d'écriture,
+ * fichier JSON lines à rotation
+ *
+ * Les threads de requête réservent une case de l'anneau (RingBuffer) et y recopient les
+ * références de l'événement : ni allocation, ni verrou, ni entrée-sortie sur le chemin de la requête.
+ * Anneau plein : l'événement est abandonné et compté (une attaque ne doit pas ralentir les requêtes).
+ * Le thread d'écriture vide l'anneau par lots, formate et écrit chaque lot d'un bloc, et fait
+ * tourner le fichier (audit.log, audit.log.1 ...) au-delà de maxBytes. Répertoire et fichiers sont
+ * réservés au compte du processus (PrivateFiles).
+ */
+public final class AuditLog {
+
+    private static final Logger LOG = Logger.getLogger(AuditLog.class);
+
+    /**
+     * Nature d'un événement d'audit
+     */
+    public enum Type {
+        DENIED, RATE_LIMITED, PRIVILEGED
+    }
+
+    private static final int BATCH = 512;
+    private static final long IDLE_PARK_NANOS = 100_000_000L; // Réveillé par le producteur avant
+
+    /**
+     * Événement en attente, réutilisé d'un tour d'anneau à l'autre
+     */
+    private static final class Slot {
+        long timestamp;
+        Type type;
+        String user;
+        String route;
+        String reason;
+        String address;
+    }
+
+    private final RingBuffer<Slot> ring;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final int maxFiles;
+    private Writer writer;
+    private long fileBytes;
+
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder saturated = new LongAdder();
+    // Écrits par le seul thread d'écriture
+    private volatile long written;
+    private volatile long batches;
+    private volatile long rotations;
+    private volatile long writeErrors;
+
+    /**
+     * @param directory répertoire du journal (créé rwx------, ou refusé s'il appartient à un autre utilisateur)
+     * @param capacity taille de l'anneau (arrondie à une puissance de deux)
+     * @param maxBytes taille d'un fichier avant rotation
+     * @param maxFiles nombre de fichiers conservés (audit.log compris)
+     */
+    public AuditLog(Path directory, int capacity, long maxBytes, int maxFiles) throws IOException {
+        this.ring = new RingBuffer<>(capacity, Slot::new);
+        this.directory = directory;
+        this.maxBytes = Math.max(4096, maxBytes);
+        this.maxFiles = Math.max(1, maxFiles);
+        PrivateFiles.createDirectory(directory);
+        ouvrir();
+
+        this.thread = new Thread(this::ecrire, "sprint-audit-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Ajoute un événement ; ne bloque jamais
+     * @return false si l'anneau était plein (événement abandonné)
+     */
+    public boolean record(Type type, String user, String route, String reason, String address) {
+        long position = ring.claim();
+        if (position < 0) {
+            dropped.increment();
+            return false;
+        }
+        if (ring.pending() > ring.capacity() * 3L / 4) {
+            saturated.increment(); // Écrivain en retard : l'anneau est aux trois quarts plein
+        }
+        Slot slot = ring.get(position);
+        slot.timestamp = System.currentTimeMillis();
+        slot.type = type;
+        slot.user = user;
+        slot.route = route;
+        slot.reason = reason;
+        slot.address = address;
+        ring.publish(position);
+        recorded.increment();
+        return true;
+    }
+
+    private void ecrire() {
+        StringBuilder lot = new StringBuilder(64 * 1024);
+        Consumer<Slot> formater = slot -> formater(lot, slot);
+        while (running || !ring.isEmpty()) {
+            int count = ring.drain(BATCH, formater);
+            if (count == 0) {
+                ring.awaitData(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                if (fileBytes >= maxBytes) {
+                    tourner();
+                }
+                writer.write(lot.toString());
+                writer.flush();
+                fileBytes += lot.length();
+                written += count;
+                batches++;
+            } catch (IOException e) {
+                writeErrors++;
+                LOG.error("Écriture du journal d'audit impossible: {}", e.getMessage());
+            }
+            lot.setLength(0);
+        }
+    }
+
+    /**
+     * Formate un événement retiré de l'anneau en JSON line et libère ses références
+     */
+    private static void formater(StringBuilder lot, Slot slot) {
+        lot.append("{\"ts\":\"").append(Instant.ofEpochMilli(slot.timestamp))
+                .append("\",\"type\":\"").append(slot.type.name()).append('"');
+        champ(lot, "user", slot.user);
+        champ(lot, "route", slot.route);
+        champ(lot, "reason", slot.reason);
+        champ(lot, "ip", slot.address);
+        lot.append("}\n");
+        slot.user = null;
+        slot.route = null;
+        slot.reason = null;
+        slot.address = null;
+    }
+
+    private static void champ(StringBuilder lot, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        lot.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': lot.append("\\\""); break;
+                case '\\': lot.append("\\\\"); break;
+                case '\n': lot.append("\\n"); break;
+                case '\r': lot.append("\\r"); break;
+                case '\t': lot.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        lot.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        lot.append(c);
+                    }
+            }
+        }
+        lot.append('"');
+    }
+
+    private void ouvrir() throws IOException {
+        Path file = directory.resolve("audit.log");
+        PrivateFiles.createFile(file);
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileBytes = Files.size(file);
+    }
+
+    /**
+     * audit.log devient audit.log.1, audit.log.1 devient audit.log.2 ... ; le plus ancien est supprimé
+     */
+    private void tourner() throws IOException {
+        writer.close();
+        Files.deleteIfExists(directory.resolve("audit.log." + (maxFiles - 1)));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            Path source = directory.resolve("audit.log." + i);
+            if (Files.exists(source)) {
+                Files.move(source, directory.resolve("audit.log." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(directory.resolve("audit.log"), directory.resolve("audit.log.1"),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(directory.resolve("audit.log"));
+        }
+        rotations++;
+        ouvrir();
+    }
+
+    /**
+     * Arrête l'écrivain après avoir écrit les événements en attente
+     */
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            writer.close();
+        } catch (IOException ignored) {
+            // Fermeture best effort
+        }
+    }
+
+    /**
+     * Compteurs : événements enregistrés, abandonnés (anneau plein), ajoutés anneau presque plein,
+     * écrits, lots, rotations, en attente
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("auditRecorded", recorded.sum());
+        statistics.put("auditDropped", dropped.sum());
+        statistics.put("auditSaturated", saturated.sum());
+        statistics.put("auditWritten", written);
+        statistics.put("auditBatches", batches);
+        statistics.put("auditRotations", rotations);
+        statistics.put("auditWriteErrors", writeErrors);
+        statistics.put("auditPending", ring.pending());
+        statistics.put("auditCapacity", ring.capacity());
+        return statistics;
+    }
+}
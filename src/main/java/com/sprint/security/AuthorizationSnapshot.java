@@ -0,0 +1,100 @@
+package com.sprint.security;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Modèle d'autorisation figé : définitions des rôles indexées par nom et par rôle intégré
+ *
+ * Jamais modifié après construction ; RoleRegistry remplace l'instance courante d'un bloc,
+ * si bien que les lectures sur le chemin des requêtes se font sans verrou.
+ */
+public final class AuthorizationSnapshot {
+
+    private final long generation;
+    private final String source;
+    private final Map<String, RoleDefinition> byName;
+    private final RoleDefinition[] builtIns; // Indexé par Role.ordinal()
+    private final RoleDefinition anonymous;
+    private final Set<String> variableNames;
+
+    AuthorizationSnapshot(Collection<RoleDefinition> definitions, long generation, String source) {
+        Map<String, RoleDefinition> index = new LinkedHashMap<>();
+        Set<String> names = new LinkedHashSet<>();
+        for (RoleDefinition definition : definitions) {
+            index.put(definition.getName().toUpperCase(), definition);
+            names.addAll(definition.getVariables().keySet());
+        }
+        this.builtIns = new RoleDefinition[Role.values().length];
+        for (Role role : Role.values()) {
+            RoleDefinition definition = index.get(role.name());
+            if (definition == null) {
+                throw new IllegalArgumentException("Définition manquante pour le rôle intégré " + role.name());
+            }
+            builtIns[role.ordinal()] = definition;
+        }
+        this.byName = Collections.unmodifiableMap(index);
+        this.anonymous = builtIns[Role.ANONYME.ordinal()];
+        this.variableNames = Collections.unmodifiableSet(names);
+        this.generation = generation;
+        this.source = source;
+    }
+
+    /**
+     * Numéro de version du modèle, croissant à chaque rechargement
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Origine des définitions ("intégré" ou chemin du fichier)
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Définition d'un rôle intégré
+     */
+    public RoleDefinition definition(Role role) {
+        return builtIns[role.ordinal()];
+    }
+
+    /**
+     * Définition d'un rôle par son nom (insensible à la casse), ANONYME si le rôle est inconnu
+     */
+    public RoleDefinition definition(String roleName) {
+        if (roleName == null) {
+            return anonymous;
+        }
+        RoleDefinition definition = byName.get(roleName);
+        if (definition == null) {
+            definition = byName.get(roleName.toUpperCase());
+        }
+        return definition != null ? definition : anonymous;
+    }
+
+    public boolean isDefined(String roleName) {
+        return roleName != null && byName.containsKey(roleName.toUpperCase());
+    }
+
+    public RoleDefinition anonymous() {
+        return anonymous;
+    }
+
+    public Collection<RoleDefinition> getRoles() {
+        return byName.values();
+    }
+
+    /**
+     * Noms de toutes les variables de rôle, tous rôles confondus
+     */
+    public Set<String> getVariableNames() {
+        return variableNames;
+    }
+}
@@ -0,0 +1,306 @@
+package com.sprint.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sprint.model.UserSession;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Authentification par jeton porteur (en-tête "Authorization: Bearer ..."), jetons JWT signés HS256
+ *
+ * Seul l'algorithme HS256 est accepté (ni "none", ni algorithme choisi par le jeton) ; la signature
+ * est comparée en temps constant. Revendications lues : "sub" (obligatoire, identifiant),
+ * "exp" / "nbf" (secondes, avec une tolérance d'horloge), "iss" et "aud" si l'émetteur ou
+ * l'audience attendus sont configurés, "roles" (tableau ou chaîne séparée par des espaces ou
+ * des virgules), "name" ou "preferred_username", "email", "iat".
+ *
+ * Les jetons vérifiés sont mis en cache (valeur exacte du jeton vers revendications utiles) :
+ * un client qui réutilise son jeton ne paie ni le HMAC ni l'analyse JSON, l'expiration restant
+ * contrôlée à chaque requête. Les requêtes d'un même jeton partagent une UserSession en lecture
+ * seule, construite une fois : ses droits et ses décisions d'autorisation par route restent en
+ * cache d'une requête à l'autre, et un contrôleur ne peut pas la modifier.
+ */
+public final class BearerTokenAuthenticator {
+
+    private static final String SCHEME = "Bearer ";
+    private static final int MAX_TOKEN_LENGTH = 8192;
+    private static final int MAX_CACHED_TOKEN = 2048; // Au-delà, la vérification n'est pas mise en cache
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final String issuer;
+    private final String audience;
+    private final long clockSkewMillis;
+    private final int cacheSize;
+
+    // Mac n'est pas sûr en accès concurrent : une instance par thread
+    private final ThreadLocal<Mac> macs;
+
+    private final ConcurrentHashMap<String, Claims> verified = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    /**
+     * Revendications d'un jeton vérifié, immuables
+     */
+    private static final class Claims {
+        final String subject;
+        final String username;
+        final String email;
+        final List<String> roles;
+        final long issuedAt;   // millisecondes, 0 si absent
+        final long notBefore;  // millisecondes, 0 si absent
+        final long expiresAt;  // millisecondes, Long.MAX_VALUE si absent
+        volatile UserSession user; // Construite à la première requête, en lecture seule
+
+        Claims(String subject, String username, String email, List<String> roles,
+               long issuedAt, long notBefore, long expiresAt) {
+            this.subject = subject;
+            this.username = username;
+            this.email = email;
+            this.roles = roles;
+            this.issuedAt = issuedAt;
+            this.notBefore = notBefore;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * @param secret secret HMAC partagé avec l'émetteur des jetons (au moins 32 octets)
+     * @param issuer émetteur attendu ("iss"), null pour ne pas le contrôler
+     * @param audience audience attendue ("aud"), null pour ne pas la contrôler
+     * @param clockSkewSeconds tolérance d'horloge sur "exp" et "nbf"
+     * @param cacheSize nombre de jetons vérifiés conservés en cache
+     */
+    public BearerTokenAuthenticator(byte[] secret, String issuer, String audience,
+                                    long clockSkewSeconds, int cacheSize) {
+        if (secret == null || secret.length < 32) {
+            throw new IllegalArgumentException("Le secret des jetons porteurs doit faire au moins 32 octets");
+        }
+        this.key = new SecretKeySpec(secret.clone(), "HmacSHA256");
+        this.issuer = issuer;
+        this.audience = audience;
+        this.clockSkewMillis = Math.max(0, clockSkewSeconds) * 1000;
+        this.cacheSize = Math.max(0, cacheSize);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 indisponible", e);
+            }
+        });
+    }
+
+    /**
+     * true si l'en-tête Authorization porte un jeton "Bearer"
+     */
+    public static boolean isBearer(String authorization) {
+        return authorization != null && authorization.regionMatches(true, 0, SCHEME, 0, SCHEME.length());
+    }
+
+    /**
+     * Vérifie le jeton de l'en-tête Authorization
+     * @return une session authentifiée avec les rôles du jeton, ou null si le jeton est absent,
+     *         mal formé, falsifié, expiré ou pas encore valide
+     */
+    public UserSession authenticate(String authorization) {
+        if (!isBearer(authorization)) {
+            return null;
+        }
+        String token = authorization.substring(SCHEME.length()).trim();
+        if (token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
+            rejected.increment();
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        Claims claims = verified.get(token);
+        if (claims != null) {
+            cacheHits.increment();
+        } else {
+            claims = verifier(token);
+            if (claims == null) {
+                rejected.increment();
+                return null;
+            }
+            cacher(token, claims, now);
+        }
+        if (now - clockSkewMillis >= claims.expiresAt) {
+            verified.remove(token);
+            expired.increment();
+            return null;
+        }
+        if (now + clockSkewMillis < claims.notBefore) {
+            rejected.increment();
+            return null;
+        }
+        return materialiser(claims);
+    }
+
+    /**
+     * Session partagée du jeton (deux requêtes simultanées peuvent en construire chacune une :
+     * la dernière publiée sert ensuite)
+     */
+    private UserSession materialiser(Claims claims) {
+        UserSession user = claims.user;
+        if (user == null) {
+            user = new UserSession(claims.subject, claims.username, claims.email);
+            user.authenticate(claims.roles);
+            if (claims.issuedAt > 0) {
+                user.setLoginTime(claims.issuedAt);
+            }
+            user.makeReadOnly();
+            claims.user = user;
+        }
+        return user;
+    }
+
+    /**
+     * Vérifie signature et en-tête, puis lit les revendications (sans contrôle de date)
+     */
+    private Claims verifier(String token) {
+        verifications.increment();
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (first <= 0 || second <= first + 1 || token.indexOf('.', second + 1) >= 0) {
+            return null;
+        }
+        try {
+            byte[] expected = macs.get().doFinal(token.substring(0, second).getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(expected, DECODER.decode(token.substring(second + 1)))) {
+                return null;
+            }
+            JsonNode header = MAPPER.readTree(DECODER.decode(token.substring(0, first)));
+            if (header == null || !"HS256".equals(texte(header, "alg"))) {
+                return null;
+            }
+            JsonNode payload = MAPPER.readTree(DECODER.decode(token.substring(first + 1, second)));
+            return payload != null && payload.isObject() ? lire(payload) : null;
+        } catch (IllegalArgumentException | IOException e) {
+            return null; // Base64 ou JSON invalide
+        }
+    }
+
+    private Claims lire(JsonNode payload) {
+        String subject = texte(payload, "sub");
+        if (subject == null || subject.isEmpty()) {
+            return null;
+        }
+        if (issuer != null && !issuer.equals(texte(payload, "iss"))) {
+            return null;
+        }
+        if (audience != null && !audienceContient(payload.get("aud"))) {
+            return null;
+        }
+        String username = texte(payload, "name");
+        if (username == null) {
+            username = texte(payload, "preferred_username");
+        }
+        return new Claims(subject, username != null ? username : subject, texte(payload, "email"),
+                roles(payload.get("roles")),
+                secondes(payload, "iat", 0), secondes(payload, "nbf", 0), secondes(payload, "exp", Long.MAX_VALUE));
+    }
+
+    private boolean audienceContient(JsonNode aud) {
+        if (aud == null) {
+            return false;
+        }
+        if (aud.isArray()) {
+            for (JsonNode value : aud) {
+                if (audience.equals(value.asText())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return audience.equals(aud.asText());
+    }
+
+    private static List<String> roles(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return Collections.emptyList();
+        }
+        List<String> roles = new ArrayList<>();
+        if (node.isArray()) {
+            for (JsonNode role : node) {
+                ajouterRole(roles, role.asText());
+            }
+        } else {
+            for (String role : node.asText().split("[\\s,]+")) {
+                ajouterRole(roles, role);
+            }
+        }
+        return List.copyOf(roles);
+    }
+
+    private static void ajouterRole(List<String> roles, String role) {
+        String name = role.trim().toUpperCase();
+        if (!name.isEmpty() && !roles.contains(name)) {
+            roles.add(name);
+        }
+    }
+
+    private static String texte(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && value.isValueNode() && !value.isNull() ? value.asText() : null;
+    }
+
+    /**
+     * Date numérique JWT (secondes) en millisecondes
+     */
+    private static long secondes(JsonNode node, String field, long defaut) {
+        JsonNode value = node.get(field);
+        if (value == null || !value.isNumber()) {
+            return defaut;
+        }
+        long seconds = value.asLong();
+        return seconds >= Long.MAX_VALUE / 1000 ? Long.MAX_VALUE : seconds * 1000;
+    }
+
+    /**
+     * Cache borné : purgé des jetons expirés lorsqu'il est plein, vidé d'un bloc s'il le reste
+     */
+    private void cacher(String token, Claims claims, long now) {
+        if (cacheSize == 0 || token.length() > MAX_CACHED_TOKEN) {
+            return;
+        }
+        if (verified.size() >= cacheSize) {
+            verified.values().removeIf(cached -> now - clockSkewMillis >= cached.expiresAt);
+            if (verified.size() >= cacheSize) {
+                verified.clear();
+            }
+        }
+        verified.put(token, claims);
+    }
+
+    /**
+     * Compteurs : succès du cache, signatures vérifiées, jetons rejetés, jetons expirés, jetons en cache
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("bearerCacheHits", cacheHits.sum());
+        statistics.put("bearerVerifications", verifications.sum());
+        statistics.put("bearerRejected", rejected.sum());
+        statistics.put("bearerExpired", expired.sum());
+        statistics.put("bearerCached", verified.size());
+        return statistics;
+    }
+}
@@ -0,0 +1,130 @@
+package com.sprint.security;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registre des permissions : chaque nom reçoit un identifiant entier stable
+ *
+ * Les permissions des rôles sont enregistrées au chargement de Role ; un ensemble de permissions
+ * est alors un masque long[] (bit id du mot id / 64) et une vérification se résume à un ET binaire.
+ * Une permission jamais enregistrée a l'identifiant -1 : aucun masque ne la contient.
+ */
+public final class PermissionRegistry {
+
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private static final CopyOnWriteArrayList<String> names = new CopyOnWriteArrayList<>();
+
+    /** Masque vide, partagé */
+    public static final long[] EMPTY = new long[0];
+
+    private PermissionRegistry() {
+    }
+
+    /**
+     * Identifiant d'une permission, attribué à la première demande
+     */
+    public static int register(String permission) {
+        Integer id = ids.get(permission);
+        if (id != null) {
+            return id;
+        }
+        synchronized (names) {
+            return ids.computeIfAbsent(permission, key -> {
+                names.add(key);
+                return names.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * Identifiant d'une permission déjà enregistrée, -1 sinon (n'enregistre rien)
+     */
+    public static int find(String permission) {
+        if (permission == null) {
+            return -1;
+        }
+        Integer id = ids.get(permission);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Nom d'une permission à partir de son identifiant
+     */
+    public static String nameOf(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * Masque des permissions nommées (enregistrées au passage)
+     */
+    public static long[] maskOf(Collection<String> permissions) {
+        long[] mask = EMPTY;
+        for (String permission : permissions) {
+            int id = register(permission);
+            if (id / 64 >= mask.length) {
+                long[] larger = new long[id / 64 + 1];
+                System.arraycopy(mask, 0, larger, 0, mask.length);
+                mask = larger;
+            }
+            mask[id / 64] |= 1L << id;
+        }
+        return mask;
+    }
+
+    /**
+     * Vrai si le masque contient la permission d'identifiant id
+     */
+    public static boolean contains(long[] mask, int id) {
+        return id >= 0 && id / 64 < mask.length && (mask[id / 64] & (1L << id)) != 0;
+    }
+
+    /**
+     * Union de deux masques (le résultat peut être l'un des deux arguments)
+     */
+    public static long[] union(long[] a, long[] b) {
+        if (b.length > a.length) {
+            long[] swap = a;
+            a = b;
+            b = swap;
+        }
+        boolean inclus = true;
+        for (int i = 0; i < b.length && inclus; i++) {
+            inclus = (a[i] | b[i]) == a[i];
+        }
+        if (inclus) {
+            return a;
+        }
+        long[] result = a.clone();
+        for (int i = 0; i < b.length; i++) {
+            result[i] |= b[i];
+        }
+        return result;
+    }
+
+    /**
+     * Noms des permissions d'un masque
+     */
+    public static Set<String> namesOf(long[] mask) {
+        Set<String> result = new LinkedHashSet<>();
+        for (int word = 0; word < mask.length; word++) {
+            long bits = mask[word];
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                result.add(names.get(word * 64 + bit));
+                bits &= bits - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Nombre de permissions enregistrées
+     */
+    public static int size() {
+        return names.size();
+    }
+}
@@ -0,0 +1,167 @@
+package com.sprint.security;
+
+import com.sprint.model.UserSession;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limiteur de débit par client, algorithme GCRA (seau à jetons sous forme d'horaire théorique)
+ *
+ * Chaque client (utilisateur connecté, sinon adresse IP) n'a qu'un AtomicLong : l'instant théorique
+ * d'arrivée (TAT) de sa prochaine requête. Une requête est admise si le TAT avancé d'un intervalle
+ * ne dépasse pas maintenant + rafale ; l'avance se fait par compareAndSet, sans verrou.
+ *
+ * Un client dont le TAT est passé a son seau plein : son entrée peut disparaître sans rien changer.
+ * La table est donc purgée de ces entrées quand elle atteint sa taille maximale (et périodiquement),
+ * par un seul thread et au plus une fois par seconde (compareAndSet sur l'instant de la dernière
+ * purge) : une vague de nouveaux clients ne déclenche pas un parcours complet par requête.
+ * Si elle reste pleine, les nouveaux clients partagent un seau commun (même quota qu'un client) :
+ * ils restent limités, ensemble, plutôt qu'admis sans suivi.
+ */
+public final class RateLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final int SWEEP_EVERY = 4096; // Purge périodique, en nombre d'acquisitions
+    private static final long PURGE_INTERVAL_NANOS = NANOS_PER_SECOND;
+
+    private final double perSecond;
+    private final int burst;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger untilSweep = new AtomicInteger(SWEEP_EVERY);
+    private final AtomicLong lastPurge = new AtomicLong(System.nanoTime() - PURGE_INTERVAL_NANOS);
+    private final AtomicLong overflow = new AtomicLong(System.nanoTime()); // Seau commun, table pleine
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    /**
+     * @param perSecond quota fixe (requêtes par seconde), ou 0 pour la variable de rôle "rateLimit"
+     * @param burst rafale tolérée, ou 0 pour une seconde de quota
+     * @param maxEntries nombre maximal de clients suivis
+     */
+    public RateLimiter(double perSecond, int burst, int maxEntries) {
+        this.perSecond = perSecond;
+        this.burst = burst;
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    /**
+     * Quota applicable : valeur fixe, sinon variable de rôle "rateLimit" du rôle le plus élevé
+     * @return requêtes par seconde, 0 ou moins pour illimité
+     */
+    public double quotaFor(UserSession user) {
+        if (perSecond > 0) {
+            return perSecond;
+        }
+        Object quota = RoleManager.getHighestRoleDefinition(user).getVariable("rateLimit");
+        return quota instanceof Number ? ((Number) quota).doubleValue() : 0;
+    }
+
+    /**
+     * Clé du client : utilisateur connecté, sinon adresse IP
+     */
+    public static String clientKey(UserSession user, String remoteAddr) {
+        if (user != null && user.isAuthenticated() && user.getUserId() != null) {
+            return "u:" + user.getUserId();
+        }
+        return "ip:" + remoteAddr;
+    }
+
+    /**
+     * Consomme une requête du quota du client
+     * @return 0 si la requête est admise, sinon le délai en nanosecondes avant la prochaine admission
+     */
+    public long acquire(String key, double quota) {
+        if (quota <= 0) {
+            allowed.increment();
+            return 0;
+        }
+        long interval = Math.max(1, (long) (NANOS_PER_SECOND / quota));
+        long tolerance = interval * (burst > 0 ? burst : Math.max(1, (long) Math.ceil(quota)));
+        long now = System.nanoTime();
+
+        AtomicLong tat = bucket(key, now);
+        if (tat == null) {
+            overflowed.increment();
+            tat = overflow;
+        }
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + interval;
+            long excess = next - now - tolerance;
+            if (excess > 0) {
+                rejected.increment();
+                return excess;
+            }
+            if (tat.compareAndSet(current, next)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Seau du client, créé au besoin ; null si la table est pleine (seau commun)
+     */
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong tat = buckets.get(key);
+        if (tat != null) {
+            return tat;
+        }
+        if (untilSweep.decrementAndGet() <= 0) {
+            untilSweep.set(SWEEP_EVERY);
+            purgerAuPlusUneFois(now);
+        }
+        if (buckets.size() >= maxEntries) {
+            purgerAuPlusUneFois(now);
+            if (buckets.size() >= maxEntries) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    /**
+     * Purge si la précédente date d'au moins PURGE_INTERVAL_NANOS ; un seul thread gagne le compareAndSet
+     */
+    private void purgerAuPlusUneFois(long now) {
+        long last = lastPurge.get();
+        if (now - last >= PURGE_INTERVAL_NANOS && lastPurge.compareAndSet(last, now)) {
+            purger(now);
+        }
+    }
+
+    /**
+     * Retire les clients dont le seau est plein (TAT passé) : ils équivalent à un client nouveau
+     */
+    private void purger(long now) {
+        for (Iterator<AtomicLong> it = buckets.values().iterator(); it.hasNext(); ) {
+            if (it.next().get() - now <= 0) {
+                it.remove();
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Compteurs : requêtes admises, refusées, passées par le seau commun (table pleine), clients suivis
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("rateLimitAllowed", allowed.sum());
+        statistics.put("rateLimitRejected", rejected.sum());
+        statistics.put("rateLimitOverflow", overflowed.sum());
+        statistics.put("rateLimitClients", buckets.size());
+        return statistics;
+    }
+}
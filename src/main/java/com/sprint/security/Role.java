@@ -1,60 +1,122 @@
 package com.sprint.security;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Énumération des rôles avec niveaux d'accès et permissions
  * Sprint 11 bis - Gestion avancée des rôles
+ *
+ * Les valeurs ci-dessous sont les définitions intégrées ; un fichier de définitions chargé par
+ * RoleRegistry peut les remplacer à chaud, et les getters lisent toujours la définition en vigueur.
+ *
+ * Chaque rôle porte un code stable (premier argument), seul identifiant écrit dans les formats
+ * persistés ou échangés entre versions (journal de sessions, réplication) : l'ordre des constantes
+ * peut changer sans effet. Un nouveau rôle prend un code jamais utilisé ; un code n'est jamais réattribué.
  */
 public enum Role {
     
-    ANONYME(0, "Anonyme", "Utilisateur non identifié", 
+    ANONYME(0, 0, "Anonyme", "Utilisateur non identifié", 
             Arrays.asList("VIEW_PUBLIC", "ACCESS_LOGIN")),
     
-    USER(1, "Utilisateur", "Utilisateur authentifié basique", 
+    USER(1, 1, "Utilisateur", "Utilisateur authentifié basique", 
             Arrays.asList("VIEW_PUBLIC", "ACCESS_LOGIN", "VIEW_PROTECTED", "EDIT_PROFILE")),
     
-    MODERATOR(2, "Modérateur", "Peut modérer le contenu", 
+    MODERATOR(2, 2, "Modérateur", "Peut modérer le contenu", 
             Arrays.asList("VIEW_PUBLIC", "ACCESS_LOGIN", "VIEW_PROTECTED", "EDIT_PROFILE", 
                         "MODERATE_CONTENT", "VIEW_USER_LIST")),
     
-    ADMIN(3, "Administrateur", "Accès complet au système", 
+    ADMIN(3, 3, "Administrateur", "Accès complet au système", 
             Arrays.asList("VIEW_PUBLIC", "ACCESS_LOGIN", "VIEW_PROTECTED", "EDIT_PROFILE", 
                         "MODERATE_CONTENT", "VIEW_USER_LIST", "MANAGE_USERS", 
                         "SYSTEM_CONFIG", "VIEW_ADMIN_PANEL"));
     
+    private final int code;
+    
+    // Définition intégrée ; la définition en vigueur vient de RoleRegistry (fichier rechargeable)
     private final int level;
     private final String displayName;
     private final String description;
     private final List<String> permissions;
     
-    Role(int level, String displayName, String description, List<String> permissions) {
+    /** Noms des variables spécifiques des rôles intégrés */
+    private static final List<String> SPECIFIC_VARIABLES = List.of("maxSessionTime", "allowedPages", "canComment",
+            "maxFileSize", "canDeleteComments", "canBanUsers", "canManageSystem", "accessLevel", "rateLimit");
+    
+    /** Rôles indexés par code */
+    private static final Role[] BY_CODE;
+    
+    static {
+        int max = 0;
+        for (Role role : values()) {
+            max = Math.max(max, role.code);
+        }
+        BY_CODE = new Role[max + 1];
+        for (Role role : values()) {
+            if (role.code < 0 || BY_CODE[role.code] != null) {
+                throw new IllegalStateException("Code de rôle invalide ou en double: " + role.code);
+            }
+            BY_CODE[role.code] = role;
+        }
+    }
+    
+    Role(int code, int level, String displayName, String description, List<String> permissions) {
+        this.code = code;
         this.level = level;
         this.displayName = displayName;
         this.description = description;
         this.permissions = permissions;
     }
     
+    /**
+     * Définition intégrée du rôle (valeurs de cette énumération)
+     */
+    RoleDefinition builtInDefinition() {
+        Map<String, Object> specific = new LinkedHashMap<>();
+        for (String name : SPECIFIC_VARIABLES) {
+            Object value = computeRoleSpecificVariable(name);
+            if (value != null) {
+                specific.put(name, value);
+            }
+        }
+        return new RoleDefinition(name(), level, displayName, description, permissions, specific);
+    }
+    
+    /**
+     * Définition en vigueur du rôle, lue dans le modèle d'autorisation courant
+     */
+    public RoleDefinition definition() {
+        return RoleRegistry.current().definition(this);
+    }
+    
     /**
      * Vérifie si ce rôle a une permission spécifique
      */
     public boolean hasPermission(String permission) {
-        return permissions.contains(permission);
+        return definition().hasPermission(PermissionRegistry.find(permission));
+    }
+    
+    /**
+     * Vérifie si ce rôle a une permission, par son identifiant dans PermissionRegistry
+     */
+    public boolean hasPermission(int permissionId) {
+        return definition().hasPermission(permissionId);
     }
     
     /**
      * Vérifie si ce rôle a un niveau supérieur ou égal à un autre rôle
      */
     public boolean hasLevelOrHigher(Role other) {
-        return this.level >= other.level;
+        return getLevel() >= other.getLevel();
     }
     
     /**
      * Vérifie si ce rôle peut accéder aux ressources d'un autre rôle
      */
     public boolean canAccess(Role targetRole) {
-        return this.level >= targetRole.level;
+        return getLevel() >= targetRole.getLevel();
     }
     
     /**
@@ -68,12 +130,27 @@ public enum Role {
         }
     }
     
+    /**
+     * Code stable du rôle (formats persistés), indépendant de l'ordre des constantes
+     */
+    public int getCode() {
+        return code;
+    }
+    
+    /**
+     * Récupère un rôle par son code stable
+     * @return null si aucun rôle ne porte ce code
+     */
+    public static Role fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+    
     /**
      * Récupère un rôle par son niveau
      */
     public static Role fromLevel(int level) {
         for (Role role : values()) {
-            if (role.level == level) {
+            if (role.getLevel() == level) {
                 return role;
             }
         }
@@ -92,27 +169,46 @@ public enum Role {
         }
     }
     
-    // Getters
+    // Getters (définition en vigueur)
     public int getLevel() {
-        return level;
+        return definition().getLevel();
     }
     
     public String getDisplayName() {
-        return displayName;
+        return definition().getDisplayName();
     }
     
     public String getDescription() {
-        return description;
+        return definition().getDescription();
     }
     
     public List<String> getPermissions() {
-        return permissions;
+        return definition().getPermissions();
+    }
+    
+    /**
+     * Masque des permissions (ne pas modifier)
+     */
+    public long[] getPermissionMask() {
+        return definition().getPermissionMask();
     }
     
     /**
      * Variables spécifiques par rôle
      */
     public Object getRoleSpecificVariable(String variableName) {
+        return definition().getVariable(variableName);
+    }
+    
+    /**
+     * Instantané immuable des variables du rôle : currentRole, roleLevel, roleDisplayName
+     * et les variables spécifiques définies pour ce rôle
+     */
+    public Map<String, Object> getVariables() {
+        return definition().getVariables();
+    }
+    
+    private Object computeRoleSpecificVariable(String variableName) {
         switch (this) {
             case ANONYME:
                 return getAnonymeVariable(variableName);
@@ -130,8 +226,9 @@ public enum Role {
     private Object getAnonymeVariable(String variableName) {
         switch (variableName) {
             case "maxSessionTime": return 30 * 60 * 1000L; // 30 minutes
-            case "allowedPages": return Arrays.asList("/", "/login", "/register");
+            case "allowedPages": return List.of("/", "/login", "/register");
             case "canComment": return false;
+            case "rateLimit": return 10L; // requêtes par seconde (@RateLimit)
             default: return null;
         }
     }
@@ -139,9 +236,10 @@ public enum Role {
     private Object getUserVariable(String variableName) {
         switch (variableName) {
             case "maxSessionTime": return 2 * 60 * 60 * 1000L; // 2 heures
-            case "allowedPages": return Arrays.asList("/", "/profile", "/protected");
+            case "allowedPages": return List.of("/", "/profile", "/protected");
             case "canComment": return true;
             case "maxFileSize": return 5 * 1024 * 1024L; // 5MB
+            case "rateLimit": return 50L;
             default: return null;
         }
     }
@@ -149,11 +247,12 @@ public enum Role {
     private Object getModeratorVariable(String variableName) {
         switch (variableName) {
             case "maxSessionTime": return 8 * 60 * 60 * 1000L; // 8 heures
-            case "allowedPages": return Arrays.asList("/", "/profile", "/protected", "/moderator", "/users");
+            case "allowedPages": return List.of("/", "/profile", "/protected", "/moderator", "/users");
             case "canComment": return true;
             case "maxFileSize": return 20 * 1024 * 1024L; // 20MB
             case "canDeleteComments": return true;
             case "canBanUsers": return true;
+            case "rateLimit": return 100L;
             default: return null;
         }
     }
@@ -161,7 +260,7 @@ public enum Role {
     private Object getAdminVariable(String variableName) {
         switch (variableName) {
             case "maxSessionTime": return 24 * 60 * 60 * 1000L; // 24 heures
-            case "allowedPages": return Arrays.asList("/*"); // Toutes les pages
+            case "allowedPages": return List.of("/*"); // Toutes les pages
             case "canComment": return true;
             case "maxFileSize": return 100 * 1024 * 1024L; // 100MB
             case "canDeleteComments": return true;
@@ -174,6 +273,6 @@ public enum Role {
     
     @Override
     public String toString() {
-        return displayName + " (Level " + level + ")";
+        return definition().toString();
     }
 }
@@ -0,0 +1,100 @@
+package com.sprint.security;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Définition immuable d'un rôle : niveau, libellés, permissions (masque PermissionRegistry)
+ * et variables spécifiques (maxFileSize, allowedPages...)
+ *
+ * Les rôles intégrés proviennent de l'énumération Role ; un fichier de définitions peut les
+ * redéfinir ou en ajouter (voir RoleRegistry).
+ */
+public final class RoleDefinition {
+
+    private final String name;
+    private final int level;
+    private final String displayName;
+    private final String description;
+    private final List<String> permissions;
+    private final long[] permissionMask;
+    private final Map<String, Object> specificVariables;
+    private final Map<String, Object> variables;
+
+    public RoleDefinition(String name, int level, String displayName, String description,
+                          List<String> permissions, Map<String, Object> specificVariables) {
+        this.name = name;
+        this.level = level;
+        this.displayName = displayName != null ? displayName : name;
+        this.description = description != null ? description : "";
+        this.permissions = List.copyOf(permissions);
+        this.permissionMask = PermissionRegistry.maskOf(this.permissions);
+        this.specificVariables = Collections.unmodifiableMap(new LinkedHashMap<>(specificVariables));
+
+        Map<String, Object> all = new LinkedHashMap<>();
+        all.put("currentRole", name);
+        all.put("roleLevel", level);
+        all.put("roleDisplayName", this.displayName);
+        all.putAll(specificVariables);
+        this.variables = Collections.unmodifiableMap(all);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public List<String> getPermissions() {
+        return permissions;
+    }
+
+    /**
+     * Masque des permissions (ne pas modifier)
+     */
+    public long[] getPermissionMask() {
+        return permissionMask;
+    }
+
+    public boolean hasPermission(int permissionId) {
+        return PermissionRegistry.contains(permissionMask, permissionId);
+    }
+
+    /**
+     * Variable spécifique au rôle, null si elle n'est pas définie
+     */
+    public Object getVariable(String variableName) {
+        return specificVariables.get(variableName);
+    }
+
+    /**
+     * Variables spécifiques seules (sans currentRole, roleLevel, roleDisplayName)
+     */
+    public Map<String, Object> getSpecificVariables() {
+        return specificVariables;
+    }
+
+    /**
+     * Instantané des variables du rôle : currentRole, roleLevel, roleDisplayName et variables spécifiques
+     */
+    public Map<String, Object> getVariables() {
+        return variables;
+    }
+
+    @Override
+    public String toString() {
+        return displayName + " (Level " + level + ")";
+    }
+}
@@ -10,63 +10,75 @@ import java.util.stream.Collectors;
  */
 public class RoleManager {
     
-    // Cache des permissions pour optimisation
-    private static final Map<String, Set<String>> permissionCache = new HashMap<>();
+    /** Clé de session : version de l'utilisateur pour laquelle les variables de rôle ont été écrites */
+    public static final String VERSION_KEY = "roleVariablesVersion";
+    
+    private static final List<String> DYNAMIC_VARIABLES = List.of("lastActivity", "sessionAge");
+    private static final List<String> USER_VARIABLES = List.of("isAuthenticated", "userId", "username",
+            "loginTime", "isHybridAdminMod");
     
     /**
      * Vérifie si un utilisateur a une permission spécifique
      */
     public static boolean hasPermission(UserSession user, String permission) {
-        if (user == null || !user.isAuthenticated()) {
-            return Role.ANONYME.hasPermission(permission);
-        }
-        
-        return user.getRoles().stream()
-                .anyMatch(roleName -> {
-                    Role role = Role.fromString(roleName);
-                    return role.hasPermission(permission);
-                });
+        return hasPermission(user, PermissionRegistry.find(permission));
+    }
+    
+    /**
+     * Vérifie une permission par son identifiant dans PermissionRegistry : un seul ET binaire
+     */
+    public static boolean hasPermission(UserSession user, int permissionId) {
+        long[] mask = user == null || !user.isAuthenticated()
+                ? RoleRegistry.current().anonymous().getPermissionMask()
+                : user.getPermissionMask();
+        return PermissionRegistry.contains(mask, permissionId);
     }
     
     /**
      * Vérifie si un utilisateur a un niveau de rôle suffisant
      */
     public static boolean hasMinimumLevel(UserSession user, Role minimumRole) {
-        if (user == null || !user.isAuthenticated()) {
-            return Role.ANONYME.hasLevelOrHigher(minimumRole);
-        }
-        
-        return user.getRoles().stream()
-                .anyMatch(roleName -> {
-                    Role userRole = Role.fromString(roleName);
-                    return userRole.hasLevelOrHigher(minimumRole);
-                });
+        return getHighestRoleDefinition(user).getLevel() >= minimumRole.getLevel();
     }
     
     /**
      * Vérifie si un utilisateur peut accéder à une ressource nécessitant un rôle spécifique
      */
     public static boolean canAccess(UserSession user, String requiredRole) {
-        if (!Role.isValidRole(requiredRole)) {
+        AuthorizationSnapshot snapshot = RoleRegistry.current();
+        if (!snapshot.isDefined(requiredRole)) {
             return false;
         }
         
-        Role targetRole = Role.fromString(requiredRole);
-        return hasMinimumLevel(user, targetRole);
+        return getHighestRoleDefinition(user).getLevel() >= snapshot.definition(requiredRole).getLevel();
     }
     
     /**
      * Récupère le rôle le plus élevé d'un utilisateur
      */
     public static Role getHighestRole(UserSession user) {
+        RoleDefinition highest = getHighestRoleDefinition(user);
+        if (Role.isValidRole(highest.getName())) {
+            return Role.valueOf(highest.getName());
+        }
+        // Rôle défini par fichier : rôle intégré le plus élevé dont le niveau ne le dépasse pas
+        Role nearest = Role.ANONYME;
+        for (Role role : Role.values()) {
+            if (role.getLevel() <= highest.getLevel() && role.getLevel() >= nearest.getLevel()) {
+                nearest = role;
+            }
+        }
+        return nearest;
+    }
+    
+    /**
+     * Définition en vigueur du rôle le plus élevé d'un utilisateur (rôles définis par fichier compris)
+     */
+    public static RoleDefinition getHighestRoleDefinition(UserSession user) {
         if (user == null || !user.isAuthenticated()) {
-            return Role.ANONYME;
+            return RoleRegistry.current().anonymous();
         }
-        
-        return user.getRoles().stream()
-                .map(Role::fromString)
-                .max(Comparator.comparingInt(Role::getLevel))
-                .orElse(Role.ANONYME);
+        return user.getHighestRoleDefinition();
     }
     
     /**
@@ -74,65 +86,67 @@ public class RoleManager {
      */
     public static Set<String> getAllPermissions(UserSession user) {
         if (user == null || !user.isAuthenticated()) {
-            return new HashSet<>(Role.ANONYME.getPermissions());
+            return new HashSet<>(RoleRegistry.current().anonymous().getPermissions());
         }
-        
-        String cacheKey = user.getRoles().toString();
-        if (permissionCache.containsKey(cacheKey)) {
-            return permissionCache.get(cacheKey);
-        }
-        
-        Set<String> permissions = user.getRoles().stream()
-                .map(Role::fromString)
-                .flatMap(role -> role.getPermissions().stream())
-                .collect(Collectors.toSet());
-        
-        permissionCache.put(cacheKey, permissions);
-        return permissions;
+        return PermissionRegistry.namesOf(user.getPermissionMask());
     }
     
     /**
      * Récupère les variables spécifiques pour un utilisateur
+     * (instantané du rôle, variables stables de l'utilisateur et variables dynamiques)
      */
     public static Map<String, Object> getRoleSpecificVariables(UserSession user) {
-        Map<String, Object> variables = new HashMap<>();
-        Role highestRole = getHighestRole(user);
-        
-        // Variables de base pour tous les rôles
-        variables.put("currentRole", highestRole.name());
-        variables.put("roleLevel", highestRole.getLevel());
-        variables.put("roleDisplayName", highestRole.getDisplayName());
-        variables.put("isAuthenticated", user != null && user.isAuthenticated());
-        
-        // Variables spécifiques au rôle
-        String[] specificVars = {"maxSessionTime", "allowedPages", "canComment", 
-                               "maxFileSize", "canDeleteComments", "canBanUsers", 
-                               "canManageSystem", "accessLevel"};
-        
-        for (String varName : specificVars) {
-            Object value = highestRole.getRoleSpecificVariable(varName);
-            if (value != null) {
-                variables.put(varName, value);
+        Map<String, Object> variables = getStableVariables(user);
+        if (user != null && user.isAuthenticated()) {
+            for (String name : DYNAMIC_VARIABLES) {
+                variables.put(name, getDynamicVariable(user, name));
             }
         }
+        return variables;
+    }
+    
+    /**
+     * Variables qui ne changent qu'avec la version de l'utilisateur
+     */
+    private static Map<String, Object> getStableVariables(UserSession user) {
+        Map<String, Object> variables = new HashMap<>(getHighestRoleDefinition(user).getVariables());
+        variables.put("isAuthenticated", user != null && user.isAuthenticated());
         
         // Variables additionnelles selon les rôles
         if (user != null && user.isAuthenticated()) {
             variables.put("userId", user.getUserId());
             variables.put("username", user.getUsername());
             variables.put("loginTime", user.getLoginTime());
-            variables.put("lastActivity", user.getLastActivity());
-            variables.put("sessionAge", System.currentTimeMillis() - user.getLoginTime());
             
             // Variables spécifiques multi-rôles
             if (user.hasRole("ADMIN") && user.hasRole("MODERATOR")) {
                 variables.put("isHybridAdminMod", true);
             }
         }
-        
         return variables;
     }
     
+    /**
+     * Vrai pour une variable de rôle recalculée à chaque lecture (lastActivity, sessionAge)
+     */
+    public static boolean isDynamicVariable(String name) {
+        return DYNAMIC_VARIABLES.contains(name);
+    }
+    
+    /**
+     * Valeur courante d'une variable dynamique, null si l'utilisateur n'est pas authentifié
+     */
+    public static Object getDynamicVariable(UserSession user, String name) {
+        if (user == null || !user.isAuthenticated()) {
+            return null;
+        }
+        switch (name) {
+            case "lastActivity": return user.getLastActivity();
+            case "sessionAge": return System.currentTimeMillis() - user.getLoginTime();
+            default: return null;
+        }
+    }
+    
     /**
      * Vérifie si l'accès est autorisé pour une ressource
      */
@@ -145,8 +159,7 @@ public class RoleManager {
      * Filtre les pages accessibles pour un utilisateur
      */
     public static List<String> getAccessiblePages(UserSession user) {
-        Role highestRole = getHighestRole(user);
-        Object pagesObj = highestRole.getRoleSpecificVariable("allowedPages");
+        Object pagesObj = getHighestRoleDefinition(user).getVariable("allowedPages");
         
         if (pagesObj instanceof List) {
             @SuppressWarnings("unchecked")
@@ -165,8 +178,7 @@ public class RoleManager {
             return true; // Session anonyme toujours valide
         }
         
-        Role highestRole = getHighestRole(user);
-        Object maxTimeObj = highestRole.getRoleSpecificVariable("maxSessionTime");
+        Object maxTimeObj = getHighestRoleDefinition(user).getVariable("maxSessionTime");
         
         if (maxTimeObj instanceof Long) {
             long maxSessionTime = (Long) maxTimeObj;
@@ -177,11 +189,33 @@ public class RoleManager {
     }
     
     /**
-     * Met à jour les variables de rôle dans la session
+     * Met à jour les variables de rôle dans la session, seulement si la version de l'utilisateur a changé
+     * Les variables qui ne s'appliquent plus (rôle retiré) sont supprimées ; les variables dynamiques
+     * ne sont pas stockées, les vues les lisent à la demande (ViewRequestWrapper).
      */
     public static void updateRoleVariablesInSession(UserSession user, Map<String, Object> session) {
-        Map<String, Object> roleVars = getRoleSpecificVariables(user);
+        AuthorizationSnapshot snapshot = RoleRegistry.current();
+        // Sans utilisateur, la version suit celle des définitions de rôles
+        Long version = user != null ? user.getVersion() : -snapshot.getGeneration();
+        if (version.equals(session.get(VERSION_KEY))) {
+            return;
+        }
+        Map<String, Object> roleVars = getStableVariables(user);
+        for (String name : snapshot.getVariableNames()) {
+            if (!roleVars.containsKey(name)) {
+                session.remove(name);
+            }
+        }
+        for (String name : USER_VARIABLES) {
+            if (!roleVars.containsKey(name)) {
+                session.remove(name);
+            }
+        }
+        for (String name : DYNAMIC_VARIABLES) {
+            session.remove(name);
+        }
         session.putAll(roleVars);
+        session.put(VERSION_KEY, version);
     }
     
     /**
@@ -201,9 +235,11 @@ public class RoleManager {
             return false;
         }
         
-        Role currentHighest = getHighestRole(user);
+        RoleDefinition currentHighest = getHighestRoleDefinition(user);
         if (newRole.getLevel() > currentHighest.getLevel()) {
             user.addRole(newRole.name());
+            SecurityInterceptor.audit(AuditLog.Type.PRIVILEGED, user, "RoleManager.promoteUser",
+                    "promotion vers " + newRole.name(), null);
             return true;
         }
         
@@ -219,11 +255,9 @@ public class RoleManager {
         }
         
         // Retirer tous les rôles supérieurs au rôle cible
+        AuthorizationSnapshot snapshot = RoleRegistry.current();
         List<String> rolesToRemove = user.getRoles().stream()
-                .filter(roleName -> {
-                    Role role = Role.fromString(roleName);
-                    return role.getLevel() > targetRole.getLevel();
-                })
+                .filter(roleName -> snapshot.definition(roleName).getLevel() > targetRole.getLevel())
                 .collect(Collectors.toList());
         
         rolesToRemove.forEach(user::removeRole);
@@ -232,14 +266,16 @@ public class RoleManager {
         if (!user.hasRole(targetRole.name())) {
             user.addRole(targetRole.name());
         }
+        SecurityInterceptor.audit(AuditLog.Type.PRIVILEGED, user, "RoleManager.demoteUser",
+                "rétrogradation vers " + targetRole.name(), null);
         
         return true;
     }
     
     /**
-     * Vide le cache de permissions
+     * Conservée pour compatibilité : les permissions sont désormais précalculées dans chaque UserSession
      */
     public static void clearPermissionCache() {
-        permissionCache.clear();
+        // Plus de cache à vider
     }
 }
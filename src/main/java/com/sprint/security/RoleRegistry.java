@@ -0,0 +1,249 @@
+package com.sprint.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sprint.log.Logger;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Modèle d'autorisation en vigueur : définitions intégrées (énumération Role), éventuellement
+ * remplacées ou complétées par un fichier JSON rechargé à chaud
+ *
+ * Format du fichier :
+ * <pre>
+ * { "roles": [
+ *     { "name": "USER", "level": 1, "displayName": "Utilisateur", "description": "...",
+ *       "permissions": ["VIEW_PUBLIC", "EDIT_PROFILE"],
+ *       "variables": { "maxFileSize": 10485760, "allowedPages": ["/", "/profile"] } }
+ * ] }
+ * </pre>
+ * Un rôle intégré absent du fichier garde sa définition intégrée ; un nom inconnu ajoute un rôle.
+ * Les nombres entiers des variables sont lus en Long.
+ *
+ * Chaque chargement compile un AuthorizationSnapshot complet puis le publie d'un seul échange
+ * atomique : les requêtes lisent l'instance courante sans verrou et ne voient jamais un modèle
+ * à moitié chargé. Un fichier invalide est signalé et le modèle courant est conservé.
+ */
+public final class RoleRegistry {
+
+    private static final Logger LOG = Logger.getLogger(RoleRegistry.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final AtomicLong generations = new AtomicLong();
+    private static final AtomicReference<AuthorizationSnapshot> current =
+            new AtomicReference<>(new AuthorizationSnapshot(builtIns(), generations.incrementAndGet(), "intégré"));
+
+    private static ScheduledExecutorService watcher;
+
+    private RoleRegistry() {
+    }
+
+    private static List<RoleDefinition> builtIns() {
+        List<RoleDefinition> definitions = new ArrayList<>();
+        for (Role role : Role.values()) {
+            definitions.add(role.builtInDefinition());
+        }
+        return definitions;
+    }
+
+    /**
+     * Modèle d'autorisation en vigueur
+     */
+    public static AuthorizationSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * Charge un fichier de définitions et le publie
+     * @throws IOException fichier illisible ou définitions invalides (le modèle courant est conservé)
+     */
+    public static AuthorizationSnapshot load(Path file) throws IOException {
+        AuthorizationSnapshot snapshot;
+        try {
+            snapshot = compiler(MAPPER.readTree(file.toFile()), file.toString());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Définitions de rôles invalides dans " + file + ": " + e.getMessage(), e);
+        }
+        current.set(snapshot);
+        LOG.info("Rôles chargés depuis {} ({} rôles, version {})", file, snapshot.getRoles().size(), snapshot.getGeneration());
+        return snapshot;
+    }
+
+    /**
+     * Revient aux définitions intégrées
+     */
+    public static void reset() {
+        current.set(new AuthorizationSnapshot(builtIns(), generations.incrementAndGet(), "intégré"));
+    }
+
+    /**
+     * Charge le fichier puis surveille sa date de modification ; il est rechargé dès qu'elle change
+     * @param pollMillis période de vérification
+     * @throws IOException si le premier chargement échoue
+     */
+    public static synchronized void watch(Path file, long pollMillis) throws IOException {
+        load(file);
+        stopWatching();
+        long[] stamp = signature(file);
+        watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sprint-roles-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(100, pollMillis);
+        watcher.scheduleWithFixedDelay(() -> {
+            try {
+                long[] observed = signature(file);
+                if (observed[0] != stamp[0] || observed[1] != stamp[1]) {
+                    stamp[0] = observed[0];
+                    stamp[1] = observed[1];
+                    load(file);
+                }
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Rechargement des rôles ignoré: {}", e.getMessage());
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+
+    private static long[] signature(Path file) throws IOException {
+        return new long[] { Files.getLastModifiedTime(file).toMillis(), Files.size(file) };
+    }
+
+    /**
+     * Construit un modèle complet : définitions intégrées, remplacées ou complétées par le fichier
+     */
+    static AuthorizationSnapshot compiler(JsonNode root, String source) {
+        JsonNode roles = root != null ? root.get("roles") : null;
+        if (roles == null || !roles.isArray()) {
+            throw new IllegalArgumentException("tableau \"roles\" attendu");
+        }
+        Map<String, RoleDefinition> definitions = new LinkedHashMap<>();
+        for (RoleDefinition builtIn : builtIns()) {
+            definitions.put(builtIn.getName(), builtIn);
+        }
+        List<String> vus = new ArrayList<>();
+        for (JsonNode node : roles) {
+            String name = texte(node, "name");
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("rôle sans nom");
+            }
+            name = name.trim().toUpperCase();
+            if (vus.contains(name)) {
+                throw new IllegalArgumentException("rôle défini deux fois: " + name);
+            }
+            vus.add(name);
+
+            RoleDefinition base = definitions.get(name);
+            JsonNode levelNode = node.get("level");
+            if (base == null && (levelNode == null || !levelNode.canConvertToInt())) {
+                throw new IllegalArgumentException("niveau manquant pour le rôle " + name);
+            }
+            int level = levelNode != null && levelNode.canConvertToInt() ? levelNode.asInt() : base.getLevel();
+            if (level < 0) {
+                throw new IllegalArgumentException("niveau négatif pour le rôle " + name);
+            }
+
+            List<String> permissions = base != null ? base.getPermissions() : Collections.emptyList();
+            JsonNode permissionsNode = node.get("permissions");
+            if (permissionsNode != null) {
+                if (!permissionsNode.isArray()) {
+                    throw new IllegalArgumentException("\"permissions\" doit être un tableau (rôle " + name + ")");
+                }
+                permissions = new ArrayList<>();
+                for (JsonNode permission : permissionsNode) {
+                    permissions.add(permission.asText());
+                }
+            }
+
+            Map<String, Object> variables = new LinkedHashMap<>();
+            JsonNode variablesNode = node.get("variables");
+            if (variablesNode != null) {
+                if (!variablesNode.isObject()) {
+                    throw new IllegalArgumentException("\"variables\" doit être un objet (rôle " + name + ")");
+                }
+                for (Iterator<Map.Entry<String, JsonNode>> it = variablesNode.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> entry = it.next();
+                    Object value = valeur(entry.getValue());
+                    if (value != null) {
+                        variables.put(entry.getKey(), value);
+                    }
+                }
+            } else if (base != null) {
+                variables.putAll(base.getSpecificVariables());
+            }
+
+            String displayName = texte(node, "displayName");
+            String description = texte(node, "description");
+            definitions.put(name, new RoleDefinition(name, level,
+                    displayName != null ? displayName : base != null ? base.getDisplayName() : name,
+                    description != null ? description : base != null ? base.getDescription() : "",
+                    permissions, variables));
+        }
+        return new AuthorizationSnapshot(definitions.values(), generations.incrementAndGet(), source);
+    }
+
+    private static String texte(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && !value.isNull() ? value.asText() : null;
+    }
+
+    /**
+     * Valeur JSON vers valeur immuable : entiers en Long, tableaux en List, objets en Map
+     */
+    private static Object valeur(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isIntegralNumber()) {
+            return node.asLong();
+        }
+        if (node.isNumber()) {
+            return node.asDouble();
+        }
+        if (node.isBoolean()) {
+            return node.asBoolean();
+        }
+        if (node.isArray()) {
+            List<Object> list = new ArrayList<>();
+            for (JsonNode element : node) {
+                Object value = valeur(element);
+                if (value != null) {
+                    list.add(value);
+                }
+            }
+            return List.copyOf(list);
+        }
+        if (node.isObject()) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> entry = it.next();
+                Object value = valeur(entry.getValue());
+                if (value != null) {
+                    map.put(entry.getKey(), value);
+                }
+            }
+            return Collections.unmodifiableMap(map);
+        }
+        return node.asText();
+    }
+}
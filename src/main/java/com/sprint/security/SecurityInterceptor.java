@@ -1,10 +1,9 @@
 package com.sprint.security;
 
-import com.sprint.annotation.RequirePermission;
-import com.sprint.annotation.RequireRole;
-import com.sprint.annotation.Secured;
+import com.sprint.log.Logger;
 import com.sprint.model.ModelView;
 import com.sprint.model.UserSession;
+import com.sprint.util.SessionManager;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
@@ -16,158 +15,117 @@ import java.util.Map;
  * Sprint 11 bis - Gestion avancée des rôles
  */
 public class SecurityInterceptor {
+
+    private static final Logger LOG = Logger.getLogger(SecurityInterceptor.class);
+    
+    // Journal d'audit (null : refus journalisés en WARN, non enregistrés)
+    private static volatile AuditLog auditLog;
     
     /**
-     * Vérifie les permissions avant l'exécution d'une méthode
+     * Active le journal d'audit asynchrone (remplace et ferme le précédent)
      */
-    public static Object checkSecurity(Method method, UserSession user, 
-                                     Map<String, Object> session,
-                                     HttpServletRequest req, 
-                                     HttpServletResponse resp) throws IOException {
-        
-        // 1. Vérifier l'annotation @Secured
-        if (method.isAnnotationPresent(Secured.class)) {
-            Secured secured = method.getAnnotation(Secured.class);
-            Object result = checkSecuredAnnotation(secured, user, session, req, resp);
-            if (result != null) {
-                return result;
-            }
-        }
-        
-        // 2. Vérifier l'annotation @RequireRole
-        if (method.isAnnotationPresent(RequireRole.class)) {
-            RequireRole requireRole = method.getAnnotation(RequireRole.class);
-            Object result = checkRequireRoleAnnotation(requireRole, user, req, resp);
-            if (result != null) {
-                return result;
-            }
+    public static void enableAudit(AuditLog log) {
+        AuditLog previous = auditLog;
+        auditLog = log;
+        if (previous != null) {
+            previous.close();
         }
-        
-        // 3. Vérifier l'annotation @RequirePermission
-        if (method.isAnnotationPresent(RequirePermission.class)) {
-            RequirePermission requirePermission = method.getAnnotation(RequirePermission.class);
-            Object result = checkRequirePermissionAnnotation(requirePermission, user, req, resp);
-            if (result != null) {
-                return result;
-            }
-        }
-        
-        // 4. Mettre à jour les variables de rôle dans la session
-        RoleManager.updateRoleVariablesInSession(user, session);
-        
-        return null; // Pas de blocage, continuer l'exécution
+    }
+    
+    public static void disableAudit() {
+        enableAudit(null);
     }
     
     /**
-     * Vérifie l'annotation @Secured
+     * Compteurs du journal d'audit (vide s'il n'est pas actif)
      */
-    private static Object checkSecuredAnnotation(Secured secured, UserSession user, 
-                                               Map<String, Object> session,
-                                               HttpServletRequest req, 
-                                               HttpServletResponse resp) throws IOException {
-        
-        // Vérifier si l'authentification est requise
-        if ("true".equals(secured.requireAuth()) && (user == null || !user.isAuthenticated())) {
-            return createAccessDeniedResponse(secured.errorMessage(), secured.redirectOnError());
-        }
-        
-        // Vérifier les rôles spécifiés
-        if (secured.roles().length > 0) {
-            boolean hasRequiredRole = false;
-            for (Role requiredRole : secured.roles()) {
-                if (RoleManager.canAccess(user, requiredRole.name())) {
-                    hasRequiredRole = true;
-                    break;
-                }
-            }
-            if (!hasRequiredRole) {
-                return createAccessDeniedResponse(secured.errorMessage(), secured.redirectOnError());
-            }
-        }
-        
-        // Vérifier le niveau minimum
-        if (secured.minimumLevel() != Role.ANONYME) {
-            if (!RoleManager.hasMinimumLevel(user, secured.minimumLevel())) {
-                return createAccessDeniedResponse(secured.errorMessage(), secured.redirectOnError());
-            }
-        }
-        
-        // Vérifier les permissions spécifiques
-        if (secured.permissions().length > 0) {
-            boolean hasPermission = false;
-            for (String permission : secured.permissions()) {
-                if (RoleManager.hasPermission(user, permission)) {
-                    hasPermission = true;
-                    break;
-                }
-            }
-            if (!hasPermission) {
-                return createAccessDeniedResponse(secured.errorMessage(), secured.redirectOnError());
-            }
+    public static Map<String, Object> getAuditStatistics() {
+        AuditLog log = auditLog;
+        return log != null ? log.getStatistics() : java.util.Collections.emptyMap();
+    }
+    
+    /**
+     * Enregistre un événement d'audit, sans bloquer ; sans journal actif, ne fait rien
+     */
+    static void audit(AuditLog.Type type, UserSession user, String route, String reason, String address) {
+        AuditLog log = auditLog;
+        if (log != null) {
+            log.record(type, nomUtilisateur(user), route, reason, address);
         }
-        
-        // Vérifier la ressource et l'action
-        if (!secured.resource().isEmpty() && !secured.action().isEmpty()) {
-            if (!RoleManager.isAccessAuthorized(user, secured.resource(), secured.action())) {
-                return createAccessDeniedResponse(secured.errorMessage(), secured.redirectOnError());
-            }
+    }
+    
+    private static String nomUtilisateur(UserSession user) {
+        if (user == null || !user.isAuthenticated()) {
+            return "ANONYMOUS";
         }
-        
-        return null;
+        return user.getUsername() != null ? user.getUsername() : user.getUserId();
     }
     
     /**
-     * Vérifie l'annotation @RequireRole
+     * Vérifie les permissions avant l'exécution d'une méthode
+     * Utilise la politique mise en cache par SecurityPolicy.forMethod (compilée une fois, limiteur
+     * @RateLimit conservé entre les appels).
+     * @deprecated passer la politique précompilée : checkSecurity(SecurityPolicy, ...)
      */
-    private static Object checkRequireRoleAnnotation(RequireRole requireRole, UserSession user,
-                                                   HttpServletRequest req, HttpServletResponse resp) throws IOException {
-        
-        Role requiredRole = requireRole.value();
-        
-        if (requireRole.allowHigher()) {
-            if (!RoleManager.hasMinimumLevel(user, requiredRole)) {
-                String message = String.format(requireRole.message(), requiredRole.getDisplayName());
-                return createAccessDeniedResponse(message, requireRole.redirect());
-            }
-        } else {
-            if (!RoleManager.canAccess(user, requiredRole.name())) {
-                String message = String.format(requireRole.message(), requiredRole.getDisplayName());
-                return createAccessDeniedResponse(message, requireRole.redirect());
-            }
-        }
-        
-        return null;
+    @Deprecated
+    public static Object checkSecurity(Method method, UserSession user, 
+                                     Map<String, Object> session,
+                                     HttpServletRequest req, 
+                                     HttpServletResponse resp) throws IOException {
+        return checkSecurity(SecurityPolicy.forMethod(method), user, session, req, resp);
     }
     
     /**
-     * Vérifie l'annotation @RequirePermission
+     * Vérifie une politique de sécurité précompilée avant l'exécution d'une route
      */
-    private static Object checkRequirePermissionAnnotation(RequirePermission requirePermission, UserSession user,
-                                                         HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    public static Object checkSecurity(SecurityPolicy policy, UserSession user,
+                                     Map<String, Object> session,
+                                     HttpServletRequest req,
+                                     HttpServletResponse resp) throws IOException {
         
-        String requiredPermission = requirePermission.value();
+        // 1. Règles compilées depuis @Secured, @RequireRole et @RequirePermission (refus audités)
+        Object denied = policy.check(user, req);
+        if (denied != null) {
+            return denied;
+        }
         
-        // Vérifier la permission principale
-        if (RoleManager.hasPermission(user, requiredPermission)) {
-            return null;
+        // 2. Limitation de débit (@RateLimit ou limiteur par défaut) : 429 et Retry-After
+        denied = policy.checkRateLimit(user, req, resp);
+        if (denied != null) {
+            return denied;
         }
         
-        // Vérifier les permissions alternatives
-        for (String alternative : requirePermission.alternatives()) {
-            if (RoleManager.hasPermission(user, alternative)) {
-                return null;
+        // Accès autorisé à une route privilégiée : audité
+        if (policy.isPrivileged()) {
+            audit(AuditLog.Type.PRIVILEGED, user, policy.getRoute(), "accès autorisé", req.getRemoteAddr());
+        }
+        
+        // 3. Mettre à jour les variables de rôle dans la session (seulement si les rôles ont changé)
+        // (pour un visiteur sans session enregistrée, elles restent dans la requête
+        //  afin de ne pas créer une session par requête anonyme ; pour une identité portée
+        //  par la requête, comme un jeton porteur, elles n'entrent jamais dans la session)
+        boolean identiteDeRequete = user != null && user.isReadOnly();
+        if (SessionManager.isPersistent(session) && !identiteDeRequete) {
+            RoleManager.updateRoleVariablesInSession(user, session);
+        } else if (user == null) {
+            // Instantané partagé du rôle anonyme : aucune allocation
+            for (Map.Entry<String, Object> entry : Role.ANONYME.getVariables().entrySet()) {
+                req.setAttribute(entry.getKey(), entry.getValue());
+            }
+            req.setAttribute("isAuthenticated", Boolean.FALSE);
+        } else {
+            for (Map.Entry<String, Object> entry : RoleManager.getRoleSpecificVariables(user).entrySet()) {
+                req.setAttribute(entry.getKey(), entry.getValue());
             }
         }
         
-        // Aucune permission trouvée
-        String message = String.format(requirePermission.message(), requiredPermission);
-        return createAccessDeniedResponse(message, requirePermission.redirect());
+        return null; // Pas de blocage, continuer l'exécution
     }
     
     /**
      * Crée une réponse d'accès refusé
      */
-    private static Object createAccessDeniedResponse(String errorMessage, String redirectUrl) throws IOException {
+    static Object createAccessDeniedResponse(String errorMessage, String redirectUrl) {
         // Pour une API JSON
         if (isApiRequest()) {
             return com.sprint.model.JsonResponse.error(errorMessage, 403);
@@ -175,8 +133,8 @@ public class SecurityInterceptor {
         
         // Pour une redirection vers une page
         ModelView mv = new ModelView("access-denied");
-        mv.addData("errorMessage", errorMessage);
-        mv.addData("redirectUrl", redirectUrl);
+        mv.addObject("errorMessage", errorMessage);
+        mv.addObject("redirectUrl", redirectUrl);
         return mv;
     }
     
@@ -206,12 +164,16 @@ public class SecurityInterceptor {
     }
     
     /**
-     * Journalise une tentative d'accès non autorisée
+     * Journalise une tentative d'accès non autorisée (dans le journal d'audit s'il est actif)
      */
     public static void logUnauthorizedAccess(UserSession user, String resource, String action) {
-        String username = (user != null) ? user.getUsername() : "ANONYMOUS";
-        System.err.println("[SECURITY] Accès non autorisé - User: " + username + 
-                          ", Resource: " + resource + ", Action: " + action + 
-                          ", Time: " + new java.util.Date());
+        if (auditLog != null) {
+            audit(AuditLog.Type.DENIED, user, resource, action, null);
+            return;
+        }
+        if (LOG.isWarnEnabled()) {
+            String username = (user != null) ? user.getUsername() : "ANONYMOUS";
+            LOG.warn("Accès non autorisé - User: {}, Resource: {}, Action: {}", username, resource, action);
+        }
     }
 }
@@ -0,0 +1,353 @@
+package com.sprint.security;
+
+import com.sprint.annotation.RateLimit;
+import com.sprint.annotation.RequirePermission;
+import com.sprint.annotation.RequireRole;
+import com.sprint.annotation.Secured;
+import com.sprint.model.JsonResponse;
+import com.sprint.model.UserSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exigences de sécurité d'une route, compilées une fois à l'enregistrement des routes
+ *
+ * Les annotations @Secured, @RequireRole et @RequirePermission sont lues au démarrage et réduites
+ * à une suite de règles : authentification, niveau de rôle minimal, ou au moins une permission
+ * d'un masque. Les messages d'erreur sont formatés d'avance ; niveaux et permissions sont lus dans
+ * le modèle d'autorisation en vigueur (RoleRegistry) au moment de la vérification.
+ * Une route sans annotation reçoit NONE, dont la vérification ne fait rien.
+ * @RateLimit (ou le limiteur par défaut) ajoute un limiteur de débit propre à la route.
+ *
+ * Chaque méthode reçoit un identifiant de route ; la décision (autorisé, ou règle en échec) est
+ * mise en cache dans la UserSession sous sa version courante : un utilisateur qui rappelle la même
+ * route n'évalue plus les règles tant que ses droits n'ont pas changé. Les refus restent audités.
+ */
+public final class SecurityPolicy {
+
+    /** Politique des routes sans annotation de sécurité */
+    public static final SecurityPolicy NONE = new SecurityPolicy(-1, null, new Regle[0], null, null);
+
+    /** Clients suivis par limiteur de débit, par défaut */
+    public static final int DEFAULT_RATE_LIMIT_CLIENTS = 100_000;
+
+    private static final String RATE_LIMIT_MESSAGE = "Trop de requêtes, réessayez plus tard";
+
+    // Décisions mises en cache : 1 autorisé, 2 + n échec de la règle n
+    private static final int AUTORISE = 1;
+    private static final int MAX_REGLES_EN_CACHE = Byte.MAX_VALUE - 2;
+
+    // Un identifiant par méthode, stable même si la politique est recompilée
+    private static final ConcurrentHashMap<Method, Integer> ROUTE_IDS = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextRouteId = new AtomicInteger();
+
+    // Politiques compilées par forMethod (hors FrontServlet, qui garde les siennes)
+    private static final ConcurrentHashMap<Method, SecurityPolicy> COMPILED = new ConcurrentHashMap<>();
+
+    private final int routeId; // -1 : pas de cache
+    private final String route; // "Controleur.methode", pour l'audit
+    private final Regle[] regles;
+    private final boolean privileged;
+    private final RateLimiter rateLimiter;
+    private final String rateLimitMessage;
+
+    private SecurityPolicy(int routeId, String route, Regle[] regles, RateLimiter rateLimiter,
+                           String rateLimitMessage) {
+        this.routeId = regles.length > 0 && regles.length <= MAX_REGLES_EN_CACHE ? routeId : -1;
+        this.route = route;
+        this.regles = regles;
+        this.rateLimiter = rateLimiter;
+        this.rateLimitMessage = rateLimitMessage;
+        boolean privilegie = false;
+        for (Regle regle : regles) {
+            privilegie |= regle.privilegiee();
+        }
+        this.privileged = privilegie;
+    }
+
+    /**
+     * Règle élémentaire et la réponse à renvoyer si elle échoue
+     */
+    private abstract static class Regle {
+        final String message;
+        final String redirect;
+
+        Regle(String message, String redirect) {
+            this.message = message;
+            this.redirect = redirect;
+        }
+
+        abstract boolean autorise(UserSession user);
+
+        /**
+         * true si un utilisateur de base (rôle USER) ne satisfait pas la règle : les accès
+         * autorisés à une telle route sont audités
+         */
+        boolean privilegiee() {
+            return false;
+        }
+    }
+
+    private static final class Authentification extends Regle {
+        Authentification(String message, String redirect) {
+            super(message, redirect);
+        }
+
+        @Override
+        boolean autorise(UserSession user) {
+            return user != null && user.isAuthenticated();
+        }
+    }
+
+    /**
+     * Niveau lu à chaque vérification : les niveaux suivent les définitions de rôles rechargées
+     */
+    private static final class NiveauMinimal extends Regle {
+        private final Role[] roles; // Un seul suffit
+
+        NiveauMinimal(Role[] roles, String message, String redirect) {
+            super(message, redirect);
+            this.roles = roles;
+        }
+
+        @Override
+        boolean autorise(UserSession user) {
+            int level = RoleManager.getHighestRoleDefinition(user).getLevel();
+            for (Role role : roles) {
+                if (level >= role.getLevel()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        boolean privilegiee() {
+            for (Role role : roles) {
+                if (role.getLevel() <= Role.USER.getLevel()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class UnePermission extends Regle {
+        private final int[] permissionIds;
+
+        UnePermission(List<String> permissions, String message, String redirect) {
+            super(message, redirect);
+            // Enregistrées (et non seulement recherchées) : un rôle défini plus tard les retrouvera
+            this.permissionIds = permissions.stream().mapToInt(PermissionRegistry::register).toArray();
+        }
+
+        @Override
+        boolean autorise(UserSession user) {
+            for (int permissionId : permissionIds) {
+                if (RoleManager.hasPermission(user, permissionId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        boolean privilegiee() {
+            for (int permissionId : permissionIds) {
+                if (Role.USER.hasPermission(permissionId)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Compile les annotations de sécurité d'une méthode de contrôleur
+     * (mêmes règles et même ordre que l'évaluation annotation par annotation)
+     */
+    public static SecurityPolicy compile(Method method) {
+        return compile(method, null, DEFAULT_RATE_LIMIT_CLIENTS);
+    }
+
+    /**
+     * Politique de la méthode, compilée au premier appel puis réutilisée : le limiteur d'une
+     * route @RateLimit est le même d'un appel à l'autre
+     */
+    public static SecurityPolicy forMethod(Method method) {
+        return COMPILED.computeIfAbsent(method, SecurityPolicy::compile);
+    }
+
+    /**
+     * @param defaultLimiter limiteur appliqué aux routes sans @RateLimit (null : aucun)
+     * @param maxClients clients suivis par le limiteur d'une route annotée @RateLimit
+     */
+    public static SecurityPolicy compile(Method method, RateLimiter defaultLimiter, int maxClients) {
+        List<Regle> regles = new ArrayList<>();
+
+        Secured secured = method.getAnnotation(Secured.class);
+        if (secured != null) {
+            String message = secured.errorMessage();
+            String redirect = secured.redirectOnError();
+            if ("true".equals(secured.requireAuth())) {
+                regles.add(new Authentification(message, redirect));
+            }
+            if (secured.roles().length > 0) {
+                regles.add(new NiveauMinimal(secured.roles().clone(), message, redirect));
+            }
+            if (secured.minimumLevel() != Role.ANONYME) {
+                regles.add(new NiveauMinimal(new Role[] { secured.minimumLevel() }, message, redirect));
+            }
+            if (secured.permissions().length > 0) {
+                regles.add(new UnePermission(Arrays.asList(secured.permissions()), message, redirect));
+            }
+            if (!secured.resource().isEmpty() && !secured.action().isEmpty()) {
+                String permission = secured.resource().toUpperCase() + "_" + secured.action().toUpperCase();
+                regles.add(new UnePermission(List.of(permission), message, redirect));
+            }
+        }
+
+        RequireRole requireRole = method.getAnnotation(RequireRole.class);
+        if (requireRole != null) {
+            // allowHigher ou non, l'accès a toujours été accordé à partir du niveau du rôle
+            Role requiredRole = requireRole.value();
+            regles.add(new NiveauMinimal(new Role[] { requiredRole },
+                    String.format(requireRole.message(), requiredRole.getDisplayName()), requireRole.redirect()));
+        }
+
+        RequirePermission requirePermission = method.getAnnotation(RequirePermission.class);
+        if (requirePermission != null) {
+            List<String> permissions = new ArrayList<>();
+            permissions.add(requirePermission.value());
+            permissions.addAll(Arrays.asList(requirePermission.alternatives()));
+            regles.add(new UnePermission(permissions,
+                    String.format(requirePermission.message(), requirePermission.value()), requirePermission.redirect()));
+        }
+
+        RateLimiter limiter = defaultLimiter;
+        String limitMessage = RATE_LIMIT_MESSAGE;
+        RateLimit rateLimit = method.getAnnotation(RateLimit.class);
+        if (rateLimit != null) {
+            limiter = new RateLimiter(rateLimit.value(), rateLimit.burst(), maxClients);
+            limitMessage = rateLimit.message();
+        }
+
+        if (regles.isEmpty() && limiter == null) {
+            return NONE;
+        }
+        String route = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        int routeId = ROUTE_IDS.computeIfAbsent(method, key -> nextRouteId.getAndIncrement());
+        return new SecurityPolicy(routeId, route, regles.toArray(new Regle[0]), limiter, limitMessage);
+    }
+
+    /**
+     * true pour la politique vide (aucune vérification)
+     */
+    public boolean isNone() {
+        return regles.length == 0 && rateLimiter == null;
+    }
+
+    /**
+     * true si la route exige plus que le rôle USER (accès autorisés audités)
+     */
+    public boolean isPrivileged() {
+        return privileged;
+    }
+
+    /**
+     * Identifiant de la route dans le cache de décisions des sessions, -1 si elle n'y est pas mise
+     */
+    public int getRouteId() {
+        return routeId;
+    }
+
+    /**
+     * Nom de la route ("Controleur.methode"), null pour NONE
+     */
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * Limiteur de débit de la route, null s'il n'y en a pas
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Consomme le quota du client (utilisateur connecté, sinon adresse IP)
+     * @return null si la requête est admise, sinon une réponse 429 (en-tête Retry-After posé)
+     */
+    public Object checkRateLimit(UserSession user, HttpServletRequest req, HttpServletResponse resp) {
+        if (rateLimiter == null) {
+            return null;
+        }
+        double quota = rateLimiter.quotaFor(user);
+        if (quota <= 0) {
+            return null; // Illimité pour ce rôle
+        }
+        long waitNanos = rateLimiter.acquire(RateLimiter.clientKey(user, req.getRemoteAddr()), quota);
+        if (waitNanos == 0) {
+            return null;
+        }
+        SecurityInterceptor.audit(AuditLog.Type.RATE_LIMITED, user, route, rateLimitMessage, req.getRemoteAddr());
+        long seconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        resp.setHeader("Retry-After", String.valueOf(seconds));
+        return JsonResponse.error(rateLimitMessage, 429);
+    }
+
+    /**
+     * Évalue les règles dans l'ordre
+     * @return null si l'accès est autorisé, sinon la réponse d'accès refusé de la première règle en échec
+     */
+    public Object check(UserSession user) {
+        return check(user, null);
+    }
+
+    /**
+     * Comme check(user), en enregistrant le refus éventuel dans le journal d'audit
+     */
+    public Object check(UserSession user, HttpServletRequest req) {
+        if (regles.length == 0) {
+            return null;
+        }
+        int decision;
+        if (user != null && routeId >= 0) {
+            // Version lue avant l'évaluation (voir UserSession.cacheDecision)
+            long version = user.getVersion();
+            decision = user.getCachedDecision(routeId, version);
+            if (decision == 0) {
+                decision = evaluer(user);
+                user.cacheDecision(routeId, version, decision);
+            }
+        } else {
+            decision = evaluer(user);
+        }
+        if (decision == AUTORISE) {
+            return null;
+        }
+        Regle regle = regles[decision - 2];
+        SecurityInterceptor.audit(AuditLog.Type.DENIED, user, route, regle.message,
+                req != null ? req.getRemoteAddr() : null);
+        return SecurityInterceptor.createAccessDeniedResponse(regle.message, regle.redirect);
+    }
+
+    /**
+     * @return AUTORISE, ou 2 + l'indice de la première règle en échec
+     */
+    private int evaluer(UserSession user) {
+        for (int i = 0; i < regles.length; i++) {
+            if (!regles[i].autorise(user)) {
+                return i + 2;
+            }
+        }
+        return AUTORISE;
+    }
+}
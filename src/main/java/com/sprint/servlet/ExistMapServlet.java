@@ -11,6 +11,7 @@ import java.util.Map;
 
 import com.sprint.model.UserSession;
 import com.sprint.util.SessionManager;
+import com.sprint.util.ViewRequestWrapper;
 
 /**
  * Servlet pour gérer les sessions basées sur Map
@@ -24,31 +25,33 @@ public class ExistMapServlet extends HttpServlet {
             throws ServletException, IOException {
         
         // Récupérer la session Map
+        SessionManager.bindResponse(req, resp);
         Map<String, Object> session = SessionManager.getSession(req);
         
         // Vérifier si la session contient des données utilisateur
         UserSession userSession = UserSession.fromSessionMap(session);
         
-        // Copier toutes les données de session dans les attributs de requête
-        // pour les rendre disponibles dans la vue JSP
-        SessionManager.copyToRequestAttributes(req);
+        // Les données de session sont lues à la demande par la vue, sans copie ;
+        // les informations posées sur la vue ci-dessous priment sur les clés de session
+        HttpServletRequest vue = new ViewRequestWrapper(req, null);
         
         // Ajouter des informations spécifiques sur la session
-        req.setAttribute("sessionId", SessionManager.getSessionId(req));
-        req.setAttribute("sessionExists", !session.isEmpty());
-        req.setAttribute("sessionSize", session.size());
-        req.setAttribute("userAuthenticated", userSession != null && userSession.isAuthenticated());
+        vue.setAttribute("sessionId", SessionManager.getSessionId(req));
+        vue.setAttribute("sessionExists", !session.isEmpty());
+        vue.setAttribute("sessionSize", session.size());
+        vue.setAttribute("userAuthenticated", userSession != null && userSession.isAuthenticated());
         
         if (userSession != null) {
-            req.setAttribute("currentUser", userSession);
-            req.setAttribute("userRoles", userSession.getRoles());
-            req.setAttribute("loginTime", userSession.getLoginTime());
-            req.setAttribute("lastActivity", userSession.getLastActivity());
+            vue.setAttribute("currentUser", userSession);
+            vue.setAttribute("userRoles", userSession.getRoles());
+            vue.setAttribute("loginTime", userSession.getLoginTime());
+            vue.setAttribute("lastActivity", userSession.getLastActivity());
         }
         
         // Rediriger vers la vue d'affichage
+        SessionManager.commitSession(req);
         RequestDispatcher dispatcher = req.getRequestDispatcher("/WEB-INF/views/exist-map.jsp");
-        dispatcher.forward(req, resp);
+        dispatcher.forward(vue, resp);
     }
     
     @Override
@@ -56,6 +59,7 @@ public class ExistMapServlet extends HttpServlet {
             throws ServletException, IOException {
         
         // Récupérer la session
+        SessionManager.bindResponse(req, resp);
         Map<String, Object> session = SessionManager.getSession(req);
         
         // Récupérer les paramètres du formulaire
@@ -79,6 +83,7 @@ public class ExistMapServlet extends HttpServlet {
             
             // Authentifier l'utilisateur
             userSession.authenticate(userSession.getRoles());
+            SessionManager.changeSessionId(req);
             
             // Sauvegarder dans la session
             userSession.saveToSessionMap(session);
@@ -92,6 +97,7 @@ public class ExistMapServlet extends HttpServlet {
             if (userSession != null) {
                 userSession.logout();
                 session.remove("userSession");
+                SessionManager.changeSessionId(req);
                 session.put("message", "Utilisateur déconnecté avec succès");
             }
             
@@ -107,6 +113,7 @@ public class ExistMapServlet extends HttpServlet {
         }
         
         // Rediriger vers GET pour afficher le résultat
+        SessionManager.commitSession(req);
         resp.sendRedirect(req.getContextPath() + "/exist-map");
     }
 }
@@ -3,12 +3,18 @@ package com.sprint.servlet;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.MultipartConfig;
 import jakarta.servlet.annotation.WebServlet;
@@ -24,6 +30,17 @@ import com.sprint.annotation.RestController;
 import com.sprint.annotation.ResponseBody;
 import com.sprint.annotation.RequestParam;
 import com.sprint.annotation.Session;
+import com.sprint.log.AsyncAppender;
+import com.sprint.log.ConsoleLogSink;
+import com.sprint.log.FileLogSink;
+import com.sprint.log.Level;
+import com.sprint.log.LogSink;
+import com.sprint.log.Logger;
+import com.sprint.metrics.ByteCountingResponse;
+import com.sprint.metrics.MetricsRegistry;
+import com.sprint.metrics.RequestTimer;
+import com.sprint.metrics.RequestTimer.Phase;
+import com.sprint.metrics.RouteMetrics;
 import com.sprint.model.ModelView;
 import com.sprint.model.JsonResponse;
 import com.sprint.model.MultipartFile;
@@ -31,8 +48,24 @@ import com.sprint.util.PackageScanner;
 import com.sprint.util.PathPattern;
 import com.sprint.util.EntityBinder;
 import com.sprint.util.MultipartRequestHandler;
+import com.sprint.util.ResumableUploadHandler;
 import com.sprint.util.SessionManager;
+import com.sprint.util.ViewRequestWrapper;
+import com.sprint.security.AuditLog;
+import com.sprint.security.BearerTokenAuthenticator;
+import com.sprint.security.RateLimiter;
+import com.sprint.security.RoleRegistry;
 import com.sprint.security.SecurityInterceptor;
+import com.sprint.security.SecurityPolicy;
+import com.sprint.session.BinarySessionSerializer;
+import com.sprint.session.FileSessionStore;
+import com.sprint.session.InMemorySessionStore;
+import com.sprint.session.JavaSessionSerializer;
+import com.sprint.session.OffHeapSessionStore;
+import com.sprint.session.ReplicatedSessionStore;
+import com.sprint.session.SessionSerializer;
+import com.sprint.session.SessionStore;
+import com.sprint.session.SignedCookieCodec;
 import com.sprint.model.UserSession;
 
 @WebServlet("/")
@@ -42,20 +75,346 @@ import com.sprint.model.UserSession;
     fileSizeThreshold = 1024 * 1024      // 1MB memory threshold
 )
 public class FrontServlet extends HttpServlet {
+    private static final Logger LOG = Logger.getLogger(FrontServlet.class);
+
+    // Marqueur renvoyé par identifier() : jeton porteur présent mais refusé (comparé par référence)
+    private static final UserSession JETON_INVALIDE = new UserSession();
+
     private Map<String, Method> routeMap = new HashMap<>();
     private Map<Method, Object> controllerInstances = new HashMap<>();
+    private Map<Method, SecurityPolicy> securityPolicies = new HashMap<>();
     private Map<String, PathPattern> pathPatterns = new HashMap<>();
+    private Map<Method, RouteMetrics> routeMetrics = new HashMap<>();
     private Map<Class<?>, Boolean> restControllerCache = new HashMap<>();
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private ResumableUploadHandler resumableUploadHandler; // null : uploads reprenables désactivés
+    private final CiblesUpload ciblesUpload = new CiblesUpload();
+    private BearerTokenAuthenticator bearerAuthenticator; // null : en-tête Authorization ignoré
+    private MetricsRegistry metrics; // null : mesures par route désactivées
+    private boolean serverTiming; // En-tête Server-Timing (développement : révèle la structure interne)
 
     @Override
     public void init() throws ServletException {
         super.init();
+        initialiserJournal();
+        SessionManager.setCookieName(lireParametre("sprint.session.cookieName", null));
+        SessionManager.enableSessionIdParameter(
+                Boolean.parseBoolean(lireParametre("sprint.session.idParameter.enabled", "false")));
+        SessionManager.configureCapacity(
+                Long.parseLong(lireParametre("sprint.session.maxSessions", "100000")),
+                Long.parseLong(lireParametre("sprint.session.maxBytes", String.valueOf(256L * 1024 * 1024))));
+        initialiserStockageSessions();
+        initialiserCookiesSignes();
+        initialiserRoles();
+        initialiserAudit();
+        initialiserJetonsPorteurs();
+        initialiserMetriques();
         initialiserRoutes();
         listerAnnotations();
+        initialiserUploadReprenable();
+    }
+
+    @Override
+    public void destroy() {
+        if (resumableUploadHandler != null) {
+            resumableUploadHandler.fermer();
+        }
+        SessionManager.shutdown();
+        RoleRegistry.stopWatching();
+        SecurityInterceptor.disableAudit();
+        Logger.shutdown();
+        super.destroy();
+    }
+
+    /**
+     * Lit un paramètre de configuration : init-param du servlet, puis du contexte, puis propriété système
+     */
+    private String lireParametre(String nom, String defaut) {
+        String valeur = getServletConfig().getInitParameter(nom);
+        if (valeur == null) {
+            valeur = getServletContext().getInitParameter(nom);
+        }
+        if (valeur == null) {
+            valeur = System.getProperty(nom);
+        }
+        return valeur != null ? valeur : defaut;
+    }
+
+    /**
+     * Journal du framework : niveau racine sprint.log.level (INFO par défaut), niveaux par préfixe
+     * sprint.log.levels ("com.sprint.session=DEBUG,com.sprint.security=WARN"), destination
+     * sprint.log.sink ("console", "stderr", "file" avec sprint.log.file, ou classe implémentant LogSink)
+     */
+    private void initialiserJournal() throws ServletException {
+        Map<String, Level> niveaux = new HashMap<>();
+        for (String entree : lireParametre("sprint.log.levels", "").split(",")) {
+            int egal = entree.indexOf('=');
+            if (egal > 0) {
+                niveaux.put(entree.substring(0, egal).trim(), niveau(entree.substring(egal + 1)));
+            } else if (!entree.isBlank()) {
+                throw new ServletException("Niveau de journal mal formé: " + entree);
+            }
+        }
+        Logger.configure(niveau(lireParametre("sprint.log.level", "INFO")), niveaux);
+
+        String type = lireParametre("sprint.log.sink", "console");
+        LogSink sink;
+        try {
+            if ("console".equalsIgnoreCase(type)) {
+                sink = new ConsoleLogSink(false);
+            } else if ("stderr".equalsIgnoreCase(type)) {
+                sink = new ConsoleLogSink(true);
+            } else if ("file".equalsIgnoreCase(type)) {
+                String fichier = lireParametre("sprint.log.file", null);
+                if (fichier == null || fichier.isBlank()) {
+                    throw new ServletException("sprint.log.file est requis avec sprint.log.sink=file");
+                }
+                sink = new FileLogSink(Path.of(fichier));
+            } else {
+                sink = (LogSink) Class.forName(type).getDeclaredConstructor().newInstance();
+            }
+        } catch (IOException | ReflectiveOperationException | ClassCastException e) {
+            throw new ServletException("Destination de journal invalide: " + type, e);
+        }
+        Logger.setAppender(new AsyncAppender(sink,
+                Integer.parseInt(lireParametre("sprint.log.capacity", String.valueOf(Logger.DEFAULT_CAPACITY)))));
+    }
+
+    private static Level niveau(String nom) throws ServletException {
+        try {
+            return Level.parse(nom);
+        } catch (IllegalArgumentException e) {
+            throw new ServletException("Niveau de journal inconnu: " + nom, e);
+        }
+    }
+
+    /**
+     * Choix du stockage des sessions : "memory" (défaut), "offheap" (sessions inactives
+     * sérialisées hors du heap) ou "file" (journal sur disque, survit aux redémarrages)
+     */
+    private void initialiserStockageSessions() throws ServletException {
+        String type = lireParametre("sprint.session.store", "memory");
+        String peers = lireParametre("sprint.session.replication.peers", "");
+        SessionStore store;
+        if ("file".equalsIgnoreCase(type)) {
+            try {
+                store = new FileSessionStore(
+                        repertoirePrive("sprint.session.file.dir", "sprint-sessions"),
+                        Long.parseLong(lireParametre("sprint.session.file.flushMillis", "1000")),
+                        creerSerialiseurSessions());
+            } catch (IOException e) {
+                throw new ServletException("Erreur lors de l'ouverture du journal de sessions", e);
+            }
+        } else if ("offheap".equalsIgnoreCase(type)) {
+            long maxBytes = Long.parseLong(lireParametre("sprint.session.offheap.maxBytes",
+                    String.valueOf(1024L * 1024 * 1024)));
+            long idleMillis = Long.parseLong(lireParametre("sprint.session.offheap.idleSeconds", "60")) * 1000;
+            store = new OffHeapSessionStore(maxBytes, idleMillis,
+                    creerSerialiseurSessions(), SessionManager::getTimeout);
+        } else if ("memory".equalsIgnoreCase(type)) {
+            if (peers.isBlank()) {
+                return;
+            }
+            store = new InMemorySessionStore();
+        } else {
+            throw new ServletException("Stockage de sessions inconnu: " + type);
+        }
+
+        // Réplication entre instances : décore le stockage local
+        if (!peers.isBlank()) {
+            String self = lireParametre("sprint.session.replication.self", "");
+            if (self.isBlank()) {
+                store.close();
+                throw new ServletException("sprint.session.replication.self est requis avec sprint.session.replication.peers");
+            }
+            // Le port de réplication accepte des sessions complètes : jamais sans authentification des pairs
+            String secret = lireParametre("sprint.session.replication.secret", null);
+            if (secret == null || secret.length() < 32) {
+                store.close();
+                throw new ServletException("sprint.session.replication.secret (32 caractères minimum) est requis avec sprint.session.replication.peers");
+            }
+            try {
+                store = new ReplicatedSessionStore(store, self, Arrays.asList(peers.split(",")),
+                        secret.getBytes(StandardCharsets.UTF_8),
+                        Integer.parseInt(lireParametre("sprint.session.replication.replicas", "1")),
+                        Long.parseLong(lireParametre("sprint.session.replication.flushMillis", "100")),
+                        creerSerialiseurSessions(), SessionManager::getTimeout);
+            } catch (IOException e) {
+                store.close();
+                throw new ServletException("Erreur lors de l'ouverture du port de réplication " + self, e);
+            }
+        }
+        SessionManager.setSessionStore(store);
+    }
+
+    /**
+     * Mode de session : "server" (défaut) ou "cookie" (petites sessions portées par un cookie
+     * signé, chiffré sauf si sprint.session.cookie.encrypt=false)
+     */
+    private void initialiserCookiesSignes() throws ServletException {
+        String mode = lireParametre("sprint.session.mode", "server");
+        if ("cookie".equalsIgnoreCase(mode)) {
+            String secret = lireParametre("sprint.session.cookie.secret", null);
+            if (secret == null || secret.length() < 32) {
+                throw new ServletException("sprint.session.cookie.secret (32 caractères minimum) est requis en mode cookie");
+            }
+            SessionManager.enableSignedCookies(new SignedCookieCodec(
+                    secret.getBytes(StandardCharsets.UTF_8),
+                    Boolean.parseBoolean(lireParametre("sprint.session.cookie.encrypt", "true")),
+                    creerSerialiseurSessions(),
+                    Integer.parseInt(lireParametre("sprint.session.cookie.maxBytes", "3800")),
+                    Integer.parseInt(lireParametre("sprint.session.cookie.cacheSize", "4096"))));
+        } else if (!"server".equalsIgnoreCase(mode)) {
+            throw new ServletException("Mode de session inconnu: " + mode);
+        }
+    }
+
+    /**
+     * Répertoire d'un journal : le paramètre s'il est donné, sinon java.io.tmpdir/prefixe-utilisateur-contexte,
+     * directement sous le répertoire temporaire (créé rwx------ par le journal ; refusé s'il appartient
+     * à un autre utilisateur)
+     */
+    private Path repertoirePrive(String parametre, String prefixe) {
+        String configure = lireParametre(parametre, null);
+        if (configure != null && !configure.isBlank()) {
+            return Path.of(configure.trim());
+        }
+        String contexte = getServletContext().getContextPath().replaceAll("[^A-Za-z0-9_-]", "");
+        String utilisateur = System.getProperty("user.name", "").replaceAll("[^A-Za-z0-9_-]", "");
+        return Path.of(System.getProperty("java.io.tmpdir"),
+                prefixe + "-" + utilisateur + "-" + (contexte.isEmpty() ? "ROOT" : contexte));
+    }
+
+    /**
+     * Encodage des sessions hors heap ou sur disque : "binary" (défaut) ou "java" (sérialisation standard)
+     * Avec "binary", sprint.session.serializer.allowedPackages restreint les classes encodées en JSON.
+     */
+    private SessionSerializer creerSerialiseurSessions() throws ServletException {
+        String type = lireParametre("sprint.session.serializer", "binary");
+        if ("binary".equalsIgnoreCase(type)) {
+            String paquets = lireParametre("sprint.session.serializer.allowedPackages", "");
+            List<String> allowed = new ArrayList<>();
+            for (String paquet : paquets.split(",")) {
+                if (!paquet.isBlank()) {
+                    allowed.add(paquet.trim());
+                }
+            }
+            return new BinarySessionSerializer(objectMapper, allowed);
+        }
+        if ("java".equalsIgnoreCase(type)) {
+            return new JavaSessionSerializer();
+        }
+        throw new ServletException("Encodage de sessions inconnu: " + type);
+    }
+
+    /**
+     * Uploads reprenables (/_upload), désactivés par défaut : sprint.upload.resumable.enabled=true ;
+     * quotas sprint.upload.resumable.maxPending (tous clients), .maxPerClient, .maxSize (octets par
+     * upload) et .maxBytes (octets déclarés en attente, tous clients)
+     */
+    private void initialiserUploadReprenable() throws ServletException {
+        if (!Boolean.parseBoolean(lireParametre("sprint.upload.resumable.enabled", "false"))) {
+            return;
+        }
+        try {
+            Object tempDir = getServletContext().getAttribute(ServletContext.TEMPDIR);
+            Path uploadDir = tempDir instanceof java.io.File
+                    ? ((java.io.File) tempDir).toPath().resolve("sprint-uploads")
+                    : Path.of(System.getProperty("java.io.tmpdir"), "sprint-uploads");
+            Files.createDirectories(uploadDir);
+            resumableUploadHandler = new ResumableUploadHandler(uploadDir,
+                    Integer.parseInt(lireParametre("sprint.upload.resumable.maxPending",
+                            String.valueOf(ResumableUploadHandler.DEFAULT_MAX_PENDING))),
+                    Integer.parseInt(lireParametre("sprint.upload.resumable.maxPerClient",
+                            String.valueOf(ResumableUploadHandler.DEFAULT_MAX_PER_CLIENT))),
+                    Long.parseLong(lireParametre("sprint.upload.resumable.maxSize",
+                            String.valueOf(ResumableUploadHandler.DEFAULT_MAX_SIZE))),
+                    Long.parseLong(lireParametre("sprint.upload.resumable.maxBytes",
+                            String.valueOf(ResumableUploadHandler.DEFAULT_MAX_BYTES))));
+        } catch (IOException e) {
+            throw new ServletException("Erreur lors de l'initialisation des uploads reprenables", e);
+        }
+    }
+
+    /**
+     * Définitions de rôles externes (sprint.security.roles.file), rechargées à chaud ;
+     * sans fichier, les rôles intégrés de l'énumération Role s'appliquent
+     */
+    private void initialiserRoles() throws ServletException {
+        String fichier = lireParametre("sprint.security.roles.file", null);
+        if (fichier == null || fichier.isBlank()) {
+            return;
+        }
+        try {
+            RoleRegistry.watch(Path.of(fichier),
+                    Long.parseLong(lireParametre("sprint.security.roles.reloadSeconds", "5")) * 1000);
+        } catch (IOException e) {
+            throw new ServletException("Erreur lors du chargement des rôles depuis " + fichier, e);
+        }
+    }
+
+    /**
+     * Journal d'audit de sécurité (refus, dépassements de quota, accès privilégiés),
+     * écrit en arrière-plan dans sprint.security.audit.dir ; désactivable par sprint.security.audit.enabled=false
+     */
+    private void initialiserAudit() throws ServletException {
+        if (!Boolean.parseBoolean(lireParametre("sprint.security.audit.enabled", "true"))) {
+            return;
+        }
+        Path repertoire = repertoirePrive("sprint.security.audit.dir", "sprint-audit");
+        try {
+            SecurityInterceptor.enableAudit(new AuditLog(repertoire,
+                    Integer.parseInt(lireParametre("sprint.security.audit.capacity", "8192")),
+                    Long.parseLong(lireParametre("sprint.security.audit.maxBytes", String.valueOf(10L * 1024 * 1024))),
+                    Integer.parseInt(lireParametre("sprint.security.audit.files", "5"))));
+        } catch (IOException e) {
+            throw new ServletException("Journal d'audit impossible à ouvrir dans " + repertoire, e);
+        }
+    }
+
+    /**
+     * Authentification des clients d'API par jeton JWT HS256 (sprint.security.bearer.secret) ;
+     * sans secret, l'en-tête Authorization est ignoré
+     */
+    private void initialiserJetonsPorteurs() throws ServletException {
+        String secret = lireParametre("sprint.security.bearer.secret", null);
+        if (secret == null || secret.isBlank()) {
+            return;
+        }
+        if (secret.length() < 32) {
+            throw new ServletException("sprint.security.bearer.secret doit faire au moins 32 caractères");
+        }
+        bearerAuthenticator = new BearerTokenAuthenticator(
+                secret.getBytes(StandardCharsets.UTF_8),
+                lireParametre("sprint.security.bearer.issuer", null),
+                lireParametre("sprint.security.bearer.audience", null),
+                Long.parseLong(lireParametre("sprint.security.bearer.clockSkewSeconds", "30")),
+                Integer.parseInt(lireParametre("sprint.security.bearer.cacheSize", "10000")));
+    }
+
+    /**
+     * Mesures par route (durées, requêtes, erreurs, octets), exposées au format Prometheus
+     * sur sprint.metrics.path ("/metrics", vide pour ne pas exposer ; une route de l'application sur
+     * ce chemin reste prioritaire) ; activées par sprint.metrics.enabled=true. Le chemin n'est pas
+     * authentifié : le réserver au réseau interne (ou le vider) avant de les activer en production
+     */
+    private void initialiserMetriques() {
+        serverTiming = Boolean.parseBoolean(lireParametre("sprint.debug.serverTiming", "false"));
+        if (!Boolean.parseBoolean(lireParametre("sprint.metrics.enabled", "false"))) {
+            return;
+        }
+        String chemin = lireParametre("sprint.metrics.path", "/metrics").trim();
+        metrics = new MetricsRegistry(chemin.isEmpty() ? null : chemin);
     }
 
     private void initialiserRoutes() throws ServletException {
+        // Limitation de débit : quota de rôle sur toutes les routes si sprint.security.rateLimit.default=role
+        int maxClients = Integer.parseInt(lireParametre("sprint.security.rateLimit.maxClients",
+                String.valueOf(SecurityPolicy.DEFAULT_RATE_LIMIT_CLIENTS)));
+        String parDefaut = lireParametre("sprint.security.rateLimit.default", "none");
+        RateLimiter limiteurParDefaut = "role".equalsIgnoreCase(parDefaut)
+                ? new RateLimiter(0, 0, maxClients)
+                : null;
         try {
             List<Class<?>> controllerClasses = PackageScanner.getClasses("com.sprint.controller");
             
@@ -90,16 +449,18 @@ public class FrontServlet extends HttpServlet {
                         // Enregistrement de la route
                         routeMap.put(key, method);
                         controllerInstances.put(method, controllerInstance);
+                        securityPolicies.put(method, SecurityPolicy.compile(method, limiteurParDefaut, maxClients));
+                        if (metrics != null) {
+                            routeMetrics.put(method, metrics.register(key));
+                        }
                         
                         // Gestion des paramètres d'URL
                         if (fullPath.contains("{")) {
                             pathPatterns.put(key, new PathPattern(fullPath));
                         }
                         
-                        // Log pour le débogage
-                        System.out.println("Route enregistrée: " + key + " -> " + 
-                                        controllerClass.getSimpleName() + "." + method.getName() +
-                                        (isRestController ? " [REST]" : ""));
+                        LOG.info("Route enregistrée: {} -> {}.{}", key, controllerClass.getSimpleName(),
+                                isRestController ? method.getName() + " [REST]" : method.getName());
                     }
                 }
             }
@@ -139,21 +500,23 @@ public class FrontServlet extends HttpServlet {
     }
 
     private void listerAnnotations() {
+        if (!LOG.isDebugEnabled()) {
+            return; // Le scan du package n'est utile qu'à l'affichage
+        }
         try {
-            System.out.println("=== ANNOTATIONS DISPONIBLES ===");
+            LOG.debug("=== ANNOTATIONS DISPONIBLES ===");
             List<Class<?>> annotationClasses = PackageScanner.getClasses("com.sprint.annotation");
 
             for (int i = 0; i < annotationClasses.size(); i++) {
                 Class<?> annotationClass = annotationClasses.get(i);
                 if (annotationClass.isAnnotation()) {
-                    System.out.println((i + 1) + ". @" + annotationClass.getSimpleName() +
-                            " - " + annotationClass.getName());
+                    LOG.debug("{}. @{} - {}", i + 1, annotationClass.getSimpleName(), annotationClass.getName());
                 }
             }
-            System.out.println("===============================");
+            LOG.debug("===============================");
 
         } catch (Exception e) {
-            System.out.println("Erreur lors du scan des annotations: " + e.getMessage());
+            LOG.debug("Erreur lors du scan des annotations: {}", e.getMessage());
         }
     }
 
@@ -172,6 +535,27 @@ public class FrontServlet extends HttpServlet {
     private void traiterRequete(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
         String path = req.getRequestURI().substring(req.getContextPath().length());
+        SessionManager.bindResponse(req, resp);
+        try {
+            aiguiller(path, req, resp);
+        } finally {
+            // Session rendue au stockage même sans commitSession (erreur, 404, upload, ressource statique)
+            SessionManager.releaseSession(req);
+        }
+    }
+
+    private void aiguiller(String path, HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+        // Protocole d'upload reprenable (create / append / status / complete), si activé
+        if (resumableUploadHandler != null && ResumableUploadHandler.isUploadPath(path)) {
+            resumableUploadHandler.traiter(path, req, resp, ciblesUpload);
+            return;
+        }
+
+        if (metrics != null && metrics.isMetricsPath(path) && trouverMethode(req.getMethod(), path) == null) {
+            metrics.traiter(resp);
+            return;
+        }
 
         if (estRessourceStatique(path)) {
             RequestDispatcher defaultHandler = getServletContext().getNamedDispatcher("default");
@@ -181,7 +565,7 @@ public class FrontServlet extends HttpServlet {
             return;
         }
 
-        if (!executerRoute(path, req, resp)) {
+        if (!executerRoute(req.getMethod(), path, req, resp)) {
             // Retourner une erreur 404 en JSON si la route n'est pas trouvée
             resp.setContentType("application/json;charset=UTF-8");
             resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
@@ -202,11 +586,37 @@ public class FrontServlet extends HttpServlet {
                 path.endsWith(".html");
     }
 
-    private boolean executerRoute(String path, HttpServletRequest req, HttpServletResponse resp) {
-        Method method = trouverMethode(path);
+    private boolean executerRoute(String httpMethod, String path, HttpServletRequest req, HttpServletResponse resp) {
+        // Étapes chronométrées seulement si une recording JFR ou sprint.debug.serverTiming le demande
+        RequestTimer chrono = RequestTimer.start(path, serverTiming);
+        Method method = trouverMethode(httpMethod, path);
+        if (chrono != null) {
+            chrono.end(Phase.LOOKUP);
+        }
         if (method == null) {
+            if (metrics != null) {
+                metrics.recordUnmatched();
+            }
             return false;
         }
+        RouteMetrics mesures = metrics != null ? routeMetrics.get(method) : null;
+        if (mesures == null) {
+            return executerMethode(method, path, req, resp, chrono);
+        }
+        // Durée, statut et octets du corps, regroupés par modèle de route
+        long debut = System.nanoTime();
+        ByteCountingResponse compteur = new ByteCountingResponse(resp);
+        boolean traitee = false;
+        try {
+            traitee = executerMethode(method, path, req, compteur, chrono);
+            return traitee;
+        } finally {
+            mesures.record(System.nanoTime() - debut, compteur.getStatus(), compteur.getByteCount(), !traitee);
+        }
+    }
+
+    private boolean executerMethode(Method method, String path, HttpServletRequest req, HttpServletResponse resp,
+                                    RequestTimer chrono) {
         try {
             // 1. Récupérer l'instance du contrôleur
             Object controller = controllerInstances.computeIfAbsent(
@@ -222,39 +632,127 @@ public class FrontServlet extends HttpServlet {
 
             // 2. Récupérer la session pour la vérification de sécurité
             Map<String, Object> session = SessionManager.getSession(req);
-            UserSession userSession = UserSession.fromSessionMap(session);
+            UserSession userSession = identifier(req, session);
+            if (chrono != null) {
+                chrono.end(Phase.SESSION);
+            }
+            if (userSession == JETON_INVALIDE) {
+                resp.setHeader("WWW-Authenticate", "Bearer error=\"invalid_token\"");
+                traiterResultat(JsonResponse.error("Jeton d'authentification invalide ou expiré", 401),
+                        req, resp, method, controller, chrono);
+                return true;
+            }
 
             // 3. Vérification de sécurité (Sprint 11 bis)
-            Object securityResult = SecurityInterceptor.checkSecurity(method, userSession, session, req, resp);
+            SecurityPolicy policy = securityPolicies.getOrDefault(method, SecurityPolicy.NONE);
+            Object securityResult = SecurityInterceptor.checkSecurity(policy, userSession, session, req, resp);
+            if (chrono != null) {
+                chrono.end(Phase.SECURITY);
+            }
             if (securityResult != null) {
                 // La sécurité a bloqué l'accès, traiter le résultat de sécurité
-                traiterResultat(securityResult, req, resp, method, controller);
+                traiterResultat(securityResult, req, resp, method, controller, chrono);
                 return true;
             }
 
             // 4. Extraire les arguments (avec support des fichiers)
             Object[] args = extraireArguments(method, path, req, resp);
+            if (chrono != null) {
+                chrono.end(Phase.ARGUMENTS);
+            }
 
             // 5. Appeler la méthode du contrôleur
             Object result = method.invoke(controller, args);
+            if (chrono != null) {
+                chrono.end(Phase.CONTROLLER);
+            }
 
             // 6. Traiter le résultat avec les informations du contrôleur
-            traiterResultat(result, req, resp, method, controller);
+            traiterResultat(result, req, resp, method, controller, chrono);
             return true;
 
         } catch (Exception e) {
+            // Réponse d'erreur envoyée : la requête est traitée (pas de 404 par-dessus le 500)
             gererErreurJson(e, resp);
-            return false;
+            return true;
+        }
+    }
+
+    /**
+     * Utilisateur de la requête : jeton porteur pour un client d'API (l'identité vient du jeton,
+     * pas de la session), sinon session ; JETON_INVALIDE si le jeton est présent mais refusé
+     */
+    private UserSession identifier(HttpServletRequest req, Map<String, Object> session) {
+        String authorization = req.getHeader("Authorization");
+        if (bearerAuthenticator != null && BearerTokenAuthenticator.isBearer(authorization)) {
+            UserSession userSession = bearerAuthenticator.authenticate(authorization);
+            return userSession != null ? userSession : JETON_INVALIDE;
+        }
+        return UserSession.fromSessionMap(session);
+    }
+
+    /**
+     * Accès du protocole d'upload reprenable aux routes : la route cible est résolue en POST
+     * et sa politique de sécurité vérifiée dès la création de l'upload
+     */
+    private final class CiblesUpload implements ResumableUploadHandler.RouteDispatcher {
+
+        @Override
+        public JsonResponse autoriser(String target, HttpServletRequest req, HttpServletResponse resp)
+                throws IOException {
+            Method method = trouverRoute("POST", target);
+            if (method == null) {
+                return JsonResponse.notFound("Route non trouvée: " + target);
+            }
+            Map<String, Object> session = SessionManager.getSession(req);
+            UserSession userSession = identifier(req, session);
+            if (userSession == JETON_INVALIDE) {
+                resp.setHeader("WWW-Authenticate", "Bearer error=\"invalid_token\"");
+                return JsonResponse.error("Jeton d'authentification invalide ou expiré", 401);
+            }
+            SecurityPolicy policy = securityPolicies.getOrDefault(method, SecurityPolicy.NONE);
+            Object refus = SecurityInterceptor.checkSecurity(policy, userSession, session, req, resp);
+            if (refus == null) {
+                return null;
+            }
+            if (refus instanceof JsonResponse) {
+                return (JsonResponse) refus;
+            }
+            // Refus prévu pour une page (ModelView) : réponse JSON du protocole
+            boolean connecte = userSession != null && userSession.isAuthenticated();
+            return JsonResponse.error("Accès refusé à " + target, connecte ? 403 : 401);
+        }
+
+        @Override
+        public String proprietaire(HttpServletRequest req) {
+            Map<String, Object> session = SessionManager.getSession(req);
+            UserSession userSession = identifier(req, session);
+            if (userSession != null && userSession != JETON_INVALIDE && userSession.isAuthenticated()) {
+                return RateLimiter.clientKey(userSession, req.getRemoteAddr());
+            }
+            String sessionId = SessionManager.getSessionId(req);
+            return sessionId != null ? "s:" + sessionId : "ip:" + req.getRemoteAddr();
+        }
+
+        @Override
+        public boolean dispatch(String target, HttpServletRequest req, HttpServletResponse resp) {
+            return executerRoute("POST", target, req, resp);
         }
     }
 
     private void traiterResultat(Object result, HttpServletRequest req, HttpServletResponse resp,
-                                 Method method, Object controller)
+                                 Method method, Object controller, RequestTimer chrono)
             throws ServletException, IOException {
+        // Le cookie de session doit partir avant le corps de la réponse
+        SessionManager.commitSession(req);
+        if (chrono != null) {
+            chrono.end(Phase.SESSION);
+        }
+
         if (result == null) {
             // Si le résultat est null, retourner une réponse JSON vide
             if (estRetourJson(method, controller)) {
-                sendJsonResponse(JsonResponse.success(), resp);
+                sendJsonResponse(JsonResponse.success(), resp, chrono);
             }
             return;
         }
@@ -262,30 +760,32 @@ public class FrontServlet extends HttpServlet {
         // Vérifier si on doit retourner du JSON
         if (estRetourJson(method, controller) || result instanceof JsonResponse) {
             // Retourner du JSON
-            sendJsonResponse(result, resp);
+            sendJsonResponse(result, resp, chrono);
         } else if (result instanceof String) {
             resp.setContentType("text/plain;charset=UTF-8");
+            if (chrono != null) {
+                chrono.writeServerTiming(resp);
+            }
             resp.getWriter().write((String) result);
+            if (chrono != null) {
+                chrono.end(Phase.WRITE);
+            }
         } else if (result instanceof ModelView) {
             ModelView modelView = (ModelView) result;
             
             // Sauvegarder le type de données détecté
             req.setAttribute("dataType", modelView.getDataType());
             
-            // Transférer toutes les données du ModelView vers la requête
-            if (modelView.getData() != null) {
-                for (Map.Entry<String, Object> entry : modelView.getData().entrySet()) {
-                    req.setAttribute(entry.getKey(), entry.getValue());
-                }
-            }
-            
-            // Copier les données de session dans les attributs de requête pour la vue
-            SessionManager.copyToRequestAttributes(req);
-            
-            // Forward vers la vue JSP
+            // Forward vers la vue JSP : données du ModelView puis de session lues à la demande
             String viewPath = "/WEB-INF/views/" + modelView.getView() + ".jsp";
             RequestDispatcher dispatcher = req.getRequestDispatcher(viewPath);
-            dispatcher.forward(req, resp);
+            if (chrono != null) {
+                chrono.writeServerTiming(resp);
+            }
+            dispatcher.forward(new ViewRequestWrapper(req, modelView.getData()), resp);
+            if (chrono != null) {
+                chrono.end(Phase.VIEW);
+            }
         } else {
             // Pour les autres types d'objets non-REST, on les ajoute comme attribut
             String attributeName = result.getClass().getSimpleName();
@@ -297,10 +797,16 @@ public class FrontServlet extends HttpServlet {
             String viewPath = "/WEB-INF/views/" + viewName + ".jsp";
             RequestDispatcher dispatcher = req.getRequestDispatcher(viewPath);
             if (dispatcher != null) {
+                if (chrono != null) {
+                    chrono.writeServerTiming(resp);
+                }
                 dispatcher.forward(req, resp);
+                if (chrono != null) {
+                    chrono.end(Phase.VIEW);
+                }
             } else {
                 // Si la vue n'existe pas, retourner l'objet en JSON par défaut
-                sendJsonResponse(result, resp);
+                sendJsonResponse(result, resp, chrono);
             }
         }
     }
@@ -324,32 +830,42 @@ public class FrontServlet extends HttpServlet {
         return isRestController || hasResponseBody || returnsJsonResponse || returnsObject;
     }
 
-    private void sendJsonResponse(Object result, HttpServletResponse resp) throws IOException {
+    private void sendJsonResponse(Object result, HttpServletResponse resp, RequestTimer chrono) throws IOException {
         resp.setContentType("application/json;charset=UTF-8");
         
+        String json;
         if (result instanceof JsonResponse) {
             // Si c'est déjà un JsonResponse
             JsonResponse jsonResponse = (JsonResponse) result;
             resp.setStatus(jsonResponse.getCode());
-            resp.getWriter().write(jsonResponse.toJson());
+            json = jsonResponse.toJson();
         } else {
             // Sinon, encapsuler dans un JsonResponse
             JsonResponse jsonResponse = JsonResponse.success(result);
             resp.setStatus(200);
-            resp.getWriter().write(objectMapper.writeValueAsString(jsonResponse));
+            json = objectMapper.writeValueAsString(jsonResponse);
+        }
+        if (chrono != null) {
+            // Sérialisation terminée : l'en-tête Server-Timing part avant le corps
+            chrono.end(Phase.SERIALIZATION);
+            chrono.writeServerTiming(resp);
+        }
+        resp.getWriter().write(json);
+        if (chrono != null) {
+            chrono.end(Phase.WRITE);
         }
     }
 
     private void gererErreurJson(Exception e, HttpServletResponse resp) {
         try {
-            e.printStackTrace();
+            LOG.error("Erreur lors du traitement de la requête", e);
             resp.setContentType("application/json;charset=UTF-8");
             resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             
             JsonResponse errorResponse = JsonResponse.serverError(e.getMessage());
             resp.getWriter().write(errorResponse.toJson());
         } catch (IOException ex) {
-            ex.printStackTrace();
+            LOG.warn("Réponse d'erreur JSON non envoyée", ex);
         }
     }
 
@@ -373,18 +889,36 @@ public class FrontServlet extends HttpServlet {
         return value;
     }
 
-    private Method trouverMethode(String requestPath) {
-        String httpMethod = "GET"; // Par défaut
-        String key = httpMethod + ":" + requestPath;
-        
-        if (routeMap.containsKey(key)) {
-            return routeMap.get(key);
+    /**
+     * Route d'une requête ; à défaut de route pour sa méthode HTTP, route GET du chemin
+     * (compatibilité : historiquement toute requête était routée vers la route GET)
+     */
+    private Method trouverMethode(String httpMethod, String requestPath) {
+        Method method = trouverRoute(httpMethod, requestPath);
+        if (method == null && !"GET".equals(httpMethod)) {
+            method = trouverRoute("GET", requestPath);
+        }
+        return method;
+    }
+
+    /**
+     * Route déclarée pour cette méthode HTTP ("METHODE:/chemin") ou sans méthode ("/chemin")
+     */
+    private Method trouverRoute(String httpMethod, String requestPath) {
+        Method method = routeMap.get(httpMethod + ":" + requestPath);
+        if (method == null) {
+            method = routeMap.get(requestPath);
+        }
+        if (method != null) {
+            return method;
         }
         
         // Vérifier les patterns avec paramètres
+        String prefixe = httpMethod + ":";
         for (Map.Entry<String, PathPattern> entry : pathPatterns.entrySet()) {
-            if (entry.getValue().matches(requestPath)) {
-                return routeMap.get(entry.getKey());
+            String key = entry.getKey();
+            if ((key.startsWith(prefixe) || key.indexOf(':') < 0) && entry.getValue().matches(requestPath)) {
+                return routeMap.get(key);
             }
         }
         return null;
@@ -413,12 +947,18 @@ public class FrontServlet extends HttpServlet {
         
         // Extraire les fichiers si c'est une requête multipart
         Map<String, MultipartFile> multipartFiles = new HashMap<>();
-        if (isMultipartRequest) {
+        @SuppressWarnings("unchecked")
+        Map<String, MultipartFile> fichiersReprenables =
+                (Map<String, MultipartFile>) req.getAttribute(ResumableUploadHandler.UPLOADED_FILES_ATTR);
+        if (fichiersReprenables != null) {
+            // Fichier livré par le protocole d'upload reprenable
+            multipartFiles.putAll(fichiersReprenables);
+        } else if (isMultipartRequest) {
             try {
                 multipartFiles = MultipartRequestHandler.extractMultipartFiles(req);
-                System.out.println("📁 Requête multipart détectée. Fichiers: " + multipartFiles.size());
+                LOG.debug("Requête multipart détectée. Fichiers: {}", multipartFiles.size());
             } catch (Exception e) {
-                System.err.println("❌ Erreur lors de l'extraction des fichiers: " + e.getMessage());
+                LOG.warn("Erreur lors de l'extraction des fichiers: {}", e.getMessage());
             }
         }
         
@@ -429,7 +969,7 @@ public class FrontServlet extends HttpServlet {
             try {
                 // CAS SPRINT 10: Gestion des fichiers MultipartFile
                 if (paramType == MultipartFile.class) {
-                    if (isMultipartRequest) {
+                    if (isMultipartRequest || !multipartFiles.isEmpty()) {
                         // Rechercher le fichier par le nom du paramètre
                         String paramName = param.getName();
                         if (param.isAnnotationPresent(RequestParam.class)) {
@@ -438,18 +978,16 @@ public class FrontServlet extends HttpServlet {
                         }
                         
                         args[i] = multipartFiles.get(paramName);
-                        if (args[i] != null) {
-                            System.out.println("✅ Fichier bindé: " + paramName + " -> " + 
-                                            ((MultipartFile) args[i]).getOriginalFilename());
+                        if (args[i] != null && LOG.isDebugEnabled()) {
+                            LOG.debug("Fichier bindé: {} -> {}", paramName, ((MultipartFile) args[i]).getOriginalFilename());
                         }
                     }
                     continue;
                 }
                 
                 if (EntityBinder.isEntity(paramType)) {
-                    System.out.println("🔍 Entity détectée: " + paramType.getSimpleName());
                     args[i] = EntityBinder.bindEntity(req, paramType);
-                    System.out.println("✅ Entity bindée: " + args[i]);
+                    LOG.debug("Entity bindée: {}", args[i]);
                     continue;
                 }
                 
@@ -527,7 +1065,7 @@ public class FrontServlet extends HttpServlet {
                     }
                     
                     args[i] = SessionManager.getSession(req, sessionName, create);
-                    System.out.println(" Session Map bindée: " + sessionName + " -> " + args[i]);
+                    LOG.debug("Session Map bindée: {} -> {}", sessionName, args[i]);
                 }
                 // 5. Si aucun cas ne correspond et que ce n'est pas une entity
                 else {
@@ -535,8 +1073,8 @@ public class FrontServlet extends HttpServlet {
                 }
                 
             } catch (Exception e) {
-                System.err.println("❌ Erreur lors de l'extraction de l'argument " + 
-                                param.getName() + ": " + e.getMessage());
+                // Journalisée avec sa trace par gererErreurJson
+                LOG.debug("Erreur lors de l'extraction de l'argument {}: {}", param.getName(), e.getMessage());
                 throw new RuntimeException("Erreur lors de l'extraction de l'argument " + 
                                         param.getName() + ": " + e.getMessage(), e);
             }
@@ -581,12 +1119,12 @@ public class FrontServlet extends HttpServlet {
 
     private void gererErreur(Exception e, HttpServletResponse resp) {
         try {
-            e.printStackTrace();
+            LOG.error("Erreur lors du traitement de la requête", e);
             resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             resp.setContentType("text/html;charset=UTF-8");
             resp.getWriter().write("<h1>Erreur 500</h1><pre>" + e.getMessage() + "</pre>");
         } catch (IOException ex) {
-            ex.printStackTrace();
+            LOG.warn("Page d'erreur non envoyée", ex);
         }
     }
 }
\ No newline at end of file
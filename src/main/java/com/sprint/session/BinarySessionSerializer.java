@@ -0,0 +1,563 @@
+package com.sprint.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sprint.model.MultipartFile;
+import com.sprint.model.UserSession;
+import com.sprint.security.Role;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Codec binaire versionné pour le contenu des sessions
+ *
+ * Plus compact et plus rapide que la sérialisation Java : pas de descripteurs de classe,
+ * entiers et horodatages en varint, rôles codés par leur code stable (Role.getCode, jamais l'ordinal),
+ * types courants (String, nombres, booléens, dates, byte[], Map, List, Set, SessionData) natifs.
+ * Les autres types passent par Jackson (nom de classe + JSON) : seules des classes concrètes de
+ * l'application sont admises, jamais celles de la plateforme ou des bibliothèques (java.*, jakarta.*,
+ * com.fasterxml.*...), et uniquement celles des paquets autorisés s'ils sont configurés. Le contrôle
+ * a lieu à l'encodage et avant tout chargement de classe au décodage.
+ *
+ * Format : octet magique, version, puis la Map racine. Chaque valeur est précédée d'un tag.
+ * Un tag ajouté dans une version ultérieure fait échouer le décodage par une version antérieure
+ * (IOException) plutôt que de produire un contenu faux.
+ */
+public class BinarySessionSerializer implements SessionSerializer {
+
+    private static final byte MAGIC = (byte) 0xB5;
+    private static final byte VERSION = 1;
+    private static final int MAX_DEPTH = 32;
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte FLOAT = 6;
+    private static final byte STRING = 7;
+    private static final byte BYTES = 8;
+    private static final byte MAP = 9;
+    private static final byte SESSION_DATA = 10;
+    private static final byte LIST = 11;
+    private static final byte SET = 12;
+    private static final byte USER_SESSION = 13;
+    private static final byte ROLE = 14;
+    private static final byte DATE = 15;
+    private static final byte BIG_DECIMAL = 16;
+    private static final byte BIG_INTEGER = 17;
+    private static final byte SHORT = 18;
+    private static final byte BYTE = 19;
+    private static final byte CHAR = 20;
+    private static final byte JSON = 21;
+
+    // Drapeaux de UserSession
+    private static final int AUTHENTICATED = 1;
+    private static final int HAS_USER_ID = 2;
+    private static final int HAS_USERNAME = 4;
+    private static final int HAS_EMAIL = 8;
+    private static final int HAS_ATTRIBUTES = 16;
+
+    private static final Role[] ROLES = Role.values();
+
+    // Jamais instanciés depuis un nom de classe lu dans le flux
+    private static final String[] PAQUETS_REFUSES = {
+        "java.", "javax.", "jdk.", "sun.", "com.sun.", "jakarta.", "com.fasterxml.", "org.apache.",
+        "org.springframework.", "org.hibernate.", "org.codehaus.", "groovy.", "ch.qos."
+    };
+
+    private final ObjectMapper objectMapper;
+    private final String[] allowedPackages; // null : tout paquet de l'application
+
+    public BinarySessionSerializer() {
+        this(new ObjectMapper());
+    }
+
+    public BinarySessionSerializer(ObjectMapper objectMapper) {
+        this(objectMapper, null);
+    }
+
+    /**
+     * @param allowedPackages préfixes de paquets admis pour les valeurs encodées en JSON
+     *                        (par exemple "com.exemple.panier."), null ou vide : tout paquet de l'application
+     */
+    public BinarySessionSerializer(ObjectMapper objectMapper, Collection<String> allowedPackages) {
+        this.objectMapper = objectMapper;
+        this.allowedPackages = allowedPackages == null || allowedPackages.isEmpty()
+                ? null : allowedPackages.toArray(new String[0]);
+    }
+
+    @Override
+    public byte[] encode(Map<String, Object> session) throws IOException {
+        Sortie out = new Sortie(128);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        ecrireMap(out, session, 0);
+        return out.toByteArray();
+    }
+
+    @Override
+    public Map<String, Object> decode(byte[] bytes) throws IOException {
+        Entree in = new Entree(bytes);
+        if (in.readByte() != MAGIC) {
+            throw new IOException("Contenu de session binaire invalide");
+        }
+        int version = in.readByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Version de codec de session non supportée: " + version);
+        }
+        Map<String, Object> session = new HashMap<>();
+        lireEntrees(in, session, 0);
+        return session;
+    }
+
+    // ----- Encodage -----
+
+    private void ecrireMap(Sortie out, Map<?, ?> map, int depth) throws IOException {
+        out.writeVarint(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!(entry.getKey() instanceof String)) {
+                throw new IOException("Clé de Map non String: " + entry.getKey());
+            }
+            out.writeString((String) entry.getKey());
+            ecrireValeur(out, entry.getValue(), depth + 1);
+        }
+    }
+
+    private void ecrireValeur(Sortie out, Object value, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("Contenu de session trop profond (référence circulaire ?)");
+        }
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            out.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Integer) {
+            out.writeByte(INT);
+            out.writeVarlong(zigzag((Integer) value));
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeVarlong(zigzag((Long) value));
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeLong(Double.doubleToLongBits((Double) value));
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeInt(Float.floatToIntBits((Float) value));
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeVarlong(zigzag((Short) value));
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Character) {
+            out.writeByte(CHAR);
+            out.writeVarint((Character) value);
+        } else if (value instanceof UserSession) {
+            out.writeByte(USER_SESSION);
+            ecrireUserSession(out, (UserSession) value, depth);
+        } else if (value instanceof Role) {
+            out.writeByte(ROLE);
+            out.writeVarint(((Role) value).getCode());
+        } else if (value instanceof SessionData) {
+            out.writeByte(SESSION_DATA);
+            ecrireMap(out, (SessionData) value, depth);
+        } else if (value instanceof Map) {
+            out.writeByte(MAP);
+            ecrireMap(out, (Map<?, ?>) value, depth);
+        } else if (value instanceof List) {
+            out.writeByte(LIST);
+            ecrireCollection(out, (List<?>) value, depth);
+        } else if (value instanceof Set) {
+            out.writeByte(SET);
+            ecrireCollection(out, (Set<?>) value, depth);
+        } else if (value instanceof byte[]) {
+            out.writeByte(BYTES);
+            out.writeBytes((byte[]) value);
+        } else if (value instanceof Date) {
+            out.writeByte(DATE);
+            out.writeVarlong(zigzag(((Date) value).getTime()));
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(BIG_DECIMAL);
+            out.writeString(value.toString());
+        } else if (value instanceof BigInteger) {
+            out.writeByte(BIG_INTEGER);
+            out.writeBytes(((BigInteger) value).toByteArray());
+        } else if (value instanceof MultipartFile) {
+            // Fichier lié à une requête : ne doit pas quitter le heap ni le processus
+            throw new IOException("MultipartFile non sérialisable");
+        } else {
+            if (!typeJsonAutorise(value.getClass().getName())) {
+                throw new IOException("Type de session non autorisé: " + value.getClass().getName());
+            }
+            out.writeByte(JSON);
+            out.writeString(value.getClass().getName());
+            out.writeBytes(objectMapper.writeValueAsBytes(value));
+        }
+    }
+
+    private void ecrireCollection(Sortie out, Collection<?> values, int depth) throws IOException {
+        out.writeVarint(values.size());
+        for (Object value : values) {
+            ecrireValeur(out, value, depth + 1);
+        }
+    }
+
+    /**
+     * UserSession : drapeaux, chaînes présentes, rôles (code + 1, ou 0 suivi du nom
+     * pour un rôle hors énumération), connexion en varint, dernière activité en écart signé
+     */
+    private void ecrireUserSession(Sortie out, UserSession user, int depth) throws IOException {
+        String userId = user.getUserId();
+        String username = user.getUsername();
+        String email = user.getEmail();
+        Map<String, Object> attributes = user.getAttributes();
+        int flags = (user.isAuthenticated() ? AUTHENTICATED : 0)
+                | (userId != null ? HAS_USER_ID : 0)
+                | (username != null ? HAS_USERNAME : 0)
+                | (email != null ? HAS_EMAIL : 0)
+                | (attributes != null ? HAS_ATTRIBUTES : 0);
+        out.writeByte(flags);
+        if (userId != null) {
+            out.writeString(userId);
+        }
+        if (username != null) {
+            out.writeString(username);
+        }
+        if (email != null) {
+            out.writeString(email);
+        }
+        List<String> roles = user.getRoles();
+        out.writeVarint(roles.size());
+        for (String role : roles) {
+            Role known = roleConnu(role);
+            if (known != null) {
+                out.writeVarint(known.getCode() + 1);
+            } else {
+                out.writeVarint(0);
+                out.writeString(role);
+            }
+        }
+        long loginTime = user.getLoginTime();
+        out.writeVarlong(zigzag(loginTime));
+        out.writeVarlong(zigzag(user.getLastActivity() - loginTime));
+        if (attributes != null) {
+            ecrireMap(out, attributes, depth);
+        }
+    }
+
+    private static Role roleConnu(String role) {
+        for (Role candidate : ROLES) {
+            if (candidate.name().equals(role)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    // ----- Décodage -----
+
+    private void lireEntrees(Entree in, Map<String, Object> map, int depth) throws IOException {
+        int size = in.readVarint();
+        for (int i = 0; i < size; i++) {
+            String key = in.readString();
+            map.put(key, lireValeur(in, depth + 1));
+        }
+    }
+
+    private Object lireValeur(Entree in, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("Contenu de session trop profond");
+        }
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL: return null;
+            case TRUE: return Boolean.TRUE;
+            case FALSE: return Boolean.FALSE;
+            case INT: return (int) unzigzag(in.readVarlong());
+            case LONG: return unzigzag(in.readVarlong());
+            case DOUBLE: return Double.longBitsToDouble(in.readLong());
+            case FLOAT: return Float.intBitsToFloat(in.readInt());
+            case SHORT: return (short) unzigzag(in.readVarlong());
+            case BYTE: return in.readByte();
+            case CHAR: return (char) in.readVarint();
+            case STRING: return in.readString();
+            case BYTES: return in.readBytes();
+            case USER_SESSION: return lireUserSession(in, depth);
+            case ROLE: return lireRole(in.readVarint());
+            case SESSION_DATA: {
+                Map<String, Object> values = new HashMap<>();
+                lireEntrees(in, values, depth);
+                return new SessionData(values);
+            }
+            case MAP: {
+                Map<String, Object> values = new HashMap<>();
+                lireEntrees(in, values, depth);
+                return values;
+            }
+            case LIST: {
+                int size = in.readVarint();
+                List<Object> values = new ArrayList<>(Math.min(size, 1024));
+                for (int i = 0; i < size; i++) {
+                    values.add(lireValeur(in, depth + 1));
+                }
+                return values;
+            }
+            case SET: {
+                int size = in.readVarint();
+                Set<Object> values = new LinkedHashSet<>();
+                for (int i = 0; i < size; i++) {
+                    values.add(lireValeur(in, depth + 1));
+                }
+                return values;
+            }
+            case DATE: return new Date(unzigzag(in.readVarlong()));
+            case BIG_DECIMAL: return new BigDecimal(in.readString());
+            case BIG_INTEGER: return new BigInteger(in.readBytes());
+            case JSON: return lireJson(in.readString(), in.readBytes());
+            default:
+                throw new IOException("Tag de valeur inconnu: " + tag);
+        }
+    }
+
+    private UserSession lireUserSession(Entree in, int depth) throws IOException {
+        int flags = in.readByte();
+        UserSession user = new UserSession();
+        if ((flags & HAS_USER_ID) != 0) {
+            user.setUserId(in.readString());
+        }
+        if ((flags & HAS_USERNAME) != 0) {
+            user.setUsername(in.readString());
+        }
+        if ((flags & HAS_EMAIL) != 0) {
+            user.setEmail(in.readString());
+        }
+        int count = in.readVarint();
+        List<String> roles = new ArrayList<>(Math.min(count, 64));
+        for (int i = 0; i < count; i++) {
+            int code = in.readVarint();
+            roles.add(code == 0 ? in.readString() : lireRole(code - 1).name());
+        }
+        user.setRoles(roles);
+        long loginTime = unzigzag(in.readVarlong());
+        user.setLoginTime(loginTime);
+        user.setLastActivity(loginTime + unzigzag(in.readVarlong()));
+        if ((flags & HAS_ATTRIBUTES) != 0) {
+            Map<String, Object> attributes = new HashMap<>();
+            lireEntrees(in, attributes, depth);
+            user.setAttributes(attributes);
+        }
+        user.setAuthenticated((flags & AUTHENTICATED) != 0);
+        return user;
+    }
+
+    private static Role lireRole(int code) throws IOException {
+        Role role = Role.fromCode(code);
+        if (role == null) {
+            throw new IOException("Rôle inconnu: " + code);
+        }
+        return role;
+    }
+
+    /**
+     * Classe admise pour une valeur JSON : hors plateforme et bibliothèques, dans un paquet autorisé s'ils sont configurés
+     */
+    private boolean typeJsonAutorise(String className) {
+        for (String refuse : PAQUETS_REFUSES) {
+            if (className.startsWith(refuse)) {
+                return false;
+            }
+        }
+        if (allowedPackages == null) {
+            return true;
+        }
+        for (String allowed : allowedPackages) {
+            if (className.startsWith(allowed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Object lireJson(String className, byte[] json) throws IOException {
+        if (!typeJsonAutorise(className)) {
+            throw new IOException("Type de session non autorisé: " + className);
+        }
+        try {
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            Class<?> type = Class.forName(className, false,
+                    loader != null ? loader : BinarySessionSerializer.class.getClassLoader());
+            if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+                throw new IOException("Type de session non instanciable: " + className);
+            }
+            return objectMapper.readValue(json, type);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Classe de session introuvable: " + className, e);
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Tampon d'écriture extensible (sans la synchronisation de ByteArrayOutputStream)
+     */
+    private static final class Sortie {
+        private byte[] buffer;
+        private int size;
+
+        Sortie(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        private void reserver(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        void writeByte(int value) {
+            reserver(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeVarint(int value) {
+            writeVarlong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarlong(long value) {
+            reserver(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            reserver(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeLong(long value) {
+            reserver(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarint(bytes.length);
+            reserver(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeString(String value) {
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    /**
+     * Lecture avec contrôle de bornes : un contenu tronqué lève IOException
+     */
+    private static final class Entree {
+        private final byte[] buffer;
+        private int position;
+
+        Entree(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        private void exiger(int count) throws IOException {
+            if (count < 0 || position + count > buffer.length) {
+                throw new IOException("Contenu de session tronqué");
+            }
+        }
+
+        byte readByte() throws IOException {
+            exiger(1);
+            return buffer[position++];
+        }
+
+        int readVarint() throws IOException {
+            long value = readVarlong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new IOException("Longueur invalide: " + value);
+            }
+            return (int) value;
+        }
+
+        long readVarlong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Varint invalide");
+        }
+
+        int readInt() throws IOException {
+            exiger(4);
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        long readLong() throws IOException {
+            exiger(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        byte[] readBytes() throws IOException {
+            int length = readVarint();
+            exiger(length);
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        String readString() throws IOException {
+            int length = readVarint();
+            exiger(length);
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
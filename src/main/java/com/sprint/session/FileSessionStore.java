@@ -0,0 +1,420 @@
+package com.sprint.session;
+
+import com.sprint.log.Logger;
+import com.sprint.util.PrivateFiles;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * Stockage durable des sessions : les sessions survivent à un redémarrage ou un redéploiement
+ *
+ * Les sessions vivent sur le heap comme avec InMemorySessionStore ; chaque modification est
+ * reportée de manière différée (write-behind) dans un journal en ajout seul, mappé en mémoire.
+ * Un thread démon écrit par lots toutes les flushMillis les sessions accédées depuis le lot
+ * précédent, puis les suppressions : le chemin de requête n'attend jamais le disque.
+ *
+ * Une session accédée est écrite au lot suivant et au lot d'après, pour capturer aussi
+ * les écritures faites par une requête encore en cours lors du premier lot.
+ * Le contenu d'un objet de session modifié en place (UserSession...) est donc enregistré
+ * tant que la requête qui le modifie dure moins d'une période.
+ *
+ * Au démarrage, le journal est rejoué (la dernière écriture de chaque session l'emporte,
+ * une suppression l'efface) ; un enregistrement tronqué par un arrêt brutal est ignoré.
+ * Quand le journal dépasse deux fois la taille des données vivantes, il est réécrit (compaction).
+ * Le journal contient les ID de sessions vivantes : répertoire et fichiers sont réservés au compte
+ * du processus, et un répertoire appartenant à un autre utilisateur est refusé (PrivateFiles).
+ *
+ * Format d'un enregistrement : type (1 octet), longueur du corps (int), corps, CRC32 du corps (int).
+ * Corps : longueur de l'ID (short), ID, puis pour une écriture création, dernier accès (long)
+ * et contenu encodé par le SessionSerializer.
+ */
+public class FileSessionStore implements SessionStore {
+
+    private static final Logger LOG = Logger.getLogger(FileSessionStore.class);
+
+    private static final byte END = 0;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final int HEADER = 1 + 4;
+    private static final int TRAILER = 4;
+    private static final long REGION_SIZE = 8L * 1024 * 1024; // Fenêtre mappée en écriture
+    private static final long REPLAY_WINDOW = 64L * 1024 * 1024; // Fenêtre mappée en lecture au rejeu
+    private static final long MIN_COMPACTION_SIZE = 4L * 1024 * 1024;
+
+    private final ConcurrentHashMap<String, SessionMap> sessions = new ConcurrentHashMap<>();
+    // Sessions accédées depuis le dernier lot, et suppressions en attente
+    private volatile Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final Queue<String> removals = new ConcurrentLinkedQueue<>();
+
+    private final Path logFile;
+    private final SessionSerializer serializer;
+    private final long flushMillis;
+    private final long replayWindow;
+    private final ScheduledExecutorService writer;
+
+    // État du journal, manipulé uniquement par le thread d'écriture (et le constructeur / close)
+    private FileChannel channel;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long position;
+    private final Map<String, Integer> liveRecords = new HashMap<>();
+    private long liveBytes;
+    private Set<String> previousBatch = new HashSet<>();
+    private final CRC32 crc = new CRC32();
+
+    private final long replayMillis;
+    private final int replayed;
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder writeErrors = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+
+    /**
+     * Ouvre (ou crée) le journal et restaure les sessions qu'il contient
+     * @param directory répertoire du journal (créé rwx------, ou refusé s'il appartient à un autre utilisateur)
+     * @param flushMillis période d'écriture par lots
+     * @param serializer encodage du contenu des sessions
+     */
+    public FileSessionStore(Path directory, long flushMillis, SessionSerializer serializer) throws IOException {
+        this(directory, flushMillis, serializer, REPLAY_WINDOW);
+    }
+
+    /**
+     * @param replayWindow taille de la fenêtre mappée au rejeu (réduite par les tests)
+     */
+    FileSessionStore(Path directory, long flushMillis, SessionSerializer serializer, long replayWindow)
+            throws IOException {
+        PrivateFiles.createDirectory(directory);
+        this.replayWindow = replayWindow;
+        this.logFile = directory.resolve("sessions.log");
+        PrivateFiles.createFile(logFile);
+        this.serializer = serializer;
+        this.flushMillis = Math.max(10, flushMillis);
+
+        long start = System.nanoTime();
+        this.channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.replayed = rejouer();
+        if (position < channel.size()) {
+            channel.truncate(position); // Fin de journal incomplète (arrêt brutal) ou fenêtre non remplie
+        }
+        this.replayMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (LOG.isInfoEnabled()) {
+            LOG.info(sessions.size() + " session(s) restaurée(s) depuis " + logFile
+                    + " (" + replayed + " enregistrements en " + replayMillis + " ms)");
+        }
+
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sprint-session-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::ecrireLot, this.flushMillis, this.flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SessionMap get(String sessionId) {
+        SessionMap session = sessions.get(sessionId);
+        if (session != null) {
+            dirty.add(sessionId);
+        }
+        return session;
+    }
+
+    @Override
+    public SessionMap peek(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    @Override
+    public void put(SessionMap session) {
+        sessions.put(session.getId(), session);
+        dirty.add(session.getId());
+    }
+
+    @Override
+    public SessionMap remove(String sessionId) {
+        SessionMap session = sessions.remove(sessionId);
+        if (session != null) {
+            removals.add(sessionId);
+        }
+        return session;
+    }
+
+    @Override
+    public int size() {
+        return sessions.size();
+    }
+
+    @Override
+    public Iterable<SessionMap> sessions() {
+        return sessions.values();
+    }
+
+    /**
+     * Écrit le dernier lot, force le journal sur disque et le ferme
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            try {
+                ecrireLot();
+                if (region != null) {
+                    region.force();
+                    region = null;
+                }
+                channel.truncate(position); // Retire la fin de la dernière fenêtre mappée
+                channel.close();
+            } catch (IOException e) {
+                LOG.warn("Erreur à la fermeture du journal de sessions: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Lot d'écriture : sessions accédées depuis les deux derniers lots, puis suppressions
+     */
+    private synchronized void ecrireLot() {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            Set<String> batch = dirty;
+            dirty = ConcurrentHashMap.newKeySet();
+            Set<String> toWrite = new HashSet<>(batch);
+            toWrite.addAll(previousBatch);
+            previousBatch = batch;
+            if (toWrite.isEmpty() && removals.isEmpty()) {
+                return;
+            }
+
+            for (String sessionId : toWrite) {
+                SessionMap session = sessions.get(sessionId);
+                if (session != null) {
+                    ecrireSession(sessionId, session);
+                }
+            }
+            String removed;
+            while ((removed = removals.poll()) != null) {
+                if (!sessions.containsKey(removed)) {
+                    ajouter(REMOVE, identifiant(removed), null);
+                    Integer size = liveRecords.remove(removed);
+                    if (size != null) {
+                        liveBytes -= size;
+                    }
+                }
+            }
+            if (region != null) {
+                region.force();
+            }
+            flushes.increment();
+
+            if (position > MIN_COMPACTION_SIZE && position > 2 * liveBytes) {
+                compacter();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Ne jamais laisser mourir le thread planifié
+            LOG.error("Erreur d'écriture du journal de sessions", e);
+        }
+    }
+
+    private void ecrireSession(String sessionId, SessionMap session) throws IOException {
+        byte[] payload;
+        try {
+            payload = serializer.encode(session.snapshot());
+        } catch (IOException | RuntimeException e) {
+            writeErrors.increment(); // Contenu non sérialisable : la session reste uniquement en mémoire
+            return;
+        }
+        byte[] id = identifiant(sessionId);
+        int size = ajouter(PUT, id, payload, session.getCreationTime(), session.getLastAccess());
+        Integer previous = liveRecords.put(sessionId, size);
+        liveBytes += size - (previous != null ? previous : 0);
+        written.increment();
+    }
+
+    private static byte[] identifiant(String sessionId) {
+        return sessionId.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private int ajouter(byte type, byte[] id, byte[] payload) throws IOException {
+        return ajouter(type, id, payload, 0, 0);
+    }
+
+    /**
+     * Ajoute un enregistrement en fin de journal
+     * @return la taille de l'enregistrement
+     */
+    private int ajouter(byte type, byte[] id, byte[] payload, long creationTime, long lastAccess) throws IOException {
+        int bodyLength = 2 + id.length + (type == PUT ? 16 + payload.length : 0);
+        int size = HEADER + bodyLength + TRAILER;
+        reserver(size);
+
+        int start = (int) (position - regionStart);
+        region.position(start + HEADER);
+        region.putShort((short) id.length);
+        region.put(id);
+        if (type == PUT) {
+            region.putLong(creationTime);
+            region.putLong(lastAccess);
+            region.put(payload);
+        }
+        crc.reset();
+        crc.update(region.duplicate().position(start + HEADER).limit(start + HEADER + bodyLength));
+        region.putInt((int) crc.getValue());
+        region.putInt(start + 1, bodyLength);
+        region.put(start, type); // Le type en dernier : un enregistrement incomplet reste invisible
+        position += size;
+        return size;
+    }
+
+    /**
+     * Garantit qu'une fenêtre mappée couvre [position, position + size)
+     */
+    private void reserver(int size) throws IOException {
+        if (region != null && position + size <= regionStart + region.capacity()) {
+            return;
+        }
+        if (region != null) {
+            region.force();
+        }
+        regionStart = position;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, Math.max(REGION_SIZE, size));
+    }
+
+    /**
+     * Relit le journal depuis le début ; s'arrête au marqueur de fin ou au premier enregistrement invalide
+     * @return le nombre d'enregistrements valides
+     */
+    private int rejouer() throws IOException {
+        long fileSize = channel.size();
+        int count = 0;
+        position = 0;
+        MappedByteBuffer window = null;
+        long windowStart = 0;
+        while (position + HEADER + TRAILER <= fileSize) {
+            if (window == null || position + HEADER > windowStart + window.capacity()) {
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                        Math.min(replayWindow, fileSize - windowStart));
+            }
+            int offset = (int) (position - windowStart);
+            byte type = window.get(offset);
+            int bodyLength = window.getInt(offset + 1);
+            if (type == END || (type != PUT && type != REMOVE) || bodyLength < 2
+                    || position + HEADER + bodyLength + TRAILER > fileSize) {
+                break;
+            }
+            int size = HEADER + bodyLength + TRAILER;
+            if (offset + size > window.capacity()) {
+                // Enregistrement à cheval sur deux fenêtres : on remappe à partir de son début
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                        Math.min(Math.max(replayWindow, size), fileSize - windowStart));
+                offset = 0;
+            }
+            crc.reset();
+            crc.update(window.duplicate().position(offset + HEADER).limit(offset + HEADER + bodyLength));
+            if ((int) crc.getValue() != window.getInt(offset + HEADER + bodyLength)) {
+                break;
+            }
+            ByteBuffer record = window.duplicate().position(offset + HEADER).limit(offset + HEADER + bodyLength);
+            byte[] id = new byte[record.getShort()];
+            record.get(id);
+            String sessionId = new String(id, StandardCharsets.UTF_8);
+            if (type == PUT) {
+                long creationTime = record.getLong();
+                long lastAccess = record.getLong();
+                byte[] payload = new byte[record.remaining()];
+                record.get(payload);
+                try {
+                    sessions.put(sessionId, new SessionMap(sessionId, creationTime, lastAccess,
+                            serializer.decode(payload)));
+                    Integer previous = liveRecords.put(sessionId, size);
+                    liveBytes += size - (previous != null ? previous : 0);
+                } catch (IOException e) {
+                    LOG.warn("Session illisible ignorée au rejeu: {}", e.getMessage());
+                }
+            } else {
+                sessions.remove(sessionId);
+                Integer previous = liveRecords.remove(sessionId);
+                if (previous != null) {
+                    liveBytes -= previous;
+                }
+            }
+            position += size;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Réécrit le journal avec uniquement les sessions vivantes, puis remplace l'ancien
+     */
+    private void compacter() throws IOException {
+        Path compacted = logFile.resolveSibling(logFile.getFileName() + ".compact");
+        FileChannel previousChannel = channel;
+        region = null;
+        PrivateFiles.createFile(compacted);
+        channel = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        position = 0;
+        liveRecords.clear();
+        liveBytes = 0;
+        for (SessionMap session : sessions.values()) {
+            ecrireSession(session.getId(), session);
+        }
+        if (region != null) {
+            region.force();
+        }
+        previousChannel.close();
+        Files.move(compacted, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        compactions.increment();
+    }
+
+    /**
+     * Jauges du journal : taille, données vivantes, lots écrits, durée du dernier rejeu
+     */
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        synchronized (this) {
+            statistics.put("logBytes", position);
+            statistics.put("logLiveBytes", liveBytes);
+        }
+        statistics.put("logFlushes", flushes.sum());
+        statistics.put("logSessionsWritten", written.sum());
+        statistics.put("logWriteErrors", writeErrors.sum());
+        statistics.put("logCompactions", compactions.sum());
+        statistics.put("replayRecords", replayed);
+        statistics.put("replayMillis", replayMillis);
+        return statistics;
+    }
+}
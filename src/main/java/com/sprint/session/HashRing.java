@@ -0,0 +1,72 @@
+package com.sprint.session;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Anneau de hachage cohérent : associe chaque session à une suite stable de nœuds
+ * Chaque nœud occupe VIRTUAL_NODES positions pour équilibrer la répartition ; l'ajout ou le retrait
+ * d'un nœud ne déplace que les sessions de ses positions.
+ */
+final class HashRing {
+
+    private static final int VIRTUAL_NODES = 128;
+
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+    private final int nodeCount;
+
+    HashRing(Collection<String> nodes) {
+        for (String node : nodes) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+        this.nodeCount = nodes.size();
+    }
+
+    /**
+     * Les count premiers nœuds distincts à partir de la position de la clé
+     */
+    List<String> nodesFor(String key, int count) {
+        List<String> nodes = new ArrayList<>(count);
+        if (ring.isEmpty()) {
+            return nodes;
+        }
+        int wanted = Math.min(count, nodeCount);
+        long position = hash(key);
+        for (Map<Long, String> part : List.of(ring.tailMap(position), ring.headMap(position))) {
+            for (String node : part.values()) {
+                if (!nodes.contains(node)) {
+                    nodes.add(node);
+                    if (nodes.size() == wanted) {
+                        return nodes;
+                    }
+                }
+            }
+        }
+        return nodes;
+    }
+
+    static long hash(String key) {
+        return hash(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * FNV-1a 64 bits suivi d'un mélange final (répartition uniforme sur l'anneau)
+     */
+    static long hash(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
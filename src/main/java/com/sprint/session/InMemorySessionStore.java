@@ -0,0 +1,36 @@
+package com.sprint.session;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stockage par défaut : toutes les sessions sur le heap dans un ConcurrentHashMap
+ */
+public class InMemorySessionStore implements SessionStore {
+
+    private final ConcurrentHashMap<String, SessionMap> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    public SessionMap get(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    @Override
+    public void put(SessionMap session) {
+        sessions.put(session.getId(), session);
+    }
+
+    @Override
+    public SessionMap remove(String sessionId) {
+        return sessions.remove(sessionId);
+    }
+
+    @Override
+    public int size() {
+        return sessions.size();
+    }
+
+    @Override
+    public Iterable<SessionMap> sessions() {
+        return sessions.values();
+    }
+}
@@ -0,0 +1,35 @@
+package com.sprint.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sérialisation Java standard du contenu de session
+ * Une valeur non sérialisable fait échouer l'encodage : la session reste alors sur le heap.
+ */
+public class JavaSessionSerializer implements SessionSerializer {
+
+    @Override
+    public byte[] encode(Map<String, Object> session) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new HashMap<>(session));
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> decode(byte[] bytes) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (Map<String, Object>) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Classe de session introuvable: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.sprint.session;
+
+import com.sprint.log.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Stockage à deux niveaux pour les grandes populations de sessions majoritairement inactives
+ *
+ * Les sessions récemment accédées restent sur le heap. Une session inactive depuis plus de
+ * idleMillis est sérialisée dans une arène de mémoire directe (ByteBuffer.allocateDirect) :
+ * il ne reste sur le heap qu'une coquille SessionMap (ID, horodatages, timeout mémorisé).
+ * Le premier accès au contenu recharge la session sur le heap, de manière transparente
+ * pour SessionManager.getSession et le code applicatif.
+ *
+ * L'arène est découpée en blocs de 16MB alloués à la demande (allocation par incrément).
+ * Un emplacement libéré devient un trou ; un bloc entièrement vide est recyclé, et un bloc
+ * à moitié vide est compacté pendant la maintenance. Si l'arène est pleine ou que le contenu
+ * n'est pas sérialisable, la session reste simplement sur le heap.
+ */
+public class OffHeapSessionStore implements SessionStore {
+
+    private static final Logger LOG = Logger.getLogger(OffHeapSessionStore.class);
+
+    private static final int CHUNK_SIZE = 16 * 1024 * 1024;
+
+    private final ConcurrentHashMap<String, SessionMap> sessions = new ConcurrentHashMap<>();
+    // Sessions dont le contenu est sur le heap (candidates au déplacement), par ID :
+    // SessionMap est une Map, son hashCode dépend du contenu et ne peut servir de clé
+    private final ConcurrentHashMap<String, SessionMap> hot = new ConcurrentHashMap<>();
+
+    private final SessionSerializer serializer;
+    private final ToLongFunction<Map<String, Object>> timeoutFunction;
+    private final long idleMillis;
+    private final int chunkSize;
+    private final int maxChunks;
+
+    // Arène (protégée par arenaLock)
+    private final Object arenaLock = new Object();
+    private final List<Chunk> chunks = new ArrayList<>();
+    private final ArrayDeque<Chunk> freeChunks = new ArrayDeque<>();
+    private Chunk current;
+    private long liveBytes;
+
+    private long lastScan;
+
+    private final LongAdder demotions = new LongAdder();
+    private final LongAdder promotions = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Bloc de mémoire directe ; ses résidents sont les coquilles dont le contenu y est stocké
+     */
+    static final class Chunk {
+        final ByteBuffer buffer;
+        final Set<SessionMap> residents = Collections.newSetFromMap(new IdentityHashMap<>());
+        int used;
+        int live;
+
+        Chunk(int size) {
+            this.buffer = ByteBuffer.allocateDirect(size);
+        }
+    }
+
+    /**
+     * @param maxOffHeapBytes mémoire directe maximale réservée à l'arène
+     * @param idleMillis inactivité au-delà de laquelle une session quitte le heap
+     * @param serializer encodage du contenu des sessions
+     * @param timeoutFunction timeout d'une session, mémorisé au déplacement pour l'expirer sans la recharger
+     */
+    public OffHeapSessionStore(long maxOffHeapBytes, long idleMillis, SessionSerializer serializer,
+                               ToLongFunction<Map<String, Object>> timeoutFunction) {
+        this.chunkSize = (int) Math.max(64 * 1024, Math.min(CHUNK_SIZE, maxOffHeapBytes));
+        this.maxChunks = (int) Math.max(1, maxOffHeapBytes / chunkSize);
+        this.idleMillis = Math.max(1000, idleMillis);
+        this.serializer = serializer;
+        this.timeoutFunction = timeoutFunction;
+    }
+
+    @Override
+    public SessionMap get(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    @Override
+    public void put(SessionMap session) {
+        sessions.put(session.getId(), session);
+        if (!session.isCold()) {
+            hot.put(session.getId(), session);
+        }
+    }
+
+    /**
+     * Le contenu d'une session froide retirée est rechargé sur le heap avant libération
+     * de son emplacement : les observateurs d'éviction reçoivent une session complète.
+     */
+    @Override
+    public SessionMap remove(String sessionId) {
+        SessionMap session = sessions.remove(sessionId);
+        if (session != null) {
+            hot.remove(sessionId);
+            session.ensureLoaded();
+        }
+        return session;
+    }
+
+    @Override
+    public int size() {
+        return sessions.size();
+    }
+
+    @Override
+    public Iterable<SessionMap> sessions() {
+        return sessions.values();
+    }
+
+    /**
+     * Déplace hors du heap les sessions inactives depuis plus de idleMillis et qu'aucune requête
+     * en cours n'utilise, puis compacte
+     * au plus un bloc fragmenté. Le parcours des sessions chaudes a lieu au plus quatre fois
+     * par période d'inactivité.
+     */
+    @Override
+    public List<String> maintenance(long now) {
+        if (now - lastScan < idleMillis / 4) {
+            return Collections.emptyList();
+        }
+        lastScan = now;
+        List<String> demoted = new ArrayList<>();
+        for (Map.Entry<String, SessionMap> entry : hot.entrySet()) {
+            String id = entry.getKey();
+            SessionMap session = entry.getValue();
+            if (now - session.getLastAccess() < idleMillis || session.isInUse()) {
+                continue;
+            }
+            // Retirée avant le déplacement : un rechargement concurrent la réinscrit
+            hot.remove(id);
+            if (sessions.get(id) != session) {
+                continue;
+            }
+            if (session.demote(this, timeoutFunction.applyAsLong(session))) {
+                demotions.increment();
+                demoted.add(id);
+            } else {
+                hot.put(id, session);
+            }
+        }
+        compacter();
+        return demoted;
+    }
+
+    @Override
+    public void close() {
+        synchronized (arenaLock) {
+            // La mémoire directe est rendue au ramasse-miettes avec les ByteBuffer
+            chunks.clear();
+            freeChunks.clear();
+            current = null;
+            liveBytes = 0;
+        }
+    }
+
+    /**
+     * Écrit le contenu d'une session dans l'arène (appelé par SessionMap.demote)
+     * @return false si le contenu n'est pas sérialisable ou si l'arène est pleine
+     */
+    boolean save(SessionMap session, Map<String, Object> values) {
+        byte[] bytes;
+        try {
+            bytes = serializer.encode(values);
+        } catch (IOException | RuntimeException e) {
+            rejected.increment();
+            return false;
+        }
+        synchronized (arenaLock) {
+            return ecrire(session, bytes);
+        }
+    }
+
+    /**
+     * Relit le contenu d'une session et libère son emplacement (appelé par SessionMap.promote)
+     */
+    Map<String, Object> load(SessionMap session) {
+        byte[] bytes;
+        synchronized (arenaLock) {
+            Chunk chunk = session.coldChunk;
+            if (chunk == null) {
+                return Collections.emptyMap();
+            }
+            bytes = new byte[session.coldLength];
+            chunk.buffer.get(session.coldOffset, bytes);
+            liberer(session);
+        }
+        String id = session.getId();
+        if (id != null && sessions.get(id) == session) {
+            hot.put(id, session);
+        }
+        promotions.increment();
+        try {
+            return serializer.decode(bytes);
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Contenu hors heap illisible pour une session: {}", e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Libère l'emplacement d'une session restée sur le heap (déplacement abandonné par SessionMap.demote)
+     */
+    void discard(SessionMap session) {
+        synchronized (arenaLock) {
+            if (session.coldChunk != null) {
+                liberer(session);
+            }
+        }
+    }
+
+    private boolean ecrire(SessionMap session, byte[] bytes) {
+        if (bytes.length > chunkSize) {
+            rejected.increment();
+            return false;
+        }
+        if (current == null || chunkSize - current.used < bytes.length) {
+            current = blocSuivant();
+            if (current == null) {
+                rejected.increment();
+                return false;
+            }
+        }
+        int offset = current.used;
+        current.buffer.put(offset, bytes);
+        current.used += bytes.length;
+        current.live += bytes.length;
+        current.residents.add(session);
+        liveBytes += bytes.length;
+        session.coldChunk = current;
+        session.coldOffset = offset;
+        session.coldLength = bytes.length;
+        return true;
+    }
+
+    private Chunk blocSuivant() {
+        Chunk chunk = freeChunks.poll();
+        if (chunk == null && chunks.size() < maxChunks) {
+            chunk = new Chunk(chunkSize);
+            chunks.add(chunk);
+        }
+        return chunk;
+    }
+
+    private void liberer(SessionMap session) {
+        Chunk chunk = session.coldChunk;
+        chunk.live -= session.coldLength;
+        chunk.residents.remove(session);
+        liveBytes -= session.coldLength;
+        session.coldChunk = null;
+        if (chunk.live == 0 && chunk != current) {
+            chunk.used = 0;
+            freeChunks.add(chunk);
+        }
+    }
+
+    /**
+     * Recopie les résidents du bloc le plus fragmenté (moins de la moitié vivante) vers le bloc courant
+     */
+    private void compacter() {
+        synchronized (arenaLock) {
+            Chunk fragmented = null;
+            for (Chunk chunk : chunks) {
+                if (chunk != current && chunk.used > 0 && chunk.live * 2 < chunk.used
+                        && (fragmented == null || chunk.live < fragmented.live)) {
+                    fragmented = chunk;
+                }
+            }
+            if (fragmented == null) {
+                return;
+            }
+            for (SessionMap session : new ArrayList<>(fragmented.residents)) {
+                if (!placeDisponible(session.coldLength)) {
+                    return; // Arène pleine : la compaction reprendra plus tard
+                }
+                byte[] bytes = new byte[session.coldLength];
+                fragmented.buffer.get(session.coldOffset, bytes);
+                liberer(session);
+                ecrire(session, bytes);
+            }
+        }
+    }
+
+    private boolean placeDisponible(int length) {
+        return (current != null && chunkSize - current.used >= length)
+                || !freeChunks.isEmpty() || chunks.size() < maxChunks;
+    }
+
+    /**
+     * Jauges du stockage : sessions chaudes et froides, mémoire directe réservée et utilisée
+     */
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("hotSessions", hot.size());
+        statistics.put("coldSessions", Math.max(0, sessions.size() - hot.size()));
+        synchronized (arenaLock) {
+            statistics.put("offHeapReservedBytes", (long) chunks.size() * chunkSize);
+            statistics.put("offHeapLiveBytes", liveBytes);
+        }
+        statistics.put("demotions", demotions.sum());
+        statistics.put("promotions", promotions.sum());
+        statistics.put("demotionsRejected", rejected.sum());
+        return statistics;
+    }
+}
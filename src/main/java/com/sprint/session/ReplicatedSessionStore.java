@@ -0,0 +1,1007 @@
+package com.sprint.session;
+
+import com.sprint.log.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Réplication des sessions entre instances du framework, par TCP
+ *
+ * Décore le stockage local : chaque session est copiée sur N autres instances choisies par
+ * hachage cohérent (HashRing). Les écritures sont regroupées : toutes les flushMillis, les sessions
+ * accédées depuis les deux derniers lots sont comparées, clé par clé, à ce qui a déjà été répliqué
+ * (empreinte 64 bits de chaque valeur encodée) et seules les clés modifiées ou supprimées partent,
+ * en une trame par pair. Une session absente localement (instance tombée, répartiteur sans affinité)
+ * est reprise depuis une réplique reçue, ou demandée à ses nœuds propriétaires (réparation à la lecture).
+ *
+ * La réparation à la lecture passe par les connexions déjà établies par l'émetteur (aucune connexion
+ * ouverte sur le thread de requête) : un propriétaire déconnecté n'est pas interrogé, le nombre de
+ * demandes en vol est borné (au-delà, pas de réparation) et les échecs récents sont mémorisés dans
+ * une table de taille fixe. Un flot de cookies inventés ne coûte donc au plus que quelques demandes
+ * simultanées sur des connexions existantes.
+ *
+ * Les répliques reçues sont gardées à part et n'entrent dans le stockage local qu'à leur premier
+ * accès ; elles expirent selon le même timeout que les sessions locales.
+ * Une connexion perdue est rétablie au plus une fois par seconde, puis le pair reçoit l'intégralité
+ * des sessions dont il est réplique.
+ *
+ * Sécurité : le port de réplication n'accepte que les adresses des pairs configurés, et chaque
+ * trame porte un HMAC-SHA256 calculé avec une clé dérivée du secret partagé
+ * (sprint.session.replication.secret). Le HMAC couvre les nonces échangés à l'ouverture de la
+ * connexion, le sens et le numéro de la trame : une trame rejouée, réordonnée ou renvoyée à son
+ * émetteur est refusée. Une trame est vérifiée avant tout décodage, et la connexion est coupée au
+ * premier échec : le SessionSerializer ne voit jamais d'octets non authentifiés.
+ *
+ * Test local à plusieurs JVM sur la boucle locale : même liste de pairs pour toutes les instances
+ * (-Dsprint.session.replication.peers=127.0.0.1:7701,127.0.0.1:7702,127.0.0.1:7703), le même secret
+ * (-Dsprint.session.replication.secret=...) et une adresse propre à chacune
+ * (-Dsprint.session.replication.self=127.0.0.1:7701, ...).
+ */
+public class ReplicatedSessionStore implements SessionStore {
+
+    private static final Logger LOG = Logger.getLogger(ReplicatedSessionStore.class);
+
+    // Trames
+    private static final byte BATCH = 1;
+    private static final byte FETCH = 2;
+    private static final byte REPONSE = 3;
+    // Enregistrements d'un lot
+    private static final byte UPSERT = 1;
+    private static final byte REMOVE = 2;
+    // Poignée de main et sens des trames (dans le HMAC)
+    private static final int HANDSHAKE = 0x53524532; // "SRE2" : version 2 (demandes sur les connexions établies)
+    private static final int NONCE_BYTES = 16;
+    private static final int MAC_BYTES = 32;
+    private static final byte CLIENT = 1;
+    private static final byte SERVEUR = 2;
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 200;
+    private static final int FETCH_TIMEOUT_MILLIS = 300;
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 5000;
+    private static final int MAX_FRAME = 64 * 1024 * 1024;
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+    private static final long REPLICA_SWEEP_MILLIS = 10_000;
+    private static final long MISS_CACHE_MILLIS = 5_000;
+    private static final int MISS_CACHE_SIZE = 16_384; // Puissance de deux
+    private static final int MAX_FETCHES_IN_FLIGHT = 64;
+
+    private final SessionStore local;
+    private final ConcurrentHashMap<String, SessionMap> replicas = new ConcurrentHashMap<>();
+    private final String self;
+    private final List<String> peers;
+    private final HashRing ring;
+    private final int replicaCount;
+    private final SessionSerializer serializer;
+    private final ToLongFunction<Map<String, Object>> timeoutFunction;
+    private final SecretKeySpec macKey;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private volatile Consumer<SessionMap> adoptionHandler = session -> { };
+
+    // Sessions accédées depuis le dernier lot, suppressions en attente
+    private volatile Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final Queue<String> removals = new ConcurrentLinkedQueue<>();
+
+    // Réparation à la lecture : demandes en vol (par numéro), places disponibles, échecs récents
+    // (table à correspondance directe : une collision remplace l'échec précédent)
+    private final ConcurrentHashMap<Long, CompletableFuture<Boolean>> fetches = new ConcurrentHashMap<>();
+    private final AtomicLong fetchIds = new AtomicLong();
+    private final Semaphore fetchPermits = new Semaphore(MAX_FETCHES_IN_FLIGHT);
+    private final AtomicReferenceArray<Echec> recentMisses = new AtomicReferenceArray<>(MISS_CACHE_SIZE);
+
+    // État de l'émetteur, manipulé uniquement par son thread ; connexions lues aussi par les requêtes
+    private Set<String> previousBatch = new HashSet<>();
+    private final Map<String, Baseline> baselines = new HashMap<>();
+    private final Map<String, Peer> connections = new ConcurrentHashMap<>();
+
+    private final ServerSocket server;
+    private final ExecutorService receivers;
+    private final ScheduledExecutorService sender;
+    private volatile boolean running = true;
+    private long lastSweep;
+
+    private final LongAdder recordsSent = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+    private final LongAdder recordsApplied = new LongAdder();
+    private final LongAdder readRepairs = new LongAdder();
+    private final LongAdder fetchesSkipped = new LongAdder();
+    private final LongAdder encodeErrors = new LongAdder();
+    private final LongAdder rejectedConnections = new LongAdder();
+    private final LongAdder rejectedFrames = new LongAdder();
+
+    /**
+     * Ce qui a déjà été répliqué d'une session : empreinte de chaque valeur et dernier accès
+     */
+    private static final class Baseline {
+        final Map<String, Long> hashes = new HashMap<>();
+        long lastAccess;
+    }
+
+    /**
+     * Échec récent de récupération d'une session
+     */
+    private static final class Echec {
+        final String sessionId;
+        final long until;
+
+        Echec(String sessionId, long until) {
+            this.sessionId = sessionId;
+            this.until = until;
+        }
+    }
+
+    /**
+     * Connexion sortante vers un pair : ouverte par l'émetteur, écrite sous le verrou du pair
+     * (lots de l'émetteur, demandes des requêtes), réponses lues par un thread de réception
+     */
+    private static final class Peer {
+        final String address;
+        volatile Socket socket;
+        volatile DataOutputStream out;
+        volatile Canal canal;
+        long nextAttempt;
+
+        Peer(String address) {
+            this.address = address;
+        }
+    }
+
+    /**
+     * Authentification d'une connexion établie : HMAC de chaque trame, lié aux nonces du client
+     * et du serveur, au sens et au numéro de la trame (un compteur par sens). Un Mac par sens :
+     * émission et réception peuvent se faire sur deux threads.
+     */
+    private static final class Canal {
+        private final Mac macEmission;
+        private final Mac macReception;
+        private final byte[] nonces; // Nonce du client, puis nonce du serveur
+        private final byte sensEmission;
+        private final byte sensReception;
+        private long emises;
+        private long recues;
+
+        Canal(Mac macEmission, Mac macReception, byte[] nonces, byte sensEmission) {
+            this.macEmission = macEmission;
+            this.macReception = macReception;
+            this.nonces = nonces;
+            this.sensEmission = sensEmission;
+            this.sensReception = sensEmission == CLIENT ? SERVEUR : CLIENT;
+        }
+
+        byte[] signer(byte[] body) {
+            return calculer(macEmission, sensEmission, emises++, body);
+        }
+
+        boolean verifier(byte[] body, byte[] tag) {
+            return MessageDigest.isEqual(calculer(macReception, sensReception, recues++, body), tag);
+        }
+
+        private byte[] calculer(Mac mac, byte sens, long sequence, byte[] body) {
+            mac.update(sens);
+            mac.update(nonces);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                mac.update((byte) (sequence >>> shift));
+            }
+            return mac.doFinal(body);
+        }
+    }
+
+    /**
+     * @param local stockage local décoré
+     * @param self adresse "hôte:port" de cette instance (port d'écoute)
+     * @param nodes adresses de toutes les instances (self comprise ou non) ; seules ces adresses
+     *              peuvent se connecter au port de réplication
+     * @param secret secret partagé par toutes les instances (au moins 32 octets)
+     * @param replicaCount nombre de copies sur d'autres instances
+     * @param flushMillis période d'envoi des lots
+     * @param serializer encodage des valeurs de session
+     * @param timeoutFunction timeout d'une session (expiration des répliques)
+     */
+    public ReplicatedSessionStore(SessionStore local, String self, Collection<String> nodes, byte[] secret,
+                                  int replicaCount, long flushMillis, SessionSerializer serializer,
+                                  ToLongFunction<Map<String, Object>> timeoutFunction) throws IOException {
+        if (secret == null || secret.length < 32) {
+            throw new IllegalArgumentException("Le secret de réplication des sessions doit faire au moins 32 octets");
+        }
+        this.macKey = new SecretKeySpec(deriver(secret), "HmacSHA256");
+        this.local = local;
+        this.self = self.trim();
+        Set<String> all = new LinkedHashSet<>();
+        all.add(this.self);
+        for (String node : nodes) {
+            if (!node.trim().isEmpty()) {
+                all.add(node.trim());
+            }
+        }
+        this.peers = new ArrayList<>(all);
+        this.peers.remove(this.self);
+        this.ring = new HashRing(all);
+        this.replicaCount = Math.max(1, replicaCount);
+        this.serializer = serializer;
+        this.timeoutFunction = timeoutFunction;
+
+        this.server = new ServerSocket();
+        server.setReuseAddress(true);
+        server.bind(adresse(this.self));
+        this.receivers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "sprint-session-replication-in");
+            thread.setDaemon(true);
+            return thread;
+        });
+        receivers.execute(this::accepter);
+        this.sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sprint-session-replication-out");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(10, flushMillis);
+        sender.scheduleWithFixedDelay(this::envoyerLot, period, period, TimeUnit.MILLISECONDS);
+        LOG.info("Réplication active sur {} vers {} ({} réplique(s) par session)", this.self, peers, this.replicaCount);
+    }
+
+    private static byte[] deriver(byte[] secret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            return mac.doFinal("sprint-session-replication".getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 indisponible", e);
+        }
+    }
+
+    /**
+     * Mac propre à une connexion (Mac n'est pas sûr en accès concurrent)
+     */
+    private Mac nouveauMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(macKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 indisponible", e);
+        }
+    }
+
+    private static InetSocketAddress adresse(String node) {
+        int separator = node.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Adresse de réplication invalide (hôte:port attendu): " + node);
+        }
+        return new InetSocketAddress(node.substring(0, separator), Integer.parseInt(node.substring(separator + 1)));
+    }
+
+    /**
+     * Pairs qui détiennent une copie de la session
+     */
+    private List<String> replicasOf(String sessionId) {
+        List<String> nodes = ring.nodesFor(sessionId, replicaCount + 1);
+        nodes.remove(self);
+        return nodes.size() > replicaCount ? nodes.subList(0, replicaCount) : nodes;
+    }
+
+    // ----- SessionStore -----
+
+    /**
+     * Session locale, sinon réplique reçue, sinon demandée à ses nœuds propriétaires
+     */
+    @Override
+    public SessionMap get(String sessionId) {
+        SessionMap session = local.get(sessionId);
+        if (session != null) {
+            dirty.add(sessionId);
+            return session;
+        }
+        session = replicas.remove(sessionId);
+        if (session == null) {
+            session = recuperer(sessionId);
+        }
+        if (session != null) {
+            local.put(session);
+            dirty.add(sessionId);
+            readRepairs.increment();
+            adoptionHandler.accept(session);
+        }
+        return session;
+    }
+
+    @Override
+    public SessionMap peek(String sessionId) {
+        return local.peek(sessionId);
+    }
+
+    @Override
+    public void put(SessionMap session) {
+        local.put(session);
+        dirty.add(session.getId());
+    }
+
+    @Override
+    public SessionMap remove(String sessionId) {
+        SessionMap session = local.remove(sessionId);
+        replicas.remove(sessionId);
+        if (session != null) {
+            removals.add(sessionId);
+        }
+        return session;
+    }
+
+    @Override
+    public int size() {
+        return local.size();
+    }
+
+    @Override
+    public Iterable<SessionMap> sessions() {
+        return local.sessions();
+    }
+
+    @Override
+    public void setAdoptionHandler(Consumer<SessionMap> handler) {
+        this.adoptionHandler = handler;
+        local.setAdoptionHandler(handler);
+    }
+
+    /**
+     * Maintenance du stockage local, puis expiration des répliques (toutes les 10 secondes)
+     */
+    @Override
+    public List<String> maintenance(long now) {
+        List<String> changed = local.maintenance(now);
+        if (now - lastSweep >= REPLICA_SWEEP_MILLIS) {
+            lastSweep = now;
+            replicas.values().removeIf(replica -> now - replica.getLastAccess() > timeoutFunction.applyAsLong(replica));
+        }
+        return changed;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        sender.shutdown();
+        try {
+            sender.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            server.close();
+        } catch (IOException ignored) {
+            // Fermeture best effort
+        }
+        receivers.shutdownNow();
+        synchronized (connections) {
+            for (Peer peer : connections.values()) {
+                deconnecter(peer, null);
+            }
+        }
+        local.close();
+    }
+
+    // ----- Émission -----
+
+    /**
+     * Lot périodique : deltas des sessions accédées, suppressions, resynchronisation des pairs reconnectés
+     */
+    private void envoyerLot() {
+        if (!running) {
+            return;
+        }
+        try {
+            synchronized (connections) {
+                Map<String, Trame> frames = new HashMap<>();
+                for (String address : peers) {
+                    Peer peer = connections.computeIfAbsent(address, Peer::new);
+                    if (peer.out == null && connecter(peer)) {
+                        resynchroniser(address, trame(frames, address));
+                    }
+                }
+
+                Set<String> batch = dirty;
+                dirty = ConcurrentHashMap.newKeySet();
+                Set<String> toSend = new HashSet<>(batch);
+                toSend.addAll(previousBatch);
+                previousBatch = batch;
+                for (String sessionId : toSend) {
+                    SessionMap session = local.peek(sessionId);
+                    if (session != null) {
+                        ecrireDelta(sessionId, session, frames);
+                    }
+                }
+
+                String removed;
+                while ((removed = removals.poll()) != null) {
+                    baselines.remove(removed);
+                    for (String address : replicasOf(removed)) {
+                        Trame frame = trame(frames, address);
+                        frame.out.writeByte(REMOVE);
+                        frame.out.writeUTF(removed);
+                        frame.count++;
+                    }
+                }
+
+                for (Map.Entry<String, Trame> entry : frames.entrySet()) {
+                    envoyer(connections.get(entry.getKey()), entry.getValue());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Ne jamais laisser mourir le thread planifié
+            LOG.warn("Erreur de réplication: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Trame en construction pour un pair
+     */
+    private static final class Trame {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        int count;
+    }
+
+    private static Trame trame(Map<String, Trame> frames, String address) {
+        return frames.computeIfAbsent(address, key -> new Trame());
+    }
+
+    /**
+     * Compare la session à ce qui a déjà été répliqué et ajoute le delta aux trames de ses répliques
+     */
+    private void ecrireDelta(String sessionId, SessionMap session, Map<String, Trame> frames) throws IOException {
+        Baseline baseline = baselines.computeIfAbsent(sessionId, key -> new Baseline());
+        Map<String, Object> snapshot = session.snapshot();
+        Map<String, byte[]> changed = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : snapshot.entrySet()) {
+            byte[] encoded = encoderValeur(entry.getKey(), entry.getValue());
+            if (encoded == null) {
+                continue;
+            }
+            Long hash = HashRing.hash(encoded);
+            if (!hash.equals(baseline.hashes.put(entry.getKey(), hash))) {
+                changed.put(entry.getKey(), encoded);
+            }
+        }
+        List<String> removedKeys = new ArrayList<>();
+        for (Iterator<String> it = baseline.hashes.keySet().iterator(); it.hasNext(); ) {
+            String key = it.next();
+            if (!snapshot.containsKey(key)) {
+                removedKeys.add(key);
+                it.remove();
+            }
+        }
+        if (changed.isEmpty() && removedKeys.isEmpty() && baseline.lastAccess == session.getLastAccess()) {
+            return;
+        }
+        baseline.lastAccess = session.getLastAccess();
+        for (String address : replicasOf(sessionId)) {
+            ecrireUpsert(trame(frames, address), session, false, changed, removedKeys);
+        }
+    }
+
+    private byte[] encoderValeur(String key, Object value) {
+        try {
+            return serializer.encode(Collections.singletonMap(key, value));
+        } catch (IOException | RuntimeException e) {
+            encodeErrors.increment(); // Valeur non sérialisable : reste locale
+            return null;
+        }
+    }
+
+    private Map<String, byte[]> encoderTout(SessionMap session) {
+        Map<String, byte[]> all = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : session.snapshot().entrySet()) {
+            byte[] encoded = encoderValeur(entry.getKey(), entry.getValue());
+            if (encoded != null) {
+                all.put(entry.getKey(), encoded);
+            }
+        }
+        return all;
+    }
+
+    private static void ecrireUpsert(Trame frame, SessionMap session, boolean full,
+                                     Map<String, byte[]> values, List<String> removedKeys) throws IOException {
+        DataOutputStream out = frame.out;
+        out.writeByte(UPSERT);
+        out.writeUTF(session.getId());
+        out.writeLong(session.getCreationTime());
+        out.writeLong(session.getLastAccess());
+        out.writeBoolean(full);
+        out.writeInt(values.size());
+        for (Map.Entry<String, byte[]> entry : values.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().length);
+            out.write(entry.getValue());
+        }
+        out.writeInt(removedKeys.size());
+        for (String key : removedKeys) {
+            out.writeUTF(key);
+        }
+        frame.count++;
+    }
+
+    /**
+     * Pair (re)connecté : il reçoit en entier toutes les sessions locales dont il est réplique
+     */
+    private void resynchroniser(String address, Trame frame) throws IOException {
+        for (SessionMap session : local.sessions()) {
+            String sessionId = session.getId();
+            if (sessionId != null && replicasOf(sessionId).contains(address)) {
+                ecrireUpsert(frame, session, true, encoderTout(session), Collections.emptyList());
+            }
+        }
+    }
+
+    private boolean connecter(Peer peer) {
+        long now = System.currentTimeMillis();
+        if (now < peer.nextAttempt) {
+            return false;
+        }
+        peer.nextAttempt = now + RECONNECT_DELAY_MILLIS;
+        Socket socket = new Socket();
+        try {
+            socket.connect(adresse(peer.address), CONNECT_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            Canal canal = ouvrirClient(in, out);
+            socket.setSoTimeout(0);
+            synchronized (peer) {
+                peer.socket = socket;
+                peer.canal = canal;
+                peer.out = out;
+            }
+            receivers.execute(() -> lireReponses(peer, socket, in, canal));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Fermeture best effort
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Poignée de main côté client : envoie son nonce et lit celui du serveur
+     */
+    private Canal ouvrirClient(DataInputStream in, DataOutputStream out) throws IOException {
+        byte[] nonces = new byte[2 * NONCE_BYTES];
+        secureRandom.nextBytes(nonces);
+        out.writeInt(HANDSHAKE);
+        out.write(nonces, 0, NONCE_BYTES);
+        out.flush();
+        in.readFully(nonces, NONCE_BYTES, NONCE_BYTES);
+        return new Canal(nouveauMac(), nouveauMac(), nonces, CLIENT);
+    }
+
+    /**
+     * Poignée de main côté serveur : lit le nonce du client et envoie le sien
+     */
+    private Canal ouvrirServeur(DataInputStream in, DataOutputStream out) throws IOException {
+        if (in.readInt() != HANDSHAKE) {
+            throw new IOException("Poignée de main de réplication invalide");
+        }
+        byte[] nonces = new byte[2 * NONCE_BYTES];
+        in.readFully(nonces, 0, NONCE_BYTES);
+        byte[] serveur = new byte[NONCE_BYTES];
+        secureRandom.nextBytes(serveur);
+        System.arraycopy(serveur, 0, nonces, NONCE_BYTES, NONCE_BYTES);
+        out.write(serveur);
+        out.flush();
+        return new Canal(nouveauMac(), nouveauMac(), nonces, SERVEUR);
+    }
+
+    /**
+     * Corps d'une trame : type, nombre d'enregistrements, enregistrements
+     */
+    private static byte[] corps(byte type, Trame frame) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(5 + frame.bytes.size());
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(type);
+        out.writeInt(frame.count);
+        frame.bytes.writeTo(out);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Écrit une trame authentifiée : longueur du corps, corps, HMAC
+     */
+    private static void ecrireTrame(DataOutputStream out, Canal canal, byte[] body) throws IOException {
+        out.writeInt(body.length);
+        out.write(body);
+        out.write(canal.signer(body));
+        out.flush();
+    }
+
+    /**
+     * Lit une trame et vérifie son HMAC avant de rendre son corps lisible
+     */
+    private DataInputStream lireTrame(DataInputStream in, Canal canal) throws IOException {
+        int length = in.readInt();
+        if (length <= 0 || length > MAX_FRAME) {
+            throw new IOException("Trame de réplication invalide: " + length);
+        }
+        byte[] body = new byte[length];
+        in.readFully(body);
+        byte[] tag = new byte[MAC_BYTES];
+        in.readFully(tag);
+        if (!canal.verifier(body, tag)) {
+            rejectedFrames.increment();
+            LOG.warn("Trame de réplication refusée: HMAC invalide");
+            throw new IOException("Trame de réplication non authentifiée");
+        }
+        return new DataInputStream(new ByteArrayInputStream(body));
+    }
+
+    private void envoyer(Peer peer, Trame frame) {
+        if (peer == null || frame.count == 0) {
+            return;
+        }
+        try {
+            synchronized (peer) {
+                if (peer.out == null) {
+                    return;
+                }
+                ecrireTrame(peer.out, peer.canal, corps(BATCH, frame));
+            }
+            recordsSent.add(frame.count);
+            bytesSent.add(frame.bytes.size());
+        } catch (IOException e) {
+            // Le pair recevra une resynchronisation complète à la reconnexion
+            sendFailures.increment();
+            deconnecter(peer, null);
+        }
+    }
+
+    /**
+     * Ferme la connexion du pair (seulement si c'est encore socket, quand il est donné) ;
+     * l'émetteur la rétablira
+     */
+    private static void deconnecter(Peer peer, Socket socket) {
+        synchronized (peer) {
+            if (socket != null && peer.socket != socket) {
+                return;
+            }
+            try {
+                if (peer.socket != null) {
+                    peer.socket.close();
+                }
+            } catch (IOException ignored) {
+                // Fermeture best effort
+            }
+            peer.socket = null;
+            peer.out = null;
+            peer.canal = null;
+        }
+    }
+
+    /**
+     * Lit les réponses aux demandes de session reçues sur une connexion sortante
+     */
+    private void lireReponses(Peer peer, Socket socket, DataInputStream in, Canal canal) {
+        try {
+            while (running) {
+                DataInputStream frame = lireTrame(in, canal);
+                if (frame.readByte() != REPONSE) {
+                    throw new IOException("Trame inattendue sur une connexion sortante");
+                }
+                CompletableFuture<Boolean> attente = fetches.remove(frame.readLong());
+                boolean trouvee = frame.readInt() == 1;
+                if (trouvee) {
+                    appliquer(frame);
+                }
+                if (attente != null) {
+                    attente.complete(trouvee);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Connexion fermée ou trame refusée : les demandes en cours expirent d'elles-mêmes
+        }
+        deconnecter(peer, socket);
+    }
+
+    // ----- Réception -----
+
+    private void accepter() {
+        while (running) {
+            try {
+                Socket socket = server.accept();
+                if (!pairConfigure(socket.getInetAddress())) {
+                    rejectedConnections.increment();
+                    LOG.warn("Connexion de réplication refusée depuis {} (pair non configuré)", socket.getInetAddress());
+                    socket.close();
+                    continue;
+                }
+                receivers.execute(() -> recevoir(socket));
+            } catch (SocketException e) {
+                return; // Serveur fermé
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Erreur d'acceptation de réplication: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * true si l'adresse distante est celle d'un pair configuré (résolution DNS à chaque connexion :
+     * les connexions sont durables)
+     */
+    private boolean pairConfigure(InetAddress remote) {
+        for (String peer : peers) {
+            try {
+                for (InetAddress address : InetAddress.getAllByName(adresse(peer).getHostString())) {
+                    if (address.equals(remote)) {
+                        return true;
+                    }
+                }
+            } catch (UnknownHostException e) {
+                // Pair momentanément introuvable : on essaie les autres
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lit les trames d'un pair : lots de deltas, ou demandes de session (réparation à la lecture)
+     */
+    private void recevoir(Socket socket) {
+        try (Socket connection = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()))) {
+            connection.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+            Canal canal = ouvrirServeur(in, out);
+            connection.setSoTimeout(0);
+            while (running) {
+                DataInputStream frame = lireTrame(in, canal);
+                byte type = frame.readByte();
+                if (type == BATCH) {
+                    int count = frame.readInt();
+                    for (int i = 0; i < count; i++) {
+                        appliquer(frame);
+                    }
+                } else if (type == FETCH) {
+                    long requestId = frame.readLong();
+                    repondre(requestId, frame.readUTF(), out, canal);
+                } else {
+                    throw new IOException("Type de trame inconnu: " + type);
+                }
+            }
+        } catch (IOException e) {
+            // Connexion fermée par le pair, ou trame refusée (connexion coupée)
+        } catch (RuntimeException e) {
+            LOG.warn("Erreur de réception de réplication: {}", e.getMessage());
+        }
+    }
+
+    private void appliquer(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        String sessionId = in.readUTF();
+        if (kind == REMOVE) {
+            replicas.remove(sessionId);
+            // Invalidation sur une autre instance : la copie locale éventuelle ne doit pas survivre
+            local.remove(sessionId);
+            recordsApplied.increment();
+            return;
+        }
+        if (kind != UPSERT) {
+            throw new IOException("Enregistrement de réplication inconnu: " + kind);
+        }
+        long creationTime = in.readLong();
+        long lastAccess = in.readLong();
+        boolean full = in.readBoolean();
+        Map<String, Object> values = new HashMap<>();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            in.readUTF();
+            byte[] encoded = new byte[in.readInt()];
+            in.readFully(encoded);
+            values.putAll(serializer.decode(encoded));
+        }
+        int removedCount = in.readInt();
+        List<String> removedKeys = new ArrayList<>(removedCount);
+        for (int i = 0; i < removedCount; i++) {
+            removedKeys.add(in.readUTF());
+        }
+
+        SessionMap target = local.peek(sessionId);
+        if (target == null) {
+            target = replicas.computeIfAbsent(sessionId,
+                    id -> new SessionMap(id, creationTime, lastAccess, Collections.emptyMap()));
+        }
+        if (full) {
+            target.keySet().retainAll(values.keySet());
+        }
+        target.putAll(values);
+        for (String key : removedKeys) {
+            target.remove(key);
+        }
+        if (lastAccess > target.getLastAccess()) {
+            target.touch(lastAccess);
+        }
+        oublierEchec(sessionId);
+        recordsApplied.increment();
+    }
+
+    /**
+     * Réponse à une demande de session : numéro de la demande, 0 ou 1 enregistrement
+     */
+    private void repondre(long requestId, String sessionId, DataOutputStream out, Canal canal) throws IOException {
+        SessionMap session = local.peek(sessionId);
+        if (session == null) {
+            session = replicas.get(sessionId);
+        }
+        Trame frame = new Trame();
+        if (session != null) {
+            ecrireUpsert(frame, session, true, encoderTout(session), Collections.emptyList());
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(13 + frame.bytes.size());
+        DataOutputStream body = new DataOutputStream(bytes);
+        body.writeByte(REPONSE);
+        body.writeLong(requestId);
+        body.writeInt(frame.count);
+        frame.bytes.writeTo(body);
+        ecrireTrame(out, canal, bytes.toByteArray());
+    }
+
+    /**
+     * Réparation à la lecture : demande la session à ses nœuds propriétaires connectés, sur la
+     * connexion établie, avec un délai court. Sans place libre parmi les demandes en vol, la
+     * session est considérée absente. Un échec est mémorisé quelques secondes.
+     */
+    private SessionMap recuperer(String sessionId) {
+        long now = System.currentTimeMillis();
+        int slot = emplacementEchec(sessionId);
+        Echec echec = recentMisses.get(slot);
+        if (echec != null && echec.until > now && echec.sessionId.equals(sessionId)) {
+            return null;
+        }
+        boolean interroge = false;
+        for (String address : ring.nodesFor(sessionId, replicaCount + 1)) {
+            if (address.equals(self)) {
+                continue;
+            }
+            Peer peer = connections.get(address);
+            if (peer == null || peer.out == null) {
+                continue; // Propriétaire déconnecté : pas de réparation par lui
+            }
+            if (!fetchPermits.tryAcquire()) {
+                fetchesSkipped.increment();
+                return null;
+            }
+            try {
+                interroge = true;
+                if (demander(peer, sessionId)) {
+                    SessionMap session = replicas.remove(sessionId);
+                    if (session != null) {
+                        return session;
+                    }
+                }
+            } finally {
+                fetchPermits.release();
+            }
+        }
+        if (interroge) {
+            recentMisses.set(slot, new Echec(sessionId, now + MISS_CACHE_MILLIS));
+        }
+        return null;
+    }
+
+    /**
+     * Envoie une demande sur la connexion du pair et attend sa réponse (appliquée par lireReponses)
+     * @return true si le pair avait la session
+     */
+    private boolean demander(Peer peer, String sessionId) {
+        long requestId = fetchIds.incrementAndGet();
+        CompletableFuture<Boolean> reponse = new CompletableFuture<>();
+        fetches.put(requestId, reponse);
+        try {
+            ByteArrayOutputStream request = new ByteArrayOutputStream(64);
+            DataOutputStream body = new DataOutputStream(request);
+            body.writeByte(FETCH);
+            body.writeLong(requestId);
+            body.writeUTF(sessionId);
+            synchronized (peer) {
+                if (peer.out == null) {
+                    return false;
+                }
+                ecrireTrame(peer.out, peer.canal, request.toByteArray());
+            }
+            return reponse.get(FETCH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (IOException e) {
+            sendFailures.increment();
+            deconnecter(peer, null);
+            return false;
+        } catch (TimeoutException | ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            fetches.remove(requestId);
+        }
+    }
+
+    private static int emplacementEchec(String sessionId) {
+        return (int) HashRing.hash(sessionId) & (MISS_CACHE_SIZE - 1);
+    }
+
+    private void oublierEchec(String sessionId) {
+        int slot = emplacementEchec(sessionId);
+        Echec echec = recentMisses.get(slot);
+        if (echec != null && echec.sessionId.equals(sessionId)) {
+            recentMisses.compareAndSet(slot, echec, null);
+        }
+    }
+
+    /**
+     * Jauges de réplication, ajoutées à celles du stockage local
+     */
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>(local.getStatistics());
+        statistics.put("replicaSessions", replicas.size());
+        statistics.put("replicationRecordsSent", recordsSent.sum());
+        statistics.put("replicationBytesSent", bytesSent.sum());
+        statistics.put("replicationSendFailures", sendFailures.sum());
+        statistics.put("replicationRecordsApplied", recordsApplied.sum());
+        statistics.put("replicationReadRepairs", readRepairs.sum());
+        statistics.put("replicationFetchesSkipped", fetchesSkipped.sum());
+        statistics.put("replicationEncodeErrors", encodeErrors.sum());
+        statistics.put("replicationRejectedConnections", rejectedConnections.sum());
+        statistics.put("replicationRejectedFrames", rejectedFrames.sum());
+        synchronized (connections) {
+            int connected = 0;
+            for (Peer peer : connections.values()) {
+                if (peer.out != null) {
+                    connected++;
+                }
+            }
+            statistics.put("replicationPeersConnected", connected);
+        }
+        return statistics;
+    }
+}
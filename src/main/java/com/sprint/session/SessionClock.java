@@ -0,0 +1,33 @@
+package com.sprint.session;
+
+/**
+ * Horloge grossière (résolution ~1s) pour le chemin chaud des sessions
+ * Mise à jour par le thread d'expiration ; évite un System.currentTimeMillis() par accès.
+ * Tant que le thread ne tourne pas, l'horloge système est utilisée directement.
+ */
+public final class SessionClock {
+
+    private static volatile long now = System.currentTimeMillis();
+    private static volatile boolean ticking;
+
+    private SessionClock() {
+    }
+
+    /**
+     * Heure courante en millisecondes (précision de l'ordre du tick d'expiration)
+     */
+    public static long currentTimeMillis() {
+        return ticking ? now : System.currentTimeMillis();
+    }
+
+    static void tick() {
+        now = System.currentTimeMillis();
+    }
+
+    static void setTicking(boolean value) {
+        if (value) {
+            tick();
+        }
+        ticking = value;
+    }
+}
@@ -0,0 +1,251 @@
+package com.sprint.session;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Contenu de session sûr en accès concurrent (onglets ou XHR parallèles d'un même utilisateur)
+ *
+ * Adossé à un ConcurrentHashMap : les lectures sont sans verrou, les écritures verrouillent
+ * une seule case. Contrairement à ConcurrentHashMap, les valeurs null sont acceptées
+ * (comme avec l'ancien HashMap) grâce à une valeur sentinelle.
+ * Les opérations composées (computeIfAbsent, merge...) sont atomiques via les méthodes de ConcurrentMap.
+ */
+public class SessionData extends AbstractMap<String, Object>
+        implements ConcurrentMap<String, Object>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Object NULL = new Object();
+
+    // null uniquement pour une session dont le contenu a été déplacé hors du heap (voir SessionMap)
+    protected transient volatile ConcurrentHashMap<String, Object> data = new ConcurrentHashMap<>();
+
+    public SessionData() {
+    }
+
+    public SessionData(Map<String, Object> initial) {
+        this.data = toContents(initial);
+    }
+
+    static Object mask(Object value) {
+        return value == null ? NULL : value;
+    }
+
+    static Object unmask(Object value) {
+        return value == NULL ? null : value;
+    }
+
+    /**
+     * Construit le contenu interne (valeurs null masquées) à partir d'une Map quelconque
+     */
+    static ConcurrentHashMap<String, Object> toContents(Map<String, Object> values) {
+        ConcurrentHashMap<String, Object> contents = new ConcurrentHashMap<>(Math.max(16, values.size() * 2));
+        for (Entry<String, Object> entry : values.entrySet()) {
+            if (entry.getKey() != null) {
+                contents.put(entry.getKey(), mask(entry.getValue()));
+            }
+        }
+        return contents;
+    }
+
+    /**
+     * Contenu courant ; redéfini par SessionMap pour recharger un contenu déplacé hors du heap
+     */
+    protected ConcurrentHashMap<String, Object> contents() {
+        return data;
+    }
+
+    /**
+     * Encadrement des écritures ; redéfini par SessionMap pour les exclure d'un déplacement hors heap
+     */
+    protected long beginWrite() {
+        return 0L;
+    }
+
+    protected void endWrite(long stamp) {
+    }
+
+    @Override
+    public Object get(Object key) {
+        return key == null ? null : unmask(contents().get(key));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && contents().containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        long stamp = beginWrite();
+        try {
+            return unmask(contents().put(key, mask(value)));
+        } finally {
+            endWrite(stamp);
+        }
+    }
+
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        long stamp = beginWrite();
+        try {
+            return unmask(contents().putIfAbsent(key, mask(value)));
+        } finally {
+            endWrite(stamp);
+        }
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+        long stamp = beginWrite();
+        try {
+            return unmask(contents().remove(key));
+        } finally {
+            endWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (key == null) {
+            return false;
+        }
+        long stamp = beginWrite();
+        try {
+            return contents().remove(key, mask(value));
+        } finally {
+            endWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean replace(String key, Object oldValue, Object newValue) {
+        long stamp = beginWrite();
+        try {
+            return contents().replace(key, mask(oldValue), mask(newValue));
+        } finally {
+            endWrite(stamp);
+        }
+    }
+
+    @Override
+    public Object replace(String key, Object value) {
+        long stamp = beginWrite();
+        try {
+            return unmask(contents().replace(key, mask(value)));
+        } finally {
+            endWrite(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        return contents().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return contents().isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        long stamp = beginWrite();
+        try {
+            contents().clear();
+        } finally {
+            endWrite(stamp);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                Iterator<Entry<String, Object>> it = contents().entrySet().iterator();
+                return new Iterator<Entry<String, Object>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        Entry<String, Object> entry = it.next();
+                        return new SimpleEntry<String, Object>(entry.getKey(), unmask(entry.getValue())) {
+                            @Override
+                            public Object setValue(Object value) {
+                                super.setValue(value);
+                                return SessionData.this.put(getKey(), value);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        long stamp = beginWrite();
+                        try {
+                            it.remove();
+                        } finally {
+                            endWrite(stamp);
+                        }
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return contents().size();
+            }
+        };
+    }
+
+    /**
+     * Copie instantanée (sans les valeurs sentinelles) pour la sérialisation ou l'affichage
+     */
+    public Map<String, Object> snapshot() {
+        return snapshot(contents());
+    }
+
+    static Map<String, Object> snapshot(ConcurrentHashMap<String, Object> contents) {
+        Map<String, Object> copy = new HashMap<>(contents.size() * 2);
+        for (Entry<String, Object> entry : contents.entrySet()) {
+            copy.put(entry.getKey(), unmask(entry.getValue()));
+        }
+        return copy;
+    }
+
+    /**
+     * Sérialisation Java : on écrit une HashMap ordinaire (la sentinelle n'est pas sérialisable) ;
+     * protégée pour s'appliquer aussi à SessionMap, relue comme un SessionData
+     */
+    protected Object writeReplace() throws ObjectStreamException {
+        return new SerializedForm(snapshot());
+    }
+
+    private static final class SerializedForm implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final HashMap<String, Object> values;
+
+        SerializedForm(Map<String, Object> values) {
+            this.values = new HashMap<>(values);
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            return new SessionData(values);
+        }
+    }
+}
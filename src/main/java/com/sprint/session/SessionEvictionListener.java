@@ -0,0 +1,20 @@
+package com.sprint.session;
+
+import java.util.Map;
+
+/**
+ * Notifié lorsqu'une session est retirée du stockage sans invalidation explicite
+ * (par exemple pour libérer des ressources associées ou journaliser une déconnexion forcée)
+ */
+@FunctionalInterface
+public interface SessionEvictionListener {
+
+    enum Cause {
+        /** Inactivité au-delà du maxSessionTime du rôle */
+        EXPIRED,
+        /** Limite de nombre de sessions ou de mémoire atteinte */
+        CAPACITY
+    }
+
+    void onEviction(String sessionId, Map<String, Object> session, Cause cause);
+}
@@ -0,0 +1,322 @@
+package com.sprint.session;
+
+import com.sprint.model.UserSession;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Politique d'admission et d'éviction W-TinyLFU pour le stockage des sessions
+ *
+ * Une petite fenêtre LRU (1%) reçoit les nouvelles sessions ; ses victimes entrent dans la zone
+ * principale (SLRU : probation / protégée) seulement si elles sont plus fréquentes que la victime
+ * de la zone principale. Un utilisateur authentifié l'emporte toujours sur une session anonyme :
+ * une rafale de sessions anonymes (robot, bourrage d'identifiants) s'évince elle-même au lieu
+ * de chasser les utilisateurs actifs.
+ *
+ * Deux limites : nombre de sessions (appliqué à la création) et octets estimés
+ * (appliqué par maintenance(), sur le thread d'expiration).
+ */
+public class SessionEvictionPolicy {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int VICTIM_SCAN = 16; // Entrées parcourues pour trouver une victime anonyme
+
+    private final long maxSessions;
+    private final long maxBytes;
+    private final long windowMax;
+    private final long protectedMax;
+
+    private final LinkedHashMap<String, Node> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Node> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Node> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    // Noeuds à réestimer au prochain passage de maintenance (protégé par lock)
+    private final List<Node> dirtyNodes = new ArrayList<>();
+    private final FrequencySketch sketch;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile long estimatedBytes;
+
+    private static final class Node {
+        final String id;
+        final SessionMap session;
+        int segment = WINDOW;
+        long weight;
+        boolean authenticated;
+        boolean dirty;
+        boolean removed;
+
+        Node(String id, SessionMap session) {
+            this.id = id;
+            this.session = session;
+        }
+    }
+
+    public SessionEvictionPolicy(long maxSessions, long maxBytes) {
+        this.maxSessions = Math.max(1, maxSessions);
+        this.maxBytes = Math.max(1, maxBytes);
+        this.windowMax = Math.max(1, this.maxSessions / 100);
+        this.protectedMax = (long) ((this.maxSessions - windowMax) * 0.8);
+        this.sketch = new FrequencySketch(this.maxSessions);
+    }
+
+    public long getMaxSessions() {
+        return maxSessions;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Enregistre une nouvelle session
+     * @return les IDs des sessions à évincer pour respecter la limite de nombre
+     */
+    public List<String> onCreate(String id, SessionMap session) {
+        Node node = new Node(id, session);
+        node.authenticated = estAuthentifiee(session);
+        List<String> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            sketch.increment(id.hashCode());
+            window.put(id, node);
+            marquer(node);
+            Node candidate = null;
+            if (window.size() > windowMax) {
+                candidate = eldest(window);
+                window.remove(candidate.id);
+                candidate.segment = PROBATION;
+                probation.put(candidate.id, candidate);
+            }
+            while (totalSize() > maxSessions) {
+                Node victim = choisirVictime(candidate);
+                if (victim == null) {
+                    break;
+                }
+                if (candidate != null && victim != candidate && admettre(candidate, victim)) {
+                    evict(victim, evicted);
+                } else if (candidate != null) {
+                    evict(candidate, evicted);
+                    candidate = null;
+                } else {
+                    evict(victim, evicted);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return evicted;
+    }
+
+    /**
+     * Enregistre un accès ; sous contention l'accès est simplement ignoré
+     * (la politique reste approximative mais le chemin chaud ne bloque jamais)
+     */
+    public void onAccess(String id) {
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            sketch.increment(id.hashCode());
+            Node node = window.get(id);
+            if (node == null) {
+                node = probation.get(id);
+                if (node != null) {
+                    // Succès en probation : promotion vers la zone protégée
+                    probation.remove(id);
+                    node.segment = PROTECTED;
+                    protectedSegment.put(id, node);
+                    if (protectedSegment.size() > protectedMax) {
+                        Node demoted = eldest(protectedSegment);
+                        protectedSegment.remove(demoted.id);
+                        demoted.segment = PROBATION;
+                        probation.put(demoted.id, demoted);
+                    }
+                } else {
+                    node = protectedSegment.get(id);
+                }
+            }
+            marquer(node);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Demande la réestimation de sessions dont l'empreinte a changé hors d'un accès
+     * (déplacement hors heap par le stockage)
+     */
+    public void markDirty(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (String id : ids) {
+                Node node = window.get(id);
+                if (node == null) {
+                    node = probation.get(id);
+                }
+                if (node == null) {
+                    node = protectedSegment.get(id);
+                }
+                marquer(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void marquer(Node node) {
+        if (node != null && !node.dirty) {
+            node.dirty = true;
+            dirtyNodes.add(node);
+        }
+    }
+
+    public void onRemove(String id) {
+        lock.lock();
+        try {
+            Node node = window.remove(id);
+            if (node == null) {
+                node = probation.remove(id);
+            }
+            if (node == null) {
+                node = protectedSegment.remove(id);
+            }
+            if (node != null) {
+                node.removed = true;
+                estimatedBytes -= node.weight;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Réestime le poids des sessions accédées depuis le dernier passage
+     * puis évince jusqu'à respecter le budget mémoire
+     * @return les IDs des sessions à évincer
+     */
+    public List<String> maintenance() {
+        List<String> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            estimatedBytes += reestimer();
+
+            while (estimatedBytes > maxBytes || totalSize() > maxSessions) {
+                Node victim = choisirVictime(null);
+                if (victim == null) {
+                    break;
+                }
+                evict(victim, evicted);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return evicted;
+    }
+
+    private long reestimer() {
+        long delta = 0;
+        for (Node node : dirtyNodes) {
+            node.dirty = false;
+            if (node.removed) {
+                continue; // Retirée entre-temps
+            }
+            long weight = SessionSizeEstimator.estimate(node.session);
+            delta += weight - node.weight;
+            node.weight = weight;
+            if (!node.session.isCold()) {
+                node.authenticated = estAuthentifiee(node.session);
+            }
+        }
+        dirtyNodes.clear();
+        return delta;
+    }
+
+    /**
+     * Victime de la zone principale : la plus ancienne session anonyme parmi les premières
+     * entrées de probation (puis de la zone protégée), sinon la plus ancienne tout court
+     */
+    private Node choisirVictime(Node exclue) {
+        Node victim = premiereAnonyme(probation, exclue);
+        if (victim == null) {
+            victim = premiereAnonyme(protectedSegment, exclue);
+        }
+        if (victim == null) {
+            victim = premiereAnonyme(window, exclue);
+        }
+        if (victim != null) {
+            return victim;
+        }
+        for (LinkedHashMap<String, Node> segment : List.of(probation, protectedSegment, window)) {
+            for (Node node : segment.values()) {
+                if (node != exclue) {
+                    return node;
+                }
+            }
+        }
+        return exclue;
+    }
+
+    private static Node premiereAnonyme(LinkedHashMap<String, Node> segment, Node exclue) {
+        int scanned = 0;
+        for (Iterator<Node> it = segment.values().iterator(); it.hasNext() && scanned < VICTIM_SCAN; scanned++) {
+            Node node = it.next();
+            if (node != exclue && !node.authenticated) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Admission TinyLFU : le candidat remplace la victime s'il est authentifié face à un anonyme,
+     * ou à statut égal s'il est plus fréquent
+     */
+    private boolean admettre(Node candidate, Node victim) {
+        if (candidate.authenticated != victim.authenticated) {
+            return candidate.authenticated;
+        }
+        return sketch.frequency(candidate.id.hashCode()) > sketch.frequency(victim.id.hashCode());
+    }
+
+    private void evict(Node node, List<String> evicted) {
+        segmentOf(node).remove(node.id);
+        node.removed = true;
+        estimatedBytes -= node.weight;
+        evicted.add(node.id);
+    }
+
+    private LinkedHashMap<String, Node> segmentOf(Node node) {
+        switch (node.segment) {
+            case PROBATION: return probation;
+            case PROTECTED: return protectedSegment;
+            default: return window;
+        }
+    }
+
+    private long totalSize() {
+        return (long) window.size() + probation.size() + protectedSegment.size();
+    }
+
+    private static Node eldest(LinkedHashMap<String, Node> segment) {
+        return segment.values().iterator().next();
+    }
+
+    private static boolean estAuthentifiee(Map<String, Object> session) {
+        Object user = session.get("userSession");
+        return user instanceof UserSession && ((UserSession) user).isAuthenticated();
+    }
+}
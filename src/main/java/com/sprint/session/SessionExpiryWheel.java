@@ -0,0 +1,210 @@
+package com.sprint.session;
+
+import com.sprint.log.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Roue temporelle hiérarchique pour l'expiration des sessions
+ *
+ * Trois niveaux : 256 cases d'une seconde, 64 cases de 256s, 64 cases de 16384s (~12 jours).
+ * Chaque session est programmée une seule fois à sa création ; les accès ne la reprogramment pas.
+ * Quand sa case arrive à échéance, l'échéance réelle (dernier accès + timeout) est recalculée :
+ * la session est alors expirée, ou reprogrammée plus loin. Un tick ne coûte donc que le nombre
+ * de sessions arrivées à échéance, jamais un parcours de toutes les sessions.
+ *
+ * Un seul thread démon fait avancer la roue et l'horloge SessionClock.
+ */
+public class SessionExpiryWheel {
+
+    private static final Logger LOG = Logger.getLogger(SessionExpiryWheel.class);
+
+    /**
+     * Fournit l'échéance réelle d'une session et effectue l'expiration
+     */
+    public interface ExpiryHandler {
+        /**
+         * @return l'instant d'expiration (ms) de la session, ou -1 si elle n'existe plus
+         */
+        long deadline(String sessionId);
+
+        void expire(String sessionId);
+
+        /**
+         * Appelé à chaque tick sur le thread de la roue (maintenance périodique)
+         */
+        default void onTick() {
+        }
+    }
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int LEVEL0_BITS = 8;   // 256 cases
+    private static final int LEVEL1_BITS = 6;   // 64 cases
+    private static final int LEVEL2_BITS = 6;   // 64 cases
+    private static final long LEVEL0_SPAN = 1L << LEVEL0_BITS;
+    private static final long LEVEL1_SPAN = 1L << (LEVEL0_BITS + LEVEL1_BITS);
+    private static final long LEVEL2_SPAN = 1L << (LEVEL0_BITS + LEVEL1_BITS + LEVEL2_BITS);
+
+    private final List<List<String>> level0 = creerNiveau(1 << LEVEL0_BITS);
+    private final List<List<String>> level1 = creerNiveau(1 << LEVEL1_BITS);
+    private final List<List<String>> level2 = creerNiveau(1 << LEVEL2_BITS);
+
+    // Programmations venant des threads de requête, intégrées par le thread de la roue
+    private final Queue<Programmation> pending = new ConcurrentLinkedQueue<>();
+
+    private final ExpiryHandler handler;
+    private long currentTick;
+    private ScheduledExecutorService executor;
+
+    public SessionExpiryWheel(ExpiryHandler handler) {
+        this.handler = handler;
+        this.currentTick = System.currentTimeMillis() / TICK_MILLIS;
+    }
+
+    private static List<List<String>> creerNiveau(int size) {
+        List<List<String>> level = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            level.add(new ArrayList<>());
+        }
+        return level;
+    }
+
+    /**
+     * Démarre le thread démon de la roue (idempotent)
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sprint-session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        currentTick = System.currentTimeMillis() / TICK_MILLIS;
+        SessionClock.setTicking(true);
+        executor.scheduleAtFixedRate(this::avancer, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            SessionClock.setTicking(false);
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+
+    /**
+     * Programme la vérification d'une session à l'instant donné (appelable depuis n'importe quel thread)
+     */
+    public void schedule(String sessionId, long deadlineMillis) {
+        pending.add(new Programmation(sessionId, ceilTick(deadlineMillis)));
+    }
+
+    private static long ceilTick(long millis) {
+        return (millis + TICK_MILLIS - 1) / TICK_MILLIS;
+    }
+
+    /**
+     * Tick de la roue : rattrape le temps écoulé case par case
+     */
+    private void avancer() {
+        try {
+            SessionClock.tick();
+            integrerProgrammations();
+            long targetTick = System.currentTimeMillis() / TICK_MILLIS;
+            while (currentTick < targetTick) {
+                currentTick++;
+                if ((currentTick & (LEVEL0_SPAN - 1)) == 0) {
+                    if ((currentTick & (LEVEL1_SPAN - 1)) == 0) {
+                        cascader(level2.get((int) ((currentTick >>> (LEVEL0_BITS + LEVEL1_BITS)) & ((1 << LEVEL2_BITS) - 1))));
+                    }
+                    cascader(level1.get((int) ((currentTick >>> LEVEL0_BITS) & ((1 << LEVEL1_BITS) - 1))));
+                }
+                List<String> slot = level0.get((int) (currentTick & (LEVEL0_SPAN - 1)));
+                if (!slot.isEmpty()) {
+                    List<String> due = new ArrayList<>(slot);
+                    slot.clear();
+                    for (String sessionId : due) {
+                        verifier(sessionId);
+                    }
+                }
+            }
+            handler.onTick();
+        } catch (RuntimeException e) {
+            // Ne jamais laisser mourir le thread planifié
+            LOG.error("Erreur dans la roue d'expiration", e);
+        }
+    }
+
+    private void integrerProgrammations() {
+        Programmation programmation;
+        while ((programmation = pending.poll()) != null) {
+            placer(programmation.sessionId, programmation.tick);
+        }
+    }
+
+    private void cascader(List<String> slot) {
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<String> entries = new ArrayList<>(slot);
+        slot.clear();
+        for (String sessionId : entries) {
+            verifier(sessionId);
+        }
+    }
+
+    /**
+     * Recalcule l'échéance réelle d'une session : l'expire ou la replace dans la roue
+     */
+    private void verifier(String sessionId) {
+        long deadline = handler.deadline(sessionId);
+        if (deadline < 0) {
+            return; // Session déjà supprimée
+        }
+        if (deadline <= System.currentTimeMillis()) {
+            handler.expire(sessionId);
+        } else {
+            placer(sessionId, ceilTick(deadline));
+        }
+    }
+
+    private void placer(String sessionId, long tick) {
+        long delta = tick - currentTick;
+        if (delta <= 0) {
+            tick = currentTick + 1;
+            delta = 1;
+        }
+        if (delta < LEVEL0_SPAN) {
+            level0.get((int) (tick & (LEVEL0_SPAN - 1))).add(sessionId);
+        } else if (delta < LEVEL1_SPAN) {
+            level1.get((int) ((tick >>> LEVEL0_BITS) & ((1 << LEVEL1_BITS) - 1))).add(sessionId);
+        } else {
+            if (delta >= LEVEL2_SPAN) {
+                tick = currentTick + LEVEL2_SPAN - 1; // Au-delà de l'horizon : revérifiée à la limite
+            }
+            level2.get((int) ((tick >>> (LEVEL0_BITS + LEVEL1_BITS)) & ((1 << LEVEL2_BITS) - 1))).add(sessionId);
+        }
+    }
+
+    private static final class Programmation {
+        final String sessionId;
+        final long tick;
+
+        Programmation(String sessionId, long tick) {
+            this.sessionId = sessionId;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.sprint.session;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Map de session créée paresseusement
+ * Tant que rien n'y est écrit, la session n'existe pas côté serveur (aucun ID, aucun cookie) ;
+ * la première écriture la matérialise via le callback fourni par SessionManager.
+ * Le contenu est sûr en accès concurrent (voir SessionData).
+ *
+ * Avec OffHeapSessionStore, le contenu d'une session inactive peut être déplacé hors du heap :
+ * seule cette coquille (ID, horodatages) reste sur le heap et le contenu est rechargé
+ * de manière transparente au premier accès. Une session utilisée par une requête en cours n'est
+ * jamais déplacée : les objets lus puis modifiés en place (UserSession, listes...) resteraient
+ * attachés à l'ancien contenu et leurs changements seraient perdus.
+ *
+ * En sérialisation Java, seul le contenu est écrit (writeReplace de SessionData) : la copie relue
+ * est un SessionData sans ID ni état de stockage, d'où les champs transient ci-dessous.
+ */
+public class SessionMap extends SessionData {
+
+    private static final long serialVersionUID = 1L;
+
+    private volatile String id;
+    private transient Consumer<SessionMap> onFirstWrite;
+    private final long creationTime;
+    private volatile long lastAccess;
+
+    // Exclut les écritures (verrou partagé) pendant le déplacement hors heap (verrou exclusif, non bloquant)
+    private final transient StampedLock demotionLock = new StampedLock();
+
+    // Requêtes en cours sur cette session (SessionManager : résolution puis commitSession)
+    private final transient AtomicInteger activeRequests = new AtomicInteger();
+
+    // État hors heap, géré par OffHeapSessionStore sous son verrou d'arène
+    private transient volatile OffHeapSessionStore coldStore;
+    private volatile long retainedTimeout = -1;
+    transient OffHeapSessionStore.Chunk coldChunk;
+    transient int coldOffset;
+    transient int coldLength;
+
+    /**
+     * Session en attente : sera matérialisée à la première écriture
+     */
+    public SessionMap(Consumer<SessionMap> onFirstWrite) {
+        this.onFirstWrite = onFirstWrite;
+        this.creationTime = SessionClock.currentTimeMillis();
+        this.lastAccess = creationTime;
+    }
+
+    /**
+     * Session déjà enregistrée sous l'ID donné
+     */
+    public SessionMap(String id) {
+        this.id = id;
+        this.creationTime = SessionClock.currentTimeMillis();
+        this.lastAccess = creationTime;
+    }
+
+    /**
+     * Session portée par un cookie signé : jamais enregistrée côté serveur, sauf si elle devient
+     * trop grosse pour le cookie (voir SessionManager.commitSession)
+     */
+    public SessionMap(Map<String, Object> contents, long creationTime) {
+        super(contents);
+        this.creationTime = creationTime;
+        this.lastAccess = SessionClock.currentTimeMillis();
+    }
+
+    /**
+     * Session restaurée depuis un stockage persistant
+     */
+    SessionMap(String id, long creationTime, long lastAccess, Map<String, Object> contents) {
+        super(contents);
+        this.id = id;
+        this.creationTime = creationTime;
+        this.lastAccess = lastAccess;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * true si la session est enregistrée côté serveur
+     */
+    public boolean isPersistent() {
+        return id != null;
+    }
+
+    /**
+     * Appelé par SessionManager lors de la matérialisation
+     */
+    public void assignId(String id) {
+        this.id = id;
+    }
+
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Enregistre un accès ; avec l'horloge grossière, au plus une écriture par seconde et par session
+     */
+    public void touch(long now) {
+        if (lastAccess != now) {
+            lastAccess = now;
+        }
+    }
+
+    private void ensureMaterialized() {
+        if (id == null) {
+            Consumer<SessionMap> callback;
+            synchronized (this) {
+                callback = onFirstWrite;
+                onFirstWrite = null;
+            }
+            if (callback != null) {
+                callback.accept(this);
+            }
+        }
+    }
+
+    /**
+     * Une requête commence à utiliser la session : plus de déplacement hors heap jusqu'à leaveRequest
+     */
+    public void enterRequest() {
+        activeRequests.incrementAndGet();
+    }
+
+    /**
+     * La requête a fini d'utiliser la session (un appel par enterRequest)
+     */
+    public void leaveRequest() {
+        activeRequests.decrementAndGet();
+    }
+
+    /**
+     * true si une requête en cours utilise la session
+     */
+    public boolean isInUse() {
+        return activeRequests.get() != 0;
+    }
+
+    /**
+     * true si le contenu est actuellement hors du heap
+     */
+    public boolean isCold() {
+        return data == null;
+    }
+
+    /**
+     * Timeout mémorisé lors du passage hors heap (évite de recharger la session pour l'expirer)
+     */
+    public long getRetainedTimeout() {
+        return retainedTimeout;
+    }
+
+    /**
+     * Ramène le contenu sur le heap s'il n'y est pas
+     */
+    void ensureLoaded() {
+        contents();
+    }
+
+    @Override
+    protected ConcurrentHashMap<String, Object> contents() {
+        ConcurrentHashMap<String, Object> current = data;
+        return current != null ? current : promote();
+    }
+
+    private ConcurrentHashMap<String, Object> promote() {
+        synchronized (this) {
+            if (data == null) {
+                Map<String, Object> values = coldStore.load(this);
+                coldStore = null;
+                data = toContents(values);
+            }
+            return data;
+        }
+    }
+
+    /**
+     * Déplace le contenu hors du heap ; abandonne (false) si une requête utilise la session,
+     * si une écriture est en cours ou si le stockage refuse le contenu
+     */
+    boolean demote(OffHeapSessionStore store, long timeout) {
+        long stamp = demotionLock.tryWriteLock();
+        if (stamp == 0L) {
+            return false;
+        }
+        try {
+            ConcurrentHashMap<String, Object> current = data;
+            if (current == null || getId() == null || isInUse() || !store.save(this, snapshot(current))) {
+                return false;
+            }
+            synchronized (this) {
+                retainedTimeout = timeout;
+                coldStore = store;
+                data = null;
+                // Contenu retiré puis compteur relu (la requête fait l'inverse dans enterRequest puis
+                // contents) : une requête arrivée entre-temps garde le contenu sur le heap
+                if (isInUse()) {
+                    data = current;
+                    coldStore = null;
+                    store.discard(this);
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            demotionLock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    protected long beginWrite() {
+        return demotionLock.readLock();
+    }
+
+    @Override
+    protected void endWrite(long stamp) {
+        demotionLock.unlockRead(stamp);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        ensureMaterialized();
+        return super.put(key, value);
+    }
+
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        ensureMaterialized();
+        return super.putIfAbsent(key, value);
+    }
+}
@@ -0,0 +1,91 @@
+package com.sprint.session;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs de cycle de vie des sessions (créations, expirations, invalidations, évictions)
+ * et taux de succès des recherches de session par ID
+ */
+public class SessionMetrics {
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public void recordCreated() {
+        created.increment();
+    }
+
+    public void recordExpired() {
+        expired.increment();
+    }
+
+    public void recordInvalidated() {
+        invalidated.increment();
+    }
+
+    public void recordEvicted() {
+        evicted.increment();
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * Un ID de session bien formé a été présenté mais ne correspond à aucune session
+     */
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    public long getInvalidatedCount() {
+        return invalidated.sum();
+    }
+
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 1.0 : (double) h / total;
+    }
+
+    /**
+     * Instantané des compteurs et jauges, prêt à être sérialisé en JSON
+     */
+    public Map<String, Object> snapshot(int activeSessions, long estimatedBytes) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("active", activeSessions);
+        snapshot.put("estimatedBytes", estimatedBytes);
+        snapshot.put("hitRate", getHitRate());
+        snapshot.put("evicted", getEvictedCount());
+        snapshot.put("created", getCreatedCount());
+        snapshot.put("expired", getExpiredCount());
+        snapshot.put("invalidated", getInvalidatedCount());
+        return snapshot;
+    }
+}
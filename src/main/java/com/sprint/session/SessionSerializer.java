@@ -0,0 +1,14 @@
+package com.sprint.session;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Encodage du contenu d'une session pour le stockage hors heap, sur disque ou entre instances
+ */
+public interface SessionSerializer {
+
+    byte[] encode(Map<String, Object> session) throws IOException;
+
+    Map<String, Object> decode(byte[] bytes) throws IOException;
+}
@@ -0,0 +1,85 @@
+package com.sprint.session;
+
+import com.sprint.model.MultipartFile;
+import com.sprint.model.UserSession;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Estimation approximative de la mémoire retenue par une session (en octets)
+ * Suffisante pour appliquer un budget mémoire ; ne prétend pas à l'exactitude d'un dump de heap.
+ */
+final class SessionSizeEstimator {
+
+    private static final int MAX_DEPTH = 4;
+    private static final int MAX_ELEMENTS = 256; // au-delà, extrapolation à partir de l'échantillon
+
+    private SessionSizeEstimator() {
+    }
+
+    private static final long COLD_SHELL = 160; // coquille sur le heap d'une session déplacée hors heap
+
+    static long estimate(Map<String, Object> session) {
+        if (session instanceof SessionMap && ((SessionMap) session).isCold()) {
+            return COLD_SHELL; // ne pas recharger le contenu pour l'estimer
+        }
+        return 64 + estimate(session, 0);
+    }
+
+    private static long estimate(Object value, int depth) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return 40 + 2L * ((String) value).length();
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return 16;
+        }
+        if (value instanceof byte[]) {
+            return 16 + ((byte[]) value).length;
+        }
+        if (value instanceof MultipartFile) {
+            MultipartFile file = (MultipartFile) value;
+            return 120 + (file.getFile() == null ? file.getSize() : 0); // contenu sur disque : hors heap
+        }
+        if (value instanceof UserSession) {
+            UserSession user = (UserSession) value;
+            return 160 + estimate(user.getUserId(), depth) + estimate(user.getUsername(), depth)
+                    + estimate(user.getEmail(), depth) + estimate(user.getRoles(), depth + 1)
+                    + estimate(user.getAttributes(), depth + 1);
+        }
+        if (depth >= MAX_DEPTH) {
+            return 64;
+        }
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            long total = 0;
+            int count = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                total += 32 + estimate(entry.getKey(), depth + 1) + estimate(entry.getValue(), depth + 1);
+                if (++count >= MAX_ELEMENTS) {
+                    break;
+                }
+            }
+            return 64 + extrapolate(total, count, map.size());
+        }
+        if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            long total = 0;
+            int count = 0;
+            for (Object element : collection) {
+                total += 8 + estimate(element, depth + 1);
+                if (++count >= MAX_ELEMENTS) {
+                    break;
+                }
+            }
+            return 40 + extrapolate(total, count, collection.size());
+        }
+        return 64; // Objet quelconque : coût forfaitaire
+    }
+
+    private static long extrapolate(long total, int sampled, int size) {
+        return sampled == 0 || sampled >= size ? total : total / sampled * size;
+    }
+}
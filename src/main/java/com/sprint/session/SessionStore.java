@@ -0,0 +1,72 @@
+package com.sprint.session;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Stockage des sessions enregistrées, indexées par ID
+ * L'implémentation par défaut est InMemorySessionStore ; SessionManager.setSessionStore permet
+ * d'en changer au démarrage.
+ */
+public interface SessionStore {
+
+    /**
+     * @return la session, ou null si elle n'existe pas
+     */
+    SessionMap get(String sessionId);
+
+    /**
+     * Lecture interne (expiration, maintenance) : ni marquage d'accès ni récupération distante
+     */
+    default SessionMap peek(String sessionId) {
+        return get(sessionId);
+    }
+
+    /**
+     * Enregistre une session (son ID doit être attribué)
+     */
+    void put(SessionMap session);
+
+    /**
+     * @return la session retirée, ou null si elle n'existait pas
+     */
+    SessionMap remove(String sessionId);
+
+    int size();
+
+    /**
+     * Vue itérable des sessions (faiblement cohérente)
+     */
+    Iterable<SessionMap> sessions();
+
+    /**
+     * Maintenance périodique, appelée sur le thread d'expiration
+     * @return les IDs des sessions dont l'empreinte mémoire a changé (déplacées hors heap...)
+     */
+    default List<String> maintenance(long now) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Appelé par SessionManager : le stockage signale par ce callback les sessions qu'il adopte
+     * sans passer par SessionManager (session reprise d'une autre instance), pour qu'elles soient
+     * programmées pour l'expiration et soumises à la politique d'éviction
+     */
+    default void setAdoptionHandler(Consumer<SessionMap> handler) {
+    }
+
+    /**
+     * Jauges propres au stockage, ajoutées à SessionManager.getStatistics
+     */
+    default Map<String, Object> getStatistics() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Libère les ressources du stockage (arrêt de l'application)
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,306 @@
+package com.sprint.session;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encodage d'une session complète dans un cookie signé (HMAC-SHA256), éventuellement chiffré (AES-GCM)
+ *
+ * Format : "v1." + Base64URL(corps) + "." + Base64URL(HMAC). Le corps contient la création et
+ * le dernier accès (secondes) puis le contenu encodé par le SessionSerializer ; chiffré, il est
+ * précédé de son IV. Le HMAC couvre tout ce qui précède le dernier point et est comparé en temps
+ * constant (MessageDigest.isEqual).
+ *
+ * Les clés de signature et de chiffrement sont dérivées du secret par HMAC : un même secret
+ * partagé par toutes les instances suffit, sans affinité de session au répartiteur.
+ * Les vérifications récentes sont mises en cache (valeur exacte du cookie vers corps en clair) :
+ * un utilisateur qui enchaîne les requêtes avec le même cookie ne paie le HMAC qu'une fois.
+ */
+public class SignedCookieCodec {
+
+    private static final String PREFIX = "v1.";
+    private static final int IV_BYTES = 12;
+    private static final int GCM_TAG_BITS = 128;
+    private static final int MAX_CACHED_VALUE = 1024; // Au-delà, la vérification n'est pas mise en cache
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec macKey;
+    private final SecretKeySpec encryptionKey;
+    private final SessionSerializer serializer;
+    private final int maxCookieBytes;
+    private final int cacheSize;
+
+    // Mac et Cipher ne sont pas sûrs en accès concurrent : une instance par thread
+    private final ThreadLocal<Mac> macs;
+    private final ThreadLocal<Cipher> ciphers = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM indisponible", e);
+        }
+    });
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final ConcurrentHashMap<String, byte[]> verified = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Contenu d'un cookie vérifié
+     */
+    public static final class Decoded {
+        private final byte[] payload;
+        private final Map<String, Object> contents;
+        private final long creationTime;
+        private final long lastAccess;
+
+        Decoded(byte[] payload, Map<String, Object> contents, long creationTime, long lastAccess) {
+            this.payload = payload;
+            this.contents = contents;
+            this.creationTime = creationTime;
+            this.lastAccess = lastAccess;
+        }
+
+        /**
+         * Contenu encodé, tel que renvoyé par serialize
+         */
+        public byte[] getPayload() {
+            return payload;
+        }
+
+        public Map<String, Object> getContents() {
+            return contents;
+        }
+
+        public long getCreationTime() {
+            return creationTime;
+        }
+
+        public long getLastAccess() {
+            return lastAccess;
+        }
+    }
+
+    /**
+     * @param secret secret partagé par toutes les instances (au moins 32 octets)
+     * @param encrypt true pour chiffrer le contenu (sinon il est seulement signé, donc lisible)
+     * @param serializer encodage du contenu
+     * @param maxCookieBytes taille maximale du cookie ; au-delà la session passe côté serveur
+     * @param cacheSize nombre de vérifications conservées en cache
+     */
+    public SignedCookieCodec(byte[] secret, boolean encrypt, SessionSerializer serializer,
+                             int maxCookieBytes, int cacheSize) {
+        if (secret == null || secret.length < 32) {
+            throw new IllegalArgumentException("Le secret des cookies de session doit faire au moins 32 octets");
+        }
+        this.macKey = new SecretKeySpec(deriver(secret, "sprint-session-mac"), "HmacSHA256");
+        this.encryptionKey = encrypt
+                ? new SecretKeySpec(Arrays.copyOf(deriver(secret, "sprint-session-enc"), 16), "AES")
+                : null;
+        this.serializer = serializer;
+        this.maxCookieBytes = maxCookieBytes;
+        this.cacheSize = Math.max(0, cacheSize);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(macKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 indisponible", e);
+            }
+        });
+    }
+
+    private static byte[] deriver(byte[] secret, String usage) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            return mac.doFinal(usage.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 indisponible", e);
+        }
+    }
+
+    /**
+     * true si la valeur a la forme d'un cookie de session signé (et non d'un ID de session serveur)
+     */
+    public static boolean isSignedValue(String value) {
+        return value != null && value.startsWith(PREFIX);
+    }
+
+    public boolean isEncrypted() {
+        return encryptionKey != null;
+    }
+
+    /**
+     * Encode le contenu d'une session (première étape de encode, permet de détecter un changement)
+     * @return le contenu encodé, ou null s'il n'est pas sérialisable
+     */
+    public byte[] serialize(Map<String, Object> contents) {
+        try {
+            return serializer.encode(contents);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return la valeur du cookie, ou null si le contenu n'est pas sérialisable ou dépasse maxCookieBytes
+     */
+    public String encode(Map<String, Object> contents, long creationTime, long lastAccess) {
+        byte[] payload = serialize(contents);
+        return payload != null ? seal(payload, creationTime, lastAccess) : null;
+    }
+
+    /**
+     * Signe (et chiffre) un contenu déjà encodé
+     * @return la valeur du cookie, ou null si elle dépasse maxCookieBytes
+     */
+    public String seal(byte[] payload, long creationTime, long lastAccess) {
+        // Estimation avant chiffrement et Base64 : évite le travail pour une session manifestement trop grosse
+        if ((payload.length + 8 + IV_BYTES) * 4 / 3 > maxCookieBytes) {
+            return null;
+        }
+        ByteBuffer body = ByteBuffer.allocate(8 + payload.length);
+        body.putInt((int) (creationTime / 1000));
+        body.putInt((int) (lastAccess / 1000));
+        body.put(payload);
+        byte[] plain = body.array();
+
+        String signed = PREFIX + ENCODER.encodeToString(encryptionKey != null ? chiffrer(plain) : plain);
+        String value = signed + "." + ENCODER.encodeToString(signer(signed));
+        if (value.length() > maxCookieBytes) {
+            return null;
+        }
+        cacher(value, plain);
+        return value;
+    }
+
+    /**
+     * Vérifie et décode un cookie
+     * @return le contenu, ou null si le cookie est mal formé, falsifié ou illisible
+     */
+    public Decoded decode(String value) {
+        if (!isSignedValue(value) || value.length() > maxCookieBytes) {
+            return null;
+        }
+        byte[] plain = verified.get(value);
+        if (plain != null) {
+            cacheHits.increment();
+        } else {
+            plain = verifier(value);
+            if (plain == null) {
+                rejected.increment();
+                return null;
+            }
+            cacher(value, plain);
+        }
+        try {
+            ByteBuffer body = ByteBuffer.wrap(plain);
+            long creationTime = (body.getInt() & 0xFFFFFFFFL) * 1000;
+            long lastAccess = (body.getInt() & 0xFFFFFFFFL) * 1000;
+            byte[] payload = new byte[body.remaining()];
+            body.get(payload);
+            return new Decoded(payload, serializer.decode(payload), creationTime, lastAccess);
+        } catch (IOException | RuntimeException e) {
+            rejected.increment();
+            return null;
+        }
+    }
+
+    private byte[] verifier(String value) {
+        verifications.increment();
+        int separator = value.lastIndexOf('.');
+        if (separator <= PREFIX.length()) {
+            return null;
+        }
+        String signed = value.substring(0, separator);
+        try {
+            byte[] expected = signer(signed);
+            byte[] actual = DECODER.decode(value.substring(separator + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return null;
+            }
+            byte[] body = DECODER.decode(signed.substring(PREFIX.length()));
+            byte[] plain = encryptionKey != null ? dechiffrer(body) : body;
+            return plain != null && plain.length >= 8 ? plain : null;
+        } catch (IllegalArgumentException e) {
+            return null; // Base64 invalide
+        }
+    }
+
+    private byte[] signer(String signed) {
+        return macs.get().doFinal(signed.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private byte[] chiffrer(byte[] plain) {
+        try {
+            byte[] iv = new byte[IV_BYTES];
+            secureRandom.nextBytes(iv);
+            Cipher cipher = ciphers.get();
+            cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+            byte[] encrypted = cipher.doFinal(plain);
+            byte[] body = new byte[IV_BYTES + encrypted.length];
+            System.arraycopy(iv, 0, body, 0, IV_BYTES);
+            System.arraycopy(encrypted, 0, body, IV_BYTES, encrypted.length);
+            return body;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Chiffrement du cookie de session impossible", e);
+        }
+    }
+
+    private byte[] dechiffrer(byte[] body) {
+        if (body.length <= IV_BYTES) {
+            return null;
+        }
+        try {
+            Cipher cipher = ciphers.get();
+            cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(GCM_TAG_BITS, body, 0, IV_BYTES));
+            return cipher.doFinal(body, IV_BYTES, body.length - IV_BYTES);
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Cache borné : vidé d'un bloc lorsqu'il est plein (les cookies actifs y reviennent aussitôt)
+     */
+    private void cacher(String value, byte[] plain) {
+        if (cacheSize == 0 || value.length() > MAX_CACHED_VALUE) {
+            return;
+        }
+        if (verified.size() >= cacheSize) {
+            verified.clear();
+        }
+        verified.put(value, plain);
+    }
+
+    /**
+     * Compteurs de vérification : succès du cache, HMAC calculés, cookies rejetés
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("cookieCacheHits", cacheHits.sum());
+        statistics.put("cookieVerifications", verifications.sum());
+        statistics.put("cookieRejected", rejected.sum());
+        statistics.put("cookieEncrypted", isEncrypted());
+        return statistics;
+    }
+}
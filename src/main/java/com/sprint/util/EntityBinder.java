@@ -1,5 +1,6 @@
 package com.sprint.util;
 
+import com.sprint.log.Logger;
 import com.sprint.model.MultipartFile;
 import jakarta.servlet.http.HttpServletRequest;
 import java.lang.reflect.Field;
@@ -11,6 +12,8 @@ import java.util.Map;
  */
 public class EntityBinder {
 
+    private static final Logger LOG = Logger.getLogger(EntityBinder.class);
+
     /**
      * Bind les paramètres de la requête HTTP vers une instance d'entité
      * Inclut maintenant les fichiers uploadés (Sprint 10)
@@ -58,8 +61,7 @@ public class EntityBinder {
                             field.set(entity, file);
                         }
                     } catch (Exception e) {
-                        System.err.println("Erreur lors du binding du fichier " + 
-                                         field.getName() + ": " + e.getMessage());
+                        LOG.warn("Erreur lors du binding du fichier {}: {}", field.getName(), e.getMessage());
                     }
                 }
                 continue;
@@ -75,8 +77,7 @@ public class EntityBinder {
                     Object convertedValue = convertValue(paramValue, field.getType());
                     field.set(entity, convertedValue);
                 } catch (Exception e) {
-                    System.err.println("Erreur lors de la conversion du champ " + 
-                                     field.getName() + ": " + e.getMessage());
+                    LOG.warn("Erreur lors de la conversion du champ {}: {}", field.getName(), e.getMessage());
                     // Continuer avec les autres champs
                 }
             }
@@ -163,6 +164,11 @@ public class EntityBinder {
      * Vérifie si une classe est une entité
      */
     public static boolean isEntity(Class<?> clazz) {
+        // Types primitifs et tableaux n'ont pas de package
+        if (clazz.isPrimitive() || clazz.isArray() || clazz.getPackage() == null) {
+            return false;
+        }
+        
         // Vérifier le package
         String packageName = clazz.getPackage().getName().toLowerCase();
         if (packageName.contains("entity") || packageName.contains("model")) {
@@ -1,16 +1,43 @@
 package com.sprint.util;
 
+import com.sprint.log.Logger;
 import com.sprint.model.MultipartFile;
+import com.sprint.model.SavedFile;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.Part;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class MultipartRequestHandler {
 
+    private static final Logger LOG = Logger.getLogger(MultipartRequestHandler.class);
+
+    // Taille du tampon utilisé pour l'écriture des fichiers sur disque
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+
+    // Exécuteur borné dédié aux écritures disque (les threads de requête ne bloquent pas sur le disque)
+    private static final ExecutorService ioExecutor = creerExecuteurIO();
+
     /**
      * Vérifie si une requête est de type multipart/form-data
      */
@@ -147,7 +174,7 @@ public class MultipartRequestHandler {
         
         for (Part part : parts) {
             if (part.getSize() > 0 && part.getSubmittedFileName() != null) {
-                String fileName = part.getSubmittedFileName();
+                String fileName = nettoyerNomFichier(part.getSubmittedFileName());
                 String filePath = uploadDir + File.separator + fileName;
                 
                 part.write(filePath);
@@ -157,4 +184,245 @@ public class MultipartRequestHandler {
         
         return savedFiles;
     }
-}
\ No newline at end of file
+
+    /**
+     * Sauvegarde tous les fichiers uploadés dans un stockage adressé par contenu.
+     * Le contenu est haché (SHA-256) pendant sa copie : un fichier identique à un fichier
+     * déjà présent n'est stocké qu'une seule fois (uploadDir/ab/abcdef...).
+     *
+     * Les parts sont lues sur le thread appelant, vers des fichiers temporaires, avant le retour :
+     * le conteneur peut libérer la requête et ses parts dès la fin de la méthode du contrôleur.
+     * Seules la publication (lien vers le nom définitif) et le fsync ont lieu en arrière-plan ;
+     * le contrôleur doit attendre le future (join/get) avant de répondre s'il utilise les fichiers.
+     *
+     * @param attendreFsync si true, le future n'est complété qu'après le fsync de chaque fichier ;
+     *                      sinon il est complété dès la publication et le fsync suit en arrière-plan
+     * @return un future des descripteurs de fichiers sauvegardés, dans l'ordre des parts
+     */
+    public static CompletableFuture<List<SavedFile>> saveAllFilesAsync(HttpServletRequest request, String uploadDir,
+                                                                      boolean attendreFsync)
+            throws IOException, jakarta.servlet.ServletException {
+
+        if (!isMultipartRequest(request)) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+
+        Path root = Paths.get(uploadDir);
+        Files.createDirectories(root);
+
+        List<PartRecue> recues = new ArrayList<>();
+        try {
+            for (Part part : request.getParts()) {
+                if (part.getSize() > 0 && part.getSubmittedFileName() != null) {
+                    recues.add(recevoir(part, root));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            for (PartRecue recue : recues) {
+                supprimerSilencieusement(recue.temp);
+            }
+            throw e;
+        }
+
+        List<CompletableFuture<SavedFile>> futures = new ArrayList<>(recues.size());
+        for (PartRecue recue : recues) {
+            futures.add(CompletableFuture.supplyAsync(() -> publierParContenu(recue, root, attendreFsync), ioExecutor));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> {
+                    List<SavedFile> savedFiles = new ArrayList<>(futures.size());
+                    for (CompletableFuture<SavedFile> future : futures) {
+                        savedFiles.add(future.join());
+                    }
+                    return savedFiles;
+                });
+    }
+
+    /**
+     * Variante par défaut : le future est complété sans attendre le fsync
+     */
+    public static CompletableFuture<List<SavedFile>> saveAllFilesAsync(HttpServletRequest request, String uploadDir)
+            throws IOException, jakarta.servlet.ServletException {
+        return saveAllFilesAsync(request, uploadDir, false);
+    }
+
+    /**
+     * Part copiée dans un fichier temporaire, avec tout ce qu'il faut lire de la part
+     */
+    private static final class PartRecue {
+        final String name;
+        final String filename;
+        final String contentType;
+        final Path temp;
+        final long size;
+        final String sha256;
+
+        PartRecue(String name, String filename, String contentType, Path temp, long size, String sha256) {
+            this.name = name;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.temp = temp;
+            this.size = size;
+            this.sha256 = sha256;
+        }
+    }
+
+    /**
+     * Copie une part dans un fichier temporaire en calculant son empreinte (thread appelant)
+     */
+    private static PartRecue recevoir(Part part, Path root) throws IOException {
+        Path temp = Files.createTempFile(root, ".upload-", ".tmp");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = 0;
+
+            try (InputStream in = part.getInputStream();
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                byte[] data = new byte[IO_BUFFER_SIZE];
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                int nRead;
+                while ((nRead = in.read(data)) != -1) {
+                    digest.update(data, 0, nRead);
+                    buffer.clear().limit(nRead);
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    size += nRead;
+                }
+            }
+
+            return new PartRecue(part.getName(), nettoyerNomFichier(part.getSubmittedFileName()),
+                    part.getContentType(), temp, size, toHex(digest.digest()));
+
+        } catch (IOException | RuntimeException e) {
+            supprimerSilencieusement(temp);
+            throw e;
+        } catch (NoSuchAlgorithmException e) {
+            supprimerSilencieusement(temp);
+            throw new IllegalStateException("SHA-256 non disponible", e);
+        }
+    }
+
+    /**
+     * Déplace une part reçue vers son emplacement définitif (ou la supprime si le contenu existe déjà)
+     */
+    private static SavedFile publierParContenu(PartRecue recue, Path root, boolean attendreFsync) {
+        try {
+            if (attendreFsync) {
+                forcer(recue.temp);
+            }
+            Path target = root.resolve(recue.sha256.substring(0, 2)).resolve(recue.sha256);
+            Files.createDirectories(target.getParent());
+
+            boolean deduplicated = !publier(recue.temp, target);
+            if (!deduplicated && !attendreFsync) {
+                ioExecutor.execute(() -> forcerSurDisque(target));
+            }
+
+            return new SavedFile(recue.name, recue.filename, recue.contentType, recue.size, recue.sha256,
+                    target.toString(), deduplicated);
+
+        } catch (IOException e) {
+            supprimerSilencieusement(recue.temp);
+            throw new UncheckedIOException("Erreur lors de la sauvegarde du fichier " + recue.name, e);
+        }
+    }
+
+    /**
+     * Publie le fichier temporaire sous son nom définitif sans jamais remplacer un fichier existant :
+     * deux envois simultanés du même contenu ne peuvent pas réussir tous les deux. Le lien physique
+     * échoue de façon atomique si la cible existe (Files.move vérifie puis renomme, en deux temps) ;
+     * le déplacement sans remplacement ne sert que si le système de fichiers ignore les liens.
+     * @return false si le contenu existait déjà (fichier temporaire supprimé)
+     */
+    private static boolean publier(Path temp, Path target) throws IOException {
+        try {
+            Files.createLink(target, temp);
+        } catch (FileAlreadyExistsException e) {
+            Files.delete(temp);
+            return false;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            try {
+                Files.move(temp, target);
+                return true;
+            } catch (FileAlreadyExistsException existant) {
+                Files.delete(temp);
+                return false;
+            }
+        }
+        Files.delete(temp);
+        return true;
+    }
+
+    private static void forcerSurDisque(Path file) {
+        try {
+            forcer(file);
+        } catch (IOException e) {
+            LOG.warn("Erreur lors du fsync de {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void forcer(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    private static void supprimerSilencieusement(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Fichier temporaire : rien de plus à faire
+        }
+    }
+
+    /**
+     * Ne conserve que le nom de base d'un nom de fichier soumis par le client
+     * (empêche l'écriture hors du répertoire d'upload via "../")
+     */
+    public static String nettoyerNomFichier(String submittedFileName) {
+        if (submittedFileName == null) {
+            return null;
+        }
+        String name = submittedFileName.substring(
+                Math.max(submittedFileName.lastIndexOf('/'), submittedFileName.lastIndexOf('\\')) + 1);
+        name = name.replaceAll("[\\p{Cntrl}]", "").trim();
+        while (name.startsWith(".")) {
+            name = name.substring(1);
+        }
+        return name.isEmpty() ? "fichier" : name;
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int v = bytes[i] & 0xFF;
+            hex[i * 2] = Character.forDigit(v >>> 4, 16);
+            hex[i * 2 + 1] = Character.forDigit(v & 0x0F, 16);
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Pool borné de threads démons ; si la file est pleine, le thread appelant
+     * écrit lui-même (contre-pression plutôt que mémoire non bornée)
+     */
+    private static ExecutorService creerExecuteurIO() {
+        int threads = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(256),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sprint-upload-io-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,109 @@
+package com.sprint.util;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Set;
+
+/**
+ * Fichiers réservés au compte du processus (journal de sessions, journal d'audit)
+ *
+ * Sur un système POSIX, le répertoire est créé rwx------ et les fichiers rw------- (quel que soit
+ * le umask). Un répertoire ou un fichier déjà présent doit appartenir au compte du processus et ne
+ * pas être un lien symbolique : sinon il est refusé plutôt que réutilisé, car un autre utilisateur
+ * pourrait y lire les données ou y déposer des enregistrements. Ailleurs, création simple.
+ */
+public final class PrivateFiles {
+
+    private static final Set<PosixFilePermission> DIRECTORY = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> FILE = PosixFilePermissions.fromString("rw-------");
+
+    private static volatile UserPrincipal processOwner;
+
+    private PrivateFiles() {
+    }
+
+    /**
+     * Crée le répertoire (ses parents au besoin) ou vérifie celui qui existe déjà, et restreint ses droits
+     */
+    public static void createDirectory(Path directory) throws IOException {
+        if (!isPosix(directory)) {
+            Files.createDirectories(directory);
+            return;
+        }
+        if (Files.notExists(directory, LinkOption.NOFOLLOW_LINKS)) {
+            Path parent = directory.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try {
+                Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(DIRECTORY));
+            } catch (FileAlreadyExistsException e) {
+                // Créé entre-temps : vérifié ci-dessous comme un répertoire existant
+            }
+        }
+        verifier(directory, true);
+    }
+
+    /**
+     * Crée le fichier vide ou vérifie celui qui existe déjà, et restreint ses droits
+     */
+    public static void createFile(Path file) throws IOException {
+        if (!isPosix(file)) {
+            return;
+        }
+        if (Files.notExists(file, LinkOption.NOFOLLOW_LINKS)) {
+            try {
+                Files.createFile(file, PosixFilePermissions.asFileAttribute(FILE));
+            } catch (FileAlreadyExistsException e) {
+                // Créé entre-temps : vérifié ci-dessous comme un fichier existant
+            }
+        }
+        verifier(file, false);
+    }
+
+    private static boolean isPosix(Path path) {
+        return path.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    private static void verifier(Path path, boolean directory) throws IOException {
+        PosixFileAttributes attributes = Files.readAttributes(path, PosixFileAttributes.class,
+                LinkOption.NOFOLLOW_LINKS);
+        if (directory ? !attributes.isDirectory() : !attributes.isRegularFile()) {
+            throw new IOException(path + " n'est pas un " + (directory ? "répertoire" : "fichier ordinaire"));
+        }
+        UserPrincipal owner = proprietaireDuProcessus();
+        if (!attributes.owner().equals(owner)) {
+            throw new IOException(path + " appartient à " + attributes.owner().getName() + " et non à "
+                    + owner.getName() + " : refusé (choisir un répertoire réservé à l'application)");
+        }
+        Set<PosixFilePermission> expected = directory ? DIRECTORY : FILE;
+        if (!attributes.permissions().equals(expected)) {
+            Files.setPosixFilePermissions(path, expected);
+        }
+    }
+
+    /**
+     * Propriétaire des fichiers créés par le processus (lu sur un fichier temporaire : fiable même
+     * sans entrée de l'utilisateur dans la base des comptes)
+     */
+    private static UserPrincipal proprietaireDuProcessus() throws IOException {
+        UserPrincipal owner = processOwner;
+        if (owner == null) {
+            Path probe = Files.createTempFile("sprint-owner", null);
+            try {
+                owner = Files.getOwner(probe);
+            } finally {
+                Files.deleteIfExists(probe);
+            }
+            processOwner = owner;
+        }
+        return owner;
+    }
+}
@@ -0,0 +1,527 @@
+package com.sprint.util;
+
+import com.sprint.log.Logger;
+import com.sprint.model.JsonResponse;
+import com.sprint.model.MultipartFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Protocole d'upload reprenable par morceaux (chunks)
+ *
+ * POST /_upload?target=/route&amp;field=file&amp;filename=a.zip&amp;size=N  : crée un upload
+ * POST /_upload/{id}?offset=N  (corps brut)                       : écrit un morceau à l'offset
+ * GET  /_upload/{id}                                              : état de l'upload
+ * POST /_upload/{id}/complete                                     : livre le fichier à la route cible
+ *
+ * Les morceaux sont écrits directement à leur offset dans un fichier temporaire (creux),
+ * la mémoire utilisée ne dépend donc pas de la taille du fichier. La fin de l'upload attend les
+ * morceaux en cours d'écriture puis le ferme : aucun octet n'est écrit dans un fichier déjà livré.
+ *
+ * La création n'est acceptée que vers une route POST existante et autorisée pour le client
+ * (politique de sécurité de la route) ; l'upload appartient ensuite à son créateur (utilisateur,
+ * à défaut session, à défaut adresse IP) : les autres clients le voient comme inconnu. Quotas :
+ * uploads en attente (total et par client), taille par upload, octets déclarés en attente.
+ */
+public class ResumableUploadHandler {
+
+    private static final Logger LOG = Logger.getLogger(ResumableUploadHandler.class);
+
+    public static final String PREFIX = "/_upload";
+
+    // Attribut de requête contenant les fichiers livrés à la méthode du contrôleur
+    public static final String UPLOADED_FILES_ATTR = "com.sprint.RESUMABLE_UPLOAD_FILES";
+
+    public static final int DEFAULT_MAX_PENDING = 1000;
+    public static final int DEFAULT_MAX_PER_CLIENT = 4;
+    public static final long DEFAULT_MAX_SIZE = 2L * 1024 * 1024 * 1024;    // 2GB par upload
+    public static final long DEFAULT_MAX_BYTES = 8L * 1024 * 1024 * 1024;   // 8GB en attente, tous clients
+
+    private static final long MAX_CHUNK_SIZE = 8L * 1024 * 1024;          // 8MB par morceau
+    private static final long UPLOAD_TTL = 24 * 60 * 60 * 1000L;           // 24 heures sans activité
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Accès aux routes du FrontServlet
+     */
+    public interface RouteDispatcher {
+
+        /**
+         * Vérifie à la création que la route cible existe en POST et que la requête y a accès
+         * @return null si l'upload est autorisé, sinon la réponse de refus (404, 401, 403, 429)
+         */
+        JsonResponse autoriser(String target, HttpServletRequest req, HttpServletResponse resp) throws IOException;
+
+        /**
+         * Client propriétaire des uploads créés par la requête
+         */
+        String proprietaire(HttpServletRequest req);
+
+        /**
+         * Exécute la route cible (POST) une fois l'upload terminé
+         * @return false si la route n'existe plus
+         */
+        boolean dispatch(String target, HttpServletRequest req, HttpServletResponse resp) throws IOException;
+    }
+
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+    private final Map<String, Integer> uploadsParClient = new ConcurrentHashMap<>();
+    private final AtomicLong octetsReserves = new AtomicLong();
+    private final SecureRandom random = new SecureRandom();
+    private final Path tempDir;
+    private final int maxPending;
+    private final int maxPerClient;
+    private final long maxSize;
+    private final long maxBytes;
+
+    public ResumableUploadHandler(Path tempDir) {
+        this(tempDir, DEFAULT_MAX_PENDING, DEFAULT_MAX_PER_CLIENT, DEFAULT_MAX_SIZE, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param maxPending uploads en attente, tous clients
+     * @param maxPerClient uploads en attente par client
+     * @param maxSize taille maximale d'un upload
+     * @param maxBytes total des tailles déclarées des uploads en attente
+     */
+    public ResumableUploadHandler(Path tempDir, int maxPending, int maxPerClient, long maxSize, long maxBytes) {
+        this.tempDir = tempDir;
+        this.maxPending = maxPending;
+        this.maxPerClient = maxPerClient;
+        this.maxSize = maxSize;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Vérifie si le chemin concerne le protocole d'upload reprenable
+     */
+    public static boolean isUploadPath(String path) {
+        return path.equals(PREFIX) || path.startsWith(PREFIX + "/");
+    }
+
+    /**
+     * Traite une requête du protocole d'upload reprenable
+     */
+    public void traiter(String path, HttpServletRequest req, HttpServletResponse resp,
+                        RouteDispatcher dispatcher) throws IOException {
+        String[] segments = path.substring(PREFIX.length()).split("/");
+        boolean post = "POST".equalsIgnoreCase(req.getMethod());
+
+        if (segments.length <= 1) {
+            if (post) {
+                creer(req, resp, dispatcher);
+            } else {
+                envoyer(resp, JsonResponse.error("Méthode non supportée", 405));
+            }
+            return;
+        }
+
+        // Upload d'un autre client : même réponse qu'un identifiant inconnu
+        Upload upload = uploads.get(segments[1]);
+        if (upload == null || !upload.proprietaire.equals(dispatcher.proprietaire(req))) {
+            envoyer(resp, JsonResponse.notFound("Upload inconnu: " + segments[1]));
+            return;
+        }
+
+        if (segments.length == 3 && "complete".equals(segments[2]) && post) {
+            terminer(upload, req, resp, dispatcher);
+        } else if (segments.length == 2 && post) {
+            ajouterMorceau(upload, req, resp);
+        } else if (segments.length == 2) {
+            envoyer(resp, JsonResponse.success(upload.etat()));
+        } else {
+            envoyer(resp, JsonResponse.notFound("Opération d'upload inconnue: " + path));
+        }
+    }
+
+    private void creer(HttpServletRequest req, HttpServletResponse resp, RouteDispatcher dispatcher)
+            throws IOException {
+        purgerUploadsExpires();
+
+        String target = req.getParameter("target");
+        String field = req.getParameter("field");
+        String sizeParam = req.getParameter("size");
+
+        if (target == null || !target.startsWith("/") || isUploadPath(target)) {
+            envoyer(resp, JsonResponse.badRequest("Paramètre 'target' invalide"));
+            return;
+        }
+        if (field == null || field.isEmpty() || sizeParam == null) {
+            envoyer(resp, JsonResponse.badRequest("Paramètres requis: field, size"));
+            return;
+        }
+
+        long size;
+        try {
+            size = Long.parseLong(sizeParam);
+        } catch (NumberFormatException e) {
+            envoyer(resp, JsonResponse.badRequest("Taille invalide: " + sizeParam));
+            return;
+        }
+        if (size < 0 || size > maxSize) {
+            envoyer(resp, JsonResponse.error("Taille d'upload non autorisée: " + size, 413));
+            return;
+        }
+
+        // Route cible existante et autorisée pour ce client, avant toute réservation
+        JsonResponse refus = dispatcher.autoriser(target, req, resp);
+        if (refus != null) {
+            envoyer(resp, refus);
+            return;
+        }
+
+        String proprietaire = dispatcher.proprietaire(req);
+        if (uploads.size() >= maxPending) {
+            envoyer(resp, JsonResponse.error("Trop d'uploads en cours", 503));
+            return;
+        }
+        if (!reserverPourClient(proprietaire)) {
+            envoyer(resp, JsonResponse.error("Trop d'uploads en cours pour ce client", 429));
+            return;
+        }
+        if (!reserverOctets(size)) {
+            libererPourClient(proprietaire);
+            envoyer(resp, JsonResponse.error("Espace d'upload insuffisant", 507));
+            return;
+        }
+
+        String id = genererId();
+        Path file;
+        try {
+            file = Files.createFile(tempDir.resolve("upload-" + id + ".part"));
+        } catch (IOException e) {
+            libererPourClient(proprietaire);
+            octetsReserves.addAndGet(-size);
+            throw e;
+        }
+        Upload upload = new Upload(id, proprietaire, target, field,
+                MultipartRequestHandler.nettoyerNomFichier(req.getParameter("filename")),
+                req.getParameter("contentType"), size, file);
+        uploads.put(id, upload);
+
+        envoyer(resp, new JsonResponse("success", 201, upload.etat()));
+    }
+
+    /**
+     * Compte un upload de plus pour le client, si son quota le permet (atomique par client)
+     */
+    private boolean reserverPourClient(String proprietaire) {
+        boolean[] accepte = new boolean[1];
+        uploadsParClient.compute(proprietaire, (cle, nombre) -> {
+            int courant = nombre != null ? nombre : 0;
+            if (courant >= maxPerClient) {
+                return nombre;
+            }
+            accepte[0] = true;
+            return courant + 1;
+        });
+        return accepte[0];
+    }
+
+    private void libererPourClient(String proprietaire) {
+        uploadsParClient.computeIfPresent(proprietaire, (cle, nombre) -> nombre > 1 ? nombre - 1 : null);
+    }
+
+    private boolean reserverOctets(long size) {
+        long courant;
+        do {
+            courant = octetsReserves.get();
+            if (courant + size > maxBytes) {
+                return false;
+            }
+        } while (!octetsReserves.compareAndSet(courant, courant + size));
+        return true;
+    }
+
+    /**
+     * Retire un upload des uploads en attente et libère ses quotas
+     * @return false s'il avait déjà été retiré (terminé ou expiré)
+     */
+    private boolean retirer(Upload upload) {
+        if (!uploads.remove(upload.id, upload)) {
+            return false;
+        }
+        libererPourClient(upload.proprietaire);
+        octetsReserves.addAndGet(-upload.size);
+        return true;
+    }
+
+    private void ajouterMorceau(Upload upload, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        long offset;
+        try {
+            offset = Long.parseLong(req.getParameter("offset"));
+        } catch (NumberFormatException e) {
+            envoyer(resp, JsonResponse.badRequest("Paramètre 'offset' invalide"));
+            return;
+        }
+        if (offset < 0 || offset > upload.size) {
+            envoyer(resp, JsonResponse.error("Offset hors limites: " + offset, 416));
+            return;
+        }
+
+        if (!upload.commencerEcriture()) {
+            envoyer(resp, JsonResponse.error("Upload déjà terminé", 409));
+            return;
+        }
+
+        long limit = Math.min(upload.size, offset + MAX_CHUNK_SIZE);
+        long position = offset;
+        boolean tropGrand = false;
+
+        try (InputStream in = req.getInputStream();
+             FileChannel channel = FileChannel.open(upload.file, StandardOpenOption.WRITE)) {
+            byte[] data = new byte[IO_BUFFER_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            int nRead;
+            while ((nRead = in.read(data)) != -1) {
+                if (position + nRead > limit) {
+                    tropGrand = true;
+                    break;
+                }
+                buffer.clear().limit(nRead);
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            }
+        } finally {
+            // Même en cas de coupure, les octets déjà écrits restent acquis pour la reprise
+            upload.ajouterPlage(offset, position);
+            upload.finirEcriture();
+        }
+
+        if (tropGrand) {
+            envoyer(resp, JsonResponse.error("Morceau trop grand ou au-delà de la taille déclarée", 413));
+            return;
+        }
+        envoyer(resp, JsonResponse.success(upload.etat()));
+    }
+
+    private void terminer(Upload upload, HttpServletRequest req, HttpServletResponse resp,
+                          RouteDispatcher dispatcher) throws IOException {
+        if (!upload.fermerSiComplet()) {
+            if (upload.estFerme()) {
+                envoyer(resp, JsonResponse.error("Upload déjà terminé", 409));
+            } else {
+                envoyer(resp, JsonResponse.error("Upload incomplet", 409).setData(upload.etat()));
+            }
+            return;
+        }
+        if (!retirer(upload)) {
+            envoyer(resp, JsonResponse.error("Upload déjà terminé", 409));
+            return;
+        }
+
+        MultipartFile multipartFile = new MultipartFile();
+        multipartFile.setName(upload.field);
+        multipartFile.setOriginalFilename(upload.filename);
+        multipartFile.setContentType(upload.contentType);
+        multipartFile.setSize(upload.size);
+        multipartFile.setFile(upload.file);
+        multipartFile.setEmpty(upload.size == 0);
+
+        req.setAttribute(UPLOADED_FILES_ATTR, Collections.singletonMap(upload.field, multipartFile));
+        try {
+            if (!dispatcher.dispatch(upload.target, req, resp)) {
+                envoyer(resp, JsonResponse.notFound("Route non trouvée: " + upload.target));
+            }
+        } finally {
+            // Si le contrôleur n'a pas déplacé le fichier (transferTo), il est supprimé
+            Files.deleteIfExists(upload.file);
+        }
+    }
+
+    /**
+     * Supprime les uploads abandonnés depuis plus de UPLOAD_TTL
+     */
+    public void purgerUploadsExpires() {
+        long limite = System.currentTimeMillis() - UPLOAD_TTL;
+        for (Upload upload : uploads.values()) {
+            if (upload.derniereActivite < limite && upload.fermerSiInactif() && retirer(upload)) {
+                supprimer(upload.file);
+            }
+        }
+    }
+
+    /**
+     * Supprime tous les fichiers temporaires (arrêt du servlet)
+     */
+    public void fermer() {
+        for (Upload upload : uploads.values()) {
+            if (retirer(upload)) {
+                supprimer(upload.file);
+            }
+        }
+    }
+
+    private static void supprimer(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warn("Impossible de supprimer {}: {}", file, e.getMessage());
+        }
+    }
+
+    private String genererId() {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        StringBuilder sb = new StringBuilder(32);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >>> 4) & 0x0F, 16)).append(Character.forDigit(b & 0x0F, 16));
+        }
+        return sb.toString();
+    }
+
+    private static void envoyer(HttpServletResponse resp, JsonResponse response) throws IOException {
+        resp.setContentType("application/json;charset=UTF-8");
+        resp.setStatus(response.getCode());
+        resp.getWriter().write(response.toJson());
+    }
+
+    /**
+     * État d'un upload en cours : plages d'octets reçues (fusionnées)
+     */
+    private static final class Upload {
+        final String id;
+        final String proprietaire;
+        final String target;
+        final String field;
+        final String filename;
+        final String contentType;
+        final long size;
+        final Path file;
+        private final TreeMap<Long, Long> plages = new TreeMap<>(); // début -> fin (exclue)
+        volatile long derniereActivite = System.currentTimeMillis();
+
+        // Partagé par les morceaux en cours d'écriture, exclusif pour fermer l'upload
+        private final ReentrantReadWriteLock ecritures = new ReentrantReadWriteLock();
+        private volatile boolean ferme;
+
+        Upload(String id, String proprietaire, String target, String field, String filename, String contentType,
+               long size, Path file) {
+            this.id = id;
+            this.proprietaire = proprietaire;
+            this.target = target;
+            this.field = field;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.size = size;
+            this.file = file;
+        }
+
+        /**
+         * Réserve l'écriture d'un morceau jusqu'à finirEcriture
+         * @return false si l'upload est fermé (rien ne doit être écrit)
+         */
+        boolean commencerEcriture() {
+            ecritures.readLock().lock();
+            if (ferme) {
+                ecritures.readLock().unlock();
+                return false;
+            }
+            return true;
+        }
+
+        void finirEcriture() {
+            ecritures.readLock().unlock();
+        }
+
+        /**
+         * Attend la fin des morceaux en cours puis ferme l'upload s'il est complet
+         * @return false s'il est incomplet (il reste ouvert) ou déjà fermé
+         */
+        boolean fermerSiComplet() {
+            ecritures.writeLock().lock();
+            try {
+                if (ferme || offsetContigu() != size) {
+                    return false;
+                }
+                ferme = true;
+                return true;
+            } finally {
+                ecritures.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Ferme un upload abandonné, sauf si un morceau est en cours d'écriture
+         */
+        boolean fermerSiInactif() {
+            if (!ecritures.writeLock().tryLock()) {
+                return false;
+            }
+            try {
+                ferme = true;
+                return true;
+            } finally {
+                ecritures.writeLock().unlock();
+            }
+        }
+
+        boolean estFerme() {
+            return ferme;
+        }
+
+        synchronized void ajouterPlage(long debut, long fin) {
+            derniereActivite = System.currentTimeMillis();
+            if (fin <= debut) {
+                return;
+            }
+            Map.Entry<Long, Long> precedente = plages.floorEntry(debut);
+            if (precedente != null && precedente.getValue() >= debut) {
+                debut = precedente.getKey();
+                fin = Math.max(fin, precedente.getValue());
+            }
+            Map.Entry<Long, Long> suivante = plages.ceilingEntry(debut);
+            while (suivante != null && suivante.getKey() <= fin) {
+                fin = Math.max(fin, suivante.getValue());
+                plages.remove(suivante.getKey());
+                suivante = plages.ceilingEntry(debut);
+            }
+            plages.put(debut, fin);
+        }
+
+        /**
+         * Nombre d'octets reçus sans trou depuis le début du fichier (offset de reprise)
+         */
+        synchronized long offsetContigu() {
+            Long fin = plages.get(0L);
+            return fin != null ? fin : 0;
+        }
+
+        synchronized long octetsRecus() {
+            long total = 0;
+            for (Map.Entry<Long, Long> plage : plages.entrySet()) {
+                total += plage.getValue() - plage.getKey();
+            }
+            return total;
+        }
+
+        Map<String, Object> etat() {
+            Map<String, Object> etat = new LinkedHashMap<>();
+            etat.put("uploadId", id);
+            etat.put("target", target);
+            etat.put("field", field);
+            etat.put("filename", filename);
+            etat.put("size", size);
+            etat.put("offset", offsetContigu());
+            etat.put("received", octetsRecus());
+            etat.put("complete", offsetContigu() == size);
+            return etat;
+        }
+    }
+}
@@ -1,49 +1,265 @@
 package com.sprint.util;
 
+import com.sprint.log.Logger;
+import com.sprint.model.UserSession;
+import com.sprint.security.RoleManager;
+import com.sprint.session.SessionClock;
+import com.sprint.session.SessionData;
+import com.sprint.session.SessionEvictionListener;
+import com.sprint.session.SessionEvictionPolicy;
+import com.sprint.session.InMemorySessionStore;
+import com.sprint.session.SessionExpiryWheel;
+import com.sprint.session.SessionMap;
+import com.sprint.session.SessionMetrics;
+import com.sprint.session.SessionStore;
+import com.sprint.session.SignedCookieCodec;
+import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
-import java.util.HashMap;
+import jakarta.servlet.http.HttpServletResponse;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Gestionnaire de session basé sur Map au lieu de HttpSession
  * Permet de stocker des données de session sans dépendre de HttpSession
+ *
+ * L'identité de session est portée par un cookie (nom configurable) contenant un ID aléatoire
+ * de 256 bits. Une session n'est créée côté serveur qu'à la première écriture.
+ * Les sessions inactives sont expirées en arrière-plan par une roue temporelle, selon le
+ * maxSessionTime du rôle le plus élevé de l'utilisateur (30 minutes par défaut).
+ * Le stockage est borné en nombre de sessions et en mémoire estimée (politique W-TinyLFU
+ * qui protège les utilisateurs authentifiés actifs face aux sessions anonymes éphémères).
+ * Le stockage lui-même est interchangeable (SessionStore) : sur le heap par défaut,
+ * ou OffHeapSessionStore pour garder les sessions inactives hors du heap.
+ *
+ * En mode cookie signé (enableSignedCookies), une petite session est entièrement portée par
+ * le cookie : aucune mémoire côté serveur et aucune affinité au répartiteur. Elle ne passe
+ * côté serveur que si elle dépasse la taille maximale du cookie.
+ *
+ * Contre la fixation de session, l'ID change à chaque connexion ou déconnexion (changeSessionId,
+ * appelé par commitSession quand l'authentification de la UserSession a changé pendant la requête)
+ * et l'ancien paramètre d'URL "sessionId" n'est plus lu, sauf activation explicite.
  */
 public class SessionManager {
+
+    private static final Logger LOG = Logger.getLogger(SessionManager.class);
     
     // Stockage global des sessions par ID de session
-    private static final Map<String, Map<String, Object>> sessionStore = new ConcurrentHashMap<>();
+    private static volatile SessionStore sessionStore = new InMemorySessionStore();
     
     // Nom de l'attribut pour stocker l'ID de session dans la requête
     private static final String SESSION_ID_ATTR = "SESSION_ID";
     
+    // Attributs internes de requête : session résolue et réponse courante (pour poser le cookie)
+    private static final String SESSION_ATTR = "com.sprint.SESSION";
+    private static final String RESPONSE_ATTR = "com.sprint.SESSION_RESPONSE";
+    private static final String COOKIE_STATE_ATTR = "com.sprint.SESSION_COOKIE";
+    private static final String AUTHENTICATION_ATTR = "com.sprint.SESSION_AUTHENTICATION";
+    private static final String ACTIVE_ATTR = "com.sprint.SESSION_ACTIVE";
+    
     // Durée de vie par défaut (30 minutes en millisecondes)
     private static final long DEFAULT_TIMEOUT = 30 * 60 * 1000;
     
-    // Map pour suivre les timestamps de création
-    private static final Map<String, Long> sessionTimestamps = new ConcurrentHashMap<>();
+    // Compteurs de cycle de vie
+    private static final SessionMetrics metrics = new SessionMetrics();
+    
+    // Expiration en arrière-plan (thread démon démarré à la première session enregistrée)
+    private static final SessionExpiryWheel expiryWheel = new SessionExpiryWheel(
+        new SessionExpiryWheel.ExpiryHandler() {
+            @Override
+            public long deadline(String sessionId) {
+                SessionMap session = sessionStore.peek(sessionId);
+                return session != null ? session.getLastAccess() + getTimeout(session) : -1;
+            }
+            
+            @Override
+            public void expire(String sessionId) {
+                SessionMap session = sessionStore.remove(sessionId);
+                if (session != null) {
+                    evictionPolicy.onRemove(sessionId);
+                    metrics.recordExpired();
+                    notifyEviction(sessionId, session, SessionEvictionListener.Cause.EXPIRED);
+                }
+            }
+            
+            @Override
+            public void onTick() {
+                evictionPolicy.markDirty(sessionStore.maintenance(SessionClock.currentTimeMillis()));
+                evictForCapacity(evictionPolicy.maintenance());
+            }
+        }
+    );
+    
+    // Limites par défaut : 100 000 sessions, 256MB estimés
+    private static final long DEFAULT_MAX_SESSIONS = 100_000;
+    private static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+    
+    private static volatile SessionEvictionPolicy evictionPolicy =
+            new SessionEvictionPolicy(DEFAULT_MAX_SESSIONS, DEFAULT_MAX_BYTES);
+    
+    private static final List<SessionEvictionListener> evictionListeners = new CopyOnWriteArrayList<>();
+    
+    // Taille de l'ID de session : 32 octets aléatoires (256 bits), soit 43 caractères en Base64 URL
+    private static final int SESSION_ID_BYTES = 32;
+    private static final int SESSION_ID_LENGTH = 43;
+    
+    private static final SecureRandom secureRandom = new SecureRandom();
+    private static final Base64.Encoder idEncoder = Base64.getUrlEncoder().withoutPadding();
+    
+    // Nom du cookie de session (configurable via le paramètre d'init "sprint.session.cookieName")
+    private static volatile String cookieName = "SPRINT_SESSION";
+    
+    // Paramètre d'URL historique "sessionId" (désactivé par défaut : fixation, fuite dans les journaux et Referer)
+    private static volatile boolean sessionIdParameter;
+    
+    // Mode cookie signé (null : sessions côté serveur uniquement)
+    private static volatile SignedCookieCodec cookieCodec;
+    
+    // Un cookie de session inchangé est réémis au plus une fois par minute (expiration glissante)
+    private static final long COOKIE_REFRESH_MILLIS = 60 * 1000;
+    
+    // Les écritures d'une session portée par cookie ne l'enregistrent pas côté serveur
+    private static final Consumer<SessionMap> COOKIE_SESSION = session -> { };
+    
+    /**
+     * État du cookie signé pour la requête courante
+     */
+    private static final class CookieState {
+        String value;
+        byte[] payload;
+        long lastAccess;
+    }
+    
+    /**
+     * Configure le nom du cookie de session
+     */
+    public static void setCookieName(String name) {
+        if (name != null && !name.trim().isEmpty()) {
+            cookieName = name.trim();
+        }
+    }
+    
+    public static String getCookieName() {
+        return cookieName;
+    }
+    
+    /**
+     * Accepte l'ID de session dans le paramètre de requête "sessionId" en l'absence de cookie
+     * (compatibilité avec d'anciens clients ; désactivé par défaut)
+     */
+    public static void enableSessionIdParameter(boolean enabled) {
+        sessionIdParameter = enabled;
+    }
+    
+    /**
+     * Active le mode cookie signé (à appeler au démarrage)
+     */
+    public static void enableSignedCookies(SignedCookieCodec codec) {
+        cookieCodec = codec;
+    }
+    
+    public static boolean isSignedCookieMode() {
+        return cookieCodec != null;
+    }
+    
+    /**
+     * Configure les limites du stockage (à appeler au démarrage, avant la création de sessions)
+     * @param maxSessions nombre maximal de sessions enregistrées
+     * @param maxBytes mémoire estimée maximale retenue par les sessions
+     */
+    public static void configureCapacity(long maxSessions, long maxBytes) {
+        evictionPolicy = new SessionEvictionPolicy(maxSessions, maxBytes);
+        for (SessionMap session : sessionStore.sessions()) {
+            evictForCapacity(evictionPolicy.onCreate(session.getId(), session));
+        }
+    }
+    
+    /**
+     * Remplace le stockage des sessions (à appeler au démarrage) ; les sessions existantes y sont recopiées
+     * Les sessions déjà présentes dans le nouveau stockage (restaurées depuis le disque) sont
+     * soumises à la politique d'éviction et programmées pour l'expiration.
+     */
+    public static void setSessionStore(SessionStore store) {
+        SessionStore previous = sessionStore;
+        for (SessionMap session : previous.sessions()) {
+            store.put(session);
+        }
+        store.setAdoptionHandler(SessionManager::adopt);
+        sessionStore = store;
+        previous.close();
+        
+        evictionPolicy = new SessionEvictionPolicy(evictionPolicy.getMaxSessions(), evictionPolicy.getMaxBytes());
+        if (store.size() > 0) {
+            expiryWheel.start();
+        }
+        for (SessionMap session : store.sessions()) {
+            String sessionId = session.getId();
+            expiryWheel.schedule(sessionId, session.getLastAccess() + getTimeout(session));
+            evictForCapacity(evictionPolicy.onCreate(sessionId, session));
+        }
+    }
+    
+    /**
+     * Session reprise par le stockage depuis une autre instance (réplication) : expiration et éviction
+     */
+    private static void adopt(SessionMap session) {
+        String sessionId = session.getId();
+        expiryWheel.start();
+        expiryWheel.schedule(sessionId, session.getLastAccess() + getTimeout(session));
+        evictForCapacity(evictionPolicy.onCreate(sessionId, session));
+    }
+    
+    public static SessionStore getSessionStore() {
+        return sessionStore;
+    }
+    
+    /**
+     * Ajoute un observateur des sessions expirées ou évincées
+     */
+    public static void addEvictionListener(SessionEvictionListener listener) {
+        evictionListeners.add(listener);
+    }
+    
+    public static void removeEvictionListener(SessionEvictionListener listener) {
+        evictionListeners.remove(listener);
+    }
+    
+    /**
+     * Associe la réponse courante à la requête, pour pouvoir poser le cookie
+     * de session lorsque la session est créée en cours de traitement
+     */
+    public static void bindResponse(HttpServletRequest req, HttpServletResponse resp) {
+        req.setAttribute(RESPONSE_ATTR, resp);
+    }
     
     /**
      * Récupère ou crée une session pour la requête donnée
      * @param req La requête HTTP
-     *param sessionName Nom de la session (pour multiple sessions)
+     * @param sessionName Nom de la session (pour multiple sessions)
      * @param create Si true, crée une nouvelle session si elle n'existe pas
-     * @return Une Map représentant la session
+     * @return Une Map représentant la session, ou null si elle n'existe pas et que create est false
      */
     public static Map<String, Object> getSession(HttpServletRequest req, String sessionName, boolean create) {
-        // Récupérer ou générer l'ID de session
-        String sessionId = getOrCreateSessionId(req);
-        
-        // Récupérer la session principale
-        Map<String, Object> mainSession = sessionStore.computeIfAbsent(sessionId, k -> new HashMap<>());
+        // Récupérer la session principale (éventuellement en attente de création)
+        Map<String, Object> mainSession = resolveSession(req, create);
+        if (mainSession == null) {
+            return null;
+        }
         
         // Si un nom de session spécifique est demandé
         if (!"default".equals(sessionName)) {
+            // computeIfAbsent est atomique : deux requêtes parallèles obtiennent la même sous-session
+            Object namedSession = create
+                    ? mainSession.computeIfAbsent(sessionName, k -> new SessionData())
+                    : mainSession.get(sessionName);
             @SuppressWarnings("unchecked")
-            Map<String, Object> namedSession = (Map<String, Object>) mainSession.computeIfAbsent(
-                sessionName, k -> new HashMap<>()
-            );
-            return namedSession;
+            Map<String, Object> typedSession = (Map<String, Object>) namedSession;
+            return typedSession;
         }
         
         return mainSession;
@@ -58,43 +274,300 @@ public class SessionManager {
     
     /**
      * Récupère la session par défaut
+     * Si aucune session n'existe, retourne une session vide qui ne sera enregistrée
+     * (et le cookie posé) qu'à la première écriture
      */
     public static Map<String, Object> getSession(HttpServletRequest req) {
         return getSession(req, "default", true);
     }
     
     /**
-     * Récupère ou génère l'ID de session depuis la requête
+     * Vérifie si une Map de session est enregistrée côté serveur
+     * (false pour une session vide encore en attente de première écriture)
      */
-    private static String getOrCreateSessionId(HttpServletRequest req) {
-        // Essayer de récupérer l'ID de session depuis les attributs de requête
-        String sessionId = (String) req.getAttribute(SESSION_ID_ATTR);
+    public static boolean isPersistent(Map<String, Object> session) {
+        return !(session instanceof SessionMap) || ((SessionMap) session).isPersistent();
+    }
+    
+    /**
+     * Résout la session de la requête : d'abord l'attribut de requête, puis le cookie,
+     * puis le paramètre historique "sessionId" s'il est activé (uniquement s'il désigne une session existante)
+     */
+    private static Map<String, Object> resolveSession(HttpServletRequest req, boolean create) {
+        SessionMap session = (SessionMap) req.getAttribute(SESSION_ATTR);
+        if (session != null) {
+            return session;
+        }
         
+        String sessionId = (String) req.getAttribute(SESSION_ID_ATTR);
         if (sessionId == null) {
-            // Essayer de récupérer depuis les cookies ou paramètres
+            sessionId = readSessionCookie(req);
+        }
+        SignedCookieCodec codec = cookieCodec;
+        if (codec != null && SignedCookieCodec.isSignedValue(sessionId)) {
+            session = restoreCookieSession(req, codec, sessionId);
+            if (session != null) {
+                req.setAttribute(SESSION_ATTR, session);
+                return session;
+            }
+            sessionId = null;
+        }
+        if (sessionId == null && sessionIdParameter) {
             sessionId = req.getParameter("sessionId");
-            
-            if (sessionId == null) {
-                // Générer un nouvel ID de session
-                sessionId = generateSessionId();
+        }
+        
+        if (isWellFormedId(sessionId)) {
+            session = sessionStore.get(sessionId);
+            if (session != null) {
+                metrics.recordHit();
+            } else {
+                metrics.recordMiss();
             }
-            
-            // Stocker dans les attributs de requête pour utilisation ultérieure
+        }
+        
+        if (session != null) {
             req.setAttribute(SESSION_ID_ATTR, sessionId);
-            
-            // Mettre à jour le timestamp
-            sessionTimestamps.put(sessionId, System.currentTimeMillis());
+            entrerRequete(req, session);
+            req.setAttribute(AUTHENTICATION_ATTR, authenticationVersion(session));
+            session.touch(SessionClock.currentTimeMillis());
+            evictionPolicy.onAccess(sessionId);
+        } else if (create && codec != null) {
+            // Session portée par cookie : émise par commitSession si on y écrit
+            session = new SessionMap(COOKIE_SESSION);
+            req.setAttribute(COOKIE_STATE_ATTR, new CookieState());
+        } else if (create) {
+            // Session en attente : rien n'est enregistré tant qu'on n'y écrit pas
+            session = new SessionMap(pending -> {
+                entrerRequete(req, pending);
+                materialize(req, pending);
+            });
+        } else {
+            return null;
+        }
+        
+        req.setAttribute(SESSION_ATTR, session);
+        return session;
+    }
+    
+    /**
+     * Vérifie un cookie signé et reconstruit la session ; null si le cookie est invalide ou expiré
+     */
+    private static SessionMap restoreCookieSession(HttpServletRequest req, SignedCookieCodec codec, String value) {
+        SignedCookieCodec.Decoded decoded = codec.decode(value);
+        if (decoded == null) {
+            metrics.recordMiss();
+            return null;
+        }
+        long now = SessionClock.currentTimeMillis();
+        if (now - decoded.getLastAccess() > getTimeout(decoded.getContents())) {
+            metrics.recordMiss();
+            return null;
         }
+        metrics.recordHit();
+        SessionMap session = new SessionMap(decoded.getContents(), decoded.getCreationTime());
+        CookieState state = new CookieState();
+        state.value = value;
+        state.payload = decoded.getPayload();
+        state.lastAccess = decoded.getLastAccess();
+        req.setAttribute(COOKIE_STATE_ATTR, state);
+        return session;
+    }
+    
+    /**
+     * Émet le cookie d'une session portée par cookie si elle a changé (ou pour prolonger son
+     * expiration). À appeler avant d'écrire le corps de la réponse : un en-tête ne peut plus
+     * être ajouté une fois la réponse envoyée. Une session trop grosse pour un cookie est
+     * enregistrée côté serveur et le cookie porte alors son ID.
+     * Le changement est détecté en comparant le contenu encodé (ce qui couvre aussi les objets
+     * modifiés en place, comme UserSession) ; seul un changement coûte une signature.
+     * Pour une session côté serveur, attribue un nouvel ID si l'utilisateur s'est connecté
+     * ou déconnecté pendant la requête.
+     */
+    public static void commitSession(HttpServletRequest req) {
+        releaseSession(req);
+        CookieState state = (CookieState) req.getAttribute(COOKIE_STATE_ATTR);
+        SessionMap session = (SessionMap) req.getAttribute(SESSION_ATTR);
+        Object authentication = req.getAttribute(AUTHENTICATION_ATTR);
+        if (authentication != null && session != null && session.isPersistent()
+                && (Long) authentication != authenticationVersion(session)) {
+            changeSessionId(req);
+        }
+        SignedCookieCodec codec = cookieCodec;
+        if (state == null || session == null || codec == null || session.isPersistent()) {
+            return;
+        }
+        if (session.isEmpty()) {
+            if (state.value != null) {
+                HttpServletResponse resp = (HttpServletResponse) req.getAttribute(RESPONSE_ATTR);
+                if (resp != null && !resp.isCommitted()) {
+                    resp.addCookie(createSessionCookie(req, "", 0));
+                }
+                state.value = null;
+                state.payload = null;
+            }
+            return;
+        }
+        long now = SessionClock.currentTimeMillis();
+        byte[] payload = codec.serialize(session.snapshot());
+        if (payload != null && state.value != null && Arrays.equals(payload, state.payload)
+                && now - state.lastAccess < COOKIE_REFRESH_MILLIS) {
+            return;
+        }
+        HttpServletResponse resp = (HttpServletResponse) req.getAttribute(RESPONSE_ATTR);
+        if (resp == null || resp.isCommitted()) {
+            LOG.warn("Cookie de session non posé (réponse absente ou déjà envoyée)");
+            return;
+        }
+        String value = payload != null ? codec.seal(payload, session.getCreationTime(), now) : null;
+        if (value == null) {
+            // Trop grosse (ou non sérialisable) pour un cookie : passage côté serveur
+            req.removeAttribute(COOKIE_STATE_ATTR);
+            materialize(req, session);
+            return;
+        }
+        resp.addCookie(createSessionCookie(req, value, -1));
+        state.value = value;
+        state.payload = payload;
+        state.lastAccess = now;
+    }
+    
+    /**
+     * Marque la session côté serveur comme utilisée par la requête : elle ne quitte pas le heap
+     * (OffHeapSessionStore) avant releaseSession
+     */
+    private static void entrerRequete(HttpServletRequest req, SessionMap session) {
+        if (req.getAttribute(ACTIVE_ATTR) == null) {
+            session.enterRequest();
+            req.setAttribute(ACTIVE_ATTR, session);
+        }
+    }
+    
+    /**
+     * Fin d'utilisation de la session par la requête (appelé par commitSession, et par FrontServlet
+     * en fin de requête pour les chemins qui ne la valident pas) ; sans effet au second appel
+     */
+    public static void releaseSession(HttpServletRequest req) {
+        SessionMap session = (SessionMap) req.getAttribute(ACTIVE_ATTR);
+        if (session != null) {
+            req.removeAttribute(ACTIVE_ATTR);
+            session.leaveRequest();
+        }
+    }
+    
+    /**
+     * Attribue un nouvel ID à la session de la requête et réémet le cookie ; l'ancien ID ne désigne
+     * plus rien. À appeler à chaque changement d'authentification (fait par commitSession), pour
+     * qu'un ID connu avant la connexion ne donne pas accès à la session authentifiée.
+     * @return le nouvel ID, null si la session n'est pas enregistrée côté serveur
+     */
+    public static String changeSessionId(HttpServletRequest req) {
+        SessionMap session = (SessionMap) req.getAttribute(SESSION_ATTR);
+        String previousId = (String) req.getAttribute(SESSION_ID_ATTR);
+        if (session == null || previousId == null || !previousId.equals(session.getId())) {
+            return null;
+        }
+        session.isEmpty(); // Contenu ramené sur le heap avant de quitter l'entrée hors heap de l'ancien ID
+        String sessionId = generateSessionId();
+        if (sessionStore.remove(previousId) != null) {
+            evictionPolicy.onRemove(previousId);
+        }
+        session.assignId(sessionId);
+        sessionStore.put(session);
+        req.setAttribute(SESSION_ID_ATTR, sessionId);
+        req.setAttribute(AUTHENTICATION_ATTR, authenticationVersion(session));
         
+        expiryWheel.schedule(sessionId, session.getLastAccess() + getTimeout(session));
+        evictForCapacity(evictionPolicy.onCreate(sessionId, session));
+        
+        HttpServletResponse resp = (HttpServletResponse) req.getAttribute(RESPONSE_ATTR);
+        if (resp != null && !resp.isCommitted()) {
+            resp.addCookie(createSessionCookie(req, sessionId, -1));
+        } else {
+            LOG.warn("Cookie de session non réémis après changement d'ID (réponse absente ou déjà envoyée)");
+        }
         return sessionId;
     }
     
     /**
-     * Génère un nouvel ID de session unique
+     * Version d'authentification de l'utilisateur de la session (0 sans utilisateur)
+     */
+    private static long authenticationVersion(SessionMap session) {
+        Object user = session.get("userSession");
+        return user instanceof UserSession ? ((UserSession) user).getAuthenticationVersion() : 0;
+    }
+    
+    /**
+     * Enregistre une session en attente lors de sa première écriture et pose le cookie
+     */
+    private static void materialize(HttpServletRequest req, SessionMap session) {
+        String sessionId = generateSessionId();
+        session.assignId(sessionId);
+        sessionStore.put(session);
+        metrics.recordCreated();
+        req.setAttribute(SESSION_ID_ATTR, sessionId);
+        
+        expiryWheel.start();
+        expiryWheel.schedule(sessionId, session.getLastAccess() + getTimeout(session));
+        evictForCapacity(evictionPolicy.onCreate(sessionId, session));
+        
+        HttpServletResponse resp = (HttpServletResponse) req.getAttribute(RESPONSE_ATTR);
+        if (resp != null && !resp.isCommitted()) {
+            resp.addCookie(createSessionCookie(req, sessionId, -1));
+        } else {
+            LOG.warn("Cookie de session non posé (réponse absente ou déjà envoyée)");
+        }
+    }
+    
+    private static String readSessionCookie(HttpServletRequest req) {
+        Cookie[] cookies = req.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        String name = cookieName;
+        for (Cookie cookie : cookies) {
+            if (name.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+    
+    private static Cookie createSessionCookie(HttpServletRequest req, String value, int maxAge) {
+        Cookie cookie = new Cookie(cookieName, value);
+        String contextPath = req.getContextPath();
+        cookie.setPath(contextPath == null || contextPath.isEmpty() ? "/" : contextPath);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(req.isSecure());
+        cookie.setAttribute("SameSite", "Lax");
+        cookie.setMaxAge(maxAge);
+        return cookie;
+    }
+    
+    /**
+     * Vérifie le format d'un ID avant toute recherche (évite de hacher des valeurs arbitraires)
+     */
+    private static boolean isWellFormedId(String sessionId) {
+        if (sessionId == null || sessionId.length() != SESSION_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < SESSION_ID_LENGTH; i++) {
+            char c = sessionId.charAt(i);
+            boolean valid = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') ||
+                            (c >= '0' && c <= '9') || c == '-' || c == '_';
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Génère un nouvel ID de session : 256 bits issus de SecureRandom, encodés en Base64 URL
      */
     private static String generateSessionId() {
-        return "SESSION_" + System.currentTimeMillis() + "_" + 
-               Integer.toHexString((int) (Math.random() * 0xFFFF));
+        byte[] bytes = new byte[SESSION_ID_BYTES];
+        secureRandom.nextBytes(bytes);
+        return idEncoder.encodeToString(bytes);
     }
     
     /**
@@ -102,25 +575,127 @@ public class SessionManager {
      */
     public static void invalidateSession(HttpServletRequest req) {
         String sessionId = (String) req.getAttribute(SESSION_ID_ATTR);
+        req.removeAttribute(SESSION_ATTR);
         if (sessionId != null) {
-            sessionStore.remove(sessionId);
-            sessionTimestamps.remove(sessionId);
+            if (sessionStore.remove(sessionId) != null) {
+                evictionPolicy.onRemove(sessionId);
+                metrics.recordInvalidated();
+            }
             req.removeAttribute(SESSION_ID_ATTR);
+            
+            // Expirer le cookie côté client
+            HttpServletResponse resp = (HttpServletResponse) req.getAttribute(RESPONSE_ATTR);
+            if (resp != null && !resp.isCommitted()) {
+                resp.addCookie(createSessionCookie(req, "", 0));
+            }
+        }
+        
+        CookieState state = (CookieState) req.getAttribute(COOKIE_STATE_ATTR);
+        if (state != null) {
+            req.removeAttribute(COOKIE_STATE_ATTR);
+            HttpServletResponse resp = (HttpServletResponse) req.getAttribute(RESPONSE_ATTR);
+            if (state.value != null && resp != null && !resp.isCommitted()) {
+                resp.addCookie(createSessionCookie(req, "", 0));
+            }
+            metrics.recordInvalidated();
         }
     }
     
     /**
-     * Nettoie les sessions expirées
+     * Nettoie immédiatement toutes les sessions expirées (parcours complet)
+     * L'expiration courante est assurée en arrière-plan par la roue temporelle.
      */
     public static void cleanupExpiredSessions() {
         long currentTime = System.currentTimeMillis();
-        sessionTimestamps.entrySet().removeIf(entry -> {
-            if (currentTime - entry.getValue() > DEFAULT_TIMEOUT) {
-                sessionStore.remove(entry.getKey());
-                return true;
+        for (SessionMap candidate : sessionStore.sessions()) {
+            if (currentTime - candidate.getLastAccess() > getTimeout(candidate)) {
+                String sessionId = candidate.getId();
+                SessionMap session = sessionStore.remove(sessionId);
+                if (session != null) {
+                    evictionPolicy.onRemove(sessionId);
+                    metrics.recordExpired();
+                    notifyEviction(sessionId, session, SessionEvictionListener.Cause.EXPIRED);
+                }
             }
-            return false;
-        });
+        }
+    }
+    
+    /**
+     * Durée d'inactivité maximale d'une session : maxSessionTime du rôle le plus élevé
+     * de l'utilisateur, ou DEFAULT_TIMEOUT
+     * Pour une session déplacée hors du heap, le timeout mémorisé évite de la recharger.
+     */
+    public static long getTimeout(Map<String, Object> session) {
+        if (session instanceof SessionMap && ((SessionMap) session).isCold()) {
+            long retained = ((SessionMap) session).getRetainedTimeout();
+            if (retained >= 0) {
+                return retained;
+            }
+        }
+        Object userObj = session.get("userSession");
+        UserSession user = userObj instanceof UserSession ? (UserSession) userObj : null;
+        Object maxTimeObj = RoleManager.getHighestRoleDefinition(user).getVariable("maxSessionTime");
+        return maxTimeObj instanceof Long ? (Long) maxTimeObj : DEFAULT_TIMEOUT;
+    }
+    
+    /**
+     * Retire les sessions désignées par la politique d'éviction
+     */
+    private static void evictForCapacity(List<String> sessionIds) {
+        for (String sessionId : sessionIds) {
+            SessionMap session = sessionStore.remove(sessionId);
+            if (session != null) {
+                metrics.recordEvicted();
+                notifyEviction(sessionId, session, SessionEvictionListener.Cause.CAPACITY);
+            }
+        }
+    }
+    
+    private static void notifyEviction(String sessionId, SessionMap session, SessionEvictionListener.Cause cause) {
+        for (SessionEvictionListener listener : evictionListeners) {
+            try {
+                listener.onEviction(sessionId, session, cause);
+            } catch (RuntimeException e) {
+                LOG.warn("Erreur dans un observateur d'éviction: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Compteurs de cycle de vie des sessions
+     */
+    public static SessionMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Jauges et compteurs du stockage de sessions (taille, mémoire estimée, taux de succès, évictions)
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = metrics.snapshot(sessionStore.size(), evictionPolicy.getEstimatedBytes());
+        statistics.put("maxSessions", evictionPolicy.getMaxSessions());
+        statistics.put("maxBytes", evictionPolicy.getMaxBytes());
+        statistics.putAll(sessionStore.getStatistics());
+        SignedCookieCodec codec = cookieCodec;
+        if (codec != null) {
+            statistics.putAll(codec.getStatistics());
+        }
+        return statistics;
+    }
+    
+    /**
+     * Arrête le thread d'expiration (arrêt de l'application)
+     */
+    public static void shutdown() {
+        expiryWheel.stop();
+        sessionStore.close();
+    }
+    
+    /**
+     * Nombre de sessions enregistrées côté serveur
+     */
+    public static int getSessionCount() {
+        return sessionStore.size();
     }
     
     /**
@@ -158,15 +733,17 @@ public class SessionManager {
     }
     
     /**
-     * Retourne l'ID de session actuel
+     * Retourne l'ID de session actuel, ou null si aucune session n'est encore enregistrée
      */
     public static String getSessionId(HttpServletRequest req) {
-        return getOrCreateSessionId(req);
+        resolveSession(req, false);
+        return (String) req.getAttribute(SESSION_ID_ATTR);
     }
     
     /**
      * Copie toutes les données de la session dans les attributs de requête
      * pour les rendre disponibles dans la vue JSP
+     * Le rendu du framework n'en a plus besoin : ViewRequestWrapper lit la session à la demande.
      */
     public static void copyToRequestAttributes(HttpServletRequest req) {
         Map<String, Object> session = getSession(req, "default", false);
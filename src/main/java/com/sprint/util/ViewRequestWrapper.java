@@ -0,0 +1,111 @@
+package com.sprint.util;
+
+import com.sprint.model.UserSession;
+import com.sprint.security.RoleManager;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vue des attributs de requête pour le rendu JSP, sans copie
+ *
+ * getAttribute cherche dans les données du ModelView, puis dans la session, puis dans la requête :
+ * la session n'est résolue qu'au premier attribut absent du modèle, et aucune entrée n'est recopiée.
+ * Les variables de rôle dynamiques (lastActivity, sessionAge), qui ne sont pas stockées en session,
+ * sont calculées à la lecture depuis le UserSession.
+ * Un attribut posé ou retiré pendant le rendu (setAttribute, c:set scope="request") masque
+ * le modèle et la session pour ce nom.
+ */
+public class ViewRequestWrapper extends HttpServletRequestWrapper {
+
+    private final Map<String, Object> model;
+    private Map<String, Object> session;
+    private boolean sessionResolved;
+    private Set<String> written; // Noms posés ou retirés pendant le rendu
+
+    /**
+     * @param request requête d'origine
+     * @param model données du ModelView (peut être null)
+     */
+    public ViewRequestWrapper(HttpServletRequest request, Map<String, Object> model) {
+        super(request);
+        this.model = model != null ? model : Collections.emptyMap();
+    }
+
+    private Map<String, Object> session() {
+        if (!sessionResolved) {
+            sessionResolved = true;
+            Map<String, Object> resolved = SessionManager.getSession((HttpServletRequest) getRequest(), "default", false);
+            session = resolved != null ? resolved : Collections.emptyMap();
+        }
+        return session;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        if (written == null || !written.contains(name)) {
+            Object value = model.get(name);
+            if (value != null) {
+                return value;
+            }
+            value = session().get(name);
+            if (value != null) {
+                return value;
+            }
+            if (RoleManager.isDynamicVariable(name)) {
+                value = RoleManager.getDynamicVariable(UserSession.fromSessionMap(session()), name);
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        return super.getAttribute(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        Set<String> names = new LinkedHashSet<>(Collections.list(super.getAttributeNames()));
+        for (Map.Entry<String, Object> entry : model.entrySet()) {
+            if (entry.getValue() != null) {
+                names.add(entry.getKey());
+            }
+        }
+        for (Map.Entry<String, Object> entry : session().entrySet()) {
+            if (entry.getValue() != null) {
+                names.add(entry.getKey());
+            }
+        }
+        if (written != null) {
+            for (String name : written) {
+                if (super.getAttribute(name) == null) {
+                    names.remove(name);
+                }
+            }
+        }
+        return Collections.enumeration(names);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        marquer(name);
+        super.setAttribute(name, value);
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        marquer(name);
+        super.removeAttribute(name);
+    }
+
+    private void marquer(String name) {
+        if (written == null) {
+            written = new HashSet<>();
+        }
+        written.add(name);
+    }
+}
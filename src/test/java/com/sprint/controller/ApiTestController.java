@@ -0,0 +1,45 @@
+package com.sprint.controller;
+
+import com.sprint.annotation.Get;
+import com.sprint.annotation.Post;
+import com.sprint.annotation.RequestParam;
+import com.sprint.annotation.RestController;
+import com.sprint.annotation.Test;
+import com.sprint.model.JsonResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Contrôleur REST des tests (com.sprint.controller est parcouru depuis target/test-classes)
+ */
+@RestController
+public class ApiTestController {
+
+    @Get("/api/ping")
+    public JsonResponse ping() {
+        return JsonResponse.success("pong");
+    }
+
+    @Get("/api/echo")
+    public JsonResponse echo(@RequestParam("name") String name) {
+        return JsonResponse.success("Bonjour " + name);
+    }
+
+    @Post("/api/echo")
+    public JsonResponse echoPost(@RequestParam("name") String name) {
+        return JsonResponse.success("POST " + name);
+    }
+
+    @Get("/api/fail")
+    public JsonResponse fail() {
+        throw new IllegalStateException("échec volontaire");
+    }
+
+    @Test(value = "/api/users/{id}", method = "GET") // Paramètres de chemin lus depuis @Test
+    public Map<String, Object> user(@RequestParam("id") long id) {
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("id", id);
+        user.put("name", "Rakoto");
+        return user;
+    }
+}
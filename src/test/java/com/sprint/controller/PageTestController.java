@@ -0,0 +1,23 @@
+package com.sprint.controller;
+
+import com.sprint.annotation.Get;
+import com.sprint.annotation.RequireRole;
+import com.sprint.model.ModelView;
+import com.sprint.security.Role;
+
+/**
+ * Contrôleur de vues des tests : forward JSP enregistré par MockRequestDispatcher
+ */
+public class PageTestController {
+
+    @Get("/dashboard")
+    public ModelView dashboard() {
+        return new ModelView("dashboard").addObject("title", "Tableau de bord");
+    }
+
+    @Get("/admin")
+    @RequireRole(Role.ADMIN)
+    public ModelView admin() {
+        return new ModelView("admin");
+    }
+}
@@ -0,0 +1,44 @@
+package com.sprint.controller;
+
+import com.sprint.annotation.Get;
+import com.sprint.annotation.Post;
+import com.sprint.annotation.RestController;
+import com.sprint.model.JsonResponse;
+import com.sprint.model.UserSession;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes de test de la session paresseuse : lecture seule (aucune session créée), écriture,
+ * connexion et déconnexion
+ */
+@RestController
+public class SessionTestController {
+
+    @Get("/session/read")
+    public JsonResponse read(Map<String, Object> session) {
+        return JsonResponse.success(session.get("visits"));
+    }
+
+    @Post("/session/visit")
+    public JsonResponse visit(Map<String, Object> session) {
+        return JsonResponse.success(session.merge("visits", 1, (a, b) -> (Integer) a + (Integer) b));
+    }
+
+    @Post("/session/login")
+    public JsonResponse login(Map<String, Object> session) {
+        UserSession user = new UserSession("u42", "rakoto", "rakoto@example.mg");
+        user.authenticate(List.of("USER"));
+        user.saveToSessionMap(session);
+        return JsonResponse.success(user.getUserId());
+    }
+
+    @Post("/session/logout")
+    public JsonResponse logout(Map<String, Object> session) {
+        UserSession user = UserSession.fromSessionMap(session);
+        if (user != null) {
+            user.logout();
+        }
+        return JsonResponse.success();
+    }
+}
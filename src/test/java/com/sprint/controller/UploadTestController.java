@@ -0,0 +1,29 @@
+package com.sprint.controller;
+
+import com.sprint.annotation.Post;
+import com.sprint.annotation.RequestParam;
+import com.sprint.annotation.RequireRole;
+import com.sprint.annotation.RestController;
+import com.sprint.model.JsonResponse;
+import com.sprint.model.MultipartFile;
+import com.sprint.security.Role;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Routes cibles des uploads reprenables des tests
+ */
+@RestController
+public class UploadTestController {
+
+    @Post("/files")
+    public JsonResponse upload(@RequestParam("file") MultipartFile file) throws IOException {
+        return JsonResponse.success(file.getOriginalFilename() + ":" + Files.readString(file.getFile()));
+    }
+
+    @Post("/admin/files")
+    @RequireRole(Role.ADMIN)
+    public JsonResponse uploadAdmin(@RequestParam("file") MultipartFile file) {
+        return JsonResponse.success(file.getOriginalFilename());
+    }
+}
@@ -0,0 +1,73 @@
+package com.sprint.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Anneau partagé par le journal et l'audit : ordre, anneau plein, réveil du consommateur endormi
+ */
+class RingBufferTest {
+
+    private static final class Entree {
+        int valeur;
+    }
+
+    private static void publier(RingBuffer<Entree> ring, int valeur) {
+        long position = ring.claim();
+        ring.get(position).valeur = valeur;
+        ring.publish(position);
+    }
+
+    @Test
+    void entreesRetireesDansLOrdre() {
+        RingBuffer<Entree> ring = new RingBuffer<>(16, Entree::new);
+        for (int i = 0; i < 40; i++) { // Plus d'un tour d'anneau
+            publier(ring, i);
+            List<Integer> lues = new ArrayList<>();
+            assertEquals(1, ring.drain(8, entree -> lues.add(entree.valeur)));
+            assertEquals(List.of(i), lues);
+        }
+        assertTrue(ring.isEmpty());
+        assertEquals(0, ring.pending());
+    }
+
+    @Test
+    void anneauPleinRefuseSansBloquer() {
+        RingBuffer<Entree> ring = new RingBuffer<>(10, Entree::new);
+        assertEquals(16, ring.capacity());
+        for (int i = 0; i < 16; i++) {
+            publier(ring, i);
+        }
+
+        assertEquals(-1, ring.claim());
+        assertEquals(16, ring.pending());
+
+        assertEquals(4, ring.drain(4, entree -> { }));
+        assertTrue(ring.claim() >= 0, "cases rendues aux producteurs");
+    }
+
+    @Test
+    void publicationReveilleLeConsommateur() throws Exception {
+        RingBuffer<Entree> ring = new RingBuffer<>(16, Entree::new);
+        CountDownLatch recu = new CountDownLatch(1);
+        Thread consommateur = new Thread(() -> {
+            while (ring.drain(16, entree -> recu.countDown()) == 0) {
+                ring.awaitData(TimeUnit.SECONDS.toNanos(30));
+            }
+        });
+        consommateur.setDaemon(true);
+        consommateur.start();
+        Thread.sleep(100); // Consommateur endormi sur un anneau vide
+
+        publier(ring, 1);
+
+        assertTrue(recu.await(5, TimeUnit.SECONDS), "réveillé par la publication, pas par le délai");
+        consommateur.join(5000);
+    }
+}
@@ -0,0 +1,131 @@
+package com.sprint.mock;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contexte asynchrone en mémoire : start(Runnable) s'exécute dans le thread appelant,
+ * dispatch() est seulement enregistré, complete() notifie les écouteurs
+ */
+public class MockAsyncContext implements AsyncContext {
+
+    private final ServletRequest request;
+    private final ServletResponse response;
+    private final boolean originalRequestAndResponse;
+    private final List<AsyncListener> listeners = new ArrayList<>();
+    private long timeout = 30000;
+    private String dispatchedPath;
+    private boolean completed;
+
+    public MockAsyncContext(ServletRequest request, ServletResponse response, boolean originalRequestAndResponse) {
+        this.request = request;
+        this.response = response;
+        this.originalRequestAndResponse = originalRequestAndResponse;
+    }
+
+    /**
+     * Chemin du dernier dispatch(), null si aucun
+     */
+    public String getDispatchedPath() {
+        return dispatchedPath;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    @Override
+    public ServletRequest getRequest() {
+        return request;
+    }
+
+    @Override
+    public ServletResponse getResponse() {
+        return response;
+    }
+
+    @Override
+    public boolean hasOriginalRequestAndResponse() {
+        return originalRequestAndResponse;
+    }
+
+    @Override
+    public void dispatch() {
+        dispatch(null);
+    }
+
+    @Override
+    public void dispatch(String path) {
+        dispatch(null, path);
+    }
+
+    @Override
+    public void dispatch(ServletContext context, String path) {
+        verifierActif("dispatch");
+        this.dispatchedPath = path;
+    }
+
+    @Override
+    public void complete() {
+        if (completed) {
+            return;
+        }
+        completed = true;
+        AsyncEvent event = new AsyncEvent(this, request, response);
+        for (AsyncListener listener : new ArrayList<>(listeners)) {
+            try {
+                listener.onComplete(event);
+            } catch (IOException e) {
+                throw new IllegalStateException("Écouteur asynchrone en échec", e);
+            }
+        }
+    }
+
+    @Override
+    public void start(Runnable run) {
+        verifierActif("start");
+        run.run();
+    }
+
+    @Override
+    public void addListener(AsyncListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void addListener(AsyncListener listener, ServletRequest servletRequest, ServletResponse servletResponse) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public <T extends AsyncListener> T createListener(Class<T> clazz) {
+        try {
+            return clazz.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Écouteur non instanciable : " + clazz.getName(), e);
+        }
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public long getTimeout() {
+        return timeout;
+    }
+
+    private void verifierActif(String operation) {
+        if (completed) {
+            throw new IllegalStateException(operation + " impossible : contexte asynchrone terminé");
+        }
+    }
+}
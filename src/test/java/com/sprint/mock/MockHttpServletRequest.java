@@ -0,0 +1,784 @@
+package com.sprint.mock;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletConnection;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpUpgradeHandler;
+import jakarta.servlet.http.Part;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Requête HTTP en mémoire : méthode, URI, paramètres, en-têtes, cookies, attributs, corps, parties multipart
+ *
+ * Les setters renvoient la requête pour chaîner la construction. recycle() oublie l'état posé pendant
+ * le traitement (attributs, contexte asynchrone, lecture du corps) mais garde la requête construite :
+ * une même instance peut rejouer la même requête des millions de fois sans allocation de la doublure.
+ * Les sessions du conteneur ne sont pas fournies (le framework utilise SessionManager) :
+ * getSession(true) lève UnsupportedOperationException.
+ */
+public class MockHttpServletRequest implements HttpServletRequest {
+
+    private static final Cookie[] NO_COOKIES = new Cookie[0];
+
+    private final ServletContext servletContext;
+    private final Map<String, String[]> parameters = new LinkedHashMap<>();
+    private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final List<Cookie> cookies = new ArrayList<>();
+    private final Map<String, Part> parts = new LinkedHashMap<>();
+    private Cookie[] cookieArray;
+
+    private String method = "GET";
+    private String requestURI = "/";
+    private String contextPath = "";
+    private String servletPath = "";
+    private String pathInfo;
+    private String queryString;
+    private String scheme = "http";
+    private String serverName = "localhost";
+    private int serverPort = 80;
+    private String protocol = "HTTP/1.1";
+    private String remoteAddr = "127.0.0.1";
+    private int remotePort = 49152;
+    private boolean secure;
+    private Locale locale = Locale.getDefault();
+    private Principal userPrincipal;
+
+    private String contentType;
+    private String characterEncoding;
+    private byte[] content;
+    private int contentOffset;
+    private boolean streamUsed;
+    private boolean readerUsed;
+
+    private MockAsyncContext asyncContext;
+    private boolean asyncSupported = true;
+    private DispatcherType dispatcherType = DispatcherType.REQUEST;
+
+    private final ServletInputStream inputStream = new ServletInputStream() {
+        @Override
+        public int read() {
+            return content != null && contentOffset < content.length ? content[contentOffset++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (content == null || contentOffset >= content.length) {
+                return -1;
+            }
+            int count = Math.min(length, content.length - contentOffset);
+            System.arraycopy(content, contentOffset, buffer, offset, count);
+            contentOffset += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return content != null ? content.length - contentOffset : 0;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return content == null || contentOffset >= content.length;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                readListener.onDataAvailable();
+                readListener.onAllDataRead();
+            } catch (IOException e) {
+                readListener.onError(e);
+            }
+        }
+    };
+
+    public MockHttpServletRequest() {
+        this(new MockServletContext());
+    }
+
+    public MockHttpServletRequest(ServletContext servletContext) {
+        this.servletContext = servletContext;
+        this.contextPath = servletContext.getContextPath();
+    }
+
+    public MockHttpServletRequest(String method, String requestURI) {
+        this();
+        setMethod(method);
+        setRequestURI(requestURI);
+    }
+
+    // ===== Construction =====
+
+    public MockHttpServletRequest setMethod(String method) {
+        this.method = method;
+        return this;
+    }
+
+    /**
+     * URI complète, contexte compris ; une éventuelle chaîne de requête ("?a=1&b=2") alimente les paramètres
+     */
+    public MockHttpServletRequest setRequestURI(String requestURI) {
+        int query = requestURI.indexOf('?');
+        if (query >= 0) {
+            setQueryString(requestURI.substring(query + 1));
+            requestURI = requestURI.substring(0, query);
+        }
+        this.requestURI = requestURI;
+        return this;
+    }
+
+    public MockHttpServletRequest setContextPath(String contextPath) {
+        this.contextPath = contextPath;
+        return this;
+    }
+
+    public MockHttpServletRequest setServletPath(String servletPath) {
+        this.servletPath = servletPath;
+        return this;
+    }
+
+    public MockHttpServletRequest setPathInfo(String pathInfo) {
+        this.pathInfo = pathInfo;
+        return this;
+    }
+
+    /**
+     * Chaîne de requête, décodée et ajoutée aux paramètres
+     */
+    public MockHttpServletRequest setQueryString(String queryString) {
+        this.queryString = queryString;
+        if (queryString != null && !queryString.isEmpty()) {
+            for (String pair : queryString.split("&")) {
+                if (pair.isEmpty()) {
+                    continue;
+                }
+                int equals = pair.indexOf('=');
+                String name = equals >= 0 ? pair.substring(0, equals) : pair;
+                String value = equals >= 0 ? pair.substring(equals + 1) : "";
+                addParameter(decoder(name), decoder(value));
+            }
+        }
+        return this;
+    }
+
+    public MockHttpServletRequest setParameter(String name, String... values) {
+        parameters.put(name, values);
+        return this;
+    }
+
+    public MockHttpServletRequest addParameter(String name, String value) {
+        String[] existing = parameters.get(name);
+        if (existing == null) {
+            parameters.put(name, new String[] { value });
+        } else {
+            String[] values = new String[existing.length + 1];
+            System.arraycopy(existing, 0, values, 0, existing.length);
+            values[existing.length] = value;
+            parameters.put(name, values);
+        }
+        return this;
+    }
+
+    public MockHttpServletRequest removeParameter(String name) {
+        parameters.remove(name);
+        return this;
+    }
+
+    /**
+     * Remplace les valeurs de l'en-tête ; Content-Type alimente aussi getContentType()
+     */
+    public MockHttpServletRequest setHeader(String name, String value) {
+        List<String> values = new ArrayList<>(1);
+        values.add(value);
+        headers.put(name, values);
+        enteteSpecial(name, value);
+        return this;
+    }
+
+    public MockHttpServletRequest addHeader(String name, String value) {
+        headers.computeIfAbsent(name, key -> new ArrayList<>(1)).add(value);
+        enteteSpecial(name, value);
+        return this;
+    }
+
+    public MockHttpServletRequest removeHeader(String name) {
+        headers.remove(name);
+        return this;
+    }
+
+    public MockHttpServletRequest addCookie(Cookie cookie) {
+        cookies.add(cookie);
+        cookieArray = null;
+        return this;
+    }
+
+    public MockHttpServletRequest addCookie(String name, String value) {
+        return addCookie(new Cookie(name, value));
+    }
+
+    public MockHttpServletRequest clearCookies() {
+        cookies.clear();
+        cookieArray = null;
+        return this;
+    }
+
+    /**
+     * Corps brut de la requête, relu depuis le début à chaque recycle()
+     */
+    public MockHttpServletRequest setContent(byte[] content) {
+        this.content = content;
+        this.contentOffset = 0;
+        return this;
+    }
+
+    public MockHttpServletRequest setContent(String content) {
+        return setContent(content.getBytes(charset()));
+    }
+
+    public MockHttpServletRequest setContentType(String contentType) {
+        this.contentType = contentType;
+        if (contentType != null) {
+            int index = contentType.toLowerCase().indexOf("charset=");
+            if (index >= 0) {
+                this.characterEncoding = contentType.substring(index + 8).trim();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Ajoute une partie et bascule la requête en POST multipart/form-data
+     */
+    public MockHttpServletRequest addPart(Part part) {
+        parts.put(part.getName(), part);
+        if (contentType == null || !contentType.startsWith("multipart/")) {
+            setContentType("multipart/form-data; boundary=----SprintMockBoundary");
+            this.method = "POST";
+        }
+        return this;
+    }
+
+    public MockHttpServletRequest setRemoteAddr(String remoteAddr) {
+        this.remoteAddr = remoteAddr;
+        return this;
+    }
+
+    public MockHttpServletRequest setRemotePort(int remotePort) {
+        this.remotePort = remotePort;
+        return this;
+    }
+
+    public MockHttpServletRequest setSecure(boolean secure) {
+        this.secure = secure;
+        this.scheme = secure ? "https" : "http";
+        this.serverPort = secure ? 443 : 80;
+        return this;
+    }
+
+    public MockHttpServletRequest setServerName(String serverName) {
+        this.serverName = serverName;
+        return this;
+    }
+
+    public MockHttpServletRequest setServerPort(int serverPort) {
+        this.serverPort = serverPort;
+        return this;
+    }
+
+    public MockHttpServletRequest setProtocol(String protocol) {
+        this.protocol = protocol;
+        return this;
+    }
+
+    public MockHttpServletRequest setLocale(Locale locale) {
+        this.locale = locale;
+        return this;
+    }
+
+    public MockHttpServletRequest setUserPrincipal(Principal userPrincipal) {
+        this.userPrincipal = userPrincipal;
+        return this;
+    }
+
+    public MockHttpServletRequest setAsyncSupported(boolean asyncSupported) {
+        this.asyncSupported = asyncSupported;
+        return this;
+    }
+
+    public MockHttpServletRequest setDispatcherType(DispatcherType dispatcherType) {
+        this.dispatcherType = dispatcherType;
+        return this;
+    }
+
+    /**
+     * Oublie l'état posé pendant le traitement (attributs, asynchrone, lecture du corps) ;
+     * méthode, URI, paramètres, en-têtes, cookies, corps et parties sont conservés
+     */
+    public MockHttpServletRequest recycle() {
+        if (!attributes.isEmpty()) {
+            attributes.clear();
+        }
+        asyncContext = null;
+        contentOffset = 0;
+        streamUsed = false;
+        readerUsed = false;
+        dispatcherType = DispatcherType.REQUEST;
+        return this;
+    }
+
+    /**
+     * Contexte asynchrone démarré par le traitement, null si aucun
+     */
+    public MockAsyncContext getMockAsyncContext() {
+        return asyncContext;
+    }
+
+    // ===== HttpServletRequest =====
+
+    @Override
+    public String getAuthType() {
+        return null;
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        if (cookies.isEmpty()) {
+            return null; // Comme un conteneur : null sans cookie
+        }
+        Cookie[] array = cookieArray;
+        if (array == null) {
+            array = cookies.toArray(NO_COOKIES);
+            cookieArray = array;
+        }
+        return array;
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        String value = getHeader(name);
+        return value != null ? Long.parseLong(value) : -1;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return Collections.enumeration(values != null ? values : Collections.emptyList());
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return value != null ? Integer.parseInt(value) : -1;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return pathInfo;
+    }
+
+    @Override
+    public String getPathTranslated() {
+        return null;
+    }
+
+    @Override
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public String getRemoteUser() {
+        return userPrincipal != null ? userPrincipal.getName() : null;
+    }
+
+    @Override
+    public boolean isUserInRole(String role) {
+        return false;
+    }
+
+    @Override
+    public Principal getUserPrincipal() {
+        return userPrincipal;
+    }
+
+    @Override
+    public String getRequestedSessionId() {
+        return null;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestURI;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        StringBuffer url = new StringBuffer(scheme).append("://").append(serverName);
+        if (!(secure && serverPort == 443) && !(!secure && serverPort == 80)) {
+            url.append(':').append(serverPort);
+        }
+        return url.append(requestURI);
+    }
+
+    @Override
+    public String getServletPath() {
+        return servletPath;
+    }
+
+    @Override
+    public HttpSession getSession(boolean create) {
+        if (create) {
+            throw new UnsupportedOperationException("Sessions du conteneur non fournies (voir SessionManager)");
+        }
+        return null;
+    }
+
+    @Override
+    public HttpSession getSession() {
+        return getSession(true);
+    }
+
+    @Override
+    public String changeSessionId() {
+        throw new IllegalStateException("Aucune session du conteneur");
+    }
+
+    @Override
+    public boolean isRequestedSessionIdValid() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromCookie() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromURL() {
+        return false;
+    }
+
+    @Override
+    public boolean authenticate(HttpServletResponse response) {
+        return userPrincipal != null;
+    }
+
+    @Override
+    public void login(String username, String password) {
+        throw new UnsupportedOperationException("Authentification du conteneur non fournie");
+    }
+
+    @Override
+    public void logout() {
+        userPrincipal = null;
+    }
+
+    @Override
+    public Collection<Part> getParts() {
+        return Collections.unmodifiableCollection(parts.values());
+    }
+
+    @Override
+    public Part getPart(String name) {
+        return parts.get(name);
+    }
+
+    @Override
+    public <T extends HttpUpgradeHandler> T upgrade(Class<T> handlerClass) {
+        throw new UnsupportedOperationException("Upgrade HTTP non fourni");
+    }
+
+    // ===== ServletRequest =====
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String env) throws UnsupportedEncodingException {
+        if (!Charset.isSupported(env)) {
+            throw new UnsupportedEncodingException(env);
+        }
+        this.characterEncoding = env;
+    }
+
+    @Override
+    public int getContentLength() {
+        return content != null ? content.length : -1;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return getContentLength();
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        if (readerUsed) {
+            throw new IllegalStateException("getReader() a déjà été appelé pour cette requête");
+        }
+        streamUsed = true;
+        return inputStream;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return values != null && values.length > 0 ? values[0] : null;
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    @Override
+    public String getProtocol() {
+        return protocol;
+    }
+
+    @Override
+    public String getScheme() {
+        return scheme;
+    }
+
+    @Override
+    public String getServerName() {
+        return serverName;
+    }
+
+    @Override
+    public int getServerPort() {
+        return serverPort;
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        if (streamUsed) {
+            throw new IllegalStateException("getInputStream() a déjà été appelé pour cette requête");
+        }
+        readerUsed = true;
+        return new BufferedReader(new InputStreamReader(inputStream, charset()));
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return remoteAddr;
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return remoteAddr;
+    }
+
+    @Override
+    public void setAttribute(String name, Object o) {
+        if (o == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, o);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(Collections.singletonList(locale));
+    }
+
+    @Override
+    public boolean isSecure() {
+        return secure;
+    }
+
+    @Override
+    public RequestDispatcher getRequestDispatcher(String path) {
+        return servletContext.getRequestDispatcher(path);
+    }
+
+    @Override
+    public int getRemotePort() {
+        return remotePort;
+    }
+
+    @Override
+    public String getLocalName() {
+        return serverName;
+    }
+
+    @Override
+    public String getLocalAddr() {
+        return "127.0.0.1";
+    }
+
+    @Override
+    public int getLocalPort() {
+        return serverPort;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return servletContext;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        return startAsync(this, null, true);
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+        return startAsync(servletRequest, servletResponse, false);
+    }
+
+    private AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse, boolean original) {
+        if (!asyncSupported) {
+            throw new IllegalStateException("Traitement asynchrone non activé pour cette requête");
+        }
+        asyncContext = new MockAsyncContext(servletRequest, servletResponse, original);
+        return asyncContext;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return asyncContext != null && !asyncContext.isCompleted();
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return asyncSupported;
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        if (asyncContext == null) {
+            throw new IllegalStateException("Traitement asynchrone non démarré");
+        }
+        return asyncContext;
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return dispatcherType;
+    }
+
+    @Override
+    public String getRequestId() {
+        return Integer.toHexString(System.identityHashCode(this));
+    }
+
+    @Override
+    public String getProtocolRequestId() {
+        return "";
+    }
+
+    @Override
+    public ServletConnection getServletConnection() {
+        return null;
+    }
+
+    // ===== Interne =====
+
+    private void enteteSpecial(String name, String value) {
+        if ("Content-Type".equalsIgnoreCase(name)) {
+            setContentType(value);
+        }
+    }
+
+    private Charset charset() {
+        return characterEncoding != null ? Charset.forName(characterEncoding) : StandardCharsets.UTF_8;
+    }
+
+    private static String decoder(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,551 @@
+package com.sprint.mock;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Réponse HTTP en mémoire : statut, en-têtes, cookies, corps capturé, forward et include enregistrés
+ *
+ * Le corps s'écrit soit par getWriter() (tampon de caractères), soit par getOutputStream() (tampon
+ * d'octets), jamais les deux, comme dans un conteneur. Avec setDiscardContent(true), seul le nombre
+ * de caractères ou d'octets écrits est conservé : un benchmark peut enchaîner des millions de
+ * requêtes sans que la capture pèse sur la mesure. recycle() remet la réponse à neuf en gardant
+ * les tampons alloués.
+ */
+public class MockHttpServletResponse implements HttpServletResponse {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final List<Cookie> cookies = new ArrayList<>();
+    private final List<String> includedUrls = new ArrayList<>();
+
+    private final StringBuilder chars = new StringBuilder(256);
+    private byte[] bytes = new byte[256];
+    private int byteCount;
+    private long written;
+    private boolean discardContent;
+
+    private final Writer sink = new Writer() {
+        @Override
+        public void write(int c) {
+            written++;
+            if (!discardContent) {
+                chars.append((char) c);
+            }
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            written += length;
+            if (!discardContent) {
+                chars.append(buffer, offset, length);
+            }
+        }
+
+        @Override
+        public void write(String text, int offset, int length) {
+            written += length;
+            if (!discardContent) {
+                chars.append(text, offset, offset + length);
+            }
+        }
+
+        @Override
+        public void flush() {
+            committed = true;
+        }
+
+        @Override
+        public void close() {
+            committed = true;
+        }
+    };
+    // PrintWriter sans tampon propre ; close() ne le rend pas inutilisable, pour que recycle() le réutilise
+    private final PrintWriter writer = new PrintWriter(sink) {
+        @Override
+        public void close() {
+            committed = true;
+        }
+    };
+
+    private final ServletOutputStream outputStream = new ServletOutputStream() {
+        @Override
+        public void write(int b) {
+            written++;
+            if (!discardContent) {
+                assurerCapacite(1);
+                bytes[byteCount++] = (byte) b;
+            }
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            written += length;
+            if (!discardContent) {
+                assurerCapacite(length);
+                System.arraycopy(buffer, offset, bytes, byteCount, length);
+                byteCount += length;
+            }
+        }
+
+        @Override
+        public void flush() {
+            committed = true;
+        }
+
+        @Override
+        public void close() {
+            committed = true;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException e) {
+                writeListener.onError(e);
+            }
+        }
+    };
+
+    private int status = SC_OK;
+    private String errorMessage;
+    private String contentType;
+    private String characterEncoding = StandardCharsets.ISO_8859_1.name();
+    private boolean charsetSet;
+    private long contentLength = -1;
+    private Locale locale = Locale.getDefault();
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private boolean committed;
+    private boolean writerUsed;
+    private boolean streamUsed;
+    private String forwardedUrl;
+    private ServletRequest forwardRequest;
+
+    /**
+     * Ne garde que le nombre de caractères ou d'octets écrits (getContentAsString reste vide)
+     */
+    public void setDiscardContent(boolean discardContent) {
+        this.discardContent = discardContent;
+    }
+
+    /**
+     * Remet la réponse dans son état initial (tampons conservés), pour la réutiliser d'une requête à l'autre
+     */
+    public MockHttpServletResponse recycle() {
+        headers.clear();
+        cookies.clear();
+        includedUrls.clear();
+        chars.setLength(0);
+        byteCount = 0;
+        written = 0;
+        status = SC_OK;
+        errorMessage = null;
+        contentType = null;
+        characterEncoding = StandardCharsets.ISO_8859_1.name();
+        charsetSet = false;
+        contentLength = -1;
+        bufferSize = DEFAULT_BUFFER_SIZE;
+        committed = false;
+        writerUsed = false;
+        streamUsed = false;
+        forwardedUrl = null;
+        forwardRequest = null;
+        return this;
+    }
+
+    // ===== Lecture de la réponse capturée =====
+
+    /**
+     * Corps écrit, décodé avec l'encodage de la réponse s'il a été écrit en octets
+     */
+    public String getContentAsString() {
+        if (streamUsed) {
+            return new String(bytes, 0, byteCount, Charset.forName(characterEncoding));
+        }
+        return chars.toString();
+    }
+
+    /**
+     * Corps écrit en octets (le texte écrit par getWriter() est encodé avec l'encodage de la réponse)
+     */
+    public byte[] getContentAsByteArray() {
+        if (streamUsed) {
+            return Arrays.copyOf(bytes, byteCount);
+        }
+        return getContentAsString().getBytes(Charset.forName(characterEncoding));
+    }
+
+    /**
+     * Nombre de caractères (getWriter) ou d'octets (getOutputStream) écrits, même si le contenu est ignoré
+     */
+    public long getWrittenCount() {
+        return written;
+    }
+
+    public List<Cookie> getCookies() {
+        return Collections.unmodifiableList(cookies);
+    }
+
+    public Cookie getCookie(String name) {
+        for (Cookie cookie : cookies) {
+            if (cookie.getName().equals(name)) {
+                return cookie;
+            }
+        }
+        return null;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public String getRedirectedUrl() {
+        return status == SC_FOUND ? getHeader("Location") : null;
+    }
+
+    public String getForwardedUrl() {
+        return forwardedUrl;
+    }
+
+    /**
+     * Requête transmise au forward (attributs de vue posés par le contrôleur)
+     */
+    public ServletRequest getForwardRequest() {
+        return forwardRequest;
+    }
+
+    public List<String> getIncludedUrls() {
+        return Collections.unmodifiableList(includedUrls);
+    }
+
+    void setForward(String path, ServletRequest request) {
+        this.forwardedUrl = path;
+        this.forwardRequest = request;
+        this.committed = true;
+    }
+
+    void addInclude(String path) {
+        includedUrls.add(path);
+    }
+
+    // ===== HttpServletResponse =====
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        cookies.add(cookie);
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public String encodeURL(String url) {
+        return url;
+    }
+
+    @Override
+    public String encodeRedirectURL(String url) {
+        return url;
+    }
+
+    @Override
+    public void sendError(int sc, String msg) {
+        verifierNonEnvoyee("sendError");
+        resetBuffer();
+        this.status = sc;
+        this.errorMessage = msg;
+        this.committed = true;
+    }
+
+    @Override
+    public void sendError(int sc) {
+        sendError(sc, null);
+    }
+
+    @Override
+    public void sendRedirect(String location) {
+        verifierNonEnvoyee("sendRedirect");
+        resetBuffer();
+        setHeader("Location", location);
+        this.status = SC_FOUND;
+        this.committed = true;
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, String.valueOf(date));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        addHeader(name, String.valueOf(date));
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (committed || name == null) {
+            return;
+        }
+        if (value == null) {
+            headers.remove(name);
+            return;
+        }
+        if (enteteSpecial(name, value)) {
+            return;
+        }
+        List<String> values = headers.get(name);
+        if (values == null) {
+            values = new ArrayList<>(1);
+            headers.put(name, values);
+        } else {
+            values.clear();
+        }
+        values.add(value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (committed || name == null || value == null) {
+            return;
+        }
+        if (enteteSpecial(name, value)) {
+            return;
+        }
+        headers.computeIfAbsent(name, key -> new ArrayList<>(1)).add(value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        if (!committed) {
+            this.status = sc;
+        }
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        if ("Content-Type".equalsIgnoreCase(name)) {
+            return contentType;
+        }
+        List<String> values = headers.get(name);
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return values != null ? Collections.unmodifiableList(values) : Collections.emptyList();
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return Collections.unmodifiableSet(headers.keySet());
+    }
+
+    // ===== ServletResponse =====
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writerUsed) {
+            throw new IllegalStateException("getWriter() a déjà été appelé pour cette réponse");
+        }
+        streamUsed = true;
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (streamUsed) {
+            throw new IllegalStateException("getOutputStream() a déjà été appelé pour cette réponse");
+        }
+        writerUsed = true;
+        return writer;
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        if (charset == null || writerUsed || committed) {
+            return;
+        }
+        this.characterEncoding = charset;
+        this.charsetSet = true;
+        if (contentType != null) {
+            int separator = contentType.indexOf(';');
+            String type = separator >= 0 ? contentType.substring(0, separator).trim() : contentType;
+            this.contentType = type + ";charset=" + charset;
+        }
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (!committed) {
+            this.contentLength = len;
+        }
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public void setContentType(String type) {
+        if (committed) {
+            return;
+        }
+        if (type == null) {
+            this.contentType = null;
+            return;
+        }
+        this.contentType = type;
+        int index = type.toLowerCase().indexOf("charset=");
+        if (index >= 0 && !writerUsed) {
+            String charset = type.substring(index + 8).trim();
+            int end = charset.indexOf(';');
+            this.characterEncoding = end >= 0 ? charset.substring(0, end).trim() : charset;
+            this.charsetSet = true;
+        } else if (charsetSet) {
+            this.contentType = type + ";charset=" + characterEncoding;
+        }
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        if (written > 0 || committed) {
+            throw new IllegalStateException("Taille de tampon non modifiable après écriture");
+        }
+        this.bufferSize = size;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public void flushBuffer() {
+        writer.flush();
+        committed = true;
+    }
+
+    @Override
+    public void resetBuffer() {
+        verifierNonEnvoyee("resetBuffer");
+        chars.setLength(0);
+        byteCount = 0;
+        written = 0;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        headers.clear();
+        cookies.clear();
+        status = SC_OK;
+        contentType = null;
+        contentLength = -1;
+    }
+
+    @Override
+    public void setLocale(Locale loc) {
+        if (!committed && loc != null) {
+            this.locale = loc;
+        }
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    // ===== Interne =====
+
+    /**
+     * Content-Type et Content-Length posés comme en-têtes passent par leurs setters dédiés
+     */
+    private boolean enteteSpecial(String name, String value) {
+        if ("Content-Type".equalsIgnoreCase(name)) {
+            setContentType(value);
+            return true;
+        }
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            try {
+                setContentLengthLong(Long.parseLong(value.trim()));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void verifierNonEnvoyee(String operation) {
+        if (committed) {
+            throw new IllegalStateException(operation + " impossible : la réponse est déjà envoyée");
+        }
+    }
+
+    private void assurerCapacite(int extra) {
+        if (byteCount + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, byteCount + extra));
+        }
+    }
+}
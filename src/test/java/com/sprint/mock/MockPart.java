@@ -0,0 +1,124 @@
+package com.sprint.mock;
+
+import jakarta.servlet.http.Part;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Partie d'une requête multipart en mémoire : champ texte (sans nom de fichier) ou fichier
+ */
+public class MockPart implements Part {
+
+    private final String name;
+    private final String submittedFileName;
+    private final String contentType;
+    private final byte[] content;
+    private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private boolean deleted;
+
+    /**
+     * @param submittedFileName nom du fichier envoyé, null pour un champ texte
+     */
+    public MockPart(String name, String submittedFileName, String contentType, byte[] content) {
+        this.name = name;
+        this.submittedFileName = submittedFileName;
+        this.contentType = contentType;
+        this.content = content != null ? content : new byte[0];
+        StringBuilder disposition = new StringBuilder("form-data; name=\"").append(name).append('"');
+        if (submittedFileName != null) {
+            disposition.append("; filename=\"").append(submittedFileName).append('"');
+        }
+        addHeader("Content-Disposition", disposition.toString());
+        if (contentType != null) {
+            addHeader("Content-Type", contentType);
+        }
+    }
+
+    /**
+     * Champ texte (UTF-8)
+     */
+    public static MockPart text(String name, String value) {
+        return new MockPart(name, null, null, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Fichier envoyé
+     */
+    public static MockPart file(String name, String fileName, String contentType, byte[] content) {
+        return new MockPart(name, fileName, contentType, content);
+    }
+
+    public void addHeader(String header, String value) {
+        headers.computeIfAbsent(header, key -> new ArrayList<>(1)).add(value);
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getSubmittedFileName() {
+        return submittedFileName;
+    }
+
+    @Override
+    public long getSize() {
+        return content.length;
+    }
+
+    @Override
+    public void write(String fileName) throws IOException {
+        Files.write(Path.of(fileName), content);
+    }
+
+    @Override
+    public void delete() {
+        deleted = true;
+    }
+
+    @Override
+    public String getHeader(String header) {
+        List<String> values = headers.get(header);
+        return values != null ? values.get(0) : null;
+    }
+
+    @Override
+    public Collection<String> getHeaders(String header) {
+        List<String> values = headers.get(header);
+        return values != null ? Collections.unmodifiableList(values) : Collections.emptyList();
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return Collections.unmodifiableSet(headers.keySet());
+    }
+}
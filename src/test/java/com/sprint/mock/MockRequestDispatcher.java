@@ -0,0 +1,49 @@
+package com.sprint.mock;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.ServletResponseWrapper;
+
+/**
+ * Dispatcher sans vue : le forward ou l'include est seulement enregistré dans la MockHttpServletResponse
+ * (getForwardedUrl, getIncludedUrls), avec la requête transmise (utile pour lire les attributs de vue)
+ */
+public class MockRequestDispatcher implements RequestDispatcher {
+
+    private final String path;
+
+    public MockRequestDispatcher(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public void forward(ServletRequest request, ServletResponse response) {
+        MockHttpServletResponse mock = unwrap(response);
+        if (mock.isCommitted()) {
+            throw new IllegalStateException("Forward impossible : la réponse est déjà envoyée");
+        }
+        mock.resetBuffer();
+        mock.setForward(path, request);
+    }
+
+    @Override
+    public void include(ServletRequest request, ServletResponse response) {
+        unwrap(response).addInclude(path);
+    }
+
+    private static MockHttpServletResponse unwrap(ServletResponse response) {
+        ServletResponse current = response;
+        while (current instanceof ServletResponseWrapper) {
+            current = ((ServletResponseWrapper) current).getResponse();
+        }
+        if (!(current instanceof MockHttpServletResponse)) {
+            throw new IllegalArgumentException("MockRequestDispatcher attend une MockHttpServletResponse");
+        }
+        return (MockHttpServletResponse) current;
+    }
+}
@@ -0,0 +1,56 @@
+package com.sprint.mock;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration de servlet en mémoire, pour appeler init(ServletConfig) hors conteneur
+ * (les paramètres "sprint.*" de FrontServlet se posent ici ou sur le MockServletContext)
+ */
+public class MockServletConfig implements ServletConfig {
+
+    private final String servletName;
+    private final ServletContext servletContext;
+    private final Map<String, String> initParameters = new LinkedHashMap<>();
+
+    public MockServletConfig() {
+        this(new MockServletContext());
+    }
+
+    public MockServletConfig(ServletContext servletContext) {
+        this("FrontServlet", servletContext);
+    }
+
+    public MockServletConfig(String servletName, ServletContext servletContext) {
+        this.servletName = servletName;
+        this.servletContext = servletContext;
+    }
+
+    public void setInitParameter(String name, String value) {
+        initParameters.put(name, value);
+    }
+
+    @Override
+    public String getServletName() {
+        return servletName;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return servletContext;
+    }
+
+    @Override
+    public String getInitParameter(String name) {
+        return initParameters.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getInitParameterNames() {
+        return Collections.enumeration(initParameters.keySet());
+    }
+}
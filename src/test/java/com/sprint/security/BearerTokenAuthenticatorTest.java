@@ -0,0 +1,171 @@
+package com.sprint.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sprint.mock.MockHttpServletRequest;
+import com.sprint.mock.MockHttpServletResponse;
+import com.sprint.model.UserSession;
+import com.sprint.session.SessionMap;
+import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Jetons porteurs HS256 : refus sur l'algorithme, les dates (exp, nbf) et la signature ;
+ * identité partagée en lecture seule par les requêtes d'un même jeton, jamais recopiée en session
+ */
+class BearerTokenAuthenticatorTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+    private static final String HS256 = "{\"alg\":\"HS256\",\"typ\":\"JWT\"}";
+
+    private final BearerTokenAuthenticator authenticator =
+            new BearerTokenAuthenticator(SECRET, "sprint", "api", 30, 1024);
+
+    private static String base64(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String signer(String signed, byte[] secret, String algorithm) throws Exception {
+        Mac mac = Mac.getInstance(algorithm);
+        mac.init(new SecretKeySpec(secret, algorithm));
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(signed.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static String jeton(String header, String payload, byte[] secret) throws Exception {
+        String signed = base64(header) + "." + base64(payload);
+        return "Bearer " + signed + "." + signer(signed, secret, "HmacSHA256");
+    }
+
+    private static String jeton(String payload) throws Exception {
+        return jeton(HS256, payload, SECRET);
+    }
+
+    private static long maintenant() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static String revendications(long exp, long nbf) {
+        return "{\"sub\":\"u42\",\"iss\":\"sprint\",\"aud\":[\"web\",\"api\"],\"roles\":\"user, admin\","
+                + "\"name\":\"Rakoto\",\"exp\":" + exp + ",\"nbf\":" + nbf + "}";
+    }
+
+    @Test
+    void jetonValideAuthentifie() throws Exception {
+        UserSession user = authenticator.authenticate(jeton(revendications(maintenant() + 600, maintenant() - 10)));
+
+        assertNotNull(user);
+        assertTrue(user.isAuthenticated());
+        assertEquals("u42", user.getUserId());
+        assertEquals("Rakoto", user.getUsername());
+        assertTrue(user.hasAllRoles("USER", "ADMIN"));
+    }
+
+    @Test
+    void algorithmeAutreQueHs256Refuse() throws Exception {
+        String payload = revendications(maintenant() + 600, 0);
+        String none = base64("{\"alg\":\"none\"}") + "." + base64(payload);
+
+        assertNull(authenticator.authenticate("Bearer " + none + "."), "alg none sans signature");
+        assertNull(authenticator.authenticate("Bearer " + none + "." + signer(none, SECRET, "HmacSHA256")),
+                "alg none, même correctement signé");
+        assertNull(authenticator.authenticate(jeton("{\"alg\":\"RS256\"}", payload, SECRET)));
+        assertNull(authenticator.authenticate(jeton("{\"typ\":\"JWT\"}", payload, SECRET)), "alg absent");
+
+        String hs512 = base64("{\"alg\":\"HS512\"}") + "." + base64(payload);
+        assertNull(authenticator.authenticate("Bearer " + hs512 + "." + signer(hs512, SECRET, "HmacSHA512")));
+    }
+
+    @Test
+    void jetonExpireRefuse() throws Exception {
+        assertNull(authenticator.authenticate(jeton(revendications(maintenant() - 120, 0))));
+        assertNotNull(authenticator.authenticate(jeton(revendications(maintenant() - 5, 0))), "dans la tolérance");
+    }
+
+    @Test
+    void jetonEnCacheRefuseUneFoisExpire() throws Exception {
+        BearerTokenAuthenticator strict = new BearerTokenAuthenticator(SECRET, null, null, 0, 1024);
+        String token = jeton(revendications(maintenant() + 1, 0));
+
+        assertNotNull(strict.authenticate(token));
+        Thread.sleep(2100);
+
+        assertNull(strict.authenticate(token), "l'expiration est contrôlée même pour un jeton en cache");
+        assertEquals(1L, strict.getStatistics().get("bearerExpired"));
+    }
+
+    @Test
+    void jetonPasEncoreValideRefuse() throws Exception {
+        assertNull(authenticator.authenticate(jeton(revendications(maintenant() + 600, maintenant() + 120))));
+        assertNotNull(authenticator.authenticate(jeton(revendications(maintenant() + 600, maintenant() + 5))),
+                "dans la tolérance");
+    }
+
+    @Test
+    void signatureInvalideRefusee() throws Exception {
+        String payload = revendications(maintenant() + 600, 0);
+        String valide = jeton(payload);
+        String signed = valide.substring(0, valide.lastIndexOf('.'));
+
+        assertNull(authenticator.authenticate(jeton(HS256, payload, "fedcba9876543210fedcba9876543210"
+                .getBytes(StandardCharsets.UTF_8))), "autre secret");
+        assertNull(authenticator.authenticate(signed + "."), "signature vide");
+        assertNull(authenticator.authenticate(signed + ".AAAA" + valide.substring(valide.lastIndexOf('.') + 5)));
+
+        // Revendications modifiées (élévation de rôle) sous la signature d'origine
+        String forge = base64(HS256) + "." + base64(payload.replace("user, admin", "superadmin"));
+        assertNull(authenticator.authenticate("Bearer " + forge + valide.substring(valide.lastIndexOf('.'))));
+    }
+
+    @Test
+    void revendicationsObligatoiresControlees() throws Exception {
+        long exp = maintenant() + 600;
+
+        assertNull(authenticator.authenticate(jeton("{\"iss\":\"sprint\",\"aud\":\"api\",\"exp\":" + exp + "}")),
+                "sub absent");
+        assertNull(authenticator.authenticate(jeton("{\"sub\":\"u42\",\"iss\":\"autre\",\"aud\":\"api\"}")));
+        assertNull(authenticator.authenticate(jeton("{\"sub\":\"u42\",\"iss\":\"sprint\",\"aud\":\"web\"}")));
+        assertNull(authenticator.authenticate("Bearer pas.un.jeton"));
+        assertNull(authenticator.authenticate("Basic dTpw"));
+    }
+
+    @Test
+    void memeJetonMemeIdentiteEnLectureSeule() throws Exception {
+        String jeton = jeton(revendications(maintenant() + 600, maintenant() - 10));
+        UserSession premiere = authenticator.authenticate(jeton);
+        long version = premiere.getVersion();
+        premiere.cacheDecision(3, version, 1);
+
+        UserSession seconde = authenticator.authenticate(jeton);
+
+        assertSame(premiere, seconde);
+        assertEquals(1, seconde.getCachedDecision(3, seconde.getVersion()), "décision d'autorisation conservée");
+        assertTrue(seconde.isReadOnly());
+        assertThrows(UnsupportedOperationException.class, () -> seconde.addRole("MODERATOR"));
+        assertThrows(UnsupportedOperationException.class, () -> seconde.authenticate(List.of("ADMIN")));
+        assertThrows(UnsupportedOperationException.class, seconde::logout);
+    }
+
+    @Test
+    void identiteDuJetonJamaisRecopieeEnSession() throws Exception {
+        UserSession user = authenticator.authenticate(jeton(revendications(maintenant() + 600, maintenant() - 10)));
+        SessionMap session = new SessionMap("session-cookie");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/ping");
+
+        assertNull(SecurityInterceptor.checkSecurity(SecurityPolicy.NONE, user, session, request,
+                new MockHttpServletResponse()));
+
+        assertTrue(session.isEmpty(), "session du cookie inchangée : " + session.keySet());
+        assertEquals("u42", request.getAttribute("userId"));
+        assertEquals(Boolean.TRUE, request.getAttribute("isAuthenticated"));
+    }
+}
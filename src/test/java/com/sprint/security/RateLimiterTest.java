@@ -0,0 +1,42 @@
+package com.sprint.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Table des clients pleine : les nouveaux clients partagent un seau commun au lieu d'être admis sans suivi
+ */
+class RateLimiterTest {
+
+    @Test
+    void tablePleineLimiteLesNouveauxClientsEnsemble() {
+        RateLimiter limiter = new RateLimiter(1, 1, 2);
+
+        assertEquals(0, limiter.acquire("ip:10.0.0.1", 1));
+        assertEquals(0, limiter.acquire("ip:10.0.0.2", 1));
+        assertEquals(2, limiter.size());
+
+        // Table pleine et seaux encore actifs : le troisième client prend le seau commun
+        assertEquals(0, limiter.acquire("ip:10.0.0.3", 1));
+        assertTrue(limiter.acquire("ip:10.0.0.4", 1) > 0, "seau commun épuisé : refus, pas d'admission libre");
+        assertTrue(limiter.acquire("ip:10.0.0.5", 1) > 0);
+
+        assertEquals(2, limiter.size());
+        assertEquals(3L, limiter.getStatistics().get("rateLimitOverflow"));
+        assertEquals(2L, limiter.getStatistics().get("rateLimitRejected"));
+    }
+
+    @Test
+    void clientsSuivisNonAffectesParLeSeauCommun() {
+        RateLimiter limiter = new RateLimiter(1, 1, 1);
+
+        assertEquals(0, limiter.acquire("u:u1", 1));
+        assertEquals(0, limiter.acquire("ip:10.0.0.7", 1));
+        assertTrue(limiter.acquire("ip:10.0.0.8", 1) > 0);
+
+        assertTrue(limiter.acquire("u:u1", 1) > 0, "le client suivi garde son propre seau");
+        assertEquals(1, limiter.size());
+    }
+}
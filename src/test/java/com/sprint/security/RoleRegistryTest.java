@@ -0,0 +1,122 @@
+package com.sprint.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sprint.annotation.RequirePermission;
+import com.sprint.model.UserSession;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Définitions de rôles rechargeables : un fichier invalide laisse le modèle en place, la surveillance
+ * recharge un fichier réécrit, et une redéfinition des rôles intégrés invalide les droits et les
+ * décisions déjà calculés par les UserSession (contrôle du modèle dans UserSession.droits())
+ */
+class RoleRegistryTest {
+
+    static class Controleur {
+        @RequirePermission("EDIT_PROFILE")
+        public void profil() {
+        }
+    }
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void tearDown() {
+        RoleRegistry.stopWatching();
+        RoleRegistry.reset();
+    }
+
+    private Path ecrire(String json) throws IOException {
+        Path file = dir.resolve("roles.json");
+        Files.writeString(file, json);
+        return file;
+    }
+
+    private static String niveauUtilisateur(int level) {
+        return "{\"roles\":[{\"name\":\"USER\",\"level\":" + level + "}]}";
+    }
+
+    @Test
+    void fichierInvalideConserveLeModeleCourant() throws Exception {
+        AuthorizationSnapshot charge = RoleRegistry.load(ecrire(niveauUtilisateur(2)));
+
+        assertThrows(IOException.class, () -> RoleRegistry.load(ecrire("{\"roles\": [")), "JSON tronqué");
+        assertThrows(IOException.class, () -> RoleRegistry.load(ecrire("{\"roles\":{}}")), "roles non tableau");
+        assertThrows(IOException.class, () -> RoleRegistry.load(ecrire(
+                "{\"roles\":[{\"name\":\"AUDITEUR\"}]}")), "nouveau rôle sans niveau");
+        assertThrows(IOException.class, () -> RoleRegistry.load(ecrire(
+                "{\"roles\":[{\"name\":\"USER\"},{\"name\":\"user\"}]}")), "rôle défini deux fois");
+
+        assertSame(charge, RoleRegistry.current());
+        assertEquals(2, RoleRegistry.current().definition(Role.USER).getLevel());
+    }
+
+    @Test
+    void surveillanceRechargeLeFichierReecrit() throws Exception {
+        Path file = ecrire(niveauUtilisateur(1));
+        RoleRegistry.watch(file, 100);
+        AuthorizationSnapshot initial = RoleRegistry.current();
+
+        // Taille différente : détecté même si la date de modification ne change pas
+        Files.writeString(file, "{\"roles\":[{\"name\":\"USER\",\"level\":2},"
+                + "{\"name\":\"AUDITEUR\",\"level\":1,\"permissions\":[\"VIEW_PUBLIC\"]}]}");
+        long limite = System.currentTimeMillis() + 5000;
+        while (RoleRegistry.current() == initial && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+
+        AuthorizationSnapshot recharge = RoleRegistry.current();
+        assertNotEquals(initial.getGeneration(), recharge.getGeneration(), "fichier réécrit rechargé");
+        assertEquals(2, recharge.definition(Role.USER).getLevel());
+        assertTrue(recharge.isDefined("AUDITEUR"));
+
+        // Réécriture invalide : signalée, le modèle rechargé reste en vigueur
+        Files.writeString(file, "{\"roles\": \"invalide\"}");
+        Thread.sleep(400);
+        assertSame(recharge, RoleRegistry.current());
+    }
+
+    @Test
+    void redefinitionDesRolesIntegresInvalideDroitsEtDecisions() throws Exception {
+        SecurityPolicy policy = SecurityPolicy.compile(Controleur.class.getMethod("profil"));
+        int editProfile = PermissionRegistry.register("EDIT_PROFILE");
+        UserSession user = new UserSession("u1", "rakoto", null);
+        user.authenticate(List.of("USER"));
+
+        assertTrue(PermissionRegistry.contains(user.getPermissionMask(), editProfile));
+        assertEquals(1, user.getHighestRoleDefinition().getLevel());
+        assertNull(policy.check(user));
+        long avant = user.getVersion();
+        assertNotEquals(0, user.getCachedDecision(policy.getRouteId(), avant));
+
+        // USER perd EDIT_PROFILE et change de niveau : rien n'est modifié sur la UserSession elle-même
+        RoleRegistry.load(ecrire("{\"roles\":[{\"name\":\"USER\",\"level\":5,"
+                + "\"permissions\":[\"VIEW_PUBLIC\"]}]}"));
+
+        long apres = user.getVersion();
+        assertNotEquals(avant, apres, "nouveau modèle : nouvelle version");
+        assertFalse(PermissionRegistry.contains(user.getPermissionMask(), editProfile));
+        assertEquals(5, user.getHighestRoleDefinition().getLevel());
+        assertEquals(0, user.getCachedDecision(policy.getRouteId(), apres), "décision de l'ancien modèle abandonnée");
+        assertNotNull(policy.check(user), "permission retirée prise en compte aussitôt");
+
+        RoleRegistry.reset();
+        assertTrue(PermissionRegistry.contains(user.getPermissionMask(), editProfile));
+        assertNull(policy.check(user));
+    }
+}
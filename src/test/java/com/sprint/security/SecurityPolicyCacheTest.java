@@ -0,0 +1,139 @@
+package com.sprint.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.sprint.annotation.RateLimit;
+import com.sprint.annotation.RequireRole;
+import com.sprint.mock.MockHttpServletRequest;
+import com.sprint.mock.MockHttpServletResponse;
+import com.sprint.model.JsonResponse;
+import com.sprint.model.UserSession;
+import com.sprint.session.SessionMap;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Cache des décisions d'autorisation (UserSession, par route) : relu tant que la version ne change
+ * pas, abandonné dès que les droits de l'utilisateur ou les définitions de rôles changent ;
+ * politique compilée une seule fois pour l'ancienne vérification par Method
+ */
+class SecurityPolicyCacheTest {
+
+    static class Controleur {
+        @RequireRole(Role.ADMIN)
+        public void administration() {
+        }
+
+        @RateLimit(value = 1, burst = 2)
+        public void limitee() {
+        }
+    }
+
+    private SecurityPolicy policy;
+    private UserSession user;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        policy = SecurityPolicy.compile(Controleur.class.getMethod("administration"));
+        user = new UserSession("u1", "rakoto", "rakoto@example.mg");
+        user.authenticate(List.of("USER"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RoleRegistry.reset();
+    }
+
+    @Test
+    void decisionMiseEnCacheSousLaVersionCourante() {
+        assertNotNull(policy.check(user));
+
+        long version = user.getVersion();
+        assertNotEquals(0, user.getCachedDecision(policy.getRouteId(), version));
+        assertEquals(version, user.getVersion(), "une vérification ne change pas la version");
+        assertNotNull(policy.check(user));
+    }
+
+    @Test
+    void decisionEnCacheRelueSansReevaluer() {
+        // Décision « autorisé » plantée sous la version courante : la règle n'est pas réévaluée
+        user.cacheDecision(policy.getRouteId(), user.getVersion(), 1);
+        assertNull(policy.check(user));
+    }
+
+    @Test
+    void changementDeRolesInvalideLeCache() {
+        user.cacheDecision(policy.getRouteId(), user.getVersion(), 1);
+
+        user.addRole("MODERATOR"); // Rôle insuffisant, mais nouvelle version : décision plantée abandonnée
+        assertNotNull(policy.check(user));
+
+        user.addRole("ADMIN");
+        assertNull(policy.check(user), "promotion prise en compte aussitôt");
+
+        user.removeRole("ADMIN");
+        assertNotNull(policy.check(user), "rétrogradation prise en compte aussitôt");
+    }
+
+    @Test
+    void deconnexionEtReauthentificationInvalidentLeCache() {
+        user.addRole("ADMIN");
+        assertNull(policy.check(user));
+
+        long avant = user.getVersion();
+        user.logout();
+        assertNotEquals(avant, user.getVersion());
+        assertNotNull(policy.check(user));
+
+        user.authenticate(List.of("ADMIN"));
+        assertNull(policy.check(user));
+
+        user.setRoles(List.of("USER"));
+        assertNotNull(policy.check(user));
+    }
+
+    @Test
+    void rechargementDesRolesInvalideLeCache(@TempDir Path dir) throws Exception {
+        assertNotNull(policy.check(user));
+        long avant = user.getVersion();
+
+        // Le rôle USER est promu au niveau administrateur par le fichier de définitions
+        Path file = dir.resolve("roles.json");
+        Files.writeString(file, "{\"roles\":[{\"name\":\"USER\",\"level\":3,\"displayName\":\"Utilisateur\","
+                + "\"description\":\"promu\",\"permissions\":[],\"variables\":{}}]}");
+        RoleRegistry.load(file);
+
+        assertNotEquals(avant, user.getVersion());
+        assertNull(policy.check(user));
+
+        RoleRegistry.reset();
+        assertNotNull(policy.check(user));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void verificationParMethodeReutiliseLaPolitique() throws Exception {
+        Method method = Controleur.class.getMethod("limitee");
+        MockHttpServletRequest request = new MockHttpServletRequest().setRemoteAddr("10.0.0.9");
+        SessionMap session = new SessionMap(pending -> { });
+
+        assertSame(SecurityPolicy.forMethod(method), SecurityPolicy.forMethod(method));
+        assertNull(SecurityInterceptor.checkSecurity(method, null, session, request, new MockHttpServletResponse()));
+        assertNull(SecurityInterceptor.checkSecurity(method, null, session, request, new MockHttpServletResponse()));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Object refus = SecurityInterceptor.checkSecurity(method, null, session, request, response);
+        assertEquals(429, ((JsonResponse) refus).getCode());
+        assertNotNull(response.getHeader("Retry-After"));
+    }
+}
@@ -0,0 +1,163 @@
+package com.sprint.servlet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sprint.mock.MockHttpServletRequest;
+import com.sprint.mock.MockHttpServletResponse;
+import com.sprint.mock.MockServletConfig;
+import com.sprint.mock.MockServletContext;
+import com.sprint.util.SessionManager;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Requêtes complètes à travers FrontServlet.service, sans conteneur (doublures com.sprint.mock) ;
+ * routes déclarées par com.sprint.controller.ApiTestController et PageTestController
+ */
+class FrontServletPipelineTest {
+
+    private MockServletContext context;
+    private FrontServlet servlet;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        context = new MockServletContext();
+        MockServletConfig config = new MockServletConfig(context);
+        config.setInitParameter("sprint.security.audit.enabled", "false");
+        servlet = new FrontServlet();
+        servlet.init(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servlet.destroy();
+    }
+
+    private MockHttpServletResponse get(String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.service(new MockHttpServletRequest(context).setRequestURI(uri), response);
+        return response;
+    }
+
+    @Test
+    void routeRestRenvoieDuJson() throws Exception {
+        MockHttpServletResponse response = get("/api/ping");
+
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getContentType().startsWith("application/json"));
+        assertTrue(response.getContentAsString().contains("\"data\":\"pong\""), response.getContentAsString());
+    }
+
+    @Test
+    void parametreDeRequeteLie() throws Exception {
+        MockHttpServletResponse response = get("/api/echo?name=Vola");
+
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getContentAsString().contains("Bonjour Vola"), response.getContentAsString());
+    }
+
+    @Test
+    void routePostChoisieSelonLaMethode() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.service(new MockHttpServletRequest(context).setMethod("POST").setRequestURI("/api/echo?name=Vola"),
+                response);
+
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getContentAsString().contains("POST Vola"), response.getContentAsString());
+    }
+
+    @Test
+    void requetePostVersRouteGetConservee() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.service(new MockHttpServletRequest(context).setMethod("POST").setRequestURI("/api/ping"), response);
+
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getContentAsString().contains("pong"));
+    }
+
+    @Test
+    void parametreDeCheminLie() throws Exception {
+        MockHttpServletResponse response = get("/api/users/42");
+
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getContentAsString().contains("\"id\":42"), response.getContentAsString());
+    }
+
+    @Test
+    void routeInconnueRenvoie404() throws Exception {
+        MockHttpServletResponse response = get("/api/absente");
+
+        assertEquals(404, response.getStatus());
+        assertTrue(response.getContentAsString().contains("Route non trouvée: /api/absente"));
+    }
+
+    @Test
+    void metriquesNonExposeesParDefaut() throws Exception {
+        assertEquals(404, get("/metrics").getStatus());
+    }
+
+    @Test
+    void metriquesExposeesUneFoisActivees() throws Exception {
+        servlet.destroy();
+        MockServletConfig config = new MockServletConfig(context);
+        config.setInitParameter("sprint.security.audit.enabled", "false");
+        config.setInitParameter("sprint.metrics.enabled", "true");
+        servlet = new FrontServlet();
+        servlet.init(config);
+
+        get("/api/ping");
+        MockHttpServletResponse response = get("/metrics");
+
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getContentAsString().contains("/api/ping"), response.getContentAsString());
+    }
+
+    @Test
+    void exceptionDuControleurRenvoie500() throws Exception {
+        MockHttpServletResponse response = get("/api/fail");
+
+        assertEquals(500, response.getStatus());
+        assertTrue(response.getContentAsString().contains("\"status\":\"error\""), response.getContentAsString());
+    }
+
+    @Test
+    void modelViewTransmisALaVue() throws Exception {
+        MockHttpServletResponse response = get("/dashboard");
+
+        assertEquals("/WEB-INF/views/dashboard.jsp", response.getForwardedUrl());
+        assertEquals("Tableau de bord", response.getForwardRequest().getAttribute("title"));
+    }
+
+    @Test
+    void routeProtegeeRefuseeAuVisiteurAnonyme() throws Exception {
+        MockHttpServletResponse response = get("/admin");
+
+        assertEquals("/WEB-INF/views/access-denied.jsp", response.getForwardedUrl());
+        assertNull(response.getCookie(SessionManager.getCookieName()), "pas de session créée pour un refus anonyme");
+    }
+
+    @Test
+    void ressourceStatiqueConfieeAuServletParDefaut() throws Exception {
+        String[] servi = new String[1];
+        context.registerNamedDispatcher("default", new RequestDispatcher() {
+            @Override
+            public void forward(ServletRequest request, ServletResponse response) {
+                servi[0] = ((MockHttpServletRequest) request).getRequestURI();
+            }
+
+            @Override
+            public void include(ServletRequest request, ServletResponse response) {
+            }
+        });
+
+        get("/static/app.css");
+
+        assertEquals("/static/app.css", servi[0]);
+    }
+}
@@ -0,0 +1,215 @@
+package com.sprint.servlet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sprint.mock.MockHttpServletRequest;
+import com.sprint.mock.MockHttpServletResponse;
+import com.sprint.mock.MockServletConfig;
+import com.sprint.mock.MockServletContext;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Protocole d'upload reprenable (/_upload) à travers FrontServlet : activation explicite, route cible
+ * résolue en POST et autorisée dès la création, upload réservé à son créateur, quota par client
+ * (routes de com.sprint.controller.UploadTestController), fin d'upload après les morceaux en cours
+ */
+class ResumableUploadTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final MockServletContext context = new MockServletContext();
+    private FrontServlet servlet;
+
+    private void demarrer(boolean enabled, int maxPerClient) throws Exception {
+        MockServletConfig config = new MockServletConfig(context);
+        config.setInitParameter("sprint.security.audit.enabled", "false");
+        config.setInitParameter("sprint.upload.resumable.enabled", String.valueOf(enabled));
+        config.setInitParameter("sprint.upload.resumable.maxPerClient", String.valueOf(maxPerClient));
+        servlet = new FrontServlet();
+        servlet.init(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servlet.destroy();
+    }
+
+    private MockHttpServletResponse post(String uri, String ip, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(context)
+                .setMethod("POST").setRequestURI(uri).setRemoteAddr(ip);
+        if (body != null) {
+            request.setContentType("application/octet-stream").setContent(body.getBytes(StandardCharsets.UTF_8));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.service(request, response);
+        return response;
+    }
+
+    private MockHttpServletResponse creer(String target, String ip) throws Exception {
+        return post("/_upload?target=" + target + "&field=file&filename=note.txt&size=10", ip, null);
+    }
+
+    private static String uploadId(MockHttpServletResponse response) throws Exception {
+        JsonNode json = MAPPER.readTree(response.getContentAsString());
+        return json.get("data").get("uploadId").asText();
+    }
+
+    @Test
+    void desactiveParDefaut() throws Exception {
+        MockServletConfig config = new MockServletConfig(context);
+        config.setInitParameter("sprint.security.audit.enabled", "false");
+        servlet = new FrontServlet();
+        servlet.init(config);
+
+        assertEquals(404, creer("/files", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void uploadParMorceauxLivreALaRoutePost() throws Exception {
+        demarrer(true, 4);
+
+        MockHttpServletResponse cree = creer("/files", "10.0.0.1");
+        assertEquals(201, cree.getStatus(), cree.getContentAsString());
+        String id = uploadId(cree);
+
+        assertEquals(200, post("/_upload/" + id + "?offset=5", "10.0.0.1", "monde").getStatus());
+        assertEquals(409, post("/_upload/" + id + "/complete", "10.0.0.1", null).getStatus(), "upload incomplet");
+        assertEquals(200, post("/_upload/" + id + "?offset=0", "10.0.0.1", "bonjo").getStatus());
+
+        MockHttpServletResponse termine = post("/_upload/" + id + "/complete", "10.0.0.1", null);
+        assertEquals(200, termine.getStatus(), termine.getContentAsString());
+        assertTrue(termine.getContentAsString().contains("note.txt:bonjomonde"), termine.getContentAsString());
+    }
+
+    @Test
+    void cibleInconnueOuSansRoutePostRefusee() throws Exception {
+        demarrer(true, 4);
+
+        assertEquals(404, creer("/absente", "10.0.0.1").getStatus());
+        assertEquals(404, creer("/api/ping", "10.0.0.1").getStatus(), "route GET seulement");
+    }
+
+    @Test
+    void cibleProtegeeRefuseeAuVisiteurAnonyme() throws Exception {
+        demarrer(true, 4);
+
+        assertEquals(401, creer("/admin/files", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void uploadInvisiblePourUnAutreClient() throws Exception {
+        demarrer(true, 4);
+        String id = uploadId(creer("/files", "10.0.0.1"));
+
+        assertEquals(404, post("/_upload/" + id + "?offset=0", "10.0.0.2", "intrus").getStatus());
+        assertEquals(404, post("/_upload/" + id + "/complete", "10.0.0.2", null).getStatus());
+        assertEquals(200, post("/_upload/" + id + "?offset=0", "10.0.0.1", "bonjo").getStatus());
+    }
+
+    @Test
+    void quotaParClient() throws Exception {
+        demarrer(true, 2);
+
+        assertEquals(201, creer("/files", "10.0.0.1").getStatus());
+        assertEquals(201, creer("/files", "10.0.0.1").getStatus());
+        assertEquals(429, creer("/files", "10.0.0.1").getStatus());
+        assertEquals(201, creer("/files", "10.0.0.2").getStatus(), "les autres clients ne sont pas bloqués");
+    }
+
+    @Test
+    void finAttendLeMorceauEnCours() throws Exception {
+        demarrer(true, 4);
+        String id = uploadId(creer("/files", "10.0.0.1"));
+        assertEquals(200, post("/_upload/" + id + "?offset=0", "10.0.0.1", "bonjomonde").getStatus());
+
+        // Réécriture du début, dont le corps reste en suspens après 5 octets
+        CountDownLatch ecrit = new CountDownLatch(1);
+        CountDownLatch reprise = new CountDownLatch(1);
+        MockHttpServletRequest lent = new MockHttpServletRequest(context) {
+            private final ServletInputStream corps = new ServletInputStream() {
+                private boolean envoye;
+
+                @Override
+                public int read() {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    if (!envoye) {
+                        envoye = true;
+                        System.arraycopy("XXXXX".getBytes(StandardCharsets.UTF_8), 0, buffer, offset, 5);
+                        return 5;
+                    }
+                    ecrit.countDown();
+                    try {
+                        reprise.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return -1;
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return envoye;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                }
+            };
+
+            @Override
+            public ServletInputStream getInputStream() {
+                return corps;
+            }
+        }.setMethod("POST").setRequestURI("/_upload/" + id).setRemoteAddr("10.0.0.1");
+        lent.setParameter("offset", "0");
+        CompletableFuture<MockHttpServletResponse> morceau = CompletableFuture.supplyAsync(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            try {
+                servlet.service(lent, response);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return response;
+        });
+        assertTrue(ecrit.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<MockHttpServletResponse> fin = CompletableFuture.supplyAsync(() -> {
+            try {
+                return post("/_upload/" + id + "/complete", "10.0.0.1", null);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThrows(TimeoutException.class, () -> fin.get(200, TimeUnit.MILLISECONDS));
+        assertFalse(fin.isDone(), "la livraison attend le morceau en cours");
+
+        reprise.countDown();
+        assertEquals(200, morceau.get(5, TimeUnit.SECONDS).getStatus());
+        MockHttpServletResponse termine = fin.get(5, TimeUnit.SECONDS);
+        assertEquals(200, termine.getStatus(), termine.getContentAsString());
+        assertTrue(termine.getContentAsString().contains("note.txt:XXXXXmonde"), termine.getContentAsString());
+        assertEquals(404, post("/_upload/" + id + "?offset=0", "10.0.0.1", "tard!").getStatus());
+    }
+}
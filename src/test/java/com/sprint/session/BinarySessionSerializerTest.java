@@ -0,0 +1,87 @@
+package com.sprint.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sprint.model.UserSession;
+import com.sprint.security.Role;
+import java.io.IOException;
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Valeurs encodées en JSON (nom de classe + JSON) : classes de l'application seulement
+ */
+class BinarySessionSerializerTest {
+
+    public static class Panier {
+        public int articles;
+    }
+
+    @Test
+    void classeDeLApplicationEncodeeEnJson() throws Exception {
+        Panier panier = new Panier();
+        panier.articles = 3;
+        BinarySessionSerializer serializer = new BinarySessionSerializer();
+
+        Object relu = serializer.decode(serializer.encode(Map.of("panier", panier))).get("panier");
+
+        assertEquals(Panier.class, relu.getClass());
+        assertEquals(3, ((Panier) relu).articles);
+    }
+
+    @Test
+    void classeDeLaPlateformeRefusee() {
+        BinarySessionSerializer serializer = new BinarySessionSerializer();
+
+        assertThrows(IOException.class, () -> serializer.encode(Map.of("lien", URI.create("https://example.mg"))));
+    }
+
+    @Test
+    void paquetsAutorisesAppliquesAuDecodage() throws Exception {
+        Panier panier = new Panier();
+        byte[] encoded = new BinarySessionSerializer().encode(Map.of("panier", panier));
+        BinarySessionSerializer restreint = new BinarySessionSerializer(new ObjectMapper(), List.of("com.exemple."));
+
+        assertThrows(IOException.class, () -> restreint.decode(encoded));
+        assertThrows(IOException.class, () -> restreint.encode(Map.of("panier", panier)));
+        assertEquals(Panier.class, new BinarySessionSerializer(new ObjectMapper(), List.of("com.sprint.session."))
+                .decode(encoded).get("panier").getClass());
+    }
+
+    @Test
+    void codesDesRolesFiges() throws Exception {
+        // Écrits dans le journal de sessions et la réplication : ne jamais les changer ni les réattribuer
+        Map<Role, Integer> attendus = new EnumMap<>(Role.class);
+        attendus.put(Role.ANONYME, 0);
+        attendus.put(Role.USER, 1);
+        attendus.put(Role.MODERATOR, 2);
+        attendus.put(Role.ADMIN, 3);
+        Map<Role, Integer> codes = new EnumMap<>(Role.class);
+        for (Role role : Role.values()) {
+            codes.put(role, role.getCode());
+            assertEquals(role, Role.fromCode(role.getCode()));
+        }
+        assertEquals(attendus, codes);
+
+        byte[] encoded = new BinarySessionSerializer().encode(Map.of("r", Role.MODERATOR));
+        assertEquals(14, encoded[encoded.length - 2]); // Étiquette ROLE
+        assertEquals(2, encoded[encoded.length - 1]); // Code de MODERATOR
+    }
+
+    @Test
+    void rolesDeUserSessionRelusParCode() throws Exception {
+        UserSession user = new UserSession("u1", "rakoto", null);
+        user.authenticate(List.of("MODERATOR", "EDITEUR"));
+        BinarySessionSerializer serializer = new BinarySessionSerializer();
+
+        UserSession relu = (UserSession) serializer.decode(serializer.encode(Map.of("userSession", user)))
+                .get("userSession");
+
+        assertEquals(user.getRoles(), relu.getRoles());
+    }
+}
@@ -0,0 +1,195 @@
+package com.sprint.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Journal de sessions : rejeu après redémarrage, fin de journal abîmée tronquée, enregistrement
+ * à cheval sur deux fenêtres de rejeu, compaction et suppressions durables
+ */
+class FileSessionStoreTest {
+
+    private static final long FLUSH_MILLIS = 60_000; // Lots écrits par close() seulement
+
+    @TempDir
+    Path directory;
+
+    private FileSessionStore ouvrir() throws IOException {
+        return new FileSessionStore(directory, FLUSH_MILLIS, new BinarySessionSerializer());
+    }
+
+    private Path journal() {
+        return directory.resolve("sessions.log");
+    }
+
+    private static SessionMap session(String id, String valeur) {
+        SessionMap session = new SessionMap(id);
+        session.put("valeur", valeur);
+        return session;
+    }
+
+    private static void assertAbsent(Path file) {
+        assertTrue(Files.notExists(file), file + " ne doit plus exister");
+    }
+
+    @Test
+    void sessionsRejoueesApresRedemarrage() throws Exception {
+        SessionMap enregistree = session("s1", "panier");
+        enregistree.put("articles", 3);
+        FileSessionStore store = ouvrir();
+        store.put(enregistree);
+        store.put(session("s2", "autre"));
+        store.close();
+
+        FileSessionStore relu = ouvrir();
+        try {
+            assertEquals(2, relu.size());
+            SessionMap restauree = relu.get("s1");
+            assertNotNull(restauree);
+            assertEquals("panier", restauree.get("valeur"));
+            assertEquals(3, restauree.get("articles"));
+            assertEquals(enregistree.getCreationTime(), restauree.getCreationTime());
+            assertEquals(enregistree.getLastAccess(), restauree.getLastAccess());
+            assertEquals("autre", relu.get("s2").get("valeur"));
+        } finally {
+            relu.close();
+        }
+    }
+
+    @Test
+    void enregistrementTronqueIgnoreEtRetire() throws Exception {
+        FileSessionStore store = ouvrir();
+        store.put(session("s1", "intacte"));
+        store.close();
+        long taille = Files.size(journal());
+
+        // Arrêt brutal au milieu d'un enregistrement : en-tête annonçant un corps absent
+        try (FileChannel channel = FileChannel.open(journal(), StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {1, 0, 0, 0, 100, 0, 2, 's', '2'}));
+        }
+
+        FileSessionStore relu = ouvrir();
+        try {
+            assertEquals(1, relu.size());
+            assertEquals("intacte", relu.get("s1").get("valeur"));
+            assertEquals(taille, Files.size(journal()), "fin incomplète tronquée");
+        } finally {
+            relu.close();
+        }
+    }
+
+    @Test
+    void enregistrementAuCrcInvalideIgnoreEtRetire() throws Exception {
+        FileSessionStore store = ouvrir();
+        store.put(session("s1", "intacte"));
+        store.close();
+        long taille = Files.size(journal());
+        store = ouvrir();
+        store.put(session("s2", "abimee"));
+        store.close();
+
+        // Un octet du corps du dernier enregistrement (s2) altéré, CRC inchangé
+        try (FileChannel channel = FileChannel.open(journal(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long offset = channel.size() - 5;
+            ByteBuffer octet = ByteBuffer.allocate(1);
+            channel.read(octet, offset);
+            octet.put(0, (byte) (octet.get(0) ^ 0x5A)).rewind();
+            channel.write(octet, offset);
+        }
+
+        FileSessionStore relu = ouvrir();
+        try {
+            assertEquals("intacte", relu.get("s1").get("valeur"));
+            assertNull(relu.get("s2"));
+            assertEquals(taille, Files.size(journal()));
+        } finally {
+            relu.close();
+        }
+    }
+
+    @Test
+    void enregistrementAChevalSurDeuxFenetresDeRejeu() throws Exception {
+        String contenu = "x".repeat(1500);
+        FileSessionStore store = ouvrir();
+        for (int i = 0; i < 20; i++) {
+            store.put(session("s" + i, contenu + i));
+        }
+        store.close();
+        assertTrue(Files.size(journal()) > 6 * 4096, "plusieurs fenêtres de rejeu");
+
+        // Fenêtres de 4 Ko : la plupart des enregistrements (~1,5 Ko) en chevauchent deux
+        FileSessionStore relu = new FileSessionStore(directory, FLUSH_MILLIS, new BinarySessionSerializer(), 4096);
+        try {
+            assertEquals(20, relu.size());
+            for (int i = 0; i < 20; i++) {
+                assertEquals(contenu + i, relu.get("s" + i).get("valeur"));
+            }
+            assertEquals(20, relu.getStatistics().get("replayRecords"));
+        } finally {
+            relu.close();
+        }
+    }
+
+    @Test
+    void compactionNeGardeQueLesSessionsVivantes() throws Exception {
+        String contenu = "y".repeat(100_000);
+        FileSessionStore store = ouvrir();
+        for (int i = 0; i < 50; i++) {
+            store.put(session("s" + i, contenu));
+        }
+        store.close();
+        assertTrue(Files.size(journal()) > 4L * 1024 * 1024);
+
+        store = ouvrir();
+        for (int i = 5; i < 50; i++) {
+            store.remove("s" + i);
+        }
+        store.close(); // Dernier lot : suppressions, puis compaction (journal > 2 x données vivantes)
+        assertEquals(1L, store.getStatistics().get("logCompactions"));
+        assertTrue(Files.size(journal()) < 6 * 101_000, "journal réécrit : " + Files.size(journal()));
+        assertAbsent(directory.resolve("sessions.log.compact"));
+
+        FileSessionStore relu = ouvrir();
+        try {
+            assertEquals(5, relu.size());
+            for (int i = 0; i < 5; i++) {
+                assertEquals(contenu, relu.get("s" + i).get("valeur"));
+            }
+            assertEquals(5, relu.getStatistics().get("replayRecords"), "aucun enregistrement mort rejoué");
+        } finally {
+            relu.close();
+        }
+    }
+
+    @Test
+    void suppressionDurableApresRedemarrage() throws Exception {
+        FileSessionStore store = ouvrir();
+        store.put(session("s1", "supprimee"));
+        store.put(session("s2", "gardee"));
+        store.close();
+
+        store = ouvrir();
+        assertNotNull(store.remove("s1"));
+        store.close();
+
+        FileSessionStore relu = ouvrir();
+        try {
+            assertNull(relu.get("s1"));
+            assertEquals(1, relu.size());
+            assertEquals("gardee", relu.get("s2").get("valeur"));
+        } finally {
+            relu.close();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.sprint.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Déplacement hors heap : une session utilisée par une requête en cours reste sur le heap
+ */
+class OffHeapSessionStoreTest {
+
+    private final OffHeapSessionStore store = new OffHeapSessionStore(1024 * 1024, 1000,
+            new BinarySessionSerializer(), contents -> 30 * 60 * 1000L);
+
+    @AfterEach
+    void fermer() {
+        store.close();
+    }
+
+    @Test
+    void sessionEnCoursDeRequeteJamaisDeplacee() {
+        SessionMap session = new SessionMap("longue");
+        session.put("articles", new ArrayList<>(List.of("livre")));
+        session.touch(0);
+        store.put(session);
+
+        session.enterRequest();
+        @SuppressWarnings("unchecked")
+        List<String> articles = (List<String>) session.get("articles");
+        assertTrue(store.maintenance(60_000).isEmpty());
+        assertFalse(session.isCold());
+        articles.add("stylo"); // Modification en place pendant la requête
+        session.leaveRequest();
+
+        assertEquals(List.of("longue"), store.maintenance(120_000));
+        assertTrue(session.isCold());
+        assertEquals(List.of("livre", "stylo"), session.get("articles"));
+    }
+
+    @Test
+    void sessionLibereeDeplacee() {
+        SessionMap session = new SessionMap("inactive");
+        session.put("panier", "3 articles");
+        session.touch(0);
+        store.put(session);
+
+        session.enterRequest();
+        session.leaveRequest();
+
+        assertEquals(List.of("inactive"), store.maintenance(60_000));
+        assertTrue(session.isCold());
+        assertEquals("3 articles", session.get("panier"));
+    }
+}
@@ -0,0 +1,203 @@
+package com.sprint.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Réplication sur la boucle locale : sessions transmises entre instances du même secret,
+ * réparation à la lecture sur les connexions établies, trames d'un secret différent et
+ * connexions d'adresses non configurées refusées
+ */
+class ReplicatedSessionStoreTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] AUTRE = "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8);
+
+    private final List<ReplicatedSessionStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (ReplicatedSessionStore store : stores) {
+            store.close();
+        }
+    }
+
+    private static String portLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return "127.0.0.1:" + socket.getLocalPort();
+        }
+    }
+
+    private ReplicatedSessionStore noeud(String self, List<String> nodes, byte[] secret) throws IOException {
+        return noeud(new InMemorySessionStore(), self, nodes, secret);
+    }
+
+    private ReplicatedSessionStore noeud(SessionStore local, String self, List<String> nodes, byte[] secret)
+            throws IOException {
+        ReplicatedSessionStore store = new ReplicatedSessionStore(local, self, nodes, secret,
+                1, 20, new BinarySessionSerializer(), contents -> 30 * 60 * 1000L);
+        stores.add(store);
+        return store;
+    }
+
+    private static <T> T attendre(Supplier<T> valeur) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        T resultat = valeur.get();
+        while (resultat == null && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+            resultat = valeur.get();
+        }
+        return resultat;
+    }
+
+    private static SessionMap session(String id) {
+        SessionMap session = new SessionMap(id);
+        session.put("userId", "u42");
+        return session;
+    }
+
+    @Test
+    void sessionRepliqueeEntreInstancesDuMemeSecret() throws Exception {
+        String a = portLibre();
+        String b = portLibre();
+        ReplicatedSessionStore storeA = noeud(a, List.of(a, b), SECRET);
+        ReplicatedSessionStore storeB = noeud(b, List.of(a, b), SECRET);
+
+        storeA.put(session("s1"));
+
+        SessionMap replique = attendre(() -> storeB.get("s1"));
+        assertNotNull(replique);
+        assertEquals("u42", replique.get("userId"));
+    }
+
+    @Test
+    void sessionAbsenteDemandeeSurLaConnexionEtablie() throws Exception {
+        String a = portLibre();
+        String b = portLibre();
+        InMemorySessionStore localA = new InMemorySessionStore();
+        noeud(localA, a, List.of(a, b), SECRET);
+        ReplicatedSessionStore storeB = noeud(b, List.of(a, b), SECRET);
+        // Écrite directement dans le stockage local de A : jamais répliquée, seulement demandée
+        localA.put(session("s1"));
+        assertNotNull(attendre(() -> (Integer) storeB.getStatistics().get("replicationPeersConnected") == 1 ? 1 : null));
+
+        SessionMap reparee = storeB.get("s1");
+
+        assertNotNull(reparee);
+        assertEquals("u42", reparee.get("userId"));
+        assertEquals(1L, storeB.getStatistics().get("replicationReadRepairs"));
+    }
+
+    @Test
+    void identifiantsInventesSansConnexionParRequete() throws Exception {
+        String a = portLibre();
+        try (ServerSocket muet = new ServerSocket(0)) {
+            // Pair qui accepte mais ne répond jamais : la poignée de main de l'émetteur n'aboutit pas
+            String pair = "127.0.0.1:" + muet.getLocalPort();
+            List<Socket> acceptees = new CopyOnWriteArrayList<>();
+            Thread accepteur = new Thread(() -> {
+                try {
+                    while (true) {
+                        acceptees.add(muet.accept());
+                    }
+                } catch (IOException e) {
+                    // Serveur fermé
+                }
+            });
+            accepteur.setDaemon(true);
+            accepteur.start();
+            ReplicatedSessionStore storeA = noeud(a, List.of(a, pair), SECRET);
+
+            long debut = System.nanoTime();
+            for (int i = 0; i < 1000; i++) {
+                assertNull(storeA.get(String.format("%043d", i)));
+            }
+            long millis = (System.nanoTime() - debut) / 1_000_000;
+
+            assertTrue(millis < 1000, "1000 ID inconnus en " + millis + " ms");
+            assertTrue(acceptees.size() <= 1, "connexions ouvertes vers le pair : " + acceptees.size());
+            for (Socket socket : acceptees) {
+                socket.close();
+            }
+        }
+    }
+
+    @Test
+    void autreSecretRefuse() throws Exception {
+        String a = portLibre();
+        String b = portLibre();
+        ReplicatedSessionStore storeA = noeud(a, List.of(a, b), AUTRE);
+        ReplicatedSessionStore storeB = noeud(b, List.of(a, b), SECRET);
+
+        storeA.put(session("s1"));
+
+        assertNotNull(attendre(() -> (Long) storeB.getStatistics().get("replicationRejectedFrames") > 0 ? 1 : null));
+        assertNull(storeB.get("s1"), "ni lot ni réparation à la lecture depuis un pair d'un autre secret");
+        assertEquals(0L, storeB.getStatistics().get("replicationRecordsApplied"));
+    }
+
+    @Test
+    void trameForgeeSansHmacRefusee() throws Exception {
+        String a = portLibre();
+        // Pair déclaré sur 127.0.0.1 (jamais démarré) : la connexion de test passe le contrôle d'adresse
+        ReplicatedSessionStore storeA = noeud(a, List.of(a, portLibre()), SECRET);
+        String[] hote = a.split(":");
+
+        try (Socket socket = new Socket(hote[0], Integer.parseInt(hote[1]))) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeInt(0x53524532);
+            out.write(new byte[16]);
+            out.flush();
+            new DataInputStream(socket.getInputStream()).readFully(new byte[16]);
+            // Lot UPSERT bien formé mais signé par un inconnu (HMAC nul)
+            out.writeInt(1 + 4 + 1);
+            out.writeByte(1);
+            out.writeInt(1);
+            out.writeByte(2);
+            out.write(new byte[32]);
+            out.flush();
+            assertEquals(-1, socket.getInputStream().read(), "connexion coupée après la trame refusée");
+        }
+
+        Map<String, Object> statistics = storeA.getStatistics();
+        assertEquals(1L, statistics.get("replicationRejectedFrames"));
+        assertEquals(0L, statistics.get("replicationRecordsApplied"));
+    }
+
+    @Test
+    void adresseNonConfigureeRefusee() throws Exception {
+        String a = portLibre();
+        // Seul pair déclaré : 127.0.0.2 ; la connexion de test part de 127.0.0.1
+        ReplicatedSessionStore storeA = noeud(a, List.of(a, "127.0.0.2:" + portLibre().split(":")[1]), SECRET);
+        String[] hote = a.split(":");
+
+        try (Socket socket = new Socket(hote[0], Integer.parseInt(hote[1]))) {
+            assertEquals(-1, socket.getInputStream().read(), "connexion fermée sans poignée de main");
+        }
+        assertEquals(1L, storeA.getStatistics().get("replicationRejectedConnections"));
+    }
+
+    @Test
+    void demarrageSansSecretRefuse() throws Exception {
+        String a = portLibre();
+        assertThrows(IllegalArgumentException.class, () -> noeud(a, List.of(a), null));
+        assertThrows(IllegalArgumentException.class, () -> noeud(a, List.of(a), "court".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,200 @@
+package com.sprint.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sprint.model.UserSession;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Mises à jour perdues sur le contenu de session et UserSession : plusieurs threads (onglets ou XHR
+ * parallèles d'un même utilisateur) écrivent en même temps, départ synchronisé par un loquet
+ */
+class SessionDataConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 20_000;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface TacheConcurrente {
+        void executer(int thread) throws Exception;
+    }
+
+    /**
+     * Exécute la tâche sur THREADS threads partis ensemble ; propage la première erreur
+     */
+    private void enParallele(TacheConcurrente tache) throws Exception {
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                depart.await();
+                tache.executer(thread);
+                return null;
+            }));
+        }
+        depart.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void mergeSansMiseAJourPerdue() throws Exception {
+        SessionData data = new SessionData();
+
+        enParallele(thread -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                data.merge("compteur", 1, (a, b) -> (Integer) a + (Integer) b);
+            }
+        });
+
+        assertEquals(THREADS * ITERATIONS, data.get("compteur"));
+    }
+
+    @Test
+    void computeIfAbsentCreeUneSeuleSousSession() throws Exception {
+        SessionData data = new SessionData();
+        Set<Object> instances = ConcurrentHashMap.newKeySet();
+
+        enParallele(thread -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                instances.add(data.computeIfAbsent("panier", k -> new SessionData()));
+            }
+        });
+
+        assertEquals(1, instances.size());
+        assertSame(instances.iterator().next(), data.get("panier"));
+    }
+
+    @Test
+    void ecrituresDistinctesToutesConservees() throws Exception {
+        SessionData data = new SessionData();
+
+        enParallele(thread -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                data.put(thread + ":" + i, i % 7 == 0 ? null : i); // null accepté, comme avec HashMap
+            }
+        });
+
+        assertEquals(THREADS * ITERATIONS, data.size());
+        assertTrue(data.containsKey("0:0"));
+        assertNull(data.get("0:0"));
+        assertEquals(1, data.get("3:1"));
+    }
+
+    @Test
+    void sessionEnAttenteMaterialiseeUneSeuleFois() throws Exception {
+        for (int essai = 0; essai < 200; essai++) {
+            AtomicInteger materialisations = new AtomicInteger();
+            SessionMap session = new SessionMap(pending -> {
+                materialisations.incrementAndGet();
+                pending.assignId("session-" + materialisations.get());
+            });
+
+            enParallele(thread -> session.merge("visites", 1, (a, b) -> (Integer) a + (Integer) b));
+
+            assertEquals(1, materialisations.get());
+            assertEquals(THREADS, session.get("visites"));
+        }
+    }
+
+    @Test
+    void attributsUtilisateurSansPerte() throws Exception {
+        for (int essai = 0; essai < 200; essai++) {
+            UserSession user = new UserSession("u1", "rakoto", "rakoto@example.mg");
+
+            // Premier setAttribute concurrent : la Map d'attributs n'est créée qu'une fois
+            enParallele(thread -> user.setAttribute("attr" + thread, thread));
+
+            for (int t = 0; t < THREADS; t++) {
+                assertEquals(t, user.getAttribute("attr" + t));
+            }
+        }
+    }
+
+    @Test
+    void rolesAjoutesEnParalleleTousConserves() throws Exception {
+        UserSession user = new UserSession("u1", "rakoto", "rakoto@example.mg");
+
+        enParallele(thread -> {
+            for (int i = 0; i < 200; i++) {
+                user.addRole("ROLE_" + thread + "_" + i);
+            }
+        });
+
+        assertEquals(THREADS * 200, user.getRoles().size());
+        assertTrue(user.hasRole("ROLE_7_199"));
+    }
+
+    @Test
+    void authentificationPublieeDUnBloc() throws Exception {
+        UserSession user = new UserSession("u1", "rakoto", "rakoto@example.mg");
+        List<String> roles = List.of("USER", "ADMIN");
+        AtomicBoolean incoherent = new AtomicBoolean();
+
+        enParallele(thread -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                if (thread == 0) {
+                    user.authenticate(roles);
+                    user.logout();
+                } else if (user.isAuthenticated()) {
+                    // Rôles remplacés d'un bloc : jamais de liste partielle
+                    List<String> vus = user.getRoles();
+                    if (!vus.isEmpty() && vus.size() != roles.size()) {
+                        incoherent.set(true);
+                    }
+                }
+            }
+        });
+
+        assertFalse(incoherent.get());
+    }
+
+    @Test
+    void sessionPartageeEntreRequetesParalleles() throws Exception {
+        SessionMap session = new SessionMap("partagee");
+        UserSession user = new UserSession("u1", "rakoto", "rakoto@example.mg");
+        user.saveToSessionMap(session);
+
+        enParallele(thread -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                UserSession lue = UserSession.fromSessionMap(session);
+                lue.setAttribute("t" + thread, i);
+                @SuppressWarnings("unchecked")
+                Map<String, Object> panier = (Map<String, Object>) session.computeIfAbsent("panier",
+                        k -> new SessionData());
+                panier.merge("articles", 1, (a, b) -> (Integer) a + (Integer) b);
+            }
+        });
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> panier = (Map<String, Object>) session.get("panier");
+        assertEquals(THREADS * ITERATIONS, panier.get("articles"));
+        assertEquals(ITERATIONS - 1, user.getAttribute("t0"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.sprint.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Sérialisation Java d'une SessionMap : seul le contenu est écrit (relu comme un SessionData),
+ * y compris pour une session en attente ou déplacée hors du heap
+ */
+class SessionMapSerializationTest {
+
+    private static Object allerRetour(Object value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return in.readObject();
+        }
+    }
+
+    @Test
+    void sessionEnregistreeReluCommeSessionData() throws Exception {
+        SessionMap session = new SessionMap("abc");
+        session.put("userId", "u42");
+        session.put("vide", null);
+
+        Object relu = allerRetour(session);
+
+        assertEquals(SessionData.class, relu.getClass());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> contents = (Map<String, Object>) relu;
+        assertEquals("u42", contents.get("userId"));
+        assertTrue(contents.containsKey("vide"));
+        assertNull(contents.get("vide"));
+    }
+
+    @Test
+    void sessionEnAttenteNonMaterialisee() throws Exception {
+        boolean[] materialisee = new boolean[1];
+        SessionMap session = new SessionMap(pending -> materialisee[0] = true);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> relu = (Map<String, Object>) allerRetour(session);
+
+        assertTrue(relu.isEmpty());
+        assertFalse(materialisee[0], "sérialiser n'est pas une écriture");
+    }
+
+    @Test
+    void sessionHorsHeapRechargeePourLaSerialisation() throws Exception {
+        OffHeapSessionStore store = new OffHeapSessionStore(1024 * 1024, 1000, new BinarySessionSerializer(),
+                contents -> 30 * 60 * 1000L);
+        try {
+            SessionMap session = new SessionMap("froide");
+            session.put("panier", "3 articles");
+            session.touch(0);
+            store.put(session);
+            store.maintenance(60_000);
+            assertTrue(session.isCold());
+
+            @SuppressWarnings("unchecked")
+            Map<String, Object> relu = (Map<String, Object>) allerRetour(session);
+
+            assertEquals("3 articles", relu.get("panier"));
+        } finally {
+            store.close();
+        }
+    }
+}
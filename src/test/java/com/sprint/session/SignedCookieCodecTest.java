@@ -0,0 +1,143 @@
+package com.sprint.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sprint.mock.MockHttpServletRequest;
+import com.sprint.mock.MockServletContext;
+import com.sprint.util.SessionManager;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Sessions portées par cookie signé : cookie falsifié ou signé par un autre secret refusé,
+ * cookie expiré ignoré par SessionManager
+ */
+class SignedCookieCodecTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    private static SignedCookieCodec codec(byte[] secret, boolean encrypt) {
+        return new SignedCookieCodec(secret, encrypt, new BinarySessionSerializer(), 3800, 0);
+    }
+
+    private static Map<String, Object> contenu() {
+        Map<String, Object> contents = new HashMap<>();
+        contents.put("userId", "u42");
+        contents.put("visites", 3);
+        return contents;
+    }
+
+    /**
+     * Remplace un caractère du corps (entre "v1." et la signature)
+     */
+    private static String alterer(String value, int index) {
+        char[] chars = value.toCharArray();
+        chars[index] = chars[index] == 'A' ? 'B' : 'A';
+        return new String(chars);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SessionManager.enableSignedCookies(null);
+    }
+
+    @Test
+    void allerRetour() {
+        for (boolean encrypt : new boolean[] {true, false}) {
+            SignedCookieCodec codec = codec(SECRET, encrypt);
+            String value = codec.encode(contenu(), 1_700_000_000_000L, 1_700_000_060_000L);
+
+            SignedCookieCodec.Decoded decoded = codec.decode(value);
+            assertNotNull(decoded);
+            assertEquals("u42", decoded.getContents().get("userId"));
+            assertEquals(3, decoded.getContents().get("visites"));
+            assertEquals(1_700_000_000_000L, decoded.getCreationTime());
+            assertEquals(1_700_000_060_000L, decoded.getLastAccess());
+        }
+    }
+
+    @Test
+    void corpsOuSignatureAlteresRefuses() {
+        for (boolean encrypt : new boolean[] {true, false}) {
+            SignedCookieCodec codec = codec(SECRET, encrypt);
+            String value = codec.encode(contenu(), 1_700_000_000_000L, 1_700_000_060_000L);
+            int signature = value.lastIndexOf('.') + 1;
+
+            assertNull(codec.decode(alterer(value, 5)), "corps altéré");
+            assertNull(codec.decode(alterer(value, signature + 3)), "signature altérée");
+            assertNull(codec.decode(value.substring(0, signature)), "signature absente");
+            assertNull(codec.decode("v2." + value.substring(3)), "préfixe inconnu");
+            assertNotNull(codec.decode(value), "l'original reste valide");
+        }
+    }
+
+    @Test
+    void corpsReforgeAvecAncienneSignatureRefuse() {
+        SignedCookieCodec codec = codec(SECRET, false);
+        String value = codec.encode(contenu(), 1_700_000_000_000L, 1_700_000_060_000L);
+        int separator = value.lastIndexOf('.');
+
+        // Signé seulement : le corps est lisible, mais le modifier invalide la signature
+        byte[] body = Base64.getUrlDecoder().decode(value.substring(3, separator));
+        body[4] = (byte) 0x7F; // Dernier accès repoussé dans le futur
+        String forge = "v1." + Base64.getUrlEncoder().withoutPadding().encodeToString(body) + value.substring(separator);
+
+        assertNull(codec.decode(forge));
+    }
+
+    @Test
+    void autreSecretRefuse() {
+        String value = codec(SECRET, true).encode(contenu(), 1_700_000_000_000L, 1_700_000_060_000L);
+        byte[] autre = "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8);
+
+        assertNull(codec(autre, true).decode(value));
+        assertNotNull(codec(SECRET.clone(), true).decode(value), "même secret sur une autre instance");
+    }
+
+    @Test
+    void contenuChiffreIllisible() {
+        String value = codec(SECRET, true).encode(contenu(), 1_700_000_000_000L, 1_700_000_060_000L);
+        byte[] body = Base64.getUrlDecoder().decode(value.substring(3, value.lastIndexOf('.')));
+
+        assertFalse(new String(body, StandardCharsets.ISO_8859_1).contains("u42"));
+    }
+
+    @Test
+    void cookieTropGrosRefuseALEncodage() {
+        Map<String, Object> contents = new HashMap<>();
+        contents.put("blob", "x".repeat(5000));
+
+        assertNull(codec(SECRET, true).encode(contents, 0L, 0L));
+    }
+
+    @Test
+    void cookieExpireIgnoreParSessionManager() {
+        SignedCookieCodec codec = codec(SECRET, true);
+        SessionManager.enableSignedCookies(codec);
+        long now = SessionClock.currentTimeMillis();
+        MockServletContext context = new MockServletContext();
+
+        String actif = codec.encode(contenu(), now - 60_000, now - 60_000);
+        Map<String, Object> session = SessionManager.getSession(new MockHttpServletRequest(context)
+                .addCookie(SessionManager.getCookieName(), actif));
+        assertEquals("u42", session.get("userId"));
+
+        String expire = codec.encode(contenu(), now - 3 * 3600_000L, now - 2 * 3600_000L);
+        session = SessionManager.getSession(new MockHttpServletRequest(context)
+                .addCookie(SessionManager.getCookieName(), expire));
+        assertTrue(session.isEmpty(), "session expirée : nouvelle session vide");
+
+        String falsifie = alterer(actif, 5);
+        session = SessionManager.getSession(new MockHttpServletRequest(context)
+                .addCookie(SessionManager.getCookieName(), falsifie));
+        assertTrue(session.isEmpty(), "cookie falsifié : nouvelle session vide");
+    }
+}
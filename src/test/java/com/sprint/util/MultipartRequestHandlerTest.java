@@ -0,0 +1,69 @@
+package com.sprint.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.sprint.mock.MockHttpServletRequest;
+import com.sprint.mock.MockPart;
+import com.sprint.model.SavedFile;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MultipartRequestHandlerTest {
+
+    @TempDir
+    Path uploadDir;
+
+    @Test
+    void envoisIdentiquesSimultanesStockesUneSeuleFois() throws Exception {
+        byte[] content = "même contenu".getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/upload");
+        for (int i = 0; i < 16; i++) {
+            request.addPart(MockPart.file("file" + i, "doc" + i + ".txt", "text/plain", content));
+        }
+
+        List<SavedFile> saved = MultipartRequestHandler.saveAllFilesAsync(request, uploadDir.toString(), true).get();
+
+        assertEquals(16, saved.size());
+        assertEquals(1, saved.stream().filter(file -> !file.isDeduplicated()).count(),
+                "une seule écriture doit publier le contenu");
+        assertEquals(1, saved.stream().map(SavedFile::getPath).distinct().count());
+        try (Stream<Path> files = Files.walk(uploadDir)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count(), "fichiers temporaires supprimés");
+        }
+        assertEquals("même contenu", Files.readString(Path.of(saved.get(0).getPath())));
+    }
+
+    @Test
+    void partsLuesAvantLeRetour() throws Exception {
+        Set<Thread> lecteurs = ConcurrentHashMap.newKeySet();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/upload");
+        for (int i = 0; i < 4; i++) {
+            request.addPart(new MockPart("file" + i, "doc" + i + ".txt", "text/plain",
+                    ("contenu " + i).getBytes(StandardCharsets.UTF_8)) {
+                @Override
+                public InputStream getInputStream() {
+                    lecteurs.add(Thread.currentThread());
+                    return super.getInputStream();
+                }
+            });
+        }
+
+        CompletableFuture<List<SavedFile>> future = MultipartRequestHandler.saveAllFilesAsync(request, uploadDir.toString());
+
+        // Le conteneur peut recycler la requête dès ici : plus aucune lecture des parts ensuite
+        assertEquals(Set.of(Thread.currentThread()), lecteurs);
+        List<SavedFile> saved = future.get();
+        assertEquals(4, saved.size());
+        assertEquals("contenu 2", Files.readString(Path.of(saved.get(2).getPath())));
+        assertEquals("doc2.txt", saved.get(2).getOriginalFilename());
+    }
+}
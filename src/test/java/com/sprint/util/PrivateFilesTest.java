@@ -0,0 +1,93 @@
+package com.sprint.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.sprint.security.AuditLog;
+import com.sprint.session.BinarySessionSerializer;
+import com.sprint.session.FileSessionStore;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Journaux de sessions et d'audit réservés au compte du processus (POSIX seulement)
+ */
+class PrivateFilesTest {
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void posix() {
+        assumeTrue(dir.getFileSystem().supportedFileAttributeViews().contains("posix"));
+    }
+
+    private static String droits(Path path) throws IOException {
+        return PosixFilePermissions.toString(Files.getPosixFilePermissions(path));
+    }
+
+    @Test
+    void journalDeSessionsReserveAuProprietaire() throws Exception {
+        Path repertoire = dir.resolve("sessions");
+        FileSessionStore store = new FileSessionStore(repertoire, 1000, new BinarySessionSerializer());
+        try {
+            assertEquals("rwx------", droits(repertoire));
+            assertEquals("rw-------", droits(repertoire.resolve("sessions.log")));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void journalDAuditReserveAuProprietaire() throws Exception {
+        Path repertoire = dir.resolve("audit");
+        AuditLog audit = new AuditLog(repertoire, 16, 4096, 2);
+        try {
+            assertEquals("rwx------", droits(repertoire));
+            assertEquals("rw-------", droits(repertoire.resolve("audit.log")));
+        } finally {
+            audit.close();
+        }
+    }
+
+    @Test
+    void droitsExistantsRestreints() throws Exception {
+        Path repertoire = Files.createDirectory(dir.resolve("ouvert"));
+        Path fichier = Files.createFile(repertoire.resolve("sessions.log"));
+        Files.setPosixFilePermissions(repertoire, PosixFilePermissions.fromString("rwxrwxrwx"));
+        Files.setPosixFilePermissions(fichier, PosixFilePermissions.fromString("rw-rw-rw-"));
+
+        PrivateFiles.createDirectory(repertoire);
+        PrivateFiles.createFile(fichier);
+
+        assertEquals("rwx------", droits(repertoire));
+        assertEquals("rw-------", droits(fichier));
+    }
+
+    @Test
+    void repertoireDUnAutreUtilisateurRefuse() throws Exception {
+        assumeTrue("root".equals(System.getProperty("user.name")), "changement de propriétaire réservé à root");
+        Path repertoire = Files.createDirectory(dir.resolve("autre"));
+        Files.setOwner(repertoire, dir.getFileSystem().getUserPrincipalLookupService().lookupPrincipalByName("nobody"));
+
+        assertThrows(IOException.class, () -> new FileSessionStore(repertoire, 1000, new BinarySessionSerializer()));
+        assertThrows(IOException.class, () -> new AuditLog(repertoire, 16, 4096, 2));
+    }
+
+    @Test
+    void lienSymboliqueEtFichierOrdinaireRefuses() throws Exception {
+        Path cible = Files.createDirectory(dir.resolve("cible"));
+        Path lien = Files.createSymbolicLink(dir.resolve("lien"), cible);
+        Path fichier = Files.createFile(dir.resolve("fichier"));
+
+        assertThrows(IOException.class, () -> PrivateFiles.createDirectory(lien));
+        assertThrows(IOException.class, () -> PrivateFiles.createDirectory(fichier));
+        assertThrows(IOException.class, () -> PrivateFiles.createFile(lien.resolveSibling("cible")));
+    }
+}
@@ -0,0 +1,91 @@
+package com.sprint.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sprint.mock.MockHttpServletRequest;
+import com.sprint.mock.MockHttpServletResponse;
+import com.sprint.mock.MockServletConfig;
+import com.sprint.mock.MockServletContext;
+import com.sprint.servlet.FrontServlet;
+import jakarta.servlet.http.Cookie;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Identité de session par cookie et création paresseuse, à travers FrontServlet
+ * (routes de com.sprint.controller.SessionTestController)
+ */
+class SessionCookieTest {
+
+    private MockServletContext context;
+    private FrontServlet servlet;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        context = new MockServletContext();
+        MockServletConfig config = new MockServletConfig(context);
+        config.setInitParameter("sprint.security.audit.enabled", "false");
+        config.setInitParameter("sprint.metrics.enabled", "false");
+        servlet = new FrontServlet();
+        servlet.init(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servlet.destroy();
+    }
+
+    private MockHttpServletResponse visit(Cookie cookie) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(context)
+                .setMethod("POST").setRequestURI("/session/visit");
+        if (cookie != null) {
+            request.addCookie(cookie);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.service(request, response);
+        return response;
+    }
+
+    @Test
+    void premiereEcritureCreeLaSessionEtPoseLeCookie() throws Exception {
+        int sessions = SessionManager.getSessionCount();
+
+        MockHttpServletResponse first = visit(null);
+        Cookie cookie = first.getCookie(SessionManager.getCookieName());
+
+        assertNotNull(cookie);
+        assertTrue(cookie.isHttpOnly());
+        assertEquals("Lax", cookie.getAttribute("SameSite"));
+        assertTrue(cookie.getValue().matches("[A-Za-z0-9_-]{43}"), cookie.getValue());
+        assertEquals(sessions + 1, SessionManager.getSessionCount());
+
+        MockHttpServletResponse second = visit(cookie);
+        assertTrue(second.getContentAsString().contains("\"data\":2"), second.getContentAsString());
+        assertNull(second.getCookie(SessionManager.getCookieName()), "session existante : cookie inchangé");
+        assertEquals(sessions + 1, SessionManager.getSessionCount());
+    }
+
+    @Test
+    void identifiantsUniquesEtInventesRefuses() throws Exception {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(visit(null).getCookie(SessionManager.getCookieName()).getValue());
+        }
+        assertEquals(1_000, ids.size());
+
+        // Un ID choisi par le client n'est jamais adopté : une nouvelle session est émise
+        String invente = "A".repeat(43);
+        MockHttpServletResponse response = visit(new Cookie(SessionManager.getCookieName(), invente));
+        Cookie emis = response.getCookie(SessionManager.getCookieName());
+        assertNotNull(emis);
+        assertNotEquals(invente, emis.getValue());
+        assertTrue(response.getContentAsString().contains("\"data\":1"), response.getContentAsString());
+    }
+}
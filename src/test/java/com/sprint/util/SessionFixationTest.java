@@ -0,0 +1,95 @@
+package com.sprint.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sprint.mock.MockHttpServletRequest;
+import com.sprint.mock.MockHttpServletResponse;
+import com.sprint.mock.MockServletConfig;
+import com.sprint.mock.MockServletContext;
+import com.sprint.servlet.FrontServlet;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Fixation de session : nouvel ID à la connexion et à la déconnexion, paramètre d'URL ignoré
+ * (routes de com.sprint.controller.SessionTestController)
+ */
+class SessionFixationTest {
+
+    private MockServletContext context;
+    private FrontServlet servlet;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        context = new MockServletContext();
+        MockServletConfig config = new MockServletConfig(context);
+        config.setInitParameter("sprint.security.audit.enabled", "false");
+        servlet = new FrontServlet();
+        servlet.init(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servlet.destroy();
+        SessionManager.enableSessionIdParameter(false);
+    }
+
+    private MockHttpServletResponse post(String uri, Cookie cookie) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(context).setMethod("POST").setRequestURI(uri);
+        if (cookie != null) {
+            request.addCookie(cookie);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.service(request, response);
+        return response;
+    }
+
+    private static Cookie cookie(MockHttpServletResponse response) {
+        return response.getCookie(SessionManager.getCookieName());
+    }
+
+    @Test
+    void connexionAttribueUnNouvelId() throws Exception {
+        Cookie anonyme = cookie(post("/session/visit", null));
+        assertNotNull(anonyme);
+
+        Cookie connecte = cookie(post("/session/login", anonyme));
+
+        assertNotNull(connecte, "cookie réémis à la connexion");
+        assertNotEquals(anonyme.getValue(), connecte.getValue());
+        // L'ID connu avant la connexion ne donne plus accès à la session
+        assertTrue(post("/session/visit", anonyme).getContentAsString().contains("\"data\":1"));
+        assertTrue(post("/session/visit", connecte).getContentAsString().contains("\"data\":2"));
+    }
+
+    @Test
+    void deconnexionAttribueUnNouvelId() throws Exception {
+        Cookie connecte = cookie(post("/session/login", null));
+        assertNotNull(connecte);
+
+        Cookie deconnecte = cookie(post("/session/logout", connecte));
+
+        assertNotNull(deconnecte);
+        assertNotEquals(connecte.getValue(), deconnecte.getValue());
+        assertNull(cookie(post("/session/visit", deconnecte)), "ID stable tant que l'authentification ne change pas");
+    }
+
+    @Test
+    void parametreSessionIdIgnoreParDefaut() throws Exception {
+        String id = cookie(post("/session/visit", null)).getValue();
+
+        MockHttpServletResponse response = post("/session/visit?sessionId=" + id, null);
+
+        assertTrue(response.getContentAsString().contains("\"data\":1"), response.getContentAsString());
+        assertNotEquals(id, cookie(response).getValue());
+
+        SessionManager.enableSessionIdParameter(true);
+        assertTrue(post("/session/visit?sessionId=" + id, null).getContentAsString().contains("\"data\":2"));
+    }
+}
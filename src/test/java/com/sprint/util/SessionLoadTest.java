@@ -0,0 +1,75 @@
+package com.sprint.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sprint.mock.MockHttpServletRequest;
+import com.sprint.mock.MockHttpServletResponse;
+import com.sprint.mock.MockServletConfig;
+import com.sprint.mock.MockServletContext;
+import com.sprint.servlet.FrontServlet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Création paresseuse sous charge : un million de requêtes anonymes ne créent ni session ni
+ * mémoire retenue (routes de com.sprint.controller.SessionTestController). Test lent, exclu
+ * de la suite par défaut : mvn test -Pload
+ */
+@Tag("load")
+class SessionLoadTest {
+
+    private static final int ANONYMOUS_REQUESTS = 1_000_000;
+    private static final long MAX_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    private MockServletContext context;
+    private FrontServlet servlet;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        context = new MockServletContext();
+        MockServletConfig config = new MockServletConfig(context);
+        config.setInitParameter("sprint.security.audit.enabled", "false");
+        config.setInitParameter("sprint.metrics.enabled", "false");
+        servlet = new FrontServlet();
+        servlet.init(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servlet.destroy();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    void requetesAnonymesSansSessionNiMemoire() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(context).setRequestURI("/session/read");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setDiscardContent(true);
+        for (int i = 0; i < 10_000; i++) { // Échauffement : caches et classes chargés avant la mesure
+            servlet.service(request.recycle(), response.recycle());
+        }
+        int sessions = SessionManager.getSessionCount();
+        long before = usedHeap();
+
+        for (int i = 0; i < ANONYMOUS_REQUESTS; i++) {
+            servlet.service(request.recycle(), response.recycle());
+        }
+
+        long growth = usedHeap() - before;
+        assertEquals(200, response.getStatus());
+        assertNull(response.getCookie(SessionManager.getCookieName()), "lecture seule : pas de cookie");
+        assertEquals(sessions, SessionManager.getSessionCount(), "lecture seule : aucune session enregistrée");
+        assertTrue(growth < MAX_HEAP_GROWTH, "mémoire retenue après " + ANONYMOUS_REQUESTS + " requêtes : " + growth);
+    }
+}